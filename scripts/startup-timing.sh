@@ -0,0 +1,49 @@
+#!/bin/sh
+# Mide el tiempo hasta el primer frame de la ventana de bienvenida para:
+#   - el jar plano sobre el JDK del sistema (module path con target/lib)
+#   - la imagen jlink sin archivo CDS de la aplicación (target/app)
+#   - la imagen jlink con archivo CDS de la aplicación (target/app-cds)
+# Requiere haber ejecutado antes: mvn -Pcds package
+# Uso: scripts/startup-timing.sh [iteraciones]   (por defecto 10)
+# Sin display se puede anteponer un lanzador: LAUNCHER=xvfb-run scripts/startup-timing.sh
+
+RUNS=${1:-10}
+DIR=$(cd "$(dirname "$0")/.." && pwd)
+TARGET="$DIR/target"
+MODULE=univalle.tedesoft.sudoku/univalle.tedesoft.sudoku.Main
+JAR=$(ls "$TARGET"/sudoku-*.jar 2>/dev/null | head -n 1)
+
+if [ -z "$JAR" ] || [ ! -x "$TARGET/app/bin/java" ] || [ ! -x "$TARGET/app-cds/bin/java" ]; then
+    echo "Faltan artefactos en $TARGET. Ejecute primero: mvn -Pcds package" >&2
+    exit 1
+fi
+
+# Ejecuta una variante RUNS veces e imprime la mediana, el mínimo y el máximo en ms.
+measure() {
+    name=$1
+    shift
+    samples=""
+    i=0
+    while [ "$i" -lt "$RUNS" ]; do
+        ms=$($LAUNCHER "$@" -Dsudoku.startup.probe=true -m "$MODULE" 2>/dev/null \
+            | sed -n 's/^first-frame-ms=//p')
+        if [ -z "$ms" ]; then
+            echo "$name: la corrida $i no reportó el primer frame" >&2
+        else
+            samples="$samples $ms"
+        fi
+        i=$((i + 1))
+    done
+    echo "$samples" | tr ' ' '\n' | sed '/^$/d' | sort -n | awk -v name="$name" '
+        { v[NR] = $1 }
+        END {
+            if (NR == 0) { printf "%-10s sin muestras\n", name; exit }
+            med = (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2
+            printf "%-10s mediana=%6.0f ms  min=%5d ms  max=%5d ms  (n=%d)\n", name, med, v[1], v[NR], NR
+        }'
+}
+
+echo "Tiempo hasta el primer frame ($RUNS corridas por variante)"
+measure "jar" java --module-path "$JAR:$TARGET/lib"
+measure "jlink" "$TARGET/app/bin/java"
+measure "jlink+cds" "$TARGET/app-cds/bin/java"
@@ -2,6 +2,7 @@ module univalle.tedesoft.sudoku {
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.graphics;
+    requires jdk.httpserver;
 
 
     opens univalle.tedesoft.sudoku to javafx.fxml;
@@ -0,0 +1,47 @@
+package univalle.tedesoft.sudoku;
+
+/**
+ * Mensajes informativos del modelo y del controlador (tablero generado, pista aplicada, partida
+ * restaurada...). Por defecto salen por la consola; los frentes que usan la salida estándar para
+ * otra cosa, como la vista de terminal o los jugadores automáticos, los apagan con setEnabled.
+ * Los errores no pasan por aquí: siguen saliendo por System.err.
+ * Se controla también con la propiedad del sistema {@code sudoku.log=false}.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public final class GameLog {
+    /**
+     * Propiedad que apaga los mensajes informativos desde el arranque.
+     */
+    public static final String LOG_PROPERTY = "sudoku.log";
+
+    private static volatile boolean enabled = !"false".equals(System.getProperty(LOG_PROPERTY));
+
+    private GameLog() {
+    }
+
+    /**
+     * Activa o desactiva los mensajes informativos en toda la aplicación.
+     * @param value false para descartarlos.
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * @return true si los mensajes informativos se imprimen; sirve para no construir mensajes caros.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Imprime un mensaje informativo en la salida estándar si están activos.
+     * @param message El mensaje.
+     */
+    public static void info(String message) {
+        if (enabled) {
+            System.out.println(message);
+        }
+    }
+}
@@ -13,6 +13,9 @@ public class Main extends Application {
     public void start(Stage stage) throws IOException {
         WelcomeView welcomeView = new WelcomeView();
         welcomeView.show();
+        if (StartupProbe.isEnabled()) {
+            StartupProbe.install(welcomeView);
+        }
     }
     public static void main(String[] args) {
         launch();
@@ -0,0 +1,102 @@
+package univalle.tedesoft.sudoku;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import univalle.tedesoft.sudoku.views.GameView;
+
+/**
+ * Sonda de arranque usada para medir el tiempo hasta el primer frame y para
+ * la corrida de entrenamiento que genera el archivo de Class Data Sharing (CDS).
+ * Se controla con propiedades del sistema para no alterar el arranque normal:
+ * <ul>
+ *     <li>{@code sudoku.startup.probe=true}: imprime {@code first-frame-ms=N} al primer pulso
+ *     de la ventana de bienvenida y cierra la aplicación.</li>
+ *     <li>{@code sudoku.training=true}: abre la bienvenida y luego la vista del juego,
+ *     y cierra la aplicación después del primer pulso de esta última, de modo que
+ *     todas las clases de JavaFX y FXML del camino de arranque queden cargadas.</li>
+ * </ul>
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public final class StartupProbe {
+    /**
+     * Propiedad que activa la medición del tiempo hasta el primer frame.
+     */
+    public static final String PROBE_PROPERTY = "sudoku.startup.probe";
+    /**
+     * Propiedad que activa la corrida de entrenamiento para CDS.
+     */
+    public static final String TRAINING_PROPERTY = "sudoku.training";
+
+    private StartupProbe() {
+    }
+
+    /**
+     * Indica si alguna de las dos modalidades de la sonda está activa.
+     * @return true si se debe instrumentar el arranque.
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(PROBE_PROPERTY) || Boolean.getBoolean(TRAINING_PROPERTY);
+    }
+
+    /**
+     * Instala la sonda sobre la ventana de bienvenida ya mostrada.
+     * @param welcomeStage La ventana de bienvenida.
+     */
+    public static void install(Stage welcomeStage) {
+        runOnFirstPulse(welcomeStage.getScene(), () -> {
+            if (Boolean.getBoolean(PROBE_PROPERTY)) {
+                System.out.println("first-frame-ms=" + millisSinceJvmStart());
+            }
+            if (Boolean.getBoolean(TRAINING_PROPERTY)) {
+                openGameViewAndExit();
+            } else {
+                Platform.exit();
+            }
+        });
+    }
+
+    /**
+     * Abre la vista del juego (carga de FXML, controlador y tablero) y termina
+     * la aplicación cuando esa vista ha producido su primer pulso.
+     */
+    private static void openGameViewAndExit() {
+        try {
+            GameView gameView = GameView.getInstance();
+            gameView.show();
+            runOnFirstPulse(gameView.getScene(), Platform::exit);
+        } catch (Exception e) {
+            System.err.println("Error en la corrida de entrenamiento: " + e.getMessage());
+            Platform.exit();
+        }
+    }
+
+    /**
+     * Ejecuta una acción una sola vez, después del primer pulso de layout de la escena.
+     * @param scene La escena a observar.
+     * @param action La acción a ejecutar.
+     */
+    private static void runOnFirstPulse(Scene scene, Runnable action) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            // Se difiere para que el frame de este pulso alcance a dibujarse
+            Platform.runLater(action);
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    /**
+     * Calcula los milisegundos transcurridos desde el inicio del proceso de la JVM.
+     * @return milisegundos desde el inicio, o -1 si el sistema no expone el instante de inicio.
+     */
+    private static long millisSinceJvmStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toMillis())
+                .orElse(-1L);
+    }
+}
@@ -0,0 +1,24 @@
+package univalle.tedesoft.sudoku;
+
+import univalle.tedesoft.sudoku.controllers.GameController;
+import univalle.tedesoft.sudoku.views.TerminalGameView;
+
+/**
+ * Punto de entrada del juego en modo terminal (sin JavaFX).
+ * Conecta el GameController con una vista ANSI que lee las jugadas de la entrada estándar.
+ * Los mensajes informativos del modelo se apagan: la vista redibuja la pantalla completa y
+ * cualquier otra línea en la salida estándar la desordenaría.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class TerminalMain {
+    public static void main(String[] args) {
+        GameLog.setEnabled(false);
+        TerminalGameView view = new TerminalGameView(System.in, System.out);
+        GameController controller = new GameController(view::runOnLoop);
+        view.setController(controller);
+        controller.initialize();
+        controller.setView(view);
+        view.run();
+    }
+}
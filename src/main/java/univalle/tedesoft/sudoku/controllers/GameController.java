@@ -1,44 +1,136 @@
 package univalle.tedesoft.sudoku.controllers;
 
 import javafx.scene.control.Label;
+import univalle.tedesoft.sudoku.GameLog;
 import univalle.tedesoft.sudoku.models.Board;
 import univalle.tedesoft.sudoku.models.Cell;
+import univalle.tedesoft.sudoku.models.AutosaveJournal;
+import univalle.tedesoft.sudoku.models.GameSaveStore;
 import univalle.tedesoft.sudoku.models.GameState;
-import univalle.tedesoft.sudoku.views.GameView;
+import univalle.tedesoft.sudoku.models.MoveRecorder;
+import univalle.tedesoft.sudoku.models.MoveSource;
+import univalle.tedesoft.sudoku.models.SavedGame;
+import univalle.tedesoft.sudoku.metrics.InputLatencyProbe;
+import univalle.tedesoft.sudoku.views.IGameView;
 
-import java.util.Optional;
+import java.io.IOException;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
-import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
-import javafx.scene.control.ButtonType;
 import javafx.scene.layout.GridPane;
 import javafx.util.Pair;
 
 /**
  * Controlador para el juego Sudoku.
- * Conecta la Vista (GameView) con el Modelo (Board, GameState).
+ * Conecta la Vista (IGameView) con el Modelo (Board, GameState).
  * Maneja la lógica del juego y las acciones del usuario delegadas por la vista.
+ * No depende de una vista JavaFX concreta: con una vista de terminal y un ejecutor
+ * de interfaz propio, el ciclo del juego corre sin iniciar el toolkit de JavaFX.
  * @author David Esteban Valencia
  * @author Santiago David Guerrero
  */
 public class GameController {
+    /**
+     * Clave de la tarea de fondo que genera un nuevo puzzle.
+     */
+    private static final String TASK_NEW_GAME = "nuevo-juego";
+    /**
+     * Clave de la tarea de fondo que busca una pista.
+     */
+    private static final String TASK_CLUE = "pista";
+    /**
+     * Clave de la tarea de fondo que valida el tablero completo.
+     */
+    private static final String TASK_VALIDATION = "validacion";
+    /**
+     * Clave de la tarea de fondo que comprueba si el tablero todavía tiene solución.
+     */
+    private static final String TASK_SOLVABILITY = "resolubilidad";
+    /**
+     * Cada cuántas jugadas se escribe un punto de control completo, acotando el tamaño del diario.
+     */
+    private static final int CHECKPOINT_INTERVAL = 64;
 
     private Board board;
     private GameState gameState;
-    private GameView view;
+    private IGameView view;
+    /**
+     * Ejecuta el trabajo del modelo fuera del hilo de interfaz y publica los resultados en él.
+     */
+    private final GameTaskRunner taskRunner;
+    /**
+     * Guardado automático de la partida; null desactiva el guardado.
+     */
+    private AutosaveJournal autosave = new AutosaveJournal(GameSaveStore.defaultDirectory(),
+            AutosaveJournal.DEFAULT_SYNC_INTERVAL_MILLIS);
+    /**
+     * Grabador de jugadas para reproducir y analizar partidas; null si no se graba
+     * (se activa con la propiedad del sistema sudoku.record).
+     */
+    private MoveRecorder recorder = MoveRecorder.fromSystemProperty();
+    /**
+     * Partida reutilizada en cada punto de control.
+     */
+    private final SavedGame savedGame = new SavedGame();
+    /**
+     * Número de jugadas aplicadas desde el inicio del puzzle (posición en el diario).
+     */
+    private int movePosition = 0;
+    /**
+     * Versión del tablero en juego: cambia con cada jugada y con cada tablero nuevo. Un resultado
+     * de fondo calculado sobre otra versión ya no describe el tablero y se descarta.
+     */
+    private long boardVersion = 0;
+    /**
+     * Tiempo de juego acumulado antes de la sesión actual, en milisegundos.
+     */
+    private long elapsedBeforeMillis = 0;
+    /**
+     * Instante (System.nanoTime) en que empezó a contar la sesión actual.
+     */
+    private long sessionStartNanos = System.nanoTime();
 
     @FXML private Button cleanButton;
     @FXML private Button clueButton;
     @FXML private Button instructionsButton;
     @FXML private Button restartButton;
     @FXML private GridPane sudokuGridPane;
+    @FXML private Label statusLabel;
+    /**
+     * Pistas pedidas en la partida en curso; se guarda con ella para que restaurar no reinicie el límite.
+     */
     private int pistas = 0;
 
+    /**
+     * Constructor usado por FXMLLoader: publica los resultados en el hilo de JavaFX.
+     */
+    public GameController() {
+        this(Platform::runLater);
+    }
+
+    /**
+     * Constructor para vistas sin JavaFX (terminal, pruebas, simulaciones).
+     * @param uiExecutor Ejecutor que corre tareas en el hilo de interfaz de la vista.
+     */
+    public GameController(Executor uiExecutor) {
+        this(new GameTaskRunner(uiExecutor));
+    }
+
+    /**
+     * Constructor con una capa de ejecución dada.
+     * @param taskRunner Capa de ejecución para el trabajo del modelo.
+     */
+    public GameController(GameTaskRunner taskRunner) {
+        this.taskRunner = taskRunner;
+    }
+
     /**
      * Inicializa el modelo y configura los manejadores de eventos de los botones.
      * La vista se inicializa por separado y se conecta mediante setView.
+     * Sin FXML (vista de terminal) los botones no existen y solo se prepara el modelo.
      */
     @FXML
     public void initialize() {
@@ -46,41 +138,209 @@ public class GameController {
         this.gameState = new GameState(board);
 
         // Configurar acciones de los botones
-        this.restartButton.setOnAction(event -> startNewGame());
-        this.cleanButton.setOnAction(event -> clearUserEntries());
-        this.clueButton.setOnAction(event -> showClue());
-        this.instructionsButton.setOnAction(event -> showHelp());
+        if (this.restartButton != null) {
+            this.restartButton.setOnAction(event -> startNewGame());
+            this.cleanButton.setOnAction(event -> clearUserEntries());
+            this.clueButton.setOnAction(event -> showClue());
+            this.instructionsButton.setOnAction(event -> showHelp());
+        }
+        this.taskRunner.setBusyListener(this::setBusy);
 
         if (this.view != null) {
-            initializeGameAndRender();
+            restoreOrStartGame();
         }
     }
 
     /**
      * Establece la referencia a la vista asociada a este controlador.
-     * @param newView La instancia de GameView
+     * @param newView La vista (JavaFX o terminal)
      */
-    public void setView(GameView newView) {
+    public void setView(IGameView newView) {
         this.view = newView;
         if (this.board != null && this.gameState != null) {
-            initializeGameAndRender();
+            restoreOrStartGame();
+        }
+    }
+
+    /**
+     * Reemplaza el guardado automático de la partida. Debe llamarse antes de setView.
+     * @param autosave El guardado a usar, o null para no guardar ni restaurar partidas.
+     */
+    public void setAutosave(AutosaveJournal autosave) {
+        this.autosave = autosave;
+    }
+
+    /**
+     * Reemplaza el grabador de jugadas. Debe llamarse antes de setView.
+     * @param recorder El grabador a usar, o null para no grabar.
+     */
+    public void setMoveRecorder(MoveRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Restaura la partida guardada si existe; si no, genera un puzzle nuevo.
+     */
+    private void restoreOrStartGame() {
+        if (!this.restoreSavedGame()) {
+            this.initializeGameAndRender();
+        }
+    }
+
+    /**
+     * Intenta restaurar la partida guardada: tablero, solución, identificador, posición, tiempo y pistas usadas.
+     * El guardado reconstruye el último estado desde el punto de control y el diario de jugadas.
+     * @return true si se restauró una partida.
+     */
+    private boolean restoreSavedGame() {
+        if (this.autosave == null) return false;
+        try {
+            if (!this.autosave.recover(this.savedGame)) {
+                return false;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("No se pudo restaurar la partida guardada: " + e.getMessage());
+            return false;
+        }
+        GameLog.info("Partida restaurada (" + this.savedGame.getMovePosition() + " jugadas).");
+        Board restored = this.savedGame.hasPuzzleId()
+                ? Board.fromPacked(this.savedGame.getBoard(), this.savedGame.getPuzzleId())
+                : Board.fromPacked(this.savedGame.getBoard());
+        this.applyBoard(restored,
+                this.savedGame.getMovePosition(), this.savedGame.getElapsedMillis(), this.savedGame.getHintsUsed());
+        return true;
+    }
+
+    /**
+     * Encola un punto de control con la partida completa. La escritura ocurre en el hilo
+     * del guardado automático, así que no bloquea la interfaz.
+     */
+    private void saveGame() {
+        if (this.autosave == null) return;
+        this.board.writeTo(this.savedGame.getBoard());
+        this.savedGame.setMovePosition(this.movePosition);
+        this.savedGame.setElapsedMillis(this.getElapsedMillis());
+        this.savedGame.setHintsUsed(this.pistas);
+        if (this.board.hasPuzzleId()) {
+            this.savedGame.setPuzzleId(this.board.getPuzzleId());
+        } else {
+            this.savedGame.clearPuzzleId();
         }
+        this.autosave.checkpoint(this.savedGame);
+    }
+
+    /**
+     * Registra una jugada aplicada al modelo (del usuario, pista o limpieza) en el diario.
+     * @param row Fila de la celda modificada.
+     * @param col Columna de la celda modificada.
+     */
+    private void onMoveApplied(int row, int col) {
+        this.movePosition++;
+        this.boardVersion++;
+        if (this.autosave == null) return;
+        if (this.movePosition % CHECKPOINT_INTERVAL == 0) {
+            this.saveGame();
+        } else {
+            this.autosave.append(this.movePosition, row, col, this.board.getCell(row, col).getValue(),
+                    this.getElapsedMillis());
+        }
+    }
+
+    /**
+     * Cambia una celda del modelo registrando el origen del cambio en el grabador.
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @param value Valor nuevo.
+     * @param source Origen del cambio.
+     */
+    private void setCellValue(int row, int col, int value, MoveSource source) {
+        if (this.recorder != null) {
+            this.recorder.setSource(source);
+        }
+        try {
+            this.board.setCellValue(row, col, value);
+        } finally {
+            if (this.recorder != null) {
+                this.recorder.setSource(MoveSource.USER);
+            }
+        }
+    }
+
+    /**
+     * Calcula el tiempo de juego total de la partida en curso.
+     * @return milisegundos jugados, incluyendo sesiones anteriores restauradas.
+     */
+    public long getElapsedMillis() {
+        return this.elapsedBeforeMillis + (System.nanoTime() - this.sessionStartNanos) / 1_000_000;
     }
 
     /**
-     * Inicializa el tablero con un puzzle y le pide a la vista que lo renderice.
+     * Genera un puzzle nuevo en segundo plano y, al terminar, le pide a la vista que lo renderice.
+     * Si ya había una generación en curso (p. ej. "Reiniciar" pulsado dos veces), se cancela.
      */
     private void initializeGameAndRender() {
-        this.board.initializeBoard(); // Prepara el modelo
+        this.taskRunner.submit(TASK_NEW_GAME, true, () -> {
+            Board newBoard = new Board();
+            newBoard.initializeBoard(); // Prepara el modelo fuera del hilo de JavaFX
+            return newBoard;
+        }, this::applyNewBoard);
+    }
+
+    /**
+     * Reemplaza el tablero en juego por uno recién generado y lo renderiza.
+     * Se ejecuta en el hilo de JavaFX.
+     * @param newBoard El tablero generado en segundo plano.
+     */
+    private void applyNewBoard(Board newBoard) {
+        this.applyBoard(newBoard, 0, 0, 0);
+        this.saveGame();
+    }
+
+    /**
+     * Pone en juego un tablero (nuevo o restaurado) y lo renderiza.
+     * @param newBoard El tablero a poner en juego.
+     * @param movePosition Jugadas ya aplicadas sobre ese tablero.
+     * @param elapsedMillis Tiempo ya jugado sobre ese tablero.
+     * @param hintsUsed Pistas ya pedidas sobre ese tablero (el límite es por partida).
+     */
+    private void applyBoard(Board newBoard, int movePosition, long elapsedMillis, int hintsUsed) {
+        // Los resultados pendientes del tablero anterior ya no aplican
+        this.taskRunner.cancel(TASK_CLUE);
+        this.taskRunner.cancel(TASK_VALIDATION);
+        this.taskRunner.cancel(TASK_SOLVABILITY);
+        this.boardVersion++;
+        this.board = newBoard;
+        this.gameState = new GameState(newBoard);
+        this.movePosition = movePosition;
+        this.elapsedBeforeMillis = elapsedMillis;
+        this.pistas = hintsUsed;
+        this.sessionStartNanos = System.nanoTime();
+        if (this.recorder != null) {
+            this.recorder.startGame(newBoard);
+        }
         if (this.view != null) {
             this.view.renderBoard(this.board.getGridSnapshot()); // Pide renderizar
-            this.view.highlightErrors(this.gameState.getInvalidCells()); // Pide validar visualmente
+            this.validateAndHighlightBoard(); // Pide validar visualmente
             this.view.setGridDisabled(false); // Asegura que la grilla esté activa
         } else {
             System.err.println("Error: Intento de renderizar sin vista establecida.");
         }
     }
 
+    /**
+     * Refleja en la interfaz si hay trabajo de fondo largo en curso.
+     * @param busy true mientras haya una generación o búsqueda de pista pendiente.
+     */
+    private void setBusy(boolean busy) {
+        if (this.cleanButton != null) {
+            this.cleanButton.setDisable(busy);
+            this.clueButton.setDisable(busy);
+        }
+        if (this.view != null) {
+            this.view.setBusy(busy);
+        }
+    }
+
     /**
      * Proporciona la referencia al GridPane a la Vista (llamado desde GameView).
      * @return El GridPane del tablero inyectado por FXML.
@@ -90,15 +350,21 @@ public class GameController {
     }
 
     /**
-     * Inicia un puzzle completamente nuevo.
+     * Proporciona la referencia a la etiqueta de estado a la Vista (llamado desde GameView).
+     * @return La etiqueta de estado inyectada por FXML.
+     */
+    public Label getStatusLabel() {
+        return this.statusLabel;
+    }
+
+    /**
+     * Inicia un puzzle completamente nuevo, previa confirmación en la vista.
      */
-    private void startNewGame() {
+    public void startNewGame() {
         if (this.view == null) return; // No hacer nada si la vista no está lista
 
         // Solicitar confirmación a la vista
-        Optional<ButtonType> result = this.view.showRestartConfirmationDialog();
-
-        if (result.isPresent() && result.get() == ButtonType.OK) {
+        if (this.view.showRestartConfirmationDialog()) {
             this.initializeGameAndRender();
         }
     }
@@ -106,21 +372,20 @@ public class GameController {
     /**
      * Limpia las entradas del usuario en el tablero actual.
      */
-    private void clearUserEntries() {
+    public void clearUserEntries() {
         if (this.view == null) return;
 
         // Solicitar confirmación a la vista
-        Optional<ButtonType> result = this.view.showClearConfirmationDialog();
-
-        if (result.isPresent() && result.get() == ButtonType.OK) {
-            System.out.println("Limpiando entradas del usuario...");
+        if (this.view.showClearConfirmationDialog()) {
+            GameLog.info("Limpiando entradas del usuario...");
             boolean changed = false;
             for (int row = 0; row < Board.GRID_SIZE; row++) {
                 for (int col = 0; col < Board.GRID_SIZE; col++) {
                     // Actualizar el Modelo directamente
                     Cell cell = this.board.getCell(row, col);
                     if (cell.getEditable() && cell.getValue() != 0) {
-                        this.board.setCellValue(row, col, 0); // Actualiza el modelo
+                        this.setCellValue(row, col, 0, MoveSource.CLEAR); // Actualiza el modelo
+                        this.onMoveApplied(row, col);
                         changed = true;
                     }
                 }
@@ -132,14 +397,14 @@ public class GameController {
                 validateAndHighlightBoard();
             }
             this.view.setGridDisabled(false); // Asegurar que la grilla esté activa
-            System.out.println("Entradas del usuario limpiadas.");
+            GameLog.info("Entradas del usuario limpiadas.");
         }
     }
 
     /**
      * Muestra la ayuda del juego usando un diálogo en la vista.
      */
-    private void showHelp() {
+    public void showHelp() {
         if (this.view == null) {
             System.err.println("Error: Intento de mostrar ayuda sin vista establecida.");
             return;
@@ -148,12 +413,11 @@ public class GameController {
     }
 
     /**
-     * Busca y aplica una pista en el tablero.
+     * Busca una pista en segundo plano sobre una copia del tablero y la aplica al terminar.
      */
-    private void showClue() {
+    public void showClue() {
         if (this.view == null) return;
-        System.out.println("Pista - Buscando sugerencia...");
-        boolean clueFound = false;
+        GameLog.info("Pista - Buscando sugerencia...");
 
         int emptyCells = board.countEmptyEditableCells();
         //Si solo hay un espacio vacío deja de dr pistas.
@@ -165,31 +429,59 @@ public class GameController {
             this.view.showMaxCluesReachedDialog();
             return;
         }
+        Board boardCopy = new Board(this.board);
+        this.taskRunner.submit(TASK_CLUE, true, () -> findClue(boardCopy), this::applyClue);
+    }
+
+    /**
+     * Busca la primera celda editable vacía para la que haya sugerencia.
+     * Se ejecuta en segundo plano sobre una copia del tablero.
+     * @param boardCopy Copia del tablero en juego.
+     * @return Un arreglo {fila, columna, valor} o null si no hay pistas obvias.
+     */
+    private static int[] findClue(Board boardCopy) {
+        GameState copyState = new GameState(boardCopy);
         for (int row = 0; row < Board.GRID_SIZE; row++) {
             for (int col = 0; col < Board.GRID_SIZE; col++) {
-                Cell cell = board.getCell(row, col);
-                // Buscar primera celda editable vacía para la que haya sugerencia
+                Cell cell = boardCopy.getCell(row, col);
                 if (cell.getEditable() && cell.getValue() == 0) {
-                    int suggestion = gameState.getClue(row, col);
+                    int suggestion = copyState.getClue(row, col);
                     if (suggestion > 0) {
-                        System.out.println("Pista: Poner " + suggestion + " en (" + row + "," + col + ")");
-                        // Actualizar el Modelo
-                        this.board.setCellValue(row, col, suggestion);
-                        // Pedir a la Vista que renderice y valide
-                        this.view.renderBoard(this.board.getGridSnapshot());
-                        this.validateAndHighlightBoard();
-                        clueFound = true;
-                        pistas++;
-                        break; // Salir del bucle interno
+                        return new int[]{row, col, suggestion};
                     }
                 }
             }
-            if (clueFound) break;
         }
+        return null;
+    }
 
-        if (!clueFound) {
+    /**
+     * Aplica en el hilo de JavaFX la pista encontrada en segundo plano.
+     * @param clue Arreglo {fila, columna, valor}, o null si no se encontró pista.
+     */
+    private void applyClue(int[] clue) {
+        if (this.view == null) return;
+        if (clue == null) {
             this.view.showNoObviousCluesDialog();
+            return;
         }
+        int row = clue[0];
+        int col = clue[1];
+        int suggestion = clue[2];
+        Cell cell = this.board.getCell(row, col);
+        // El jugador pudo llenar la celda mientras se buscaba la pista
+        if (!cell.getEditable() || cell.getValue() != 0) {
+            return;
+        }
+        GameLog.info("Pista: Poner " + suggestion + " en (" + row + "," + col + ")");
+        // Actualizar el Modelo
+        this.setCellValue(row, col, suggestion, MoveSource.HINT);
+        this.pistas++;
+        this.onMoveApplied(row, col);
+        this.saveGame(); // El diario no lleva el contador de pistas: va en un punto de control
+        // Pedir a la Vista que renderice y valide
+        this.view.renderBoard(this.board.getGridSnapshot());
+        this.validateAndHighlightBoard();
     }
 
     /**
@@ -211,9 +503,10 @@ public class GameController {
                 boolean updated = board.setCellValue(row, col, value);
 
                 if (updated) {
-                    this.validateAndHighlightBoard();
-                    // comprobar si se ha ganado el juego
-                    this.checkWinCondition();
+                    InputLatencyProbe.getInstance().mark(InputLatencyProbe.Stage.MODEL);
+                    this.onMoveApplied(row, col);
+                    // validar y comprobar si se ha ganado el juego
+                    this.validateAndCheckWin();
                 }
             }
         } catch (NumberFormatException e) {
@@ -222,6 +515,7 @@ public class GameController {
             Cell cell = board.getCell(row, col);
             if(cell.getEditable() && cell.getValue() != 0) {
                 board.setCellValue(row, col, 0);
+                this.onMoveApplied(row, col);
                 validateAndHighlightBoard(); // Revalidar
             }
         } catch (IllegalArgumentException e) {
@@ -236,22 +530,67 @@ public class GameController {
      * el resaltado de las celdas erróneas.
      */
     private void validateAndHighlightBoard() {
-        if (this.view == null) return;
-        Set<Pair<Integer, Integer>> invalidCells = gameState.getInvalidCells();
-        this.view.highlightErrors(invalidCells); // Ordena a la vista resaltar
+        this.submitValidation(false);
+    }
+
+    /**
+     * Valida el tablero y además comprueba si el juego ha sido ganado.
+     */
+    private void validateAndCheckWin() {
+        this.submitValidation(true);
     }
 
     /**
-     * Comprueba si el juego ha sido ganado y, si es así, notifica al usuario
-     * a través de la vista y deshabilita la interacción con el tablero.
+     * Valida una copia del tablero en segundo plano. Una validación más reciente
+     * reemplaza a la que siga en curso, así que solo se publica la del último cambio.
+     * @param checkWin true si también se debe comprobar la condición de victoria.
      */
-    private void checkWinCondition() {
+    private void submitValidation(boolean checkWin) {
         if (this.view == null) return;
-        if (gameState.isGameWon()) {
-            System.out.println("¡Juego ganado!");
-            this.view.showWinDialog();
-            this.view.setGridDisabled(true); // Ordena a la vista deshabilitar la grilla
+        Board boardCopy = new Board(this.board);
+        this.taskRunner.submit(TASK_VALIDATION, false, () -> {
+            GameState copyState = new GameState(boardCopy);
+            Set<Pair<Integer, Integer>> invalidCells = copyState.getInvalidCells();
+            boolean won = checkWin && invalidCells.isEmpty() && copyState.isBoardFull();
+            return new Pair<>(invalidCells, won);
+        }, result -> {
+            InputLatencyProbe.getInstance().mark(InputLatencyProbe.Stage.VALIDATION);
+            this.view.highlightErrors(result.getKey()); // Ordena a la vista resaltar
+            if (result.getValue()) {
+                this.onGameWon();
+            }
+        });
+        this.submitSolvabilityCheck(boardCopy);
+    }
+
+    /**
+     * Comprueba en segundo plano si el tablero todavía se puede completar: una jugada sin conflictos
+     * directos puede dejar el puzzle sin solución. Una comprobación más reciente cancela la que siga
+     * en curso, y un resultado que llegue cuando el tablero ya cambió se descarta.
+     * @param boardCopy Copia del tablero tras la última jugada; solo se lee.
+     */
+    private void submitSolvabilityCheck(Board boardCopy) {
+        long version = this.boardVersion;
+        this.taskRunner.submit(TASK_SOLVABILITY, false, () -> {
+            Thread worker = Thread.currentThread();
+            return new GameState(boardCopy).getSolvability(worker::isInterrupted);
+        }, status -> {
+            if (version == this.boardVersion && this.view != null) {
+                this.view.showSolvability(status);
+            }
+        });
+    }
+
+    /**
+     * Notifica al usuario que ganó a través de la vista y deshabilita la interacción con el tablero.
+     */
+    private void onGameWon() {
+        GameLog.info("¡Juego ganado!");
+        if (this.autosave != null) {
+            this.autosave.discard(); // Una partida terminada no tiene progreso que conservar
         }
+        this.view.showWinDialog();
+        this.view.setGridDisabled(true); // Ordena a la vista deshabilitar la grilla
     }
 
     /**
@@ -0,0 +1,197 @@
+package univalle.tedesoft.sudoku.controllers;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Capa de ejecución del controlador: corre el trabajo del modelo en un ejecutor
+ * de fondo y publica los resultados en el hilo de la interfaz.
+ * Cada tarea se identifica con una clave; enviar una nueva tarea con la misma clave
+ * cancela la anterior y descarta su resultado (por ejemplo, pulsar dos veces "Reiniciar").
+ * Las tareas largas pueden marcar la interfaz como ocupada mientras están pendientes.
+ * Todos los métodos públicos deben llamarse desde el hilo de la interfaz.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class GameTaskRunner {
+    /**
+     * Número de hilos de fondo. Generación y validación pueden correr a la vez.
+     */
+    private static final int WORKER_THREADS = 2;
+    /**
+     * Contador para nombrar los hilos de fondo.
+     */
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * Ejecutor de fondo donde corre el trabajo del modelo.
+     */
+    private final ExecutorService worker;
+    /**
+     * Ejecutor del hilo de la interfaz (Platform::runLater en JavaFX).
+     */
+    private final Executor uiExecutor;
+    /**
+     * Tareas vigentes por clave. Solo se accede desde el hilo de la interfaz.
+     */
+    private final Map<String, Future<?>> pending = new HashMap<>();
+    /**
+     * Claves de las tareas vigentes que mantienen la interfaz ocupada.
+     */
+    private final Set<String> busyKeys = new HashSet<>();
+    /**
+     * Recibe true cuando empieza a haber trabajo pendiente y false cuando termina.
+     */
+    private Consumer<Boolean> busyListener = busy -> { };
+
+    /**
+     * Crea la capa de ejecución con un ejecutor de fondo propio.
+     * @param uiExecutor Ejecutor que corre las tareas en el hilo de la interfaz.
+     */
+    public GameTaskRunner(Executor uiExecutor) {
+        this(Executors.newFixedThreadPool(WORKER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "sudoku-worker-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }), uiExecutor);
+    }
+
+    /**
+     * Crea la capa de ejecución sobre ejecutores dados.
+     * @param worker Ejecutor de fondo para el trabajo del modelo.
+     * @param uiExecutor Ejecutor que corre las tareas en el hilo de la interfaz.
+     */
+    public GameTaskRunner(ExecutorService worker, Executor uiExecutor) {
+        this.worker = worker;
+        this.uiExecutor = uiExecutor;
+    }
+
+    /**
+     * Establece quién es notificado de los cambios en el estado "ocupado".
+     * @param busyListener Consumidor que recibe true/false en el hilo de la interfaz.
+     */
+    public void setBusyListener(Consumer<Boolean> busyListener) {
+        this.busyListener = busyListener;
+    }
+
+    /**
+     * Envía una tarea al ejecutor de fondo, cancelando la tarea vigente con la misma clave.
+     * @param key Clave de la operación (p. ej. "nuevo-juego", "pista", "validacion").
+     * @param showBusy true si la interfaz debe mostrarse ocupada mientras la tarea está pendiente.
+     * @param work Trabajo a ejecutar en el hilo de fondo; no debe tocar la interfaz.
+     * @param onSuccess Acción ejecutada en el hilo de la interfaz con el resultado,
+     *                  solo si la tarea no fue reemplazada ni cancelada.
+     * @param <T> Tipo del resultado.
+     */
+    public <T> void submit(String key, boolean showBusy, Callable<T> work, Consumer<T> onSuccess) {
+        boolean wasBusy = this.isBusy();
+        this.cancelPending(key);
+
+        FutureTask<T> future = new FutureTask<>(work) {
+            @Override
+            protected void done() {
+                if (this.isCancelled()) {
+                    return; // Reemplazada o cancelada: el resultado se descarta
+                }
+                uiExecutor.execute(() -> {
+                    // Publicar solo si sigue siendo la tarea vigente de esta clave
+                    if (!finish(key, this)) {
+                        return;
+                    }
+                    try {
+                        onSuccess.accept(this.get());
+                    } catch (ExecutionException e) {
+                        System.err.println("Error en la tarea de fondo '" + key + "': " + e.getCause());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        };
+        this.pending.put(key, future);
+        if (showBusy) {
+            this.busyKeys.add(key);
+        }
+        this.worker.execute(future);
+        this.notifyBusyChange(wasBusy);
+    }
+
+    /**
+     * Cancela la tarea vigente con la clave dada, si existe.
+     * @param key Clave de la operación.
+     */
+    public void cancel(String key) {
+        boolean wasBusy = this.isBusy();
+        this.cancelPending(key);
+        this.notifyBusyChange(wasBusy);
+    }
+
+    /**
+     * Indica si hay trabajo de fondo en curso que mantiene la interfaz ocupada.
+     * @return true si alguna tarea marcada como "ocupada" sigue pendiente.
+     */
+    public boolean isBusy() {
+        return !this.busyKeys.isEmpty();
+    }
+
+    /**
+     * Detiene el ejecutor de fondo, interrumpiendo las tareas en curso.
+     */
+    public void shutdown() {
+        this.pending.values().forEach(future -> future.cancel(true));
+        this.pending.clear();
+        this.busyKeys.clear();
+        this.worker.shutdownNow();
+    }
+
+    /**
+     * Cancela y olvida la tarea vigente de una clave sin notificar el estado ocupado.
+     * @param key Clave de la operación.
+     */
+    private void cancelPending(String key) {
+        this.busyKeys.remove(key);
+        Future<?> previous = this.pending.remove(key);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+    }
+
+    /**
+     * Retira una tarea terminada si aún es la vigente de su clave.
+     * @param key Clave de la operación.
+     * @param future La tarea que terminó.
+     * @return true si era la tarea vigente (su resultado debe publicarse).
+     */
+    private boolean finish(String key, Future<?> future) {
+        if (this.pending.get(key) != future) {
+            return false;
+        }
+        boolean wasBusy = this.isBusy();
+        this.pending.remove(key);
+        this.busyKeys.remove(key);
+        this.notifyBusyChange(wasBusy);
+        return true;
+    }
+
+    /**
+     * Notifica al listener si el estado "ocupado" cambió respecto al anterior.
+     * @param wasBusy Estado antes de la operación.
+     */
+    private void notifyBusyChange(boolean wasBusy) {
+        boolean busy = this.isBusy();
+        if (busy != wasBusy) {
+            this.busyListener.accept(busy);
+        }
+    }
+}
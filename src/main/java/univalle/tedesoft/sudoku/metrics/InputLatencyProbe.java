@@ -0,0 +1,143 @@
+package univalle.tedesoft.sudoku.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Instrumentación opcional del camino tecla → modelo → validación → estilos → pantalla.
+ * Cada etapa registra el tiempo transcurrido desde la tecla en su propio histograma.
+ * Se activa con la propiedad del sistema {@code sudoku.latency=true}; desactivada,
+ * todas las llamadas retornan de inmediato. Al activarse, los histogramas se imprimen
+ * al cerrar la aplicación.
+ * Todas las llamadas ocurren en el hilo de la interfaz, por eso no hay sincronización.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public final class InputLatencyProbe {
+    /**
+     * Propiedad del sistema que activa la instrumentación.
+     */
+    public static final String ENABLED_PROPERTY = "sudoku.latency";
+
+    /**
+     * Etapas medidas, en el orden en que ocurren.
+     */
+    public enum Stage {
+        /** El valor llegó al modelo (GameController.cellValueChanged → Board.setCellValue). */
+        MODEL("modelo"),
+        /** El resultado de la validación llegó al hilo de la interfaz (validateAndHighlightBoard). */
+        VALIDATION("validacion"),
+        /** La vista terminó de aplicar los estilos de las celdas afectadas (updateCellStyle). */
+        STYLE("estilo"),
+        /** Se completó el siguiente pulso de la escena, que dibuja el resultado. */
+        FRAME("pantalla");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        /**
+         * @return nombre corto de la etapa.
+         */
+        public String getLabel() {
+            return this.label;
+        }
+    }
+
+    private static final InputLatencyProbe INSTANCE = new InputLatencyProbe(Boolean.getBoolean(ENABLED_PROPERTY));
+
+    private final boolean enabled;
+    private final Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+    /**
+     * Instante de la última tecla, o -1 si no hay una entrada en curso.
+     */
+    private long inputStartNanos = -1;
+    /**
+     * Etapas ya registradas para la entrada en curso (bit por ordinal).
+     */
+    private int recordedStages;
+
+    private InputLatencyProbe(boolean enabled) {
+        this.enabled = enabled;
+        for (Stage stage : Stage.values()) {
+            this.histograms.put(stage, new LatencyHistogram());
+        }
+        if (enabled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::dump, "sudoku-latency-dump"));
+        }
+    }
+
+    /**
+     * @return la instancia única de la sonda.
+     */
+    public static InputLatencyProbe getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true si la instrumentación está activa.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Marca el inicio de una entrada del usuario (cambio de texto en una celda).
+     */
+    public void beginInput() {
+        if (!this.enabled) {
+            return;
+        }
+        this.inputStartNanos = System.nanoTime();
+        this.recordedStages = 0;
+    }
+
+    /**
+     * Registra que la entrada en curso alcanzó una etapa. Cada etapa se registra una vez por entrada.
+     * @param stage La etapa alcanzada.
+     */
+    public void mark(Stage stage) {
+        if (!this.enabled || this.inputStartNanos < 0) {
+            return;
+        }
+        int bit = 1 << stage.ordinal();
+        if ((this.recordedStages & bit) != 0) {
+            return;
+        }
+        this.recordedStages |= bit;
+        this.histograms.get(stage).record(System.nanoTime() - this.inputStartNanos);
+        if (stage == Stage.FRAME) {
+            this.inputStartNanos = -1;
+        }
+    }
+
+    /**
+     * Indica si la entrada en curso ya aplicó estilos y espera el siguiente pulso para cerrarse.
+     * @return true si se debe registrar la etapa de pantalla en el próximo pulso.
+     */
+    public boolean isAwaitingFrame() {
+        return this.enabled && this.inputStartNanos >= 0
+                && (this.recordedStages & (1 << Stage.STYLE.ordinal())) != 0;
+    }
+
+    /**
+     * Construye un resumen de varias líneas con los percentiles por etapa.
+     * @return el texto del resumen.
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder("Latencia tecla → etapa");
+        for (Stage stage : Stage.values()) {
+            sb.append('\n').append(this.histograms.get(stage).summary(stage.getLabel()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Imprime los histogramas en la salida estándar.
+     */
+    public void dump() {
+        System.out.println(this.summary());
+    }
+}
@@ -0,0 +1,166 @@
+package univalle.tedesoft.sudoku.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de latencias de memoria fija (log-lineal), en nanosegundos.
+ * Cada potencia de dos se divide en 32 subintervalos lineales, así que los percentiles
+ * tienen un error relativo menor al 3.2% para cualquier valor entre 1 ns y ~292 años,
+ * con un arreglo de tamaño constante (~15 KB) y sin asignar memoria al registrar.
+ * No es seguro para varios escritores: cada hilo usa su propio histograma y luego se combinan con add.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class LatencyHistogram {
+    /**
+     * Bits de precisión por potencia de dos (32 subintervalos).
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+    /**
+     * Número de subintervalos por potencia de dos.
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * Número total de intervalos: los valores menores a 64 son exactos y cada potencia
+     * de dos superior aporta SUB_BUCKET_COUNT intervalos.
+     */
+    private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + 2 * SUB_BUCKET_COUNT;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Registra una latencia.
+     * @param nanos Duración en nanosegundos; los valores negativos se cuentan como 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        this.counts[bucketIndex(value)]++;
+        this.totalCount++;
+        this.sum += value;
+        if (value < this.min) {
+            this.min = value;
+        }
+        if (value > this.max) {
+            this.max = value;
+        }
+    }
+
+    /**
+     * Suma las muestras de otro histograma a este.
+     * @param other Histograma a combinar.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.totalCount += other.totalCount;
+        this.sum += other.sum;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+    /**
+     * Descarta todas las muestras.
+     */
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.totalCount = 0;
+        this.sum = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = 0;
+    }
+
+    /**
+     * Calcula el valor en el percentil indicado.
+     * @param percentile Percentil entre 0 y 100 (p. ej. 99.9).
+     * @return La latencia en nanosegundos (límite superior de su intervalo), o 0 si no hay muestras.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * this.totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += this.counts[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * @return número de muestras registradas.
+     */
+    public long getCount() {
+        return this.totalCount;
+    }
+
+    /**
+     * @return la latencia máxima registrada en nanosegundos.
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * @return la latencia mínima registrada en nanosegundos, o 0 si no hay muestras.
+     */
+    public long getMin() {
+        return this.totalCount == 0 ? 0 : this.min;
+    }
+
+    /**
+     * @return la latencia media en nanosegundos, o 0 si no hay muestras.
+     */
+    public double getMean() {
+        return this.totalCount == 0 ? 0 : (double) this.sum / this.totalCount;
+    }
+
+    /**
+     * Resume el histograma en una línea con p50, p99, p99.9 y máximo en microsegundos.
+     * @param name Nombre de la serie.
+     * @return El resumen listo para imprimir.
+     */
+    public String summary(String name) {
+        return String.format("%-12s n=%-8d p50=%9.1fus p99=%9.1fus p999=%9.1fus max=%9.1fus",
+                name, this.totalCount,
+                this.getValueAtPercentile(50) / 1_000.0,
+                this.getValueAtPercentile(99) / 1_000.0,
+                this.getValueAtPercentile(99.9) / 1_000.0,
+                this.max / 1_000.0);
+    }
+
+    /**
+     * Índice del intervalo que contiene un valor.
+     * @param value Valor no negativo.
+     * @return el índice del intervalo.
+     */
+    private static int bucketIndex(long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = msb - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    /**
+     * Mayor valor que cae en el intervalo dado.
+     * @param index Índice del intervalo.
+     * @return el límite superior del intervalo.
+     */
+    private static long highestEquivalentValue(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,404 @@
+package univalle.tedesoft.sudoku.models;
+
+import univalle.tedesoft.sudoku.GameLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guardado automático de la partida con escritura diferida y recuperación ante fallos.
+ * Cada jugada se encola sin bloquear y un hilo escritor la agrega a un diario en disco
+ * ({@code jugadas.log}); las sincronizaciones con el disco (force) se agrupan cada
+ * {@code syncIntervalMillis}, así que el hilo de interfaz nunca espera por E/S.
+ * Los puntos de control escriben la partida completa con GameSaveStore y vacían el diario.
+ * Al arrancar, recover reconstruye el último tablero desde el punto de control más la cola del diario.
+ * <p>
+ * Cada registro del diario ocupa 16 bytes (little-endian):
+ * <pre>
+ * palabra 1: bits 0-5 celda, 6-8 valor, 9-40 posición de la jugada,
+ *            41-56 etiqueta de la partida, 57-63 suma de verificación
+ * palabra 2: tiempo de juego en ms
+ * </pre>
+ * La etiqueta sale de la solución del punto de control: así los registros de una partida
+ * anterior que sobrevivan a un fallo nunca se aplican sobre otra. La lectura se detiene en el
+ * primer registro incompleto o con suma inválida (escritura interrumpida).
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class AutosaveJournal implements Closeable {
+    /**
+     * Intervalo por defecto entre sincronizaciones con el disco, en milisegundos.
+     */
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = Long.getLong("sudoku.autosave.syncMillis", 200);
+    /**
+     * Nombre del archivo del diario.
+     */
+    private static final String JOURNAL_FILE_NAME = "jugadas.log";
+    /**
+     * Tamaño de un registro del diario en bytes.
+     */
+    static final int RECORD_SIZE = 16;
+    private static final long POSITION_MASK = 0xFFFF_FFFFL;
+    private static final long TAG_MASK = 0xFFFF;
+    private static final int POSITION_SHIFT = 9;
+    private static final int TAG_SHIFT = 41;
+    private static final int CHECKSUM_SHIFT = 57;
+    private static final long PAYLOAD_MASK = (1L << CHECKSUM_SHIFT) - 1;
+    /**
+     * Orden que detiene el hilo escritor.
+     */
+    private static final Object STOP = new Object();
+
+    /**
+     * Jugada pendiente de escribir.
+     */
+    private record Move(int position, int index, int value, long elapsedMillis) { }
+
+    /**
+     * Punto de control pendiente de escribir; lleva su propia copia de la partida.
+     */
+    private record Checkpoint(SavedGame game) { }
+
+    /**
+     * Orden de borrar la partida guardada (partida terminada).
+     */
+    private record Discard() { }
+
+    /**
+     * Orden de escribir y sincronizar todo lo pendiente, avisando al terminar.
+     */
+    private record Flush(CountDownLatch done) { }
+
+    private final GameSaveStore store;
+    private final Path journalFile;
+    private final long syncIntervalNanos;
+    private final LinkedBlockingQueue<Object> commands = new LinkedBlockingQueue<>();
+    private Thread writer;
+    private boolean closed;
+
+    // Estado del hilo escritor
+    private FileChannel channel;
+    private final ByteBuffer pending = ByteBuffer.allocateDirect(RECORD_SIZE * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    private long validJournalLength = -1;
+    private int currentTag = -1;
+    private boolean dirty;
+    private long lastSyncNanos = System.nanoTime();
+
+    /**
+     * Crea el guardado automático en el directorio dado. El hilo escritor arranca con la primera orden.
+     * @param directory Directorio de la partida guardada y del diario.
+     * @param syncIntervalMillis Máximo tiempo que una jugada escrita puede esperar su sincronización.
+     */
+    public AutosaveJournal(Path directory, long syncIntervalMillis) {
+        this.store = new GameSaveStore(directory);
+        this.journalFile = directory.resolve(JOURNAL_FILE_NAME);
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+    }
+
+    /**
+     * Reconstruye la última partida: punto de control más las jugadas del diario posteriores a él.
+     * Debe llamarse antes de encolar jugadas o puntos de control.
+     * @param target Partida donde se escribe el resultado.
+     * @return true si había una partida guardada.
+     * @throws IOException si los archivos no se pueden leer.
+     * @throws IllegalArgumentException si el punto de control no tiene un formato válido.
+     */
+    public synchronized boolean recover(SavedGame target) throws IOException {
+        if (!this.store.load(target)) {
+            return false;
+        }
+        int tag = tagOf(target.getBoard());
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(this.journalFile);
+        } catch (NoSuchFileException e) {
+            bytes = new byte[0];
+        }
+        ByteBuffer journal = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        PackedBoard board = target.getBoard();
+        int replayed = 0;
+        int validEnd = 0;
+        while (journal.remaining() >= RECORD_SIZE) {
+            long word = journal.getLong();
+            long elapsedMillis = journal.getLong();
+            if (checksum(word & PAYLOAD_MASK, elapsedMillis) != word >>> CHECKSUM_SHIFT) {
+                break; // Registro interrumpido: lo que sigue no es confiable
+            }
+            int position = (int) ((word >>> POSITION_SHIFT) & POSITION_MASK);
+            boolean sameGame = (int) ((word >>> TAG_SHIFT) & TAG_MASK) == tag;
+            if (sameGame && position > target.getMovePosition()) {
+                if (position != target.getMovePosition() + 1) {
+                    break; // Falta una jugada: no se puede seguir reconstruyendo
+                }
+                int index = (int) (word & 0x3F);
+                int value = (int) ((word >>> 6) & 0x7);
+                if (index < PackedBoard.CELL_COUNT && value <= Board.GRID_SIZE && board.isEditable(index)) {
+                    board.setValue(index, value);
+                }
+                target.setMovePosition(position);
+                target.setElapsedMillis(Math.max(target.getElapsedMillis(), elapsedMillis));
+                replayed++;
+            }
+            // Los registros de otra partida o ya incluidos en el punto de control se saltan
+            validEnd = journal.position();
+        }
+        this.validJournalLength = validEnd;
+        this.currentTag = tag;
+        if (replayed > 0) {
+            GameLog.info("Diario de jugadas: " + replayed + " jugadas recuperadas tras el último punto de control.");
+        }
+        return true;
+    }
+
+    /**
+     * Encola una jugada; vuelve de inmediato.
+     * @param position Posición de la jugada (la del punto de control más 1, 2, ...).
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @param value Nuevo valor (0 para vaciar).
+     * @param elapsedMillis Tiempo de juego al aplicar la jugada.
+     */
+    public void append(int position, int row, int col, int value, long elapsedMillis) {
+        this.enqueue(new Move(position, PackedBoard.index(row, col), value, elapsedMillis));
+    }
+
+    /**
+     * Encola un punto de control con una copia de la partida; vuelve de inmediato.
+     * Al escribirse, el diario se vacía.
+     * @param game Partida completa; se copia, así que el llamador puede seguir modificándola.
+     */
+    public void checkpoint(SavedGame game) {
+        SavedGame copy = new SavedGame();
+        copy.getBoard().copyFrom(game.getBoard());
+        copy.setMovePosition(game.getMovePosition());
+        copy.setElapsedMillis(game.getElapsedMillis());
+        copy.setHintsUsed(game.getHintsUsed());
+        if (game.hasPuzzleId()) {
+            copy.setPuzzleId(game.getPuzzleId());
+        }
+        this.enqueue(new Checkpoint(copy));
+    }
+
+    /**
+     * Encola el borrado de la partida guardada y del diario; vuelve de inmediato.
+     */
+    public void discard() {
+        this.enqueue(new Discard());
+    }
+
+    /**
+     * Espera a que todo lo encolado hasta ahora esté escrito y sincronizado.
+     * No debe llamarse desde el hilo de interfaz.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void flush() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        if (this.enqueue(new Flush(done))) {
+            done.await();
+        }
+    }
+
+    /**
+     * Escribe y sincroniza lo pendiente y detiene el hilo escritor.
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            thread = this.writer;
+        }
+        if (thread == null) {
+            return;
+        }
+        this.commands.add(STOP);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Encola una orden, arrancando el hilo escritor la primera vez.
+     * @return false si el guardado ya fue cerrado y la orden se descartó.
+     */
+    private synchronized boolean enqueue(Object command) {
+        if (this.closed) {
+            return false;
+        }
+        if (this.writer == null) {
+            this.writer = new Thread(this::runWriter, "sudoku-autosave");
+            this.writer.setDaemon(true);
+            this.writer.start();
+            // Al cerrar la ventana o terminar la JVM, lo pendiente llega al disco
+            Runtime.getRuntime().addShutdownHook(new Thread(this::close, "sudoku-autosave-cierre"));
+        }
+        this.commands.add(command);
+        return true;
+    }
+
+    /**
+     * Bucle del hilo escritor: procesa las órdenes en lotes y sincroniza según el intervalo.
+     */
+    private void runWriter() {
+        List<Object> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                Object first;
+                if (this.dirty) {
+                    long wait = this.lastSyncNanos + this.syncIntervalNanos - System.nanoTime();
+                    first = this.commands.poll(Math.max(0, wait), TimeUnit.NANOSECONDS);
+                } else {
+                    first = this.commands.take();
+                }
+                if (first != null) {
+                    batch.add(first);
+                    this.commands.drainTo(batch);
+                }
+                // Un punto de control (o borrado) deja obsoleto todo lo anterior del mismo lote
+                int lastReset = -1;
+                for (int i = 0; i < batch.size(); i++) {
+                    if (batch.get(i) instanceof Checkpoint || batch.get(i) instanceof Discard) {
+                        lastReset = i;
+                    }
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    Object command = batch.get(i);
+                    if (command == STOP) {
+                        running = false;
+                    } else if (i >= lastReset) {
+                        this.process(command);
+                    }
+                }
+                // Las esperas anteriores al punto de control terminan cuando este ya está en disco
+                for (int i = 0; i < lastReset; i++) {
+                    if (batch.get(i) instanceof Flush flush) {
+                        this.process(flush);
+                    }
+                }
+                batch.clear();
+                this.writePending();
+                if (this.dirty && (!running || System.nanoTime() - this.lastSyncNanos >= this.syncIntervalNanos)) {
+                    this.sync();
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (IOException e) {
+                System.err.println("Error en el guardado automático: " + e.getMessage());
+                this.pending.clear();
+            }
+        }
+        try {
+            if (this.channel != null) {
+                this.channel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo cerrar el diario de jugadas: " + e.getMessage());
+        }
+    }
+
+    private void process(Object command) throws IOException {
+        if (command instanceof Move move) {
+            if (this.currentTag < 0) {
+                return; // Sin punto de control no hay partida a la cual asociar la jugada
+            }
+            if (this.pending.remaining() < RECORD_SIZE) {
+                this.writePending();
+            }
+            long word = (move.index() & 0x3FL)
+                    | ((long) (move.value() & 0x7) << 6)
+                    | ((move.position() & POSITION_MASK) << POSITION_SHIFT)
+                    | ((long) this.currentTag << TAG_SHIFT);
+            word |= checksum(word, move.elapsedMillis()) << CHECKSUM_SHIFT;
+            this.pending.putLong(word).putLong(move.elapsedMillis());
+        } else if (command instanceof Checkpoint checkpoint) {
+            this.writePending();
+            this.store.save(checkpoint.game());
+            this.openJournal().truncate(0);
+            this.currentTag = tagOf(checkpoint.game().getBoard());
+            this.dirty = true;
+        } else if (command instanceof Discard) {
+            this.pending.clear();
+            this.store.delete();
+            this.openJournal().truncate(0);
+            this.currentTag = -1;
+            this.dirty = true;
+        } else if (command instanceof Flush flush) {
+            this.writePending();
+            this.sync();
+            flush.done().countDown();
+        }
+    }
+
+    /**
+     * Escribe al diario (sin sincronizar) los registros acumulados.
+     */
+    private void writePending() throws IOException {
+        if (this.pending.position() == 0) {
+            return;
+        }
+        FileChannel journal = this.openJournal();
+        this.pending.flip();
+        while (this.pending.hasRemaining()) {
+            journal.write(this.pending);
+        }
+        this.pending.clear();
+        this.dirty = true;
+    }
+
+    private void sync() throws IOException {
+        if (this.channel != null) {
+            this.channel.force(false);
+        }
+        this.dirty = false;
+        this.lastSyncNanos = System.nanoTime();
+    }
+
+    /**
+     * Abre el diario para agregar, descartando una cola interrumpida detectada en recover.
+     */
+    private FileChannel openJournal() throws IOException {
+        if (this.channel == null) {
+            Files.createDirectories(this.journalFile.getParent());
+            this.channel = FileChannel.open(this.journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            long length = this.validJournalLength >= 0 ? this.validJournalLength : 0;
+            this.channel.truncate(length);
+            this.channel.position(length);
+        }
+        return this.channel;
+    }
+
+    /**
+     * Etiqueta de 16 bits de una partida, derivada de su solución.
+     */
+    private static int tagOf(PackedBoard board) {
+        long h = board.getSolutionLo() * 0x9E3779B97F4A7C15L ^ board.getSolutionHi();
+        h *= 0xC2B2AE3D27D4EB4FL;
+        return (int) ((h >>> 48) & TAG_MASK);
+    }
+
+    /**
+     * Suma de verificación de 7 bits de un registro.
+     */
+    private static long checksum(long payload, long elapsedMillis) {
+        long h = (payload ^ Long.rotateLeft(elapsedMillis, 29)) * 0x9E3779B97F4A7C15L;
+        return (h >>> CHECKSUM_SHIFT) & 0x7F;
+    }
+}
@@ -0,0 +1,128 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Resolutor por backtracking simple, como Board.generateSolution: recorre las celdas en orden fila
+ * por fila, prueba los dígitos de menor a mayor y comprueba cada uno recorriendo su fila, columna y
+ * bloque. No elige celdas ni propaga restricciones, así que es muy rápido en puzzles con muchas
+ * pistas o cuyos primeros huecos se deciden solos, y muy lento en los diseñados contra él.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public final class BacktrackingSolver implements ISolverStrategy {
+    /**
+     * Cada cuántos nodos se consulta la señal de cancelación.
+     */
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+    private final int size;
+    private final int blockRows;
+    private final int blockCols;
+
+    /**
+     * Crea un resolutor para tableros de las dimensiones dadas.
+     * @param size Lado del tablero (número de dígitos).
+     * @param blockRows Filas de cada bloque.
+     * @param blockCols Columnas de cada bloque.
+     * @throws IllegalArgumentException si los bloques no cubren el tablero.
+     */
+    public BacktrackingSolver(int size, int blockRows, int blockCols) {
+        if (size <= 0 || blockRows * blockCols != size) {
+            throw new IllegalArgumentException("Dimensiones de tablero inválidas: " + size + " con bloques de "
+                    + blockRows + "x" + blockCols);
+        }
+        this.size = size;
+        this.blockRows = blockRows;
+        this.blockCols = blockCols;
+    }
+
+    @Override
+    public String getName() {
+        return "backtracking";
+    }
+
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    @Override
+    public boolean solve(int[] cells, int[] solution, BooleanSupplier cancelled) {
+        if (cells.length != this.size * this.size) {
+            throw new IllegalArgumentException("Se esperaban " + this.size * this.size + " celdas, hay " + cells.length);
+        }
+        int[] grid = cells.clone();
+        // Las pistas deben respetar las reglas entre sí; si no, no hay solución
+        for (int index = 0; index < grid.length; index++) {
+            int value = grid[index];
+            if (value < 0 || value > this.size) {
+                return false;
+            }
+            if (value != 0) {
+                grid[index] = 0;
+                boolean valid = this.isValidPlacement(grid, index, value);
+                grid[index] = value;
+                if (!valid) {
+                    return false;
+                }
+            }
+        }
+        long[] nodes = new long[1];
+        if (!this.solveFrom(grid, 0, cancelled, nodes)) {
+            return false;
+        }
+        System.arraycopy(grid, 0, solution, 0, grid.length);
+        return true;
+    }
+
+    /**
+     * Llena recursivamente las celdas vacías desde la posición dada.
+     * @return true si se completó el tablero.
+     */
+    private boolean solveFrom(int[] grid, int index, BooleanSupplier cancelled, long[] nodes) {
+        while (index < grid.length && grid[index] != 0) {
+            index++;
+        }
+        if (index == grid.length) {
+            return true;
+        }
+        if (cancelled != null && (++nodes[0] % CANCEL_CHECK_INTERVAL) == 0 && cancelled.getAsBoolean()) {
+            throw new CancellationException("Búsqueda por backtracking cancelada.");
+        }
+        for (int value = 1; value <= this.size; value++) {
+            if (this.isValidPlacement(grid, index, value)) {
+                grid[index] = value;
+                if (this.solveFrom(grid, index + 1, cancelled, nodes)) {
+                    return true;
+                }
+                grid[index] = 0; // Backtrack
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Verifica que el valor no esté ya en la fila, la columna ni el bloque de la celda.
+     */
+    private boolean isValidPlacement(int[] grid, int index, int value) {
+        int row = index / this.size;
+        int col = index % this.size;
+        for (int i = 0; i < this.size; i++) {
+            if (grid[row * this.size + i] == value || grid[i * this.size + col] == value) {
+                return false;
+            }
+        }
+        int startRow = row - row % this.blockRows;
+        int startCol = col - col % this.blockCols;
+        for (int r = startRow; r < startRow + this.blockRows; r++) {
+            for (int c = startCol; c < startCol + this.blockCols; c++) {
+                if (grid[r * this.size + c] == value) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -1,11 +1,19 @@
 package univalle.tedesoft.sudoku.models;
 
+import univalle.tedesoft.sudoku.GameLog;
+
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Representa el tablero completo 6x6 de Sudoku.
  * Contiene la cuadrícula de celdas y gestiona los bloques (Block) que la componen.
  * Se encarga de la inicialización del tablero con un estado válido.
+ * La generación es determinista a partir de una semilla de 64 bits, que sirve como
+ * identificador del puzzle: basta guardar o transmitir esos 8 bytes para reproducirlo.
+ * El bit más alto del identificador elige cómo se genera la solución: por transformación de una
+ * cuadrícula precalculada (SolutionGridGenerator) o por backtracking.
  * @author David Esteban Valencia
  * @author Santiago David Guerrero
  */
@@ -34,6 +42,16 @@ public class Board implements IBoard {
      * Número deseado de celdas fijas (no editables) por bloque.
      */
     private static final int FIXED_CELLS_PER_BLOCK = 2;
+    /**
+     * Bit del identificador de puzzle que indica que la solución se genera por transformación.
+     */
+    public static final long TRANSFORM_MODE_BIT = Long.MIN_VALUE;
+    /**
+     * Modo de generación de los puzzles nuevos: por transformación, salvo que la propiedad
+     * del sistema sudoku.generator sea "backtracking".
+     */
+    private static final boolean USE_TRANSFORM_GENERATOR =
+            !"backtracking".equalsIgnoreCase(System.getProperty("sudoku.generator"));
 
     /**
      * Cuadrícula de celdas que representa el tablero de Sudoku.
@@ -53,6 +71,22 @@ public class Board implements IBoard {
      * @see Block
      */
     private final Block[][] blocks;
+    /**
+     * Generador de la partida en curso; solo se usa durante initializeBoard.
+     */
+    private RandomGenerator random;
+    /**
+     * Semilla con la que se generó el puzzle.
+     */
+    private long puzzleId;
+    /**
+     * false si el tablero no se generó con una semilla (vacío o cargado de otra forma).
+     */
+    private boolean hasPuzzleId;
+    /**
+     * Observador de los cambios de celdas; null si no hay ninguno. Las copias no lo heredan.
+     */
+    private IBoardListener listener;
 
     /**
      * Constructor del tablero. Inicializa la cuadrícula de celdas vacías y los bloques.
@@ -82,19 +116,157 @@ public class Board implements IBoard {
     }
 
     /**
-     * Inicializa el tablero con un patrón de Sudoku 6x6 válido y parcialmente lleno.
-     * Genera una solución, la guarda, y luego crea el puzzle con celdas fijas.
+     * Constructor de copia. Crea un tablero independiente con los mismos valores,
+     * estados de edición y solución que el tablero dado.
+     * Permite que el trabajo de fondo (validación, pistas) opere sin tocar el tablero en juego.
+     * @param source El tablero a copiar.
+     */
+    public Board(Board source) {
+        this();
+        for (int i = 0; i < GRID_SIZE; i++) {
+            for (int j = 0; j < GRID_SIZE; j++) {
+                copyCell(source.grid[i][j], this.grid[i][j]);
+                copyCell(source.initialGridState[i][j], this.initialGridState[i][j]);
+            }
+        }
+        this.puzzleId = source.puzzleId;
+        this.hasPuzzleId = source.hasPuzzleId;
+    }
+
+    /**
+     * Copia valor y estado de edición de una celda a otra, aunque la destino no sea editable.
+     * @param from Celda de origen.
+     * @param to Celda de destino.
+     */
+    private static void copyCell(Cell from, Cell to) {
+        to.setEditable(true);
+        to.setValue(from.getValue());
+        to.setEditable(from.getEditable());
+    }
+
+    /**
+     * Inicializa el tablero con un patrón de Sudoku 6x6 válido y parcialmente lleno,
+     * a partir de un identificador de puzzle elegido al azar.
      */
     public void initializeBoard() {
-        this.clearBoard();
-        if (!this.generateSolution(0, 0)) {
+        this.initializeBoard(randomPuzzleId());
+    }
+
+    /**
+     * Elige al azar el identificador de un puzzle nuevo, con el modo de generación configurado.
+     * @return el identificador.
+     */
+    public static long randomPuzzleId() {
+        long puzzleId = ThreadLocalRandom.current().nextLong();
+        return USE_TRANSFORM_GENERATOR ? puzzleId | TRANSFORM_MODE_BIT : puzzleId & ~TRANSFORM_MODE_BIT;
+    }
+
+    /**
+     * Inicializa el tablero con el puzzle determinado por el identificador dado.
+     * Genera una solución, la guarda, y luego crea el puzzle con celdas fijas.
+     * @param puzzleId Identificador (semilla de 64 bits) del puzzle.
+     */
+    public void initializeBoard(long puzzleId) {
+        if (!this.generate(puzzleId)) {
             System.err.println("Error: No se pudo generar una solución de Sudoku válida.");
             return;
         }
-        this.saveInitialState(); // Guardar la solución generada
-        this.makePuzzle(); // Crear los "agujeros" y definir celdas fijas
-        System.out.println("Tablero inicializado:");
-        this.printBoard();
+        if (GameLog.isEnabled()) {
+            GameLog.info("Tablero inicializado (puzzle " + formatPuzzleId(puzzleId) + "):\n" + this.formatBoard());
+        }
+    }
+
+    /**
+     * Crea un tablero con el puzzle determinado por un identificador, sin imprimirlo.
+     * Pensado para regenerar en bloque puzzles guardados o recibidos como identificador.
+     * @param puzzleId Identificador (semilla de 64 bits) del puzzle.
+     * @return el tablero con el puzzle listo para jugar.
+     */
+    public static Board fromPuzzleId(long puzzleId) {
+        Board board = new Board();
+        if (!board.generate(puzzleId)) {
+            throw new IllegalStateException("No se pudo generar el puzzle " + formatPuzzleId(puzzleId));
+        }
+        return board;
+    }
+
+    /**
+     * Genera solución y puzzle usando únicamente un generador sembrado con el identificador,
+     * así que el resultado no depende del proceso ni de generaciones anteriores. SplittableRandom
+     * usa los 64 bits de la semilla (java.util.Random solo usa los 48 bajos, y los identificadores
+     * que difieren en los bits 48 a 62 darían el mismo puzzle).
+     * @param puzzleId Semilla de la generación.
+     * @return true si se generó el puzzle.
+     */
+    private boolean generate(long puzzleId) {
+        this.random = new SplittableRandom(puzzleId);
+        try {
+            this.clearBoard();
+            if ((puzzleId & TRANSFORM_MODE_BIT) != 0) {
+                this.fillSolution();
+            } else if (!this.generateSolution(0, 0)) {
+                return false;
+            }
+            this.saveInitialState(); // Guardar la solución generada
+            this.makePuzzle(); // Crear los "agujeros" y definir celdas fijas
+            this.puzzleId = puzzleId;
+            this.hasPuzzleId = true;
+            return true;
+        } finally {
+            this.random = null;
+        }
+    }
+
+    /**
+     * Baraja una lista con el generador de la generación en curso (Fisher-Yates, como Collections.shuffle).
+     * @param list Lista a barajar.
+     */
+    private void shuffle(List<?> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            Collections.swap(list, i, this.random.nextInt(i + 1));
+        }
+    }
+
+    /**
+     * Obtiene el identificador del puzzle en juego.
+     * @return la semilla con la que se generó el puzzle.
+     * @throws IllegalStateException si el tablero no se generó a partir de un identificador.
+     */
+    public long getPuzzleId() {
+        if (!this.hasPuzzleId) {
+            throw new IllegalStateException("El tablero no se generó a partir de un identificador de puzzle.");
+        }
+        return this.puzzleId;
+    }
+
+    /**
+     * @return true si el tablero se generó a partir de un identificador de puzzle.
+     */
+    public boolean hasPuzzleId() {
+        return this.hasPuzzleId;
+    }
+
+    /**
+     * Da formato a un identificador de puzzle para mostrarlo o compartirlo (16 dígitos hexadecimales).
+     * @param puzzleId Identificador.
+     * @return el identificador en hexadecimal.
+     */
+    public static String formatPuzzleId(long puzzleId) {
+        return String.format("%016X", puzzleId);
+    }
+
+    /**
+     * Interpreta un identificador de puzzle escrito con formatPuzzleId.
+     * @param text Identificador en hexadecimal (hasta 16 dígitos).
+     * @return el identificador.
+     * @throws IllegalArgumentException si el texto no es un identificador válido.
+     */
+    public static long parsePuzzleId(String text) {
+        try {
+            return Long.parseUnsignedLong(text.trim(), 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Identificador de puzzle inválido: " + text);
+        }
     }
 
     /**
@@ -109,6 +281,19 @@ public class Board implements IBoard {
         }
     }
 
+    /**
+     * Llena el tablero con una cuadrícula solución transformada, en un número fijo de pasos.
+     */
+    private void fillSolution() {
+        PackedBoard solution = new PackedBoard();
+        SolutionGridGenerator.generate(this.random, solution);
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                this.grid[row][col].setValue(solution.getValue(PackedBoard.index(row, col)));
+            }
+        }
+    }
+
     /**
      * Intenta generar una solución completa para el tablero usando backtracking.
      * (Implementación sin cambios respecto a la versión anterior)
@@ -132,9 +317,9 @@ public class Board implements IBoard {
         for (int i = 1; i <= GRID_SIZE; i++) {
             numbers.add(i);
         }
-        Collections.shuffle(numbers);
+        this.shuffle(numbers);
 
-        for (int num = 1; num < (numbers.size()+1); num++) {
+        for (int num : numbers) {
             if (isValidPlacementForGeneration(row, col, num)) {
                 this.grid[row][col].setValue(num);
                 if (generateSolution(row, col + 1)) {
@@ -242,7 +427,7 @@ public class Board implements IBoard {
                  allCells.add(new int[]{r, c});
              }
          }
-         Collections.shuffle(allCells);
+         this.shuffle(allCells);
 
          int fixedCellsCount = 0;
          int targetFixedCells = NUM_BLOCK_ROWS * NUM_BLOCK_COLS * FIXED_CELLS_PER_BLOCK;
@@ -310,12 +495,24 @@ public class Board implements IBoard {
         Cell cell = this.getCell(row, col);
         boolean isCellEditable = cell.getEditable();
         if (isCellEditable) {
+            int oldValue = cell.getValue();
             cell.setValue(value);
+            if (this.listener != null && oldValue != value) {
+                this.listener.cellChanged(row, col, oldValue, value);
+            }
             return true;
         }
         return false;
     }
 
+    /**
+     * Establece quién recibe los cambios de valor hechos con setCellValue.
+     * @param listener El observador, o null para quitarlo.
+     */
+    public void setListener(IBoardListener listener) {
+        this.listener = listener;
+    }
+
     /**
      * Obtiene el bloque que contiene la celda en la posición global especificada.
      * @param row Fila global (0-5).
@@ -352,26 +549,36 @@ public class Board implements IBoard {
      * Incluye separadores de bloque.
      */
     public void printBoard() {
-        System.out.println("-------------------------");
+        System.out.print(this.formatBoard());
+    }
+
+    /**
+     * Dibuja el tablero como texto, con el formato de printBoard.
+     * @return las líneas del tablero, cada una terminada en salto de línea.
+     */
+    public String formatBoard() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("-------------------------\n");
         for (int i = 0; i < GRID_SIZE; i++) {
-            System.out.print("| ");
+            sb.append("| ");
             for (int j = 0; j < GRID_SIZE; j++) {
                 Cell cell = grid[i][j];
                 char editableMarker = cell.getEditable() ? ' ' : '*';
                 String valueStr = cell.getValue() == 0 ? " " : String.valueOf(cell.getValue()); // Espacio para vacío
-                System.out.print(valueStr + editableMarker);
+                sb.append(valueStr).append(editableMarker);
                 if ((j + 1) % BLOCK_COLS == 0) { // Si es fin de columna de bloque
-                    System.out.print(" | ");
+                    sb.append(" | ");
                 } else {
-                    System.out.print(" "); // Espacio entre celdas normales
+                    sb.append(' '); // Espacio entre celdas normales
                 }
             }
-            System.out.println();
+            sb.append('\n');
             if ((i + 1) % BLOCK_ROWS == 0 && i < GRID_SIZE - 1) { // Si es fin de fila de bloque
-                System.out.println("-------------------------"); // Separador horizontal
+                sb.append("-------------------------\n"); // Separador horizontal
             }
         }
-         System.out.println("-------------------------");
+        sb.append("-------------------------\n");
+        return sb.toString();
     }
 
     /**
@@ -389,6 +596,101 @@ public class Board implements IBoard {
         return snapshot;
     }
 
+    /**
+     * Escribe el estado del tablero (valores, solución y celdas editables) en su forma compacta.
+     * @param target Tablero compacto de destino; se sobrescribe por completo.
+     */
+    public void writeTo(PackedBoard target) {
+        long valuesLo = 0, valuesHi = 0, solutionLo = 0, solutionHi = 0, editableMask = 0;
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                int index = PackedBoard.index(row, col);
+                int value = this.grid[row][col].getValue();
+                int solution = this.initialGridState[row][col].getValue();
+                if (PackedBoard.isHighWord(index)) {
+                    valuesHi = PackedBoard.withCell(valuesHi, index, value);
+                    solutionHi = PackedBoard.withCell(solutionHi, index, solution);
+                } else {
+                    valuesLo = PackedBoard.withCell(valuesLo, index, value);
+                    solutionLo = PackedBoard.withCell(solutionLo, index, solution);
+                }
+                if (this.grid[row][col].getEditable()) {
+                    editableMask |= 1L << index;
+                }
+            }
+        }
+        target.set(valuesLo, valuesHi, solutionLo, solutionHi, editableMask);
+    }
+
+    /**
+     * Obtiene la forma compacta del tablero.
+     * @return un nuevo PackedBoard con valores, solución y celdas editables.
+     */
+    public PackedBoard toPacked() {
+        PackedBoard packed = new PackedBoard();
+        this.writeTo(packed);
+        return packed;
+    }
+
+    /**
+     * Reemplaza el estado del tablero (valores, solución y celdas editables) por el de su forma compacta.
+     * @param source Tablero compacto de origen.
+     * @throws IllegalArgumentException si algún valor está fuera del rango 0-6.
+     */
+    public void loadFrom(PackedBoard source) {
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                int index = PackedBoard.index(row, col);
+                Cell cell = this.grid[row][col];
+                cell.setEditable(true);
+                cell.setValue(source.getValue(index));
+                cell.setEditable(source.isEditable(index));
+                Cell solutionCell = this.initialGridState[row][col];
+                solutionCell.setEditable(true);
+                solutionCell.setValue(source.getSolution(index));
+                solutionCell.setEditable(false);
+            }
+        }
+        this.hasPuzzleId = false; // La forma compacta no conserva la semilla
+    }
+
+    /**
+     * Carga un puzzle de la biblioteca: las pistas quedan fijas y el resto de celdas vacías y editables.
+     * @param library Biblioteca de puzzles abierta.
+     * @param recordIndex Índice del registro.
+     * @throws IndexOutOfBoundsException si el índice está fuera de rango.
+     */
+    public void loadFrom(PuzzleLibrary library, long recordIndex) {
+        PackedBoard record = new PackedBoard();
+        library.read(recordIndex, record);
+        this.loadFrom(record);
+    }
+
+    /**
+     * Crea un tablero a partir de su forma compacta.
+     * @param source Tablero compacto de origen.
+     * @return un nuevo tablero con el mismo estado.
+     */
+    public static Board fromPacked(PackedBoard source) {
+        Board board = new Board();
+        board.loadFrom(source);
+        return board;
+    }
+
+    /**
+     * Crea un tablero a partir de su forma compacta y del identificador del puzzle que la originó,
+     * para restaurar una partida guardada sin regenerar el puzzle.
+     * @param source Tablero compacto de origen.
+     * @param puzzleId Identificador del puzzle.
+     * @return un nuevo tablero con el mismo estado e identificador.
+     */
+    public static Board fromPacked(PackedBoard source, long puzzleId) {
+        Board board = fromPacked(source);
+        board.puzzleId = puzzleId;
+        board.hasPuzzleId = true;
+        return board;
+    }
+
     /**
      * Cuenta la cantidad de celdas vacías que son editables en el tablero.
      * @return número de celdas editables de valor 0.
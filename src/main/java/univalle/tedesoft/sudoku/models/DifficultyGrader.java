@@ -0,0 +1,99 @@
+package univalle.tedesoft.sudoku.models;
+
+/**
+ * Califica la dificultad de un puzzle 6x6 (0 a PuzzleLibrary.MAX_DIFFICULTY) imitando a un jugador:
+ * en cada ronda coloca todos los "únicos" visibles, sea una celda con un solo candidato o un dígito
+ * con una sola celda posible en su fila, columna o bloque. Un puzzle es más difícil cuantas más
+ * celdas vacías y rondas necesita, cuantos más únicos ocultos (los que no se ven como candidato
+ * único) usa, y sobre todo si los únicos no alcanzan y hay que probar valores.
+ * Sin estado: se puede usar desde varios hilos.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public final class DifficultyGrader {
+    private static final int SIZE = Board.GRID_SIZE;
+    private static final int ALL_DIGITS = ((1 << SIZE) - 1) << 1;
+    private static final int[][] UNITS = PackedBoard.UNITS;
+    /**
+     * Puntos por ronda de deducción, por único oculto y por necesitar probar valores.
+     */
+    private static final int ROUND_POINTS = 6;
+    private static final int HIDDEN_SINGLE_POINTS = 1;
+    private static final int GUESS_POINTS = 40;
+
+    private DifficultyGrader() {
+    }
+
+    /**
+     * Califica los valores actuales del tablero (0 = celda vacía).
+     * @param puzzle Puzzle a calificar.
+     * @return dificultad entre 0 y PuzzleLibrary.MAX_DIFFICULTY.
+     */
+    public static int grade(PackedBoard puzzle) {
+        int[] cells = new int[PackedBoard.CELL_COUNT];
+        int empty = 0;
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            cells[index] = puzzle.getValue(index);
+            if (cells[index] == 0) {
+                empty++;
+            }
+        }
+        int score = empty;
+        int[] candidates = new int[PackedBoard.CELL_COUNT];
+        int remaining = empty;
+        while (remaining > 0) {
+            computeCandidates(cells, candidates);
+            int placed = 0;
+            for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+                int mask = candidates[index];
+                if (cells[index] == 0 && Integer.bitCount(mask) == 1) {
+                    cells[index] = Integer.numberOfTrailingZeros(mask);
+                    placed++;
+                }
+            }
+            for (int[] unit : UNITS) {
+                for (int digit = 1; digit <= SIZE; digit++) {
+                    int only = -1;
+                    int count = 0;
+                    for (int index : unit) {
+                        if (cells[index] == digit) {
+                            count = -1; // Ya colocado (quizás en esta misma ronda)
+                            break;
+                        }
+                        if (cells[index] == 0 && (candidates[index] & (1 << digit)) != 0) {
+                            only = index;
+                            count++;
+                        }
+                    }
+                    if (count == 1) {
+                        cells[only] = digit;
+                        placed++;
+                        score += HIDDEN_SINGLE_POINTS;
+                    }
+                }
+            }
+            if (placed == 0) {
+                score += GUESS_POINTS + remaining;
+                break;
+            }
+            remaining -= placed;
+            score += ROUND_POINTS;
+        }
+        return Math.min(PuzzleLibrary.MAX_DIFFICULTY, score);
+    }
+
+    private static void computeCandidates(int[] cells, int[] candidates) {
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            candidates[index] = cells[index] == 0 ? ALL_DIGITS : 0;
+        }
+        for (int[] unit : UNITS) {
+            int used = 0;
+            for (int index : unit) {
+                used |= 1 << cells[index];
+            }
+            for (int index : unit) {
+                candidates[index] &= ~used;
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Resolutor que plantea el Sudoku como un problema de cobertura exacta y lo resuelve con el
+ * Algoritmo X de Knuth sobre enlaces danzantes (DLX). Cada fila de la matriz es un candidato
+ * (celda, dígito) y cada columna una restricción: la celda tiene un valor, y cada fila, columna y
+ * bloque tiene cada dígito una vez. En cada paso se cubre la restricción con menos candidatos, lo
+ * que equivale a combinar MRV por celda con "único lugar posible" por unidad.
+ * Las listas enlazadas viven en arreglos de enteros creados en cada llamada, así que la instancia
+ * puede compartirse entre hilos.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public final class ExactCoverSolver implements ISolverStrategy {
+    /**
+     * Cada cuántos nodos se consulta la señal de cancelación.
+     */
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private final int size;
+    private final int cellCount;
+    /**
+     * Bloque de cada celda.
+     */
+    private final int[] boxOf;
+
+    /**
+     * Crea un resolutor para tableros de las dimensiones dadas.
+     * @param size Lado del tablero (número de dígitos).
+     * @param blockRows Filas de cada bloque.
+     * @param blockCols Columnas de cada bloque.
+     * @throws IllegalArgumentException si los bloques no cubren el tablero.
+     */
+    public ExactCoverSolver(int size, int blockRows, int blockCols) {
+        if (size <= 0 || blockRows * blockCols != size) {
+            throw new IllegalArgumentException("Dimensiones de tablero inválidas: " + size + " con bloques de "
+                    + blockRows + "x" + blockCols);
+        }
+        this.size = size;
+        this.cellCount = size * size;
+        this.boxOf = new int[this.cellCount];
+        int blocksPerRow = size / blockCols;
+        for (int index = 0; index < this.cellCount; index++) {
+            this.boxOf[index] = (index / size / blockRows) * blocksPerRow + (index % size) / blockCols;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "dlx";
+    }
+
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    @Override
+    public boolean solve(int[] cells, int[] solution, BooleanSupplier cancelled) {
+        if (cells.length != this.cellCount) {
+            throw new IllegalArgumentException("Se esperaban " + this.cellCount + " celdas, hay " + cells.length);
+        }
+        Links links = new Links(cancelled);
+        for (int index = 0; index < this.cellCount; index++) {
+            int value = cells[index];
+            if (value < 0 || value > this.size) {
+                return false;
+            }
+            if (value != 0 && !links.select(index * this.size + value - 1)) {
+                return false; // La pista choca con otra ya elegida
+            }
+        }
+        if (!links.search(0)) {
+            return false;
+        }
+        System.arraycopy(cells, 0, solution, 0, this.cellCount);
+        for (int i = 0; i < links.chosenCount; i++) {
+            int candidate = links.chosen[i];
+            solution[candidate / this.size] = candidate % this.size + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Matriz de cobertura de una llamada. El nodo 0 es la raíz, los nodos 1..columnas son las
+     * cabeceras de las restricciones y los siguientes, de a cuatro, los nodos de cada candidato.
+     */
+    private final class Links {
+        private final int columns = 4 * cellCount;
+        private final int[] left;
+        private final int[] right;
+        private final int[] up;
+        private final int[] down;
+        private final int[] column;
+        private final int[] candidateOf;
+        private final int[] columnSize = new int[this.columns + 1];
+        /**
+         * Primer nodo de cada candidato, para elegir las pistas.
+         */
+        private final int[] firstNode;
+        private final int[] chosen = new int[cellCount];
+        private final BooleanSupplier cancelled;
+        private int chosenCount;
+        private long nodes;
+
+        Links(BooleanSupplier cancelled) {
+            this.cancelled = cancelled;
+            int candidates = cellCount * size;
+            int total = 1 + this.columns + 4 * candidates;
+            this.left = new int[total];
+            this.right = new int[total];
+            this.up = new int[total];
+            this.down = new int[total];
+            this.column = new int[total];
+            this.candidateOf = new int[total];
+            this.firstNode = new int[candidates];
+            for (int c = 0; c <= this.columns; c++) {
+                this.left[c] = c == 0 ? this.columns : c - 1;
+                this.right[c] = c == this.columns ? 0 : c + 1;
+                this.up[c] = c;
+                this.down[c] = c;
+            }
+            int node = this.columns + 1;
+            for (int candidate = 0; candidate < candidates; candidate++) {
+                int cell = candidate / size;
+                int digit = candidate % size;
+                int row = cell / size;
+                int col = cell % size;
+                int first = node;
+                this.firstNode[candidate] = first;
+                node = this.append(first, node, 1 + cell, candidate);
+                node = this.append(first, node, 1 + cellCount + row * size + digit, candidate);
+                node = this.append(first, node, 1 + 2 * cellCount + col * size + digit, candidate);
+                node = this.append(first, node, 1 + 3 * cellCount + boxOf[cell] * size + digit, candidate);
+            }
+        }
+
+        /**
+         * Agrega un nodo al final de su columna y de la fila del candidato que empieza en {@code first}.
+         * @return el siguiente nodo libre.
+         */
+        private int append(int first, int node, int col, int candidate) {
+            this.column[node] = col;
+            this.candidateOf[node] = candidate;
+            this.up[node] = this.up[col];
+            this.down[node] = col;
+            this.down[this.up[col]] = node;
+            this.up[col] = node;
+            this.columnSize[col]++;
+            if (node == first) {
+                this.left[node] = node;
+                this.right[node] = node;
+            } else {
+                this.left[node] = this.left[first];
+                this.right[node] = first;
+                this.right[this.left[first]] = node;
+                this.left[first] = node;
+            }
+            return node + 1;
+        }
+
+        /**
+         * Fija un candidato como pista cubriendo sus cuatro restricciones.
+         * @return false si alguna ya estaba cubierta por otra pista.
+         */
+        boolean select(int candidate) {
+            int first = this.firstNode[candidate];
+            int node = first;
+            do {
+                int col = this.column[node];
+                if (this.right[this.left[col]] != col) {
+                    return false; // Columna ya retirada de la lista de cabeceras
+                }
+                node = this.right[node];
+            } while (node != first);
+            node = first;
+            do {
+                this.cover(this.column[node]);
+                node = this.right[node];
+            } while (node != first);
+            return true;
+        }
+
+        /**
+         * Algoritmo X: cubre la restricción con menos candidatos y prueba cada uno.
+         * @return true si se cubrieron todas las restricciones.
+         */
+        boolean search(int depth) {
+            if (this.right[0] == 0) {
+                return true;
+            }
+            if (this.cancelled != null && (++this.nodes % CANCEL_CHECK_INTERVAL) == 0
+                    && this.cancelled.getAsBoolean()) {
+                throw new CancellationException("Búsqueda de cobertura exacta cancelada.");
+            }
+            int best = this.right[0];
+            for (int col = this.right[best]; col != 0 && this.columnSize[best] > 1; col = this.right[col]) {
+                if (this.columnSize[col] < this.columnSize[best]) {
+                    best = col;
+                }
+            }
+            if (this.columnSize[best] == 0) {
+                return false;
+            }
+            this.cover(best);
+            for (int node = this.down[best]; node != best; node = this.down[node]) {
+                this.chosen[depth] = this.candidateOf[node];
+                for (int other = this.right[node]; other != node; other = this.right[other]) {
+                    this.cover(this.column[other]);
+                }
+                if (this.search(depth + 1)) {
+                    this.chosenCount = Math.max(this.chosenCount, depth + 1);
+                    return true;
+                }
+                for (int other = this.left[node]; other != node; other = this.left[other]) {
+                    this.uncover(this.column[other]);
+                }
+            }
+            this.uncover(best);
+            return false;
+        }
+
+        private void cover(int col) {
+            this.right[this.left[col]] = this.right[col];
+            this.left[this.right[col]] = this.left[col];
+            for (int row = this.down[col]; row != col; row = this.down[row]) {
+                for (int node = this.right[row]; node != row; node = this.right[node]) {
+                    this.down[this.up[node]] = this.down[node];
+                    this.up[this.down[node]] = this.up[node];
+                    this.columnSize[this.column[node]]--;
+                }
+            }
+        }
+
+        private void uncover(int col) {
+            for (int row = this.up[col]; row != col; row = this.up[row]) {
+                for (int node = this.left[row]; node != row; node = this.left[node]) {
+                    this.columnSize[this.column[node]]++;
+                    this.down[this.up[node]] = node;
+                    this.up[this.down[node]] = node;
+                }
+            }
+            this.right[this.left[col]] = col;
+            this.left[this.right[col]] = col;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package univalle.tedesoft.sudoku.models;
+
+/**
+ * Conjunto de huellas de 64 bits con direccionamiento abierto sobre un arreglo de long.
+ * Evita el Long en caja y los nodos de HashSet: cada huella ocupa 8 bytes (16 con la
+ * holgura de la tabla), lo que permite deduplicar millones de puzzles en memoria.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class FingerprintSet {
+    /**
+     * Ocupación máxima de la tabla antes de duplicarla.
+     */
+    private static final double MAX_LOAD = 0.5;
+
+    private long[] table;
+    private int mask;
+    private int size;
+    /**
+     * El 0 marca las posiciones libres, así que la huella 0 se guarda aparte.
+     */
+    private boolean containsZero;
+
+    /**
+     * Crea un conjunto con capacidad inicial para la cantidad de huellas indicada.
+     * @param expectedSize Huellas esperadas.
+     */
+    public FingerprintSet(int expectedSize) {
+        int capacity = Integer.highestOneBit((int) Math.min(1 << 30, Math.max(16, expectedSize / MAX_LOAD)) - 1) << 1;
+        this.table = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Agrega una huella.
+     * @param fingerprint Huella a agregar.
+     * @return true si no estaba en el conjunto.
+     */
+    public boolean add(long fingerprint) {
+        if (fingerprint == 0) {
+            boolean added = !this.containsZero;
+            this.containsZero = true;
+            if (added) {
+                this.size++;
+            }
+            return added;
+        }
+        int slot = (int) (fingerprint ^ (fingerprint >>> 32)) & this.mask;
+        while (true) {
+            long current = this.table[slot];
+            if (current == fingerprint) {
+                return false;
+            }
+            if (current == 0) {
+                this.table[slot] = fingerprint;
+                if (++this.size > this.table.length * MAX_LOAD) {
+                    this.grow();
+                }
+                return true;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+    }
+
+    /**
+     * @param fingerprint Huella a buscar.
+     * @return true si la huella está en el conjunto.
+     */
+    public boolean contains(long fingerprint) {
+        if (fingerprint == 0) {
+            return this.containsZero;
+        }
+        int slot = (int) (fingerprint ^ (fingerprint >>> 32)) & this.mask;
+        while (true) {
+            long current = this.table[slot];
+            if (current == fingerprint) {
+                return true;
+            }
+            if (current == 0) {
+                return false;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+    }
+
+    /**
+     * @return número de huellas distintas en el conjunto.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    private void grow() {
+        long[] old = this.table;
+        if (old.length >= 1 << 30) {
+            throw new IllegalStateException("El conjunto de huellas alcanzó su capacidad máxima.");
+        }
+        this.table = new long[old.length << 1];
+        this.mask = this.table.length - 1;
+        for (long fingerprint : old) {
+            if (fingerprint != 0) {
+                int slot = (int) (fingerprint ^ (fingerprint >>> 32)) & this.mask;
+                while (this.table[slot] != 0) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.table[slot] = fingerprint;
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codifica y decodifica una partida guardada en un formato binario compacto y versionado,
+ * sin reflexión ni serialización de Java. Disposición (little-endian, 58 bytes):
+ * <pre>
+ *  0  magia 'S','6'              (2 bytes)
+ *  2  versión                    (1 byte)
+ *  3  valores: 36 celdas x 3 bits (14 bytes: palabra baja 8 + palabra alta 6)
+ * 17  solución: 36 celdas x 3 bits (14 bytes)
+ * 31  celdas editables: 36 bits  (5 bytes)
+ * 36  posición en el diario       (4 bytes)
+ * 40  tiempo transcurrido en ms   (8 bytes)
+ * 48  pistas usadas               (1 byte)
+ * 49  indicadores: bit 0 = hay identificador de puzzle (1 byte)
+ * 50  identificador del puzzle    (8 bytes; 0 si no hay)
+ * </pre>
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public final class GameSaveCodec {
+    /**
+     * Bytes de la marca de formato ('S', '6').
+     */
+    private static final byte MAGIC_0 = 'S';
+    private static final byte MAGIC_1 = '6';
+    /**
+     * Versión actual del formato.
+     */
+    public static final byte VERSION = 1;
+    /**
+     * Tamaño en bytes de una partida codificada.
+     */
+    public static final int ENCODED_SIZE = 58;
+    /**
+     * Indicador de que la partida guarda el identificador del puzzle.
+     */
+    private static final int HAS_PUZZLE_ID = 1;
+
+    private GameSaveCodec() {
+    }
+
+    /**
+     * Escribe la partida en la posición actual del buffer y la avanza ENCODED_SIZE bytes.
+     * @param game Partida a codificar.
+     * @param out Buffer de destino con al menos ENCODED_SIZE bytes libres.
+     */
+    public static void encode(SavedGame game, ByteBuffer out) {
+        PackedBoard board = game.getBoard();
+        out.put(MAGIC_0).put(MAGIC_1).put(VERSION);
+        putBytes(out, board.getValuesLo(), 8);
+        putBytes(out, board.getValuesHi(), 6);
+        putBytes(out, board.getSolutionLo(), 8);
+        putBytes(out, board.getSolutionHi(), 6);
+        putBytes(out, board.getEditableMask(), 5);
+        putBytes(out, game.getMovePosition(), 4);
+        putBytes(out, game.getElapsedMillis(), 8);
+        out.put((byte) game.getHintsUsed());
+        out.put((byte) (game.hasPuzzleId() ? HAS_PUZZLE_ID : 0));
+        putBytes(out, game.hasPuzzleId() ? game.getPuzzleId() : 0, 8);
+    }
+
+    /**
+     * Lee una partida desde la posición actual del buffer y la avanza ENCODED_SIZE bytes.
+     * @param in Buffer de origen.
+     * @param target Partida donde se escribe el resultado.
+     * @throws IllegalArgumentException si la marca, la versión, los indicadores o algún valor de celda son inválidos.
+     */
+    public static void decode(ByteBuffer in, SavedGame target) {
+        if (in.remaining() < 3) {
+            throw new IllegalArgumentException("Partida guardada incompleta: " + in.remaining() + " bytes");
+        }
+        if (in.get() != MAGIC_0 || in.get() != MAGIC_1) {
+            throw new IllegalArgumentException("El archivo no es una partida guardada de Sudoku 6x6.");
+        }
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versión de partida guardada no soportada: " + version);
+        }
+        if (in.remaining() < ENCODED_SIZE - 3) {
+            throw new IllegalArgumentException("Partida guardada incompleta: " + (in.remaining() + 3) + " bytes");
+        }
+        long valuesLo = getBytes(in, 8);
+        long valuesHi = getBytes(in, 6);
+        long solutionLo = getBytes(in, 8);
+        long solutionHi = getBytes(in, 6);
+        long editableMask = getBytes(in, 5);
+        int movePosition = (int) getBytes(in, 4);
+        long elapsedMillis = getBytes(in, 8);
+        int hintsUsed = in.get() & 0xFF;
+        int flags = in.get() & 0xFF;
+        long puzzleId = getBytes(in, 8);
+
+        if (!PackedBoard.isWellFormed(valuesLo, valuesHi) || !PackedBoard.isWellFormed(solutionLo, solutionHi)) {
+            throw new IllegalArgumentException("Valor de celda inválido en la partida guardada.");
+        }
+        if ((flags & ~HAS_PUZZLE_ID) != 0) {
+            throw new IllegalArgumentException("Indicadores inválidos en la partida guardada: " + flags);
+        }
+        target.getBoard().set(valuesLo, valuesHi, solutionLo, solutionHi, editableMask);
+        target.setMovePosition(movePosition);
+        target.setElapsedMillis(elapsedMillis);
+        target.setHintsUsed(hintsUsed);
+        if ((flags & HAS_PUZZLE_ID) != 0) {
+            target.setPuzzleId(puzzleId);
+        } else {
+            target.clearPuzzleId();
+        }
+    }
+
+    /**
+     * Escribe los {@code count} bytes menos significativos de un valor (little-endian).
+     */
+    private static void putBytes(ByteBuffer out, long value, int count) {
+        for (int i = 0; i < count; i++) {
+            out.put((byte) (value >>> (8 * i)));
+        }
+    }
+
+    /**
+     * Lee {@code count} bytes little-endian como un valor sin signo.
+     */
+    private static long getBytes(ByteBuffer in, int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value |= (in.get() & 0xFFL) << (8 * i);
+        }
+        return value;
+    }
+}
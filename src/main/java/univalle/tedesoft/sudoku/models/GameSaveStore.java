@@ -0,0 +1,94 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Guarda y restaura la partida en curso en un archivo, usando el formato de GameSaveCodec.
+ * El archivo se escribe primero en un temporal y luego se reemplaza de forma atómica,
+ * así que una interrupción nunca deja una partida a medio escribir.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class GameSaveStore {
+    /**
+     * Nombre del archivo de la partida guardada.
+     */
+    private static final String SAVE_FILE_NAME = "partida.bin";
+
+    private final Path saveFile;
+    private final Path tempFile;
+    /**
+     * Buffer reutilizado en cada guardado.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(GameSaveCodec.ENCODED_SIZE);
+
+    /**
+     * Crea un almacén en el directorio dado.
+     * @param directory Directorio donde vive el archivo de la partida.
+     */
+    public GameSaveStore(Path directory) {
+        this.saveFile = directory.resolve(SAVE_FILE_NAME);
+        this.tempFile = directory.resolve(SAVE_FILE_NAME + ".tmp");
+    }
+
+    /**
+     * Directorio por defecto de los datos del juego: {@code ~/.sudoku6x6}.
+     * @return la ruta del directorio.
+     */
+    public static Path defaultDirectory() {
+        return Path.of(System.getProperty("user.home"), ".sudoku6x6");
+    }
+
+    /**
+     * Guarda la partida, reemplazando la anterior.
+     * @param game Partida a guardar.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    public synchronized void save(SavedGame game) throws IOException {
+        this.buffer.clear();
+        GameSaveCodec.encode(game, this.buffer);
+        this.buffer.flip();
+        Files.createDirectories(this.saveFile.getParent());
+        try (FileChannel channel = FileChannel.open(this.tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (this.buffer.hasRemaining()) {
+                channel.write(this.buffer);
+            }
+            channel.force(false); // El reemplazo solo debe ocurrir con el contenido ya en disco
+        }
+        Files.move(this.tempFile, this.saveFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restaura la partida guardada, si existe.
+     * @param target Partida donde se escribe el resultado.
+     * @return true si había una partida guardada y se leyó; false si no existe.
+     * @throws IOException si el archivo no se puede leer.
+     * @throws IllegalArgumentException si el archivo no tiene un formato válido.
+     */
+    public synchronized boolean load(SavedGame target) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(this.saveFile);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        GameSaveCodec.decode(ByteBuffer.wrap(bytes), target);
+        return true;
+    }
+
+    /**
+     * Borra la partida guardada, si existe.
+     * @throws IOException si no se puede borrar el archivo.
+     */
+    public synchronized void delete() throws IOException {
+        Files.deleteIfExists(this.saveFile);
+    }
+}
@@ -0,0 +1,471 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.util.Arrays;
+
+/**
+ * Motor de muchas partidas simultáneas con estado compacto. Cada partida ocupa 6 palabras de
+ * 64 bits (48 bytes) en arreglos paginados de long: valores (2 palabras, como PackedBoard),
+ * solución (2), celdas editables con banderas (1) e identificador del puzzle (1). En comparación,
+ * un Board con su GameState ocupa varios kilobytes en 72 objetos Cell, 6 Block y sus arreglos.
+ * <p>
+ * Las partidas se identifican con un entero (handle) que se reutiliza al eliminarlas, así que un
+ * handle eliminado no debe seguir usándose. Para usar el
+ * código escrito contra IBoard e IGameState hay vistas ligeras (SessionBoard, SessionGameState) que
+ * leen y escriben directamente en estos arreglos y pueden apuntarse a otra partida sin crearse de nuevo.
+ * <p>
+ * Es seguro para varios hilos: las operaciones de una partida se sincronizan sobre uno de
+ * LOCK_STRIPES candados, elegido por su handle; crear y eliminar partidas se sincroniza sobre el motor.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class GameSessionEngine {
+    /**
+     * Palabras de 64 bits por partida.
+     */
+    public static final int WORDS_PER_SESSION = 6;
+    private static final int VALUES_LO = 0;
+    private static final int VALUES_HI = 1;
+    private static final int SOLUTION_LO = 2;
+    private static final int SOLUTION_HI = 3;
+    /**
+     * Celdas editables (bits 0-35), bandera de identificador (bit 62) y de partida en uso (bit 63).
+     */
+    private static final int FLAGS = 4;
+    private static final int PUZZLE_ID = 5;
+    private static final long HAS_PUZZLE_ID = 1L << 62;
+    private static final long IN_USE = 1L << 63;
+    /**
+     * Partidas por página (65536, 3 MB por página).
+     */
+    private static final int PAGE_SHIFT = 16;
+    private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+    private static final int LOCK_STRIPES = 256;
+    private static final int ALL_DIGITS = ((1 << Board.GRID_SIZE) - 1) << 1;
+    /**
+     * Fila, columna y bloque de cada celda.
+     */
+    private static final int[] ROW_OF = new int[PackedBoard.CELL_COUNT];
+    private static final int[] COL_OF = new int[PackedBoard.CELL_COUNT];
+    private static final int[] BOX_OF = new int[PackedBoard.CELL_COUNT];
+
+    static {
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            int row = index / Board.GRID_SIZE;
+            int col = index % Board.GRID_SIZE;
+            ROW_OF[index] = row;
+            COL_OF[index] = col;
+            BOX_OF[index] = row / Board.BLOCK_ROWS * Board.NUM_BLOCK_COLS + col / Board.BLOCK_COLS;
+        }
+    }
+
+    private volatile long[][] pages = new long[0][];
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    /**
+     * Primer handle nunca usado; los menores están en uso o en la pila de libres.
+     */
+    private int nextHandle = 0;
+    private int[] freeHandles = new int[16];
+    private int freeCount = 0;
+    private int size = 0;
+
+    public GameSessionEngine() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            this.locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Crea una partida con el puzzle de un identificador.
+     * @param puzzleId Identificador del puzzle (ver Board.fromPuzzleId).
+     * @return el handle de la partida.
+     */
+    public int create(long puzzleId) {
+        PackedBoard puzzle = new PackedBoard();
+        Board.fromPuzzleId(puzzleId).writeTo(puzzle);
+        int session = this.allocate();
+        this.store(session, puzzle, true, puzzleId);
+        return session;
+    }
+
+    /**
+     * Crea una partida a partir de un tablero compacto (p. ej. leído de una PuzzleLibrary).
+     * @param puzzle Valores, solución y celdas editables de la partida.
+     * @return el handle de la partida.
+     */
+    public int create(PackedBoard puzzle) {
+        int session = this.allocate();
+        this.store(session, puzzle, false, 0);
+        return session;
+    }
+
+    /**
+     * Reemplaza el puzzle de una partida existente por el de un identificador.
+     * @param session Handle de la partida.
+     * @param puzzleId Identificador del puzzle.
+     */
+    public void initialize(int session, long puzzleId) {
+        this.checkSession(session);
+        PackedBoard puzzle = new PackedBoard();
+        Board.fromPuzzleId(puzzleId).writeTo(puzzle);
+        this.store(session, puzzle, true, puzzleId);
+    }
+
+    /**
+     * Elimina una partida; su handle podrá reutilizarse.
+     * @param session Handle de la partida.
+     * @throws IllegalArgumentException si la partida no existe.
+     */
+    public synchronized void remove(int session) {
+        this.checkSession(session);
+        long[] page = this.pages[session >>> PAGE_SHIFT];
+        int base = (session & PAGE_MASK) * WORDS_PER_SESSION;
+        synchronized (this.lock(session)) {
+            Arrays.fill(page, base, base + WORDS_PER_SESSION, 0L);
+        }
+        if (this.freeCount == this.freeHandles.length) {
+            this.freeHandles = Arrays.copyOf(this.freeHandles, this.freeCount * 2);
+        }
+        this.freeHandles[this.freeCount++] = session;
+        this.size--;
+    }
+
+    /**
+     * @return partidas existentes.
+     */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * @param session Handle.
+     * @return true si el handle corresponde a una partida existente.
+     */
+    public boolean exists(int session) {
+        long[][] current = this.pages;
+        if (session < 0 || (session >>> PAGE_SHIFT) >= current.length) {
+            return false;
+        }
+        return (current[session >>> PAGE_SHIFT][(session & PAGE_MASK) * WORDS_PER_SESSION + FLAGS] & IN_USE) != 0;
+    }
+
+    /**
+     * Establece el valor de una celda si es editable, con las reglas de Board.setCellValue.
+     * @return true si la celda es editable y se estableció el valor.
+     * @throws IllegalArgumentException si el valor está fuera de 0..6 o la partida no existe.
+     * @throws IndexOutOfBoundsException si la celda está fuera del tablero.
+     */
+    public boolean setCellValue(int session, int row, int col, int value) {
+        if (value < 0 || value > Board.GRID_SIZE) {
+            throw new IllegalArgumentException("El valor de la celda debe estar entre 0 y " + Board.GRID_SIZE);
+        }
+        int index = cellIndex(row, col);
+        long[] page = this.page(session);
+        int base = (session & PAGE_MASK) * WORDS_PER_SESSION;
+        synchronized (this.lock(session)) {
+            if ((page[base + FLAGS] & (1L << index)) == 0) {
+                return false;
+            }
+            if (PackedBoard.isHighWord(index)) {
+                page[base + VALUES_HI] = PackedBoard.withCell(page[base + VALUES_HI], index, value);
+            } else {
+                page[base + VALUES_LO] = PackedBoard.withCell(page[base + VALUES_LO], index, value);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return el valor de una celda (0 si está vacía).
+     */
+    public int getValue(int session, int row, int col) {
+        int index = cellIndex(row, col);
+        long[] page = this.page(session);
+        int base = (session & PAGE_MASK) * WORDS_PER_SESSION;
+        synchronized (this.lock(session)) {
+            return PackedBoard.getCell(page[base + VALUES_LO], page[base + VALUES_HI], index);
+        }
+    }
+
+    /**
+     * @return true si la celda es editable.
+     */
+    public boolean isEditable(int session, int row, int col) {
+        int index = cellIndex(row, col);
+        long[] page = this.page(session);
+        synchronized (this.lock(session)) {
+            return (page[(session & PAGE_MASK) * WORDS_PER_SESSION + FLAGS] & (1L << index)) != 0;
+        }
+    }
+
+    /**
+     * Marca una celda como editable o fija, cambiando su bit en la palabra de banderas; el valor no cambia.
+     * @throws IllegalArgumentException si la partida no existe.
+     * @throws IndexOutOfBoundsException si la celda está fuera del tablero.
+     */
+    public void setEditable(int session, int row, int col, boolean editable) {
+        int index = cellIndex(row, col);
+        long[] page = this.page(session);
+        int base = (session & PAGE_MASK) * WORDS_PER_SESSION;
+        synchronized (this.lock(session)) {
+            if (editable) {
+                page[base + FLAGS] |= 1L << index;
+            } else {
+                page[base + FLAGS] &= ~(1L << index);
+            }
+        }
+    }
+
+    /**
+     * Copia el estado completo de una partida.
+     * @param session Handle de la partida.
+     * @param target Recibe valores, solución y celdas editables.
+     */
+    public void read(int session, PackedBoard target) {
+        long[] page = this.page(session);
+        int base = (session & PAGE_MASK) * WORDS_PER_SESSION;
+        synchronized (this.lock(session)) {
+            target.set(page[base + VALUES_LO], page[base + VALUES_HI], page[base + SOLUTION_LO],
+                    page[base + SOLUTION_HI], page[base + FLAGS] & PackedBoard.ALL_CELLS_MASK);
+        }
+    }
+
+    /**
+     * @return true si la partida se creó a partir de un identificador de puzzle.
+     */
+    public boolean hasPuzzleId(int session) {
+        long[] page = this.page(session);
+        synchronized (this.lock(session)) {
+            return (page[(session & PAGE_MASK) * WORDS_PER_SESSION + FLAGS] & HAS_PUZZLE_ID) != 0;
+        }
+    }
+
+    /**
+     * @return el identificador del puzzle de la partida.
+     * @throws IllegalStateException si la partida no se creó a partir de un identificador.
+     */
+    public long getPuzzleId(int session) {
+        long[] page = this.page(session);
+        int base = (session & PAGE_MASK) * WORDS_PER_SESSION;
+        synchronized (this.lock(session)) {
+            if ((page[base + FLAGS] & HAS_PUZZLE_ID) == 0) {
+                throw new IllegalStateException("La partida no se generó a partir de un identificador de puzzle.");
+            }
+            return page[base + PUZZLE_ID];
+        }
+    }
+
+    /**
+     * Calcula las celdas en conflicto con las reglas (valor repetido en su fila, columna o bloque).
+     * @return máscara de 36 bits con las celdas inválidas (bit {@code PackedBoard.index(fila, columna)}).
+     */
+    public long getInvalidCellMask(int session) {
+        long lo;
+        long hi;
+        long[] page = this.page(session);
+        int base = (session & PAGE_MASK) * WORDS_PER_SESSION;
+        synchronized (this.lock(session)) {
+            lo = page[base + VALUES_LO];
+            hi = page[base + VALUES_HI];
+        }
+        return invalidCellMask(lo, hi);
+    }
+
+    /**
+     * Celdas en conflicto de un tablero compacto, con las reglas de GameState.getInvalidCells.
+     * @param lo Palabra baja de valores (como PackedBoard).
+     * @param hi Palabra alta de valores.
+     * @return máscara de 36 bits con las celdas que repiten número en su fila, columna o bloque.
+     */
+    public static long invalidCellMask(long lo, long hi) {
+        // Dígitos vistos y repetidos por unidad: 8 bits por fila, columna o bloque dentro de un long
+        long rowSeen = 0;
+        long colSeen = 0;
+        long boxSeen = 0;
+        long rowRepeated = 0;
+        long colRepeated = 0;
+        long boxRepeated = 0;
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            int value = PackedBoard.getCell(lo, hi, index);
+            if (value == 0) continue;
+            long rowBit = (long) (1 << value) << (ROW_OF[index] * 8);
+            long colBit = (long) (1 << value) << (COL_OF[index] * 8);
+            long boxBit = (long) (1 << value) << (BOX_OF[index] * 8);
+            rowRepeated |= rowSeen & rowBit;
+            colRepeated |= colSeen & colBit;
+            boxRepeated |= boxSeen & boxBit;
+            rowSeen |= rowBit;
+            colSeen |= colBit;
+            boxSeen |= boxBit;
+        }
+        if ((rowRepeated | colRepeated | boxRepeated) == 0) {
+            return 0;
+        }
+        long invalid = 0;
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            int value = PackedBoard.getCell(lo, hi, index);
+            if (value == 0) continue;
+            long repeated = (rowRepeated >>> (ROW_OF[index] * 8)) | (colRepeated >>> (COL_OF[index] * 8))
+                    | (boxRepeated >>> (BOX_OF[index] * 8));
+            if (((repeated >>> value) & 1) != 0) {
+                invalid |= 1L << index;
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * @return true si ninguna celda está vacía.
+     */
+    public boolean isFull(int session) {
+        long[] page = this.page(session);
+        int base = (session & PAGE_MASK) * WORDS_PER_SESSION;
+        long lo;
+        long hi;
+        synchronized (this.lock(session)) {
+            lo = page[base + VALUES_LO];
+            hi = page[base + VALUES_HI];
+        }
+        return countEmpty(lo, hi, PackedBoard.ALL_CELLS_MASK) == 0;
+    }
+
+    /**
+     * @return true si el tablero está lleno y sin conflictos.
+     */
+    public boolean isWon(int session) {
+        return this.isFull(session) && this.getInvalidCellMask(session) == 0;
+    }
+
+    /**
+     * @return celdas editables vacías.
+     */
+    public int countEmptyEditableCells(int session) {
+        long[] page = this.page(session);
+        int base = (session & PAGE_MASK) * WORDS_PER_SESSION;
+        synchronized (this.lock(session)) {
+            return countEmpty(page[base + VALUES_LO], page[base + VALUES_HI], page[base + FLAGS] & PackedBoard.ALL_CELLS_MASK);
+        }
+    }
+
+    /**
+     * Sugiere un número para una celda, con las reglas de GameState.getClue: el menor número que
+     * no se repite en su fila, columna ni bloque.
+     * @return el número sugerido, o 0 si la celda no es editable, no está vacía o no hay sugerencia.
+     */
+    public int getClue(int session, int row, int col) {
+        int index = cellIndex(row, col);
+        long[] page = this.page(session);
+        int base = (session & PAGE_MASK) * WORDS_PER_SESSION;
+        long lo;
+        long hi;
+        synchronized (this.lock(session)) {
+            if ((page[base + FLAGS] & (1L << index)) == 0) {
+                return 0;
+            }
+            lo = page[base + VALUES_LO];
+            hi = page[base + VALUES_HI];
+        }
+        if (PackedBoard.getCell(lo, hi, index) != 0) {
+            return 0;
+        }
+        int used = 0;
+        for (int other = 0; other < PackedBoard.CELL_COUNT; other++) {
+            if (ROW_OF[other] == ROW_OF[index] || COL_OF[other] == COL_OF[index] || BOX_OF[other] == BOX_OF[index]) {
+                used |= 1 << PackedBoard.getCell(lo, hi, other);
+            }
+        }
+        int free = ALL_DIGITS & ~used;
+        return free == 0 ? 0 : Integer.numberOfTrailingZeros(free);
+    }
+
+    /**
+     * @return una vista IBoard de la partida.
+     */
+    public SessionBoard board(int session) {
+        this.checkSession(session);
+        return new SessionBoard(this, session);
+    }
+
+    /**
+     * @return una vista IGameState de la partida.
+     */
+    public SessionGameState gameState(int session) {
+        this.checkSession(session);
+        return new SessionGameState(this, session);
+    }
+
+    /**
+     * @return bytes que ocupan los arreglos de partidas reservados (sin contar los objetos del motor).
+     */
+    public synchronized long getReservedBytes() {
+        return (long) this.pages.length * (PAGE_MASK + 1) * WORDS_PER_SESSION * Long.BYTES
+                + (long) this.freeHandles.length * Integer.BYTES;
+    }
+
+    void checkSession(int session) {
+        if (!this.exists(session)) {
+            throw new IllegalArgumentException("Partida inexistente: " + session);
+        }
+    }
+
+    private synchronized int allocate() {
+        int session;
+        if (this.freeCount > 0) {
+            session = this.freeHandles[--this.freeCount];
+        } else {
+            session = this.nextHandle++;
+            if ((session >>> PAGE_SHIFT) >= this.pages.length) {
+                long[][] grown = Arrays.copyOf(this.pages, this.pages.length + 1);
+                grown[grown.length - 1] = new long[(PAGE_MASK + 1) * WORDS_PER_SESSION];
+                this.pages = grown;
+            }
+        }
+        long[] page = this.pages[session >>> PAGE_SHIFT];
+        synchronized (this.lock(session)) {
+            page[(session & PAGE_MASK) * WORDS_PER_SESSION + FLAGS] = IN_USE;
+        }
+        this.size++;
+        return session;
+    }
+
+    private void store(int session, PackedBoard puzzle, boolean hasPuzzleId, long puzzleId) {
+        long[] page = this.pages[session >>> PAGE_SHIFT];
+        int base = (session & PAGE_MASK) * WORDS_PER_SESSION;
+        synchronized (this.lock(session)) {
+            page[base + VALUES_LO] = puzzle.getValuesLo();
+            page[base + VALUES_HI] = puzzle.getValuesHi();
+            page[base + SOLUTION_LO] = puzzle.getSolutionLo();
+            page[base + SOLUTION_HI] = puzzle.getSolutionHi();
+            page[base + FLAGS] = IN_USE | (hasPuzzleId ? HAS_PUZZLE_ID : 0) | puzzle.getEditableMask();
+            page[base + PUZZLE_ID] = puzzleId;
+        }
+    }
+
+    private long[] page(int session) {
+        this.checkSession(session);
+        return this.pages[session >>> PAGE_SHIFT];
+    }
+
+    private Object lock(int session) {
+        return this.locks[session & (LOCK_STRIPES - 1)];
+    }
+
+    private static int cellIndex(int row, int col) {
+        if (row < 0 || row >= Board.GRID_SIZE || col < 0 || col >= Board.GRID_SIZE) {
+            throw new IndexOutOfBoundsException("Índices de celda fuera de rango: (" + row + "," + col + ")");
+        }
+        return PackedBoard.index(row, col);
+    }
+
+    /**
+     * Cuenta las celdas vacías entre las indicadas por la máscara.
+     */
+    private static int countEmpty(long lo, long hi, long mask) {
+        int empty = 0;
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            if (PackedBoard.getCell(lo, hi, Long.numberOfTrailingZeros(remaining)) == 0) {
+                empty++;
+            }
+        }
+        return empty;
+    }
+}
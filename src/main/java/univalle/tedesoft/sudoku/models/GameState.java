@@ -2,6 +2,7 @@ package univalle.tedesoft.sudoku.models;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 import javafx.util.Pair;
 
@@ -156,6 +157,40 @@ public class GameState implements IGameState {
         return 0;
     }
 
+    /**
+     * Comprueba si el tablero todavía se puede completar. Si todas las entradas coinciden con la
+     * solución guardada, la respuesta es inmediata; solo si alguna difiere se busca otra solución.
+     * Los puzzles generados suelen admitir varias soluciones y cualquiera gana la partida, así que
+     * DIVERGES es informativo: el tablero se puede completar, solo que no con la solución guardada.
+     * @param cancelled Señal de cancelación consultada durante la búsqueda (puede ser null).
+     * @return SOLVABLE, NO_SOLUTION o DIVERGES.
+     * @throws java.util.concurrent.CancellationException si la búsqueda se canceló.
+     */
+    @Override
+    public Solvability getSolvability(BooleanSupplier cancelled) {
+        return solvabilityOf(this.board.toPacked(), cancelled);
+    }
+
+    /**
+     * Comprueba si un tablero compacto todavía se puede completar (ver getSolvability).
+     * @param packed Tablero con sus valores actuales y la solución guardada.
+     * @param cancelled Señal de cancelación consultada durante la búsqueda (puede ser null).
+     * @return SOLVABLE, NO_SOLUTION o DIVERGES.
+     */
+    public static Solvability solvabilityOf(PackedBoard packed, BooleanSupplier cancelled) {
+        int[] cells = new int[PackedBoard.CELL_COUNT];
+        boolean diverges = false;
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            cells[index] = packed.getValue(index);
+            diverges |= cells[index] != 0 && cells[index] != packed.getSolution(index);
+        }
+        if (!diverges) {
+            return Solvability.SOLVABLE;
+        }
+        int solutions = SudokuSolver.SIX_BY_SIX.countSolutions(cells, 1, null, cancelled);
+        return solutions == 0 ? Solvability.NO_SOLUTION : Solvability.DIVERGES;
+    }
+
     /**
      * Función auxiliar para verificar si un número *podría* ser colocado
      * en una celda vacía sin violar inmediatamente las reglas.
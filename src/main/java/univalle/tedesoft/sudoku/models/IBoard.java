@@ -12,6 +12,20 @@ public interface IBoard {
      */
     void initializeBoard();
 
+    /**
+     * Inicializa el tablero con el puzzle determinado por un identificador.
+     * El mismo identificador produce siempre el mismo puzzle, en cualquier proceso.
+     * @param puzzleId Identificador (semilla de 64 bits) del puzzle.
+     */
+    void initializeBoard(long puzzleId);
+
+    /**
+     * Obtiene el identificador del puzzle en juego.
+     * @return la semilla con la que se generó el puzzle.
+     * @throws IllegalStateException si el tablero no se generó a partir de un identificador.
+     */
+    long getPuzzleId();
+
     /**
      * Obtiene una representación (snapshot) de la cuadrícula actual del tablero.
      * La implementación debe devolver una copia para evitar modificaciones externas no deseadas.
@@ -0,0 +1,17 @@
+package univalle.tedesoft.sudoku.models;
+
+/**
+ * Recibe los cambios de valor de las celdas de un tablero.
+ * @author David Valencia
+ * @author Santiago Guerrero
+ */
+public interface IBoardListener {
+    /**
+     * Se invoca después de que una celda editable cambia de valor.
+     * @param row Fila de la celda (0 a GRID_SIZE - 1).
+     * @param col Columna de la celda (0 a GRID_SIZE - 1).
+     * @param oldValue Valor anterior (0 si estaba vacía).
+     * @param newValue Valor nuevo (0 si se vació).
+     */
+    void cellChanged(int row, int col, int oldValue, int newValue);
+}
@@ -2,6 +2,7 @@ package univalle.tedesoft.sudoku.models;
 
 import javafx.util.Pair;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 /**
  * Evalua el estado del juego Sudoku.
@@ -53,4 +54,14 @@ public interface IGameState {
      * no vacía, o ninguna sugerencia simple encontrada).
      */
     int getClue (int row, int col);
+
+    /**
+     * Comprueba si el tablero todavía se puede completar, más allá de los duplicados directos:
+     * celdas sin conflicto pueden dejar el puzzle sin solución. Puede tardar; pensado para
+     * ejecutarse en segundo plano sobre una copia del tablero.
+     * @param cancelled Señal de cancelación consultada durante la búsqueda (puede ser null).
+     * @return si el tablero sigue la solución guardada, no tiene solución o tiene otra distinta.
+     * @throws java.util.concurrent.CancellationException si la búsqueda se canceló.
+     */
+    Solvability getSolvability(BooleanSupplier cancelled);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Estrategia para resolver un Sudoku de dimensiones fijas. Las implementaciones no guardan estado
+ * de búsqueda entre llamadas, así que una instancia puede usarse desde varios hilos.
+ * @author David Valencia
+ * @author Santiago Guerrero
+ */
+public interface ISolverStrategy {
+
+    /**
+     * @return nombre corto de la estrategia, usado en reportes y para elegirla en la línea de comandos.
+     */
+    String getName();
+
+    /**
+     * @return el lado del tablero que resuelve la estrategia.
+     */
+    int getSize();
+
+    /**
+     * Busca una solución del puzzle.
+     * @param cells Celdas en orden fila por fila (0 = vacía); no se modifica.
+     * @param solution Arreglo del mismo largo que recibe la solución si se encuentra.
+     * @param cancelled Señal de cancelación consultada periódicamente durante la búsqueda (puede ser null).
+     * @return true si el puzzle tiene solución; false si no la tiene o las pistas se contradicen.
+     * @throws java.util.concurrent.CancellationException si la búsqueda se canceló.
+     */
+    boolean solve(int[] cells, int[] solution, BooleanSupplier cancelled);
+}
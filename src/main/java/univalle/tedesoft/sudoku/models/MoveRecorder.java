@@ -0,0 +1,260 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongSupplier;
+
+/**
+ * Grabador de partidas: escucha los cambios del tablero (IBoardListener) y los agrega a un
+ * registro binario de solo anexado, uno por palabra de 8 bytes con su instante en milisegundos.
+ * Cada partida empieza con un registro de inicio (el ID del puzzle o una foto del tablero) y cada
+ * SNAPSHOT_INTERVAL jugadas se escribe una foto completa, para que MoveReplayer pueda saltar a
+ * cualquier instante sin releer el registro desde el principio.
+ * Formato de una palabra de evento (little-endian):
+ * bits 0-5 celda, 6-8 valor nuevo, 9-10 origen (MoveSource, o 3 para registros especiales),
+ * 11-12 tipo de registro especial, 16-63 instante en milisegundos.
+ * Los registros especiales van seguidos de su carga: 1 palabra (ID del puzzle) o 5 (foto del tablero).
+ * Las escrituras se acumulan en memoria; el disco solo se toca al llenarse el búfer, con flush o al cerrar.
+ * No es seguro para hilos: se usa desde el hilo del controlador.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class MoveRecorder implements IBoardListener, Closeable {
+    /**
+     * "S6MOVES1" como long: identifica el archivo y su versión.
+     */
+    public static final long MAGIC = 0x3153_4556_4F4D_3653L;
+    /**
+     * Jugadas entre fotos completas del tablero.
+     */
+    public static final int SNAPSHOT_INTERVAL = 256;
+
+    static final int CELL_MASK = 0x3F;
+    static final int VALUE_SHIFT = 6;
+    static final int SOURCE_SHIFT = 9;
+    static final int KIND_SHIFT = 11;
+    static final int TIME_SHIFT = 16;
+    /**
+     * Valor del campo de origen que marca un registro especial.
+     */
+    static final int SPECIAL = 3;
+    /**
+     * Registro especial: inicio de partida por ID de puzzle, seguido del ID.
+     */
+    static final int KIND_PUZZLE_ID = 0;
+    /**
+     * Registro especial: foto del tablero, seguida de valores, solución y máscara (5 palabras).
+     */
+    static final int KIND_SNAPSHOT = 1;
+    /**
+     * Registro especial: foto que inicia una partida nueva (restaurada o sin ID).
+     */
+    static final int KIND_START_SNAPSHOT = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final LongSupplier clock;
+    /**
+     * Copia del tablero grabado, para escribir las fotos periódicas sin consultar el modelo.
+     */
+    private final PackedBoard mirror = new PackedBoard();
+    private MoveSource source = MoveSource.USER;
+    private boolean gameStarted = false;
+    private int movesSinceSnapshot = 0;
+    private long eventCount = 0;
+
+    /**
+     * Abre (o crea) el registro con el reloj del sistema.
+     * @param file Archivo del registro.
+     * @throws IOException si no se puede abrir o no es un registro de jugadas.
+     */
+    public MoveRecorder(Path file) throws IOException {
+        this(file, System::currentTimeMillis);
+    }
+
+    /**
+     * Abre (o crea) el registro con un reloj dado.
+     * @param file Archivo del registro.
+     * @param clock Reloj en milisegundos (p. ej. simulado en pruebas de rendimiento).
+     * @throws IOException si no se puede abrir o no es un registro de jugadas.
+     */
+    public MoveRecorder(Path file, LongSupplier clock) throws IOException {
+        this.clock = clock;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long size = this.channel.size();
+        if (size == 0) {
+            this.buffer.putLong(MAGIC);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            this.channel.read(header, 0);
+            if (header.flip().remaining() < Long.BYTES || header.getLong() != MAGIC) {
+                this.channel.close();
+                throw new IOException("El archivo no es un registro de jugadas: " + file);
+            }
+            // Descarta una palabra incompleta de una escritura interrumpida
+            this.channel.truncate(size - size % Long.BYTES);
+        }
+        this.channel.position(this.channel.size());
+    }
+
+    /**
+     * Crea el grabador indicado por la propiedad del sistema sudoku.record, si existe.
+     * El registro se vacía a disco al terminar la JVM.
+     * @return el grabador, o null si la propiedad no está definida o el archivo no se pudo abrir.
+     */
+    public static MoveRecorder fromSystemProperty() {
+        String path = System.getProperty("sudoku.record");
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        try {
+            MoveRecorder recorder = new MoveRecorder(Path.of(path));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    recorder.close();
+                } catch (IOException e) {
+                    System.err.println("No se pudo cerrar el registro de jugadas: " + e.getMessage());
+                }
+            }, "sudoku-recorder-close"));
+            return recorder;
+        } catch (IOException e) {
+            System.err.println("No se pudo abrir el registro de jugadas: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Establece el origen de las próximas jugadas (USER mientras no se indique otro).
+     * @param source Origen de las jugadas.
+     */
+    public void setSource(MoveSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Marca el inicio de una partida sobre un tablero y empieza a escuchar sus cambios.
+     * Un tablero con ID se registra solo con el ID; uno sin ID (restaurado) con una foto completa.
+     * @param board Tablero que se empieza a jugar.
+     */
+    public void startGame(Board board) {
+        board.writeTo(this.mirror);
+        long time = this.clock.getAsLong();
+        if (board.hasPuzzleId() && isUntouched(this.mirror)) {
+            this.ensureCapacity(2);
+            this.buffer.putLong(special(KIND_PUZZLE_ID, time));
+            this.buffer.putLong(board.getPuzzleId());
+        } else {
+            this.putSnapshot(KIND_START_SNAPSHOT, time);
+        }
+        this.gameStarted = true;
+        this.movesSinceSnapshot = 0;
+        this.eventCount++;
+        board.setListener(this);
+    }
+
+    @Override
+    public void cellChanged(int row, int col, int oldValue, int newValue) {
+        this.record(PackedBoard.index(row, col), newValue, this.source, this.clock.getAsLong());
+    }
+
+    /**
+     * Registra una jugada sobre la partida en curso.
+     * @param index Índice de la celda (PackedBoard.index).
+     * @param value Valor nuevo (0 a 6).
+     * @param source Origen de la jugada.
+     * @param timeMillis Instante de la jugada.
+     * @throws IllegalStateException si no se ha iniciado una partida.
+     */
+    public void record(int index, int value, MoveSource source, long timeMillis) {
+        if (!this.gameStarted) {
+            throw new IllegalStateException("No hay una partida iniciada en el registro.");
+        }
+        this.ensureCapacity(1);
+        this.buffer.putLong((timeMillis << TIME_SHIFT) | ((long) source.ordinal() << SOURCE_SHIFT)
+                | ((long) value << VALUE_SHIFT) | index);
+        this.mirror.setValue(index, value);
+        this.eventCount++;
+        if (++this.movesSinceSnapshot >= SNAPSHOT_INTERVAL) {
+            this.putSnapshot(KIND_SNAPSHOT, timeMillis);
+            this.movesSinceSnapshot = 0;
+        }
+    }
+
+    /**
+     * @return eventos (inicios de partida y jugadas) registrados por este grabador.
+     */
+    public long getEventCount() {
+        return this.eventCount;
+    }
+
+    /**
+     * Escribe en el archivo los eventos acumulados.
+     * @throws IOException si falla la escritura.
+     */
+    public void flush() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    /**
+     * Escribe los eventos pendientes y cierra el archivo.
+     * @throws IOException si falla la escritura.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!this.channel.isOpen()) return;
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    private void putSnapshot(int kind, long time) {
+        this.ensureCapacity(6);
+        this.buffer.putLong(special(kind, time));
+        this.buffer.putLong(this.mirror.getValuesLo());
+        this.buffer.putLong(this.mirror.getValuesHi());
+        this.buffer.putLong(this.mirror.getSolutionLo());
+        this.buffer.putLong(this.mirror.getSolutionHi());
+        this.buffer.putLong(this.mirror.getEditableMask());
+    }
+
+    private void ensureCapacity(int words) {
+        if (this.buffer.remaining() < words * Long.BYTES) {
+            try {
+                this.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static long special(int kind, long time) {
+        return (time << TIME_SHIFT) | ((long) kind << KIND_SHIFT) | ((long) SPECIAL << SOURCE_SHIFT);
+    }
+
+    /**
+     * @return true si ninguna celda editable tiene valor (el tablero es igual al puzzle generado).
+     */
+    private static boolean isUntouched(PackedBoard board) {
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            if (board.isEditable(index) && board.getValue(index) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
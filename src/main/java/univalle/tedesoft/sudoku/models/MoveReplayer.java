@@ -0,0 +1,313 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reproduce un registro de MoveRecorder. Al abrirlo lo recorre una vez (mapeado en memoria) y
+ * guarda la posición de cada inicio de partida y de cada foto del tablero; para reconstruir un
+ * instante busca la foto anterior más cercana y aplica solo las jugadas que siguen, como mucho
+ * MoveRecorder.SNAPSHOT_INTERVAL. Sin interfaz, la reproducción completa procesa decenas de
+ * millones de jugadas por segundo, pensada para análisis en lote.
+ * Los instantes se asumen no decrecientes, como los del reloj con que se grabó.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class MoveReplayer implements Closeable {
+    /**
+     * Recibe las jugadas de una reproducción completa (forEachMove).
+     */
+    public interface MoveVisitor {
+        /**
+         * Se invoca después de aplicar cada jugada.
+         * @param timeMillis Instante de la jugada.
+         * @param source Origen de la jugada.
+         * @param index Celda modificada (PackedBoard.index).
+         * @param value Valor nuevo.
+         * @param board Tablero tras la jugada; se reutiliza, no debe guardarse.
+         */
+        void move(long timeMillis, MoveSource source, int index, int value, PackedBoard board);
+
+        /**
+         * Se invoca al empezar cada partida del registro.
+         * @param timeMillis Instante de inicio.
+         * @param board Tablero inicial; se reutiliza, no debe guardarse.
+         */
+        default void gameStarted(long timeMillis, PackedBoard board) {
+        }
+    }
+
+    /**
+     * Palabras por segmento mapeado (1 GB); los registros pueden cruzar segmentos.
+     */
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    private static final MoveSource[] SOURCES = MoveSource.values();
+
+    private final FileChannel channel;
+    private final LongBuffer[] segments;
+    /**
+     * Palabras completas del registro, incluida la cabecera.
+     */
+    private final long wordCount;
+    /**
+     * Fin de la parte válida del registro: excluye un registro especial incompleto al final.
+     */
+    private long validEnd;
+    private long[] checkpointWord = new long[64];
+    private long[] checkpointTime = new long[64];
+    private long[] checkpointMoves = new long[64];
+    private int checkpointCount = 0;
+    private int gameCount = 0;
+    private long moveCount = 0;
+    /**
+     * Último puzzle regenerado desde su ID, para no regenerarlo en cada búsqueda.
+     */
+    private long cachedPuzzleId;
+    private final PackedBoard cachedPuzzle = new PackedBoard();
+    private boolean hasCachedPuzzle = false;
+
+    /**
+     * Abre un registro de jugadas y construye su índice de fotos.
+     * @param file Archivo escrito por MoveRecorder.
+     * @throws IOException si no se puede leer o no es un registro de jugadas.
+     */
+    public MoveReplayer(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = this.channel.size();
+        this.wordCount = size / Long.BYTES;
+        int segmentCount = (int) ((this.wordCount + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        this.segments = new LongBuffer[segmentCount];
+        for (int s = 0; s < segmentCount; s++) {
+            long first = (long) s << SEGMENT_SHIFT;
+            long words = Math.min(1L << SEGMENT_SHIFT, this.wordCount - first);
+            MappedByteBuffer mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, first * Long.BYTES,
+                    words * Long.BYTES);
+            this.segments[s] = mapped.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+        if (this.wordCount == 0 || this.word(0) != MoveRecorder.MAGIC) {
+            this.channel.close();
+            throw new IOException("El archivo no es un registro de jugadas: " + file);
+        }
+        this.buildIndex();
+    }
+
+    /**
+     * @return jugadas en el registro (sin contar inicios de partida ni fotos).
+     */
+    public long getMoveCount() {
+        return this.moveCount;
+    }
+
+    /**
+     * @return partidas iniciadas en el registro.
+     */
+    public int getGameCount() {
+        return this.gameCount;
+    }
+
+    /**
+     * @return instante del primer evento, o -1 si el registro está vacío.
+     */
+    public long getStartTime() {
+        return this.checkpointCount == 0 ? -1 : this.checkpointTime[0];
+    }
+
+    /**
+     * Reconstruye el tablero tal como estaba en un instante: con todos los eventos hasta él, inclusive.
+     * @param timeMillis Instante a reconstruir.
+     * @param target Tablero donde se escribe el resultado.
+     * @return false si el instante es anterior a la primera partida (target no cambia).
+     */
+    public boolean stateAt(long timeMillis, PackedBoard target) {
+        int checkpoint = lastIndexAtMost(this.checkpointTime, this.checkpointCount, timeMillis);
+        if (checkpoint < 0) {
+            return false;
+        }
+        long position = this.loadCheckpoint(checkpoint, target);
+        while (position < this.validEnd) {
+            long event = this.word(position);
+            if (event >>> MoveRecorder.TIME_SHIFT > timeMillis) {
+                break;
+            }
+            if (isSpecial(event)) {
+                this.loadSpecial(position, event, target);
+                position += 1 + payloadLength(event);
+            } else {
+                target.setValue((int) event & MoveRecorder.CELL_MASK, (int) (event >>> MoveRecorder.VALUE_SHIFT) & 7);
+                position++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reconstruye el tablero justo después de una jugada del registro.
+     * @param moveNumber Número de jugada (1 es la primera; 0 es el inicio de la primera partida).
+     * @param target Tablero donde se escribe el resultado.
+     * @throws IndexOutOfBoundsException si la jugada no existe en el registro.
+     */
+    public void stateAfterMove(long moveNumber, PackedBoard target) {
+        if (moveNumber < 0 || moveNumber > this.moveCount || this.checkpointCount == 0) {
+            throw new IndexOutOfBoundsException("Jugada fuera del registro: " + moveNumber);
+        }
+        if (moveNumber == 0) {
+            this.loadCheckpoint(0, target);
+            return;
+        }
+        // La última foto con jugadas pendientes antes de moveNumber
+        int checkpoint = lastIndexAtMost(this.checkpointMoves, this.checkpointCount, moveNumber - 1);
+        long position = this.loadCheckpoint(checkpoint, target);
+        long moves = this.checkpointMoves[checkpoint];
+        while (moves < moveNumber) {
+            long event = this.word(position);
+            if (isSpecial(event)) {
+                this.loadSpecial(position, event, target);
+                position += 1 + payloadLength(event);
+            } else {
+                target.setValue((int) event & MoveRecorder.CELL_MASK, (int) (event >>> MoveRecorder.VALUE_SHIFT) & 7);
+                position++;
+                moves++;
+            }
+        }
+    }
+
+    /**
+     * Reproduce el registro completo en orden, entregando cada jugada con el tablero resultante.
+     * @param visitor Receptor de las jugadas.
+     * @return jugadas reproducidas.
+     */
+    public long forEachMove(MoveVisitor visitor) {
+        PackedBoard board = new PackedBoard();
+        long moves = 0;
+        long position = 1;
+        while (position < this.validEnd) {
+            long event = this.word(position);
+            if (isSpecial(event)) {
+                // Las fotos periódicas repiten el estado ya reproducido; solo los inicios cambian de partida
+                if (kindOf(event) != MoveRecorder.KIND_SNAPSHOT) {
+                    this.loadSpecial(position, event, board);
+                    visitor.gameStarted(event >>> MoveRecorder.TIME_SHIFT, board);
+                }
+                position += 1 + payloadLength(event);
+                continue;
+            }
+            position++;
+            int index = (int) event & MoveRecorder.CELL_MASK;
+            int value = (int) (event >>> MoveRecorder.VALUE_SHIFT) & 7;
+            board.setValue(index, value);
+            visitor.move(event >>> MoveRecorder.TIME_SHIFT, SOURCES[(int) (event >>> MoveRecorder.SOURCE_SHIFT) & 3],
+                    index, value, board);
+            moves++;
+        }
+        return moves;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Recorre el registro una vez guardando la posición, instante y jugadas previas de cada foto.
+     * Un registro especial sin su carga completa (escritura interrumpida) termina el registro.
+     */
+    private void buildIndex() {
+        long position = 1;
+        while (position < this.wordCount) {
+            long event = this.word(position);
+            if (!isSpecial(event)) {
+                this.moveCount++;
+                position++;
+                continue;
+            }
+            int payload = payloadLength(event);
+            if (position + payload >= this.wordCount) {
+                break;
+            }
+            if (kindOf(event) != MoveRecorder.KIND_SNAPSHOT) {
+                this.gameCount++;
+            }
+            if (this.checkpointCount == this.checkpointWord.length) {
+                int capacity = this.checkpointCount * 2;
+                this.checkpointWord = Arrays.copyOf(this.checkpointWord, capacity);
+                this.checkpointTime = Arrays.copyOf(this.checkpointTime, capacity);
+                this.checkpointMoves = Arrays.copyOf(this.checkpointMoves, capacity);
+            }
+            this.checkpointWord[this.checkpointCount] = position;
+            this.checkpointTime[this.checkpointCount] = event >>> MoveRecorder.TIME_SHIFT;
+            this.checkpointMoves[this.checkpointCount] = this.moveCount;
+            this.checkpointCount++;
+            position += 1 + payload;
+        }
+        this.validEnd = position;
+    }
+
+    /**
+     * Carga una foto del índice en el tablero.
+     * @return posición de la palabra siguiente a la foto.
+     */
+    private long loadCheckpoint(int checkpoint, PackedBoard target) {
+        long position = this.checkpointWord[checkpoint];
+        long event = this.word(position);
+        this.loadSpecial(position, event, target);
+        return position + 1 + payloadLength(event);
+    }
+
+    private void loadSpecial(long position, long event, PackedBoard target) {
+        if (kindOf(event) == MoveRecorder.KIND_PUZZLE_ID) {
+            long puzzleId = this.word(position + 1);
+            if (!this.hasCachedPuzzle || this.cachedPuzzleId != puzzleId) {
+                Board.fromPuzzleId(puzzleId).writeTo(this.cachedPuzzle);
+                this.cachedPuzzleId = puzzleId;
+                this.hasCachedPuzzle = true;
+            }
+            target.copyFrom(this.cachedPuzzle);
+        } else {
+            target.set(this.word(position + 1), this.word(position + 2), this.word(position + 3),
+                    this.word(position + 4), this.word(position + 5));
+        }
+    }
+
+    private long word(long position) {
+        return this.segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK));
+    }
+
+    private static boolean isSpecial(long event) {
+        return ((event >>> MoveRecorder.SOURCE_SHIFT) & 3) == MoveRecorder.SPECIAL;
+    }
+
+    private static int kindOf(long event) {
+        return (int) (event >>> MoveRecorder.KIND_SHIFT) & 3;
+    }
+
+    private static int payloadLength(long event) {
+        return kindOf(event) == MoveRecorder.KIND_PUZZLE_ID ? 1 : 5;
+    }
+
+    /**
+     * @return el último índice i < count con values[i] <= key, o -1 si no hay.
+     */
+    private static int lastIndexAtMost(long[] values, int count, long key) {
+        int low = 0;
+        int high = count - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+}
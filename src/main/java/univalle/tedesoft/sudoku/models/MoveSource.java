@@ -0,0 +1,21 @@
+package univalle.tedesoft.sudoku.models;
+
+/**
+ * Origen de una jugada registrada por MoveRecorder.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public enum MoveSource {
+    /**
+     * Número escrito por el jugador.
+     */
+    USER,
+    /**
+     * Número colocado por una pista.
+     */
+    HINT,
+    /**
+     * Celda vaciada por "Limpiar".
+     */
+    CLEAR
+}
@@ -0,0 +1,279 @@
+package univalle.tedesoft.sudoku.models;
+
+/**
+ * Representación compacta de un tablero 6x6 en cinco palabras de 64 bits:
+ * valores actuales, solución y máscara de celdas editables.
+ * Cada valor (0-6) ocupa 3 bits; las celdas 0-20 van en la palabra baja y las 21-35
+ * en la alta. La celda de índice {@code fila * 6 + columna} ocupa los bits
+ * {@code 3 * (indice % 21)} de su palabra. La máscara usa un bit por celda (1 = editable).
+ * Los métodos estáticos operan sobre palabras sueltas para que otros almacenes
+ * (arreglos de long, registros mapeados) compartan el mismo formato sin crear objetos.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PackedBoard {
+    /**
+     * Número de celdas del tablero.
+     */
+    public static final int CELL_COUNT = Board.GRID_SIZE * Board.GRID_SIZE;
+    /**
+     * Bits usados por cada valor de celda.
+     */
+    public static final int BITS_PER_CELL = 3;
+    /**
+     * Celdas que caben en una palabra de 64 bits.
+     */
+    public static final int CELLS_PER_WORD = 64 / BITS_PER_CELL;
+    /**
+     * Máscara de un valor de celda.
+     */
+    private static final long CELL_MASK = (1L << BITS_PER_CELL) - 1;
+    /**
+     * Máscara con un bit encendido por cada celda del tablero.
+     */
+    public static final long ALL_CELLS_MASK = (1L << CELL_COUNT) - 1;
+    /**
+     * Bit menos significativo de cada una de las 21 celdas de la palabra baja.
+     */
+    private static final long LO_FIELD_LOW_BITS = 0x1249249249249249L & ((1L << (CELLS_PER_WORD * BITS_PER_CELL)) - 1);
+    /**
+     * Bit menos significativo de cada una de las 15 celdas de la palabra alta.
+     */
+    private static final long HI_FIELD_LOW_BITS = LO_FIELD_LOW_BITS & ((1L << ((CELL_COUNT - CELLS_PER_WORD) * BITS_PER_CELL)) - 1);
+
+    /**
+     * Índices de las celdas de cada unidad: las 6 filas, las 6 columnas y los 6 bloques.
+     */
+    static final int[][] UNITS = units();
+
+    private long valuesLo;
+    private long valuesHi;
+    private long solutionLo;
+    private long solutionHi;
+    private long editableMask;
+
+    /**
+     * Crea un tablero compacto vacío: valores y solución en 0, sin celdas editables.
+     */
+    public PackedBoard() {
+    }
+
+    /**
+     * Crea un tablero compacto a partir de sus cinco palabras.
+     * @param valuesLo Palabra baja de valores.
+     * @param valuesHi Palabra alta de valores.
+     * @param solutionLo Palabra baja de la solución.
+     * @param solutionHi Palabra alta de la solución.
+     * @param editableMask Máscara de celdas editables.
+     */
+    public PackedBoard(long valuesLo, long valuesHi, long solutionLo, long solutionHi, long editableMask) {
+        this.set(valuesLo, valuesHi, solutionLo, solutionHi, editableMask);
+    }
+
+    /**
+     * Reemplaza las cinco palabras del tablero.
+     * @param valuesLo Palabra baja de valores.
+     * @param valuesHi Palabra alta de valores.
+     * @param solutionLo Palabra baja de la solución.
+     * @param solutionHi Palabra alta de la solución.
+     * @param editableMask Máscara de celdas editables.
+     */
+    public void set(long valuesLo, long valuesHi, long solutionLo, long solutionHi, long editableMask) {
+        this.valuesLo = valuesLo;
+        this.valuesHi = valuesHi;
+        this.solutionLo = solutionLo;
+        this.solutionHi = solutionHi;
+        this.editableMask = editableMask & ALL_CELLS_MASK;
+    }
+
+    /**
+     * Copia el contenido de otro tablero compacto.
+     * @param other Tablero de origen.
+     */
+    public void copyFrom(PackedBoard other) {
+        this.set(other.valuesLo, other.valuesHi, other.solutionLo, other.solutionHi, other.editableMask);
+    }
+
+    // -- Operaciones sobre palabras sueltas
+
+    /**
+     * Calcula el índice lineal de una celda.
+     * @param row Fila (0-5).
+     * @param col Columna (0-5).
+     * @return el índice {@code row * 6 + col}.
+     */
+    public static int index(int row, int col) {
+        return row * Board.GRID_SIZE + col;
+    }
+
+    private static int[][] units() {
+        int size = Board.GRID_SIZE;
+        int[][] units = new int[3 * size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                units[i][j] = index(i, j);
+                units[size + i][j] = index(j, i);
+                int row = i / Board.NUM_BLOCK_COLS * Board.BLOCK_ROWS + j / Board.BLOCK_COLS;
+                int col = i % Board.NUM_BLOCK_COLS * Board.BLOCK_COLS + j % Board.BLOCK_COLS;
+                units[2 * size + i][j] = index(row, col);
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Lee el valor de una celda a partir del par de palabras que la contiene.
+     * @param lo Palabra baja.
+     * @param hi Palabra alta.
+     * @param index Índice lineal de la celda (0-35).
+     * @return el valor almacenado (0-7).
+     */
+    public static int getCell(long lo, long hi, int index) {
+        if (index < CELLS_PER_WORD) {
+            return (int) ((lo >>> (index * BITS_PER_CELL)) & CELL_MASK);
+        }
+        return (int) ((hi >>> ((index - CELLS_PER_WORD) * BITS_PER_CELL)) & CELL_MASK);
+    }
+
+    /**
+     * Escribe el valor de una celda en la palabra que le corresponde.
+     * @param word La palabra (baja si {@code index < 21}, alta en otro caso).
+     * @param index Índice lineal de la celda (0-35).
+     * @param value Valor a escribir (0-7).
+     * @return la palabra modificada.
+     */
+    public static long withCell(long word, int index, int value) {
+        int shift = (index < CELLS_PER_WORD ? index : index - CELLS_PER_WORD) * BITS_PER_CELL;
+        return (word & ~(CELL_MASK << shift)) | ((long) value << shift);
+    }
+
+    /**
+     * Verifica que todas las celdas de un par de palabras tengan valores entre 0 y 6.
+     * Con 3 bits el único valor fuera de rango es 7 (los tres bits encendidos),
+     * así que la comprobación se hace para las 36 celdas a la vez.
+     * @param lo Palabra baja.
+     * @param hi Palabra alta.
+     * @return true si todas las celdas están en rango y los bits sobrantes están en 0.
+     */
+    public static boolean isWellFormed(long lo, long hi) {
+        long loSevens = lo & (lo >>> 1) & (lo >>> 2) & LO_FIELD_LOW_BITS;
+        long hiSevens = hi & (hi >>> 1) & (hi >>> 2) & HI_FIELD_LOW_BITS;
+        boolean unusedBitsClear = (lo >>> (CELLS_PER_WORD * BITS_PER_CELL)) == 0
+                && (hi >>> ((CELL_COUNT - CELLS_PER_WORD) * BITS_PER_CELL)) == 0;
+        return loSevens == 0 && hiSevens == 0 && unusedBitsClear;
+    }
+
+    /**
+     * Indica si la celda de índice dado vive en la palabra alta.
+     * @param index Índice lineal de la celda.
+     * @return true si la celda está en la palabra alta.
+     */
+    public static boolean isHighWord(int index) {
+        return index >= CELLS_PER_WORD;
+    }
+
+    // -- Acceso por celda
+
+    /**
+     * @param index Índice lineal de la celda.
+     * @return el valor actual de la celda.
+     */
+    public int getValue(int index) {
+        return getCell(this.valuesLo, this.valuesHi, index);
+    }
+
+    /**
+     * Establece el valor actual de una celda, sin importar si es editable.
+     * @param index Índice lineal de la celda.
+     * @param value Valor (0-6).
+     */
+    public void setValue(int index, int value) {
+        if (isHighWord(index)) {
+            this.valuesHi = withCell(this.valuesHi, index, value);
+        } else {
+            this.valuesLo = withCell(this.valuesLo, index, value);
+        }
+    }
+
+    /**
+     * @param index Índice lineal de la celda.
+     * @return el valor de la solución para la celda.
+     */
+    public int getSolution(int index) {
+        return getCell(this.solutionLo, this.solutionHi, index);
+    }
+
+    /**
+     * Establece el valor de la solución para una celda.
+     * @param index Índice lineal de la celda.
+     * @param value Valor (0-6).
+     */
+    public void setSolution(int index, int value) {
+        if (isHighWord(index)) {
+            this.solutionHi = withCell(this.solutionHi, index, value);
+        } else {
+            this.solutionLo = withCell(this.solutionLo, index, value);
+        }
+    }
+
+    /**
+     * @param index Índice lineal de la celda.
+     * @return true si la celda es editable.
+     */
+    public boolean isEditable(int index) {
+        return (this.editableMask & (1L << index)) != 0;
+    }
+
+    /**
+     * Marca una celda como editable o fija.
+     * @param index Índice lineal de la celda.
+     * @param editable true para editable.
+     */
+    public void setEditable(int index, boolean editable) {
+        if (editable) {
+            this.editableMask |= 1L << index;
+        } else {
+            this.editableMask &= ~(1L << index);
+        }
+    }
+
+    // -- Palabras
+
+    public long getValuesLo() {
+        return this.valuesLo;
+    }
+
+    public long getValuesHi() {
+        return this.valuesHi;
+    }
+
+    public long getSolutionLo() {
+        return this.solutionLo;
+    }
+
+    public long getSolutionHi() {
+        return this.solutionHi;
+    }
+
+    public long getEditableMask() {
+        return this.editableMask;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PackedBoard other)) return false;
+        return this.valuesLo == other.valuesLo && this.valuesHi == other.valuesHi
+                && this.solutionLo == other.solutionLo && this.solutionHi == other.solutionHi
+                && this.editableMask == other.editableMask;
+    }
+
+    @Override
+    public int hashCode() {
+        long h = this.valuesLo * 31 + this.valuesHi;
+        h = h * 31 + this.solutionLo;
+        h = h * 31 + this.solutionHi;
+        h = h * 31 + this.editableMask;
+        return Long.hashCode(h);
+    }
+}
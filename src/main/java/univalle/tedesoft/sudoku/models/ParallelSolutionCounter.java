@@ -0,0 +1,194 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cuenta las soluciones de un puzzle en paralelo con fork-join. Los primeros niveles del árbol de
+ * búsqueda se reparten en tareas: en cada uno se elige la celda con menos candidatos (MRV) y se
+ * crea una subtarea por candidato; desde splitDepth cada subárbol lo cuenta SudokuSolver en un solo
+ * hilo. Los subárboles tienen tamaños muy distintos, así que se crean muchos más que hilos y el
+ * robo de trabajo del ForkJoinPool los reparte.
+ * Con un límite, el conteo se detiene en cuanto la suma lo alcanza: las tareas pendientes no
+ * empiezan y las que corren se cancelan.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class ParallelSolutionCounter {
+    /**
+     * Niveles que se reparten en tareas por defecto; con 4 a 6 candidatos por nivel en tableros
+     * dispersos salen miles de subárboles, suficientes para equilibrar decenas de hilos.
+     */
+    public static final int DEFAULT_SPLIT_DEPTH = 5;
+
+    private final SudokuSolver solver;
+    private final int size;
+    private final int allDigits;
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] boxOf;
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    /**
+     * Crea un contador para tableros de las dimensiones dadas.
+     * @param size Lado del tablero (número de dígitos).
+     * @param blockRows Filas de cada bloque.
+     * @param blockCols Columnas de cada bloque.
+     * @param pool Pool donde corren las tareas.
+     * @param splitDepth Niveles del árbol que se reparten en tareas (0 cuenta todo en un solo hilo).
+     * @throws IllegalArgumentException si los bloques no cubren el tablero o splitDepth es negativo.
+     */
+    public ParallelSolutionCounter(int size, int blockRows, int blockCols, ForkJoinPool pool, int splitDepth) {
+        if (splitDepth < 0) {
+            throw new IllegalArgumentException("La profundidad de reparto no puede ser negativa: " + splitDepth);
+        }
+        this.solver = new SudokuSolver(size, blockRows, blockCols);
+        this.size = size;
+        this.allDigits = (1 << size) - 1;
+        int cellCount = size * size;
+        this.rowOf = new int[cellCount];
+        this.colOf = new int[cellCount];
+        this.boxOf = new int[cellCount];
+        int blocksPerRow = size / blockCols;
+        for (int index = 0; index < cellCount; index++) {
+            this.rowOf[index] = index / size;
+            this.colOf[index] = index % size;
+            this.boxOf[index] = (index / size / blockRows) * blocksPerRow + (index % size) / blockCols;
+        }
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * Cuenta las soluciones de un puzzle, deteniéndose al llegar al límite.
+     * @param cells Celdas en orden fila por fila (0 = vacía); no se modifica.
+     * @param limit Máximo de soluciones a contar (Long.MAX_VALUE para contarlas todas).
+     * @return el número de soluciones, como máximo {@code limit}; 0 si las pistas ya se contradicen.
+     */
+    public long countSolutions(int[] cells, long limit) {
+        if (cells.length != this.size * this.size) {
+            throw new IllegalArgumentException("Se esperaban " + this.size * this.size + " celdas, hay " + cells.length);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("El límite debe ser positivo: " + limit);
+        }
+        if (!this.hasConsistentGivens(cells)) {
+            return 0;
+        }
+        AtomicLong total = new AtomicLong();
+        this.pool.invoke(new SubtreeTask(cells.clone(), 0, total, limit));
+        return Math.min(total.get(), limit);
+    }
+
+    /**
+     * @return false si alguna pista está fuera de rango o se repite en su fila, columna o bloque.
+     */
+    private boolean hasConsistentGivens(int[] cells) {
+        int[] rows = new int[this.size];
+        int[] cols = new int[this.size];
+        int[] boxes = new int[this.size];
+        for (int index = 0; index < cells.length; index++) {
+            int value = cells[index];
+            if (value == 0) {
+                continue;
+            }
+            if (value < 0 || value > this.size) {
+                return false;
+            }
+            int bit = 1 << (value - 1);
+            if (((rows[this.rowOf[index]] | cols[this.colOf[index]] | boxes[this.boxOf[index]]) & bit) != 0) {
+                return false;
+            }
+            rows[this.rowOf[index]] |= bit;
+            cols[this.colOf[index]] |= bit;
+            boxes[this.boxOf[index]] |= bit;
+        }
+        return true;
+    }
+
+    /**
+     * Subárbol de búsqueda con las celdas ya fijadas hasta su nivel.
+     */
+    private final class SubtreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] grid;
+        private final int depth;
+        private final AtomicLong total;
+        private final long limit;
+
+        SubtreeTask(int[] grid, int depth, AtomicLong total, long limit) {
+            this.grid = grid;
+            this.depth = depth;
+            this.total = total;
+            this.limit = limit;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.total.get() >= this.limit) {
+                return; // Otro subárbol ya completó el límite
+            }
+            if (this.depth >= splitDepth) {
+                this.countSequentially();
+                return;
+            }
+            int[] rows = new int[size];
+            int[] cols = new int[size];
+            int[] boxes = new int[size];
+            for (int index = 0; index < this.grid.length; index++) {
+                if (this.grid[index] != 0) {
+                    int bit = 1 << (this.grid[index] - 1);
+                    rows[rowOf[index]] |= bit;
+                    cols[colOf[index]] |= bit;
+                    boxes[boxOf[index]] |= bit;
+                }
+            }
+            int bestIndex = -1;
+            int bestCandidates = 0;
+            int bestCount = Integer.MAX_VALUE;
+            for (int index = 0; index < this.grid.length && bestCount > 1; index++) {
+                if (this.grid[index] != 0) {
+                    continue;
+                }
+                int candidates = ~(rows[rowOf[index]] | cols[colOf[index]] | boxes[boxOf[index]]) & allDigits;
+                int count = Integer.bitCount(candidates);
+                if (count < bestCount) {
+                    bestIndex = index;
+                    bestCandidates = candidates;
+                    bestCount = count;
+                }
+            }
+            if (bestIndex < 0) {
+                this.total.incrementAndGet(); // Tablero completo: una solución
+                return;
+            }
+            List<SubtreeTask> children = new ArrayList<>(bestCount);
+            for (int candidates = bestCandidates; candidates != 0; candidates &= candidates - 1) {
+                int[] child = this.grid.clone();
+                child[bestIndex] = Integer.numberOfTrailingZeros(candidates) + 1;
+                children.add(new SubtreeTask(child, this.depth + 1, this.total, this.limit));
+            }
+            invokeAll(children);
+        }
+
+        /**
+         * Cuenta el subárbol en este hilo y suma el resultado al total compartido.
+         */
+        private void countSequentially() {
+            long remaining = Math.max(1, this.limit - this.total.get());
+            try {
+                // Conteo en long: un subárbol de un tablero disperso puede superar Integer.MAX_VALUE
+                long found = solver.countSolutions(this.grid, remaining, () -> this.total.get() >= this.limit);
+                this.total.addAndGet(found);
+            } catch (CancellationException e) {
+                // El total ya alcanzó el límite: lo que este subárbol llevaba no cambia el resultado
+            }
+        }
+    }
+}
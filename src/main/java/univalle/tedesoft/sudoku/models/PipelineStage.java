@@ -0,0 +1,237 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Etapa de una línea de producción: una cola de entrada acotada y un número ajustable de hilos
+ * que procesan sus elementos y entregan los resultados a la etapa siguiente. Entregar a una cola
+ * llena bloquea al hilo que entrega, así que una etapa lenta frena a las anteriores en lugar de
+ * dejar crecer la memoria (contrapresión).
+ * <p>
+ * El fin del flujo se propaga con closeInput: cuando la entrada está cerrada y vacía, los hilos
+ * terminan y el último en salir cierra la entrada de la etapa siguiente. Ante un error que impide
+ * seguir, abort descarta la entrada pendiente y termina los hilos sin esperar a que se vacíe.
+ * @param <I> Tipo de los elementos de entrada.
+ * @param <O> Tipo de los elementos de salida.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public final class PipelineStage<I, O> {
+    /**
+     * Trabajo de la etapa sobre un elemento.
+     * @param <I> Tipo de entrada.
+     * @param <O> Tipo de salida.
+     */
+    @FunctionalInterface
+    public interface Worker<I, O> {
+        /**
+         * Procesa un elemento. Puede entregar cero (filtrar), uno o varios resultados.
+         * @param item Elemento de entrada.
+         * @param emit Entrega un resultado a la etapa siguiente; bloquea si su cola está llena.
+         * @throws Exception si el elemento no se pudo procesar (se cuenta como error y se descarta).
+         */
+        void process(I item, Consumer<O> emit) throws Exception;
+    }
+
+    private static final long POLL_MILLIS = 50;
+
+    private final String name;
+    private final BlockingQueue<I> input;
+    private final Worker<I, O> worker;
+    private final int maxWorkers;
+    private PipelineStage<O, ?> next;
+    private volatile boolean inputClosed = false;
+    private volatile boolean aborted = false;
+    private volatile int targetWorkers = 0;
+    private final AtomicInteger liveWorkers = new AtomicInteger();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    /**
+     * Nanosegundos que los hilos pasaron bloqueados entregando a la etapa siguiente.
+     */
+    private final LongAdder blockedNanos = new LongAdder();
+
+    /**
+     * Crea una etapa sin hilos; se inician con setWorkers.
+     * @param name Nombre de la etapa para reportes y nombres de hilos.
+     * @param capacity Capacidad de la cola de entrada.
+     * @param maxWorkers Máximo de hilos (1 para trabajo que no es seguro entre hilos).
+     * @param worker Trabajo de la etapa.
+     */
+    public PipelineStage(String name, int capacity, int maxWorkers, Worker<I, O> worker) {
+        if (capacity < 1 || maxWorkers < 1) {
+            throw new IllegalArgumentException("La capacidad y el máximo de hilos deben ser positivos.");
+        }
+        this.name = name;
+        this.input = new ArrayBlockingQueue<>(capacity);
+        this.maxWorkers = maxWorkers;
+        this.worker = worker;
+    }
+
+    /**
+     * Conecta la salida de esta etapa con la entrada de otra. Sin etapa siguiente los resultados se descartan.
+     * @param next Etapa siguiente.
+     * @return la etapa siguiente, para encadenar.
+     */
+    public <R> PipelineStage<O, R> connect(PipelineStage<O, R> next) {
+        this.next = next;
+        return next;
+    }
+
+    /**
+     * Agrega un elemento a la entrada, esperando si la cola está llena. Tras abort se descarta.
+     * @param item Elemento a procesar.
+     * @throws InterruptedException si se interrumpe la espera.
+     * @throws IllegalStateException si la entrada ya se cerró.
+     */
+    public void put(I item) throws InterruptedException {
+        if (this.aborted) {
+            return;
+        }
+        if (this.inputClosed) {
+            throw new IllegalStateException("La entrada de la etapa " + this.name + " está cerrada.");
+        }
+        this.input.put(item);
+    }
+
+    /**
+     * Indica que no llegarán más elementos.
+     */
+    public void closeInput() {
+        this.inputClosed = true;
+    }
+
+    /**
+     * Detiene la etapa: cierra la entrada, descarta lo pendiente y los hilos terminan al acabar su
+     * elemento actual. Lo que se entregue después (de etapas anteriores aún activas) se descarta,
+     * así que quien entrega nunca queda bloqueado por una etapa detenida.
+     */
+    public void abort() {
+        this.aborted = true;
+        this.inputClosed = true;
+        this.input.clear();
+    }
+
+    /**
+     * Ajusta el número de hilos. Los hilos sobrantes terminan al acabar su elemento actual.
+     * @param workers Hilos deseados, entre 1 y el máximo de la etapa (se recorta a ese rango).
+     */
+    public synchronized void setWorkers(int workers) {
+        if (this.finished.getCount() == 0) return;
+        this.targetWorkers = Math.max(1, Math.min(this.maxWorkers, workers));
+        while (this.liveWorkers.get() < this.targetWorkers) {
+            int id = this.liveWorkers.incrementAndGet();
+            Thread thread = new Thread(this::runWorker, "pipeline-" + this.name + "-" + id);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Espera a que la etapa procese toda su entrada.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void awaitFinished() throws InterruptedException {
+        this.finished.await();
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getWorkers() {
+        return this.liveWorkers.get();
+    }
+
+    public int getMaxWorkers() {
+        return this.maxWorkers;
+    }
+
+    public int getQueueDepth() {
+        return this.input.size();
+    }
+
+    public int getQueueCapacity() {
+        return this.input.size() + this.input.remainingCapacity();
+    }
+
+    public long getProcessed() {
+        return this.processed.sum();
+    }
+
+    public long getEmitted() {
+        return this.emitted.sum();
+    }
+
+    public long getFailed() {
+        return this.failed.sum();
+    }
+
+    public long getBlockedNanos() {
+        return this.blockedNanos.sum();
+    }
+
+    public boolean isFinished() {
+        return this.finished.getCount() == 0;
+    }
+
+    private void runWorker() {
+        Consumer<O> emit = this::emit;
+        try {
+            while (!this.aborted) {
+                int live = this.liveWorkers.get();
+                if (live > this.targetWorkers) {
+                    if (this.liveWorkers.compareAndSet(live, live - 1)) {
+                        return; // Sobra por una reducción de hilos
+                    }
+                    continue;
+                }
+                I item = this.input.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (item == null) {
+                    if (this.inputClosed && this.input.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                try {
+                    this.worker.process(item, emit);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    this.failed.increment();
+                    System.err.println("Etapa " + this.name + ": " + e.getMessage());
+                }
+                this.processed.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.liveWorkers.decrementAndGet() == 0) {
+            if (this.next != null) {
+                this.next.closeInput();
+            }
+            this.finished.countDown();
+        }
+    }
+
+    private void emit(O item) {
+        this.emitted.increment();
+        if (this.next == null) return;
+        long start = System.nanoTime();
+        try {
+            this.next.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Entrega interrumpida en la etapa " + this.name, e);
+        }
+        this.blockedNanos.add(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,165 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolutor de portafolio: lanza varias estrategias a la vez sobre el mismo puzzle, cada una en su
+ * hilo, y se queda con el primer resultado (solución o prueba de que no la hay). Las demás se
+ * cancelan de forma cooperativa: consultan una señal compartida durante la búsqueda y se detienen
+ * en cuanto una termina. Cada puzzle tarda lo que la estrategia más rápida para él, y el resultado
+ * dice cuál fue, para ajustar el portafolio sobre un corpus de puzzles.
+ * Resuelve un puzzle a la vez; las llamadas concurrentes a solve se serializan.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PortfolioSolver implements Closeable {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final List<ISolverStrategy> strategies;
+    private final ExecutorService executor;
+
+    /**
+     * Resultado de una carrera.
+     */
+    public static final class Result {
+        private final String strategy;
+        private final int[] solution;
+        private final long nanos;
+
+        Result(String strategy, int[] solution, long nanos) {
+            this.strategy = strategy;
+            this.solution = solution;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return nombre de la estrategia que terminó primero.
+         */
+        public String getStrategy() {
+            return this.strategy;
+        }
+
+        public boolean isSolved() {
+            return this.solution != null;
+        }
+
+        /**
+         * @return la solución, o null si el puzzle no tiene.
+         */
+        public int[] getSolution() {
+            return this.solution;
+        }
+
+        /**
+         * @return nanosegundos desde el lanzamiento de la carrera hasta el primer resultado.
+         */
+        public long getNanos() {
+            return this.nanos;
+        }
+    }
+
+    /**
+     * Crea un portafolio con las estrategias dadas, un hilo por estrategia.
+     * @param strategies Estrategias a competir; todas para el mismo lado de tablero.
+     * @throws IllegalArgumentException si no hay estrategias o sus tamaños difieren.
+     */
+    public PortfolioSolver(List<ISolverStrategy> strategies) {
+        if (strategies.isEmpty()) {
+            throw new IllegalArgumentException("El portafolio necesita al menos una estrategia.");
+        }
+        for (ISolverStrategy strategy : strategies) {
+            if (strategy.getSize() != strategies.get(0).getSize()) {
+                throw new IllegalArgumentException("Las estrategias del portafolio resuelven tableros de distinto tamaño.");
+            }
+        }
+        this.strategies = List.copyOf(strategies);
+        this.executor = Executors.newFixedThreadPool(strategies.size(), runnable -> {
+            Thread thread = new Thread(runnable, "sudoku-portfolio-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Estrategias disponibles: backtracking simple, MRV con máscaras de bits y cobertura exacta.
+     * @param size Lado del tablero.
+     * @param blockRows Filas de cada bloque.
+     * @param blockCols Columnas de cada bloque.
+     * @return las tres estrategias, en ese orden.
+     */
+    public static List<ISolverStrategy> standardStrategies(int size, int blockRows, int blockCols) {
+        return List.of(new BacktrackingSolver(size, blockRows, blockCols),
+                new SudokuSolver(size, blockRows, blockCols),
+                new ExactCoverSolver(size, blockRows, blockCols));
+    }
+
+    public List<ISolverStrategy> getStrategies() {
+        return this.strategies;
+    }
+
+    /**
+     * Resuelve un puzzle con la estrategia que termine primero. Antes de volver espera a que las
+     * demás atiendan la cancelación, para que sus hilos queden libres para el siguiente puzzle; el
+     * tiempo reportado no incluye esa espera.
+     * @param cells Celdas en orden fila por fila (0 = vacía); no se modifica.
+     * @return el resultado de la estrategia ganadora.
+     * @throws InterruptedException si se interrumpe la espera.
+     * @throws IllegalStateException si todas las estrategias fallaron.
+     */
+    public synchronized Result solve(int[] cells) throws InterruptedException {
+        AtomicBoolean finished = new AtomicBoolean();
+        CompletionService<Result> race = new ExecutorCompletionService<>(this.executor);
+        List<Future<Result>> runs = new ArrayList<>(this.strategies.size());
+        long start = System.nanoTime();
+        for (ISolverStrategy strategy : this.strategies) {
+            runs.add(race.submit(() -> {
+                int[] solution = new int[cells.length];
+                boolean solved = strategy.solve(cells, solution, finished::get);
+                return new Result(strategy.getName(), solved ? solution : null, System.nanoTime() - start);
+            }));
+        }
+        Result winner = null;
+        Throwable failure = null;
+        try {
+            for (int i = 0; i < runs.size() && winner == null; i++) {
+                try {
+                    winner = race.take().get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause(); // Una estrategia falló: esperar a las demás
+                }
+            }
+        } finally {
+            finished.set(true);
+            for (Future<Result> run : runs) {
+                try {
+                    run.get();
+                } catch (ExecutionException | CancellationException e) {
+                    // Perdedoras canceladas o fallidas: su resultado ya no importa
+                }
+            }
+        }
+        if (winner == null) {
+            throw new IllegalStateException("Ninguna estrategia del portafolio pudo resolver el puzzle.", failure);
+        }
+        return winner;
+    }
+
+    /**
+     * Detiene los hilos del portafolio.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+}
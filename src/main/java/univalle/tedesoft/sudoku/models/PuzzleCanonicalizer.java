@@ -0,0 +1,431 @@
+package univalle.tedesoft.sudoku.models;
+
+/**
+ * Calcula la forma canónica de un puzzle 6x6 bajo sus simetrías: intercambio de filas dentro
+ * de una banda, intercambio de bandas, intercambio de columnas dentro de una pila, intercambio
+ * de pilas y renombrado de dígitos. Dos puzzles equivalentes tienen la misma forma canónica
+ * y por lo tanto la misma huella de 64 bits.
+ * <p>
+ * Las 3456 permutaciones de posiciones (48 órdenes de filas por 72 de columnas) se precalculan
+ * en una tabla. Una lectura se obtiene recorriendo las celdas en el nuevo orden y renombrando los
+ * dígitos por orden de primera aparición; la forma canónica es la menor lectura.
+ * La búsqueda es de ramificación y poda: un candidato es una lectura parcial (filas de origen y
+ * columnas elegidas más el renombrado acumulado). La primera fila se construye celda por celda
+ * eligiendo columnas; desde la segunda el orden de columnas ya está fijo y se avanza fila por fila.
+ * En cada paso solo sobreviven los candidatos con el menor valor siguiente, así que casi nunca se
+ * recorren las 3456 transformaciones.
+ * <p>
+ * La instancia reutiliza sus arreglos de trabajo: no es segura para varios hilos (una por hilo).
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PuzzleCanonicalizer {
+    /**
+     * Número de permutaciones de posiciones del grupo de simetría.
+     */
+    public static final int TRANSFORM_COUNT;
+    /**
+     * Para la transformación t, {@code SOURCE[t * 36 + i]} es la celda de origen de la celda i.
+     */
+    private static final byte[] SOURCE;
+    /**
+     * Órdenes de filas y de columnas; la transformación t usa {@code ROW_ORDERS[t / 72]} y {@code COL_ORDERS[t % 72]}.
+     */
+    private static final int[][] ROW_ORDERS = rowOrders();
+    private static final int[][] COL_ORDERS = colOrders();
+
+    static {
+        TRANSFORM_COUNT = ROW_ORDERS.length * COL_ORDERS.length;
+        SOURCE = new byte[TRANSFORM_COUNT * PackedBoard.CELL_COUNT];
+        int t = 0;
+        for (int[] rows : ROW_ORDERS) {
+            for (int[] cols : COL_ORDERS) {
+                int base = t++ * PackedBoard.CELL_COUNT;
+                for (int r = 0; r < Board.GRID_SIZE; r++) {
+                    for (int c = 0; c < Board.GRID_SIZE; c++) {
+                        SOURCE[base + PackedBoard.index(r, c)] = (byte) PackedBoard.index(rows[r], cols[c]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Bits del renombrado acumulado: 3 bits por dígito (0 = sin nombre) y el siguiente nombre libre.
+     */
+    private static final int NEXT_LABEL_SHIFT = Board.GRID_SIZE * PackedBoard.BITS_PER_CELL;
+    private static final int LABEL_FIELD = (1 << PackedBoard.BITS_PER_CELL) - 1;
+
+    private final int[] cells = new int[PackedBoard.CELL_COUNT];
+    private final int[] best = new int[PackedBoard.CELL_COUNT];
+    // Candidatos del paso actual y del siguiente: columnas elegidas y filas elegidas (3 bits por
+    // posición) y renombrado acumulado
+    private int[] colsChosen = new int[TRANSFORM_COUNT];
+    private int[] rowsChosen = new int[TRANSFORM_COUNT];
+    private int[] labels = new int[TRANSFORM_COUNT];
+    private int[] nextColsChosen = new int[TRANSFORM_COUNT];
+    private int[] nextRowsChosen = new int[TRANSFORM_COUNT];
+    private int[] nextLabels = new int[TRANSFORM_COUNT];
+    /**
+     * Renombrado resultante de la última llamada a rowKey.
+     */
+    private int keyLabels;
+    private int bestTransform;
+
+    /**
+     * Calcula la forma canónica de los valores actuales del tablero (pistas; 0 = vacía).
+     * @param puzzle Puzzle de origen.
+     * @param target Recibe la forma canónica como valores, con las celdas vacías como editables.
+     * @return el índice de la transformación de posiciones que produce la forma canónica.
+     */
+    public int canonicalize(PackedBoard puzzle, PackedBoard target) {
+        this.search(puzzle);
+        long lo = 0;
+        long hi = 0;
+        long mask = 0;
+        for (int i = 0; i < PackedBoard.CELL_COUNT; i++) {
+            int value = this.best[i];
+            if (value == 0) {
+                mask |= 1L << i;
+            } else if (PackedBoard.isHighWord(i)) {
+                hi = PackedBoard.withCell(hi, i, value);
+            } else {
+                lo = PackedBoard.withCell(lo, i, value);
+            }
+        }
+        target.set(lo, hi, 0, 0, mask);
+        return this.bestTransform;
+    }
+
+    /**
+     * Huella de 64 bits de la forma canónica: igual para todos los puzzles equivalentes.
+     * @param puzzle Puzzle de origen (se usan sus valores actuales).
+     * @return la huella.
+     */
+    public long fingerprint(PackedBoard puzzle) {
+        this.search(puzzle);
+        long lo = 0;
+        long hi = 0;
+        for (int i = 0; i < PackedBoard.CELLS_PER_WORD; i++) {
+            lo = lo << PackedBoard.BITS_PER_CELL | this.best[i];
+        }
+        for (int i = PackedBoard.CELLS_PER_WORD; i < PackedBoard.CELL_COUNT; i++) {
+            hi = hi << PackedBoard.BITS_PER_CELL | this.best[i];
+        }
+        return mix(lo ^ mix(hi + 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Aplica una transformación de posiciones y un renombrado de dígitos a un tablero completo
+     * (valores, solución y celdas editables).
+     * @param source Tablero de origen.
+     * @param transform Índice de la transformación (0 a TRANSFORM_COUNT - 1).
+     * @param relabel Nuevo nombre de cada dígito ({@code relabel[d]} para d de 1 a 6); null para no renombrar.
+     * @param target Tablero de destino (distinto del de origen).
+     */
+    public static void applyTransform(PackedBoard source, int transform, int[] relabel, PackedBoard target) {
+        if (transform < 0 || transform >= TRANSFORM_COUNT) {
+            throw new IndexOutOfBoundsException("Transformación fuera de rango: " + transform);
+        }
+        int base = transform * PackedBoard.CELL_COUNT;
+        long valuesLo = 0;
+        long valuesHi = 0;
+        long solutionLo = 0;
+        long solutionHi = 0;
+        long mask = 0;
+        for (int i = 0; i < PackedBoard.CELL_COUNT; i++) {
+            int from = SOURCE[base + i];
+            int value = source.getValue(from);
+            int solution = source.getSolution(from);
+            if (relabel != null) {
+                value = value == 0 ? 0 : relabel[value];
+                solution = solution == 0 ? 0 : relabel[solution];
+            }
+            if (PackedBoard.isHighWord(i)) {
+                valuesHi = PackedBoard.withCell(valuesHi, i, value);
+                solutionHi = PackedBoard.withCell(solutionHi, i, solution);
+            } else {
+                valuesLo = PackedBoard.withCell(valuesLo, i, value);
+                solutionLo = PackedBoard.withCell(solutionLo, i, solution);
+            }
+            if (source.isEditable(from)) {
+                mask |= 1L << i;
+            }
+        }
+        target.set(valuesLo, valuesHi, solutionLo, solutionHi, mask);
+    }
+
+    /**
+     * Busca la lectura mínima entre todas las transformaciones y la deja en {@code best}.
+     */
+    private void search(PackedBoard puzzle) {
+        for (int i = 0; i < PackedBoard.CELL_COUNT; i++) {
+            this.cells[i] = puzzle.getValue(i);
+        }
+        int count = 0;
+        for (int row = 0; row < Board.GRID_SIZE; row++) {
+            this.colsChosen[count] = 0;
+            this.rowsChosen[count] = row;
+            this.labels[count] = 1 << NEXT_LABEL_SHIFT;
+            count++;
+        }
+
+        // Primera fila: se elige una columna por paso
+        for (int position = 0; position < Board.GRID_SIZE; position++) {
+            int minValue = Integer.MAX_VALUE;
+            int nextCount = 0;
+            for (int s = 0; s < count; s++) {
+                int cols = this.colsChosen[s];
+                int base = this.rowsChosen[s] * Board.GRID_SIZE;
+                for (int col = 0; col < Board.GRID_SIZE; col++) {
+                    if (!isColumnAllowed(col, cols, position)) {
+                        continue;
+                    }
+                    int labels = this.labels[s];
+                    int value = this.cells[base + col];
+                    if (value != 0) {
+                        int shift = (value - 1) * PackedBoard.BITS_PER_CELL;
+                        int label = (labels >>> shift) & LABEL_FIELD;
+                        if (label == 0) {
+                            label = labels >>> NEXT_LABEL_SHIFT;
+                            labels = (labels | label << shift) + (1 << NEXT_LABEL_SHIFT);
+                        }
+                        value = label;
+                    }
+                    if (value > minValue) {
+                        continue;
+                    }
+                    if (value < minValue) {
+                        minValue = value;
+                        nextCount = 0;
+                    }
+                    this.nextColsChosen[nextCount] = cols | col << (position * PackedBoard.BITS_PER_CELL);
+                    this.nextRowsChosen[nextCount] = this.rowsChosen[s];
+                    this.nextLabels[nextCount] = labels;
+                    nextCount++;
+                }
+            }
+            this.best[position] = minValue;
+            count = this.swapCandidates(nextCount);
+        }
+
+        // Resto de filas: el orden de columnas está fijo y se elige una fila por paso
+        for (int level = 1; level < Board.GRID_SIZE; level++) {
+            int minKey = Integer.MAX_VALUE;
+            int nextCount = 0;
+            for (int s = 0; s < count; s++) {
+                int chosen = this.rowsChosen[s];
+                int used = usedRows(chosen, level);
+                for (int row = 0; row < Board.GRID_SIZE; row++) {
+                    if (!isAllowed(row, used, chosen, level)) {
+                        continue;
+                    }
+                    int key = this.rowKey(row, this.colsChosen[s], this.labels[s]);
+                    if (key > minKey) {
+                        continue;
+                    }
+                    if (key < minKey) {
+                        minKey = key;
+                        nextCount = 0;
+                    }
+                    this.nextColsChosen[nextCount] = this.colsChosen[s];
+                    this.nextRowsChosen[nextCount] = chosen | row << (level * PackedBoard.BITS_PER_CELL);
+                    this.nextLabels[nextCount] = this.keyLabels;
+                    nextCount++;
+                }
+            }
+            for (int c = Board.GRID_SIZE - 1; c >= 0; c--) {
+                this.best[level * Board.GRID_SIZE + c] = minKey & LABEL_FIELD;
+                minKey >>>= PackedBoard.BITS_PER_CELL;
+            }
+            count = this.swapCandidates(nextCount);
+        }
+        this.bestTransform = orderIndex(ROW_ORDERS, this.rowsChosen[0]) * COL_ORDERS.length
+                + orderIndex(COL_ORDERS, this.colsChosen[0]);
+    }
+
+    /**
+     * Los candidatos del siguiente paso pasan a ser los actuales.
+     * @return el número de candidatos actuales.
+     */
+    private int swapCandidates(int nextCount) {
+        int[] swap = this.colsChosen;
+        this.colsChosen = this.nextColsChosen;
+        this.nextColsChosen = swap;
+        swap = this.rowsChosen;
+        this.rowsChosen = this.nextRowsChosen;
+        this.nextRowsChosen = swap;
+        swap = this.labels;
+        this.labels = this.nextLabels;
+        this.nextLabels = swap;
+        return nextCount;
+    }
+
+    /**
+     * Al inicio de una pila puede ir cualquier columna de una pila sin usar; dentro de una pila,
+     * solo las columnas restantes de la pila en curso.
+     */
+    private static boolean isColumnAllowed(int col, int chosen, int position) {
+        int stack = col / Board.BLOCK_COLS;
+        int within = position % Board.BLOCK_COLS;
+        if (within == 0) {
+            for (int p = 0; p < position; p++) {
+                if (((chosen >>> (p * PackedBoard.BITS_PER_CELL)) & LABEL_FIELD) / Board.BLOCK_COLS == stack) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        int previous = (chosen >>> ((position - 1) * PackedBoard.BITS_PER_CELL)) & LABEL_FIELD;
+        if (previous / Board.BLOCK_COLS != stack) {
+            return false;
+        }
+        for (int p = position - within; p < position; p++) {
+            if (((chosen >>> (p * PackedBoard.BITS_PER_CELL)) & LABEL_FIELD) == col) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Filas de origen ya usadas por un candidato, como máscara de bits.
+     */
+    private static int usedRows(int chosen, int level) {
+        int used = 0;
+        for (int l = 0; l < level; l++) {
+            used |= 1 << ((chosen >>> (l * PackedBoard.BITS_PER_CELL)) & LABEL_FIELD);
+        }
+        return used;
+    }
+
+    /**
+     * En un nivel par puede ir cualquier fila de una banda sin usar; en uno impar, solo la
+     * otra fila de la banda elegida en el nivel anterior.
+     */
+    private static boolean isAllowed(int row, int used, int chosen, int level) {
+        if (level % Board.BLOCK_ROWS == 0) {
+            int band = row / Board.BLOCK_ROWS;
+            return (used & (((1 << Board.BLOCK_ROWS) - 1) << (band * Board.BLOCK_ROWS))) == 0;
+        }
+        int previous = (chosen >>> ((level - 1) * PackedBoard.BITS_PER_CELL)) & LABEL_FIELD;
+        return row / Board.BLOCK_ROWS == previous / Board.BLOCK_ROWS && row != previous;
+    }
+
+    /**
+     * Lectura renombrada de una fila de origen con las columnas elegidas, como entero de 3 bits
+     * por celda con la primera celda en los bits altos (el orden entero es el lexicográfico).
+     * El renombrado resultante queda en {@code keyLabels}.
+     */
+    private int rowKey(int row, int cols, int labels) {
+        int key = 0;
+        int base = row * Board.GRID_SIZE;
+        for (int c = 0; c < Board.GRID_SIZE; c++) {
+            int value = this.cells[base + ((cols >>> (c * PackedBoard.BITS_PER_CELL)) & LABEL_FIELD)];
+            if (value != 0) {
+                int shift = (value - 1) * PackedBoard.BITS_PER_CELL;
+                int label = (labels >>> shift) & LABEL_FIELD;
+                if (label == 0) {
+                    label = labels >>> NEXT_LABEL_SHIFT;
+                    labels = (labels | label << shift) + (1 << NEXT_LABEL_SHIFT);
+                }
+                value = label;
+            }
+            key = key << PackedBoard.BITS_PER_CELL | value;
+        }
+        this.keyLabels = labels;
+        return key;
+    }
+
+    /**
+     * Índice en la tabla de órdenes de una secuencia elegida (3 bits por posición).
+     */
+    private static int orderIndex(int[][] orders, int chosen) {
+        for (int n = 0; n < orders.length; n++) {
+            boolean match = true;
+            for (int p = 0; p < Board.GRID_SIZE && match; p++) {
+                match = orders[n][p] == ((chosen >>> (p * PackedBoard.BITS_PER_CELL)) & LABEL_FIELD);
+            }
+            if (match) {
+                return n;
+            }
+        }
+        throw new IllegalStateException("Secuencia fuera del grupo de simetría.");
+    }
+
+    /**
+     * Mezclador final de SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Los 48 órdenes de filas: 3! órdenes de bandas por 2^3 intercambios dentro de cada banda.
+     */
+    private static int[][] rowOrders() {
+        int[][] bandOrders = permutations(Board.NUM_BLOCK_ROWS);
+        int swaps = 1 << Board.NUM_BLOCK_ROWS;
+        int[][] orders = new int[bandOrders.length * swaps][Board.GRID_SIZE];
+        int n = 0;
+        for (int[] bands : bandOrders) {
+            for (int swap = 0; swap < swaps; swap++) {
+                for (int r = 0; r < Board.GRID_SIZE; r++) {
+                    int band = bands[r / Board.BLOCK_ROWS];
+                    int within = (r % Board.BLOCK_ROWS) ^ ((swap >>> (r / Board.BLOCK_ROWS)) & 1);
+                    orders[n][r] = band * Board.BLOCK_ROWS + within;
+                }
+                n++;
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Los 72 órdenes de columnas: 2! órdenes de pilas por 3! órdenes dentro de cada pila.
+     */
+    private static int[][] colOrders() {
+        int[][] stackOrders = permutations(Board.NUM_BLOCK_COLS);
+        int[][] inner = permutations(Board.BLOCK_COLS);
+        int[][] orders = new int[stackOrders.length * inner.length * inner.length][Board.GRID_SIZE];
+        int n = 0;
+        for (int[] stacks : stackOrders) {
+            for (int[] first : inner) {
+                for (int[] second : inner) {
+                    int[][] within = {first, second};
+                    for (int c = 0; c < Board.GRID_SIZE; c++) {
+                        int stack = stacks[c / Board.BLOCK_COLS];
+                        orders[n][c] = stack * Board.BLOCK_COLS + within[c / Board.BLOCK_COLS][c % Board.BLOCK_COLS];
+                    }
+                    n++;
+                }
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Todas las permutaciones de 0..n-1 en orden lexicográfico.
+     */
+    private static int[][] permutations(int n) {
+        if (n == 1) {
+            return new int[][]{{0}};
+        }
+        int[][] smaller = permutations(n - 1);
+        int[][] result = new int[smaller.length * n][];
+        int k = 0;
+        for (int first = 0; first < n; first++) {
+            for (int[] rest : smaller) {
+                int[] permutation = new int[n];
+                permutation[0] = first;
+                for (int j = 0; j < rest.length; j++) {
+                    permutation[j + 1] = rest[j] >= first ? rest[j] + 1 : rest[j];
+                }
+                result[k++] = permutation;
+            }
+        }
+        return result;
+    }
+}
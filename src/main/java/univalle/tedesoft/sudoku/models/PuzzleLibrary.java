@@ -0,0 +1,213 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+/**
+ * Biblioteca de puzzles pregenerados sobre un archivo mapeado en memoria.
+ * Cada puzzle es un registro de ancho fijo, así que el acceso por índice es O(1) y no
+ * requiere análisis ni copias al heap: los campos se leen directamente del mapeo.
+ * Los registros están agrupados por intervalo de dificultad y la cabecera guarda, para
+ * cada intervalo, el primer registro y la cantidad; pedir "un puzzle aleatorio de
+ * dificultad X" es un cálculo de índice más una lectura del mapeo.
+ * <pre>
+ * Cabecera (HEADER_SIZE bytes, little-endian):
+ *   0  magia "S6PL"  (4)   4  versión (4)   8  tamaño de registro (4)   12 número de intervalos (4)
+ *  16  número de registros (8)
+ *  24  por intervalo: primer registro (8) y cantidad (8)
+ * Registro (RECORD_SIZE bytes):
+ *   0  pistas, palabra baja (8)     8  pistas, palabra alta (8)
+ *  16  solución, palabra baja (8)  24  solución, palabra alta (8)
+ *  32  máscara de celdas editables (8)
+ *  40  puntaje de dificultad (4)   44  reservado (4)
+ * </pre>
+ * Los archivos se crean con PuzzleLibraryWriter. La instancia es segura para lecturas concurrentes.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PuzzleLibrary implements Closeable {
+    /**
+     * Marca de formato "S6PL".
+     */
+    static final int MAGIC = 0x4C503653;
+    /**
+     * Versión actual del formato.
+     */
+    static final int VERSION = 1;
+    /**
+     * Tamaño de cada registro en bytes.
+     */
+    public static final int RECORD_SIZE = 48;
+    /**
+     * Número de intervalos de dificultad.
+     */
+    public static final int BUCKET_COUNT = 10;
+    /**
+     * Puntaje de dificultad máximo; los puntajes mayores se recortan.
+     */
+    public static final int MAX_DIFFICULTY = 99;
+    /**
+     * Tamaño de la cabecera, múltiplo del tamaño de registro para alinear los registros.
+     */
+    static final int HEADER_SIZE = RECORD_SIZE * 4;
+    /**
+     * Registros por segmento mapeado (un MappedByteBuffer no puede superar 2 GB).
+     */
+    private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_SIZE;
+
+    private static final int OFFSET_GIVENS_LO = 0;
+    private static final int OFFSET_GIVENS_HI = 8;
+    private static final int OFFSET_SOLUTION_LO = 16;
+    private static final int OFFSET_SOLUTION_HI = 24;
+    private static final int OFFSET_EDITABLE_MASK = 32;
+    private static final int OFFSET_DIFFICULTY = 40;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long recordCount;
+    private final long[] bucketStart = new long[BUCKET_COUNT];
+    private final long[] bucketCount = new long[BUCKET_COUNT];
+
+    /**
+     * Abre una biblioteca existente y mapea sus registros.
+     * @param file Archivo creado con PuzzleLibraryWriter.
+     * @throws IOException si el archivo no se puede leer o no tiene el formato esperado.
+     */
+    public PuzzleLibrary(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("El archivo no es una biblioteca de puzzles: " + file);
+            }
+            if (header.getInt(4) != VERSION || header.getInt(8) != RECORD_SIZE || header.getInt(12) != BUCKET_COUNT) {
+                throw new IOException("Versión de biblioteca de puzzles no soportada: " + header.getInt(4));
+            }
+            this.recordCount = header.getLong(16);
+            for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+                this.bucketStart[bucket] = header.getLong(24 + bucket * 16);
+                this.bucketCount[bucket] = header.getLong(32 + bucket * 16);
+            }
+            if (this.channel.size() < HEADER_SIZE + this.recordCount * RECORD_SIZE) {
+                throw new IOException("Biblioteca de puzzles truncada: " + file);
+            }
+
+            int segmentCount = (int) ((this.recordCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT);
+            this.segments = new MappedByteBuffer[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                long firstRecord = (long) s * RECORDS_PER_SEGMENT;
+                long records = Math.min(RECORDS_PER_SEGMENT, this.recordCount - firstRecord);
+                MappedByteBuffer segment = this.channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + firstRecord * RECORD_SIZE, records * RECORD_SIZE);
+                segment.order(ByteOrder.LITTLE_ENDIAN);
+                this.segments[s] = segment;
+            }
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Calcula el intervalo de dificultad de un puntaje.
+     * @param difficulty Puntaje de dificultad (se recorta a 0-MAX_DIFFICULTY).
+     * @return el intervalo (0 a BUCKET_COUNT - 1).
+     */
+    public static int bucketOf(int difficulty) {
+        int clamped = Math.max(0, Math.min(MAX_DIFFICULTY, difficulty));
+        return clamped * BUCKET_COUNT / (MAX_DIFFICULTY + 1);
+    }
+
+    /**
+     * @return número total de puzzles.
+     */
+    public long size() {
+        return this.recordCount;
+    }
+
+    /**
+     * @param bucket Intervalo de dificultad.
+     * @return número de puzzles en el intervalo.
+     */
+    public long bucketSize(int bucket) {
+        return this.bucketCount[bucket];
+    }
+
+    /**
+     * Elige al azar un registro del intervalo de dificultad dado.
+     * @param bucket Intervalo de dificultad.
+     * @param random Generador de números aleatorios.
+     * @return el índice del registro, o -1 si el intervalo está vacío.
+     */
+    public long randomIndex(int bucket, RandomGenerator random) {
+        long count = this.bucketCount[bucket];
+        if (count == 0) {
+            return -1;
+        }
+        return this.bucketStart[bucket] + random.nextLong(count);
+    }
+
+    /**
+     * Lee un registro en un tablero compacto: pistas como valores, solución y celdas editables.
+     * @param index Índice del registro.
+     * @param target Tablero compacto de destino.
+     * @throws IndexOutOfBoundsException si el índice está fuera de rango.
+     */
+    public void read(long index, PackedBoard target) {
+        MappedByteBuffer segment = this.segmentOf(index);
+        int offset = this.offsetOf(index);
+        target.set(segment.getLong(offset + OFFSET_GIVENS_LO),
+                segment.getLong(offset + OFFSET_GIVENS_HI),
+                segment.getLong(offset + OFFSET_SOLUTION_LO),
+                segment.getLong(offset + OFFSET_SOLUTION_HI),
+                segment.getLong(offset + OFFSET_EDITABLE_MASK));
+    }
+
+    /**
+     * Lee un puzzle aleatorio de la dificultad indicada.
+     * @param bucket Intervalo de dificultad.
+     * @param random Generador de números aleatorios.
+     * @param target Tablero compacto de destino.
+     * @return true si se leyó un puzzle; false si el intervalo está vacío.
+     */
+    public boolean readRandom(int bucket, RandomGenerator random, PackedBoard target) {
+        long index = this.randomIndex(bucket, random);
+        if (index < 0) {
+            return false;
+        }
+        this.read(index, target);
+        return true;
+    }
+
+    /**
+     * @param index Índice del registro.
+     * @return el puntaje de dificultad del puzzle.
+     */
+    public int getDifficulty(long index) {
+        return this.segmentOf(index).getInt(this.offsetOf(index) + OFFSET_DIFFICULTY);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private MappedByteBuffer segmentOf(long index) {
+        if (index < 0 || index >= this.recordCount) {
+            throw new IndexOutOfBoundsException("Índice de puzzle fuera de rango: " + index);
+        }
+        return this.segments[(int) (index / RECORDS_PER_SEGMENT)];
+    }
+
+    private int offsetOf(long index) {
+        return (int) (index % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+    }
+}
@@ -0,0 +1,180 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escribe una biblioteca de puzzles en el formato de PuzzleLibrary.
+ * Los puzzles pueden llegar en cualquier orden de dificultad: cada registro se escribe en
+ * un archivo temporal por intervalo y, al cerrar, los intervalos se concatenan detrás de la
+ * cabecera. La memoria usada es constante sin importar cuántos puzzles se escriban.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PuzzleLibraryWriter implements Closeable {
+    /**
+     * Registros acumulados en memoria por intervalo antes de escribirlos a disco.
+     */
+    private static final int RECORDS_PER_FLUSH = 1024;
+
+    private final Path file;
+    private final Path tempFile;
+    private final Path[] bucketFiles = new Path[PuzzleLibrary.BUCKET_COUNT];
+    private final FileChannel[] bucketChannels = new FileChannel[PuzzleLibrary.BUCKET_COUNT];
+    private final ByteBuffer[] bucketBuffers = new ByteBuffer[PuzzleLibrary.BUCKET_COUNT];
+    private final long[] bucketCount = new long[PuzzleLibrary.BUCKET_COUNT];
+    private boolean closed;
+
+    /**
+     * Crea un escritor; el archivo final solo aparece al cerrar.
+     * @param file Ruta de la biblioteca a crear (se reemplaza si existe).
+     * @throws IOException si no se pueden crear los archivos temporales.
+     */
+    public PuzzleLibraryWriter(Path file) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.tempFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        Files.createDirectories(this.file.getParent());
+        try {
+            for (int bucket = 0; bucket < PuzzleLibrary.BUCKET_COUNT; bucket++) {
+                this.bucketFiles[bucket] = this.file.resolveSibling(this.file.getFileName() + ".b" + bucket);
+                this.bucketChannels[bucket] = FileChannel.open(this.bucketFiles[bucket], StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                this.bucketBuffers[bucket] = ByteBuffer.allocateDirect(RECORDS_PER_FLUSH * PuzzleLibrary.RECORD_SIZE)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException e) {
+            this.deleteBucketFiles();
+            throw e;
+        }
+    }
+
+    /**
+     * Agrega un puzzle recién generado. Los valores del tablero se toman como pistas,
+     * así que las celdas editables deben estar vacías.
+     * @param puzzle Puzzle con pistas, solución y celdas editables.
+     * @param difficulty Puntaje de dificultad (0-MAX_DIFFICULTY; los valores fuera de rango se recortan).
+     * @throws IOException si no se puede escribir el registro.
+     * @throws IllegalArgumentException si alguna celda editable tiene valor.
+     */
+    public void add(PackedBoard puzzle, int difficulty) throws IOException {
+        if (this.closed) {
+            throw new IllegalStateException("El escritor de la biblioteca ya fue cerrado.");
+        }
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            if (puzzle.isEditable(index) && puzzle.getValue(index) != 0) {
+                throw new IllegalArgumentException("La celda editable " + index + " del puzzle no está vacía.");
+            }
+        }
+        int clamped = Math.max(0, Math.min(PuzzleLibrary.MAX_DIFFICULTY, difficulty));
+        int bucket = PuzzleLibrary.bucketOf(clamped);
+        ByteBuffer buffer = this.bucketBuffers[bucket];
+        buffer.putLong(puzzle.getValuesLo())
+                .putLong(puzzle.getValuesHi())
+                .putLong(puzzle.getSolutionLo())
+                .putLong(puzzle.getSolutionHi())
+                .putLong(puzzle.getEditableMask())
+                .putInt(clamped)
+                .putInt(0);
+        this.bucketCount[bucket]++;
+        if (!buffer.hasRemaining()) {
+            this.flush(bucket);
+        }
+    }
+
+    /**
+     * @return número de puzzles agregados hasta ahora.
+     */
+    public long size() {
+        long total = 0;
+        for (long count : this.bucketCount) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Escribe la cabecera, concatena los intervalos y reemplaza el archivo final de forma atómica.
+     * @throws IOException si no se puede escribir la biblioteca.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            for (int bucket = 0; bucket < PuzzleLibrary.BUCKET_COUNT; bucket++) {
+                this.flush(bucket);
+            }
+            try (FileChannel out = FileChannel.open(this.tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(out, this.header());
+                for (int bucket = 0; bucket < PuzzleLibrary.BUCKET_COUNT; bucket++) {
+                    FileChannel in = this.bucketChannels[bucket];
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+                out.force(false);
+            }
+            Files.move(this.tempFile, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            this.deleteBucketFiles();
+        }
+    }
+
+    /**
+     * Construye la cabecera con el índice por intervalo de dificultad.
+     */
+    private ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(PuzzleLibrary.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(PuzzleLibrary.MAGIC)
+                .putInt(PuzzleLibrary.VERSION)
+                .putInt(PuzzleLibrary.RECORD_SIZE)
+                .putInt(PuzzleLibrary.BUCKET_COUNT)
+                .putLong(this.size());
+        long start = 0;
+        for (int bucket = 0; bucket < PuzzleLibrary.BUCKET_COUNT; bucket++) {
+            header.putLong(start).putLong(this.bucketCount[bucket]);
+            start += this.bucketCount[bucket];
+        }
+        header.clear();
+        return header;
+    }
+
+    private void flush(int bucket) throws IOException {
+        ByteBuffer buffer = this.bucketBuffers[bucket];
+        buffer.flip();
+        writeFully(this.bucketChannels[bucket], buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Cierra y borra los archivos temporales de los intervalos.
+     */
+    private void deleteBucketFiles() throws IOException {
+        for (int bucket = 0; bucket < PuzzleLibrary.BUCKET_COUNT; bucket++) {
+            if (this.bucketChannels[bucket] != null) {
+                this.bucketChannels[bucket].close();
+            }
+            if (this.bucketFiles[bucket] != null) {
+                Files.deleteIfExists(this.bucketFiles[bucket]);
+            }
+        }
+    }
+}
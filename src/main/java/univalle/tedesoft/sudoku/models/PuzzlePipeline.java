@@ -0,0 +1,251 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Línea de producción de puzzles en proceso: generación de la solución, tallado de las pistas,
+ * verificación de solución única, calificación de dificultad, eliminación de duplicados por
+ * simetría y almacenamiento en una PuzzleLibrary (que los agrupa por dificultad). Las etapas se
+ * comunican por colas acotadas (PipelineStage), así que una etapa atrasada frena a las anteriores
+ * hasta el hilo que reparte semillas, y la memoria no crece con el tamaño de la producción.
+ * <p>
+ * Cada puzzle se obtiene de una semilla de 64 bits. Con varios hilos el orden de llegada varía, así
+ * que entre dos puzzles equivalentes puede conservarse cualquiera de los dos.
+ * Un hilo de balanceo pasa hilos a las etapas cuya cola está casi llena (son el cuello de botella)
+ * y los quita de las que tienen la cola casi vacía, sin pasar de un total de hilos.
+ * <p>
+ * Un error al guardar (disco lleno, por ejemplo) detiene toda la línea: sin él la cantidad pedida
+ * nunca se alcanzaría y se seguirían repartiendo semillas sin fin. run lo relanza.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PuzzlePipeline {
+    /**
+     * Capacidad de la cola de entrada de cada etapa.
+     */
+    public static final int QUEUE_CAPACITY = 1024;
+    /**
+     * Pistas mínimas y máximas de un puzzle tallado.
+     */
+    private static final int MIN_GIVENS = 10;
+    private static final int MAX_GIVENS = 18;
+    private static final long BALANCE_INTERVAL_MILLIS = 200;
+
+    /**
+     * Puzzle en tránsito por la línea.
+     */
+    private static final class Candidate {
+        final SplittableRandom random;
+        final PackedBoard board = new PackedBoard();
+        int difficulty;
+
+        Candidate(long seed) {
+            this.random = new SplittableRandom(seed);
+        }
+    }
+
+    private final PipelineStage<Long, Candidate> generation;
+    private final List<PipelineStage<?, ?>> stages;
+    private final PipelineStage<Candidate, Candidate> storage;
+    private final PuzzleLibraryWriter writer;
+    private final FingerprintSet fingerprints = new FingerprintSet(1 << 16);
+    private final ThreadLocal<PuzzleCanonicalizer> canonicalizers = ThreadLocal.withInitial(PuzzleCanonicalizer::new);
+    private final long target;
+    private final AtomicLong stored = new AtomicLong();
+    /**
+     * Primer error al guardar; detiene la línea.
+     */
+    private final AtomicReference<Exception> storageFailure = new AtomicReference<>();
+    private final int maxThreads;
+
+    /**
+     * Prepara la línea sin iniciarla.
+     * @param writer Biblioteca donde se guardan los puzzles; la línea no la cierra.
+     * @param target Puzzles a guardar.
+     * @param maxThreads Máximo de hilos de trabajo entre todas las etapas (al menos uno por etapa).
+     */
+    public PuzzlePipeline(PuzzleLibraryWriter writer, long target, int maxThreads) {
+        this.writer = writer;
+        this.target = target;
+        this.generation = new PipelineStage<>("generacion", QUEUE_CAPACITY, Integer.MAX_VALUE, (seed, emit) -> {
+            Candidate candidate = new Candidate(seed);
+            SolutionGridGenerator.generate(candidate.random, candidate.board);
+            emit.accept(candidate);
+        });
+        PipelineStage<Candidate, Candidate> carving = new PipelineStage<>("tallado", QUEUE_CAPACITY,
+                Integer.MAX_VALUE, (candidate, emit) -> {
+                    carve(candidate);
+                    emit.accept(candidate);
+                });
+        PipelineStage<Candidate, Candidate> uniqueness = new PipelineStage<>("unicidad", QUEUE_CAPACITY,
+                Integer.MAX_VALUE, (candidate, emit) -> {
+                    if (SudokuSolver.SIX_BY_SIX.countSolutions(candidate.board, 2, null) == 1) {
+                        emit.accept(candidate);
+                    }
+                });
+        PipelineStage<Candidate, Candidate> grading = new PipelineStage<>("dificultad", QUEUE_CAPACITY,
+                Integer.MAX_VALUE, (candidate, emit) -> {
+                    candidate.difficulty = DifficultyGrader.grade(candidate.board);
+                    emit.accept(candidate);
+                });
+        PipelineStage<Candidate, Candidate> dedup = new PipelineStage<>("duplicados", QUEUE_CAPACITY,
+                Integer.MAX_VALUE, (candidate, emit) -> {
+                    long fingerprint = this.canonicalizers.get().fingerprint(candidate.board);
+                    boolean added;
+                    synchronized (this.fingerprints) {
+                        added = this.fingerprints.add(fingerprint);
+                    }
+                    if (added) {
+                        emit.accept(candidate);
+                    }
+                });
+        // PuzzleLibraryWriter no es seguro entre hilos: un solo hilo de almacenamiento
+        this.storage = new PipelineStage<>("almacenamiento", QUEUE_CAPACITY, 1, (candidate, emit) -> {
+            if (this.stored.get() < this.target) {
+                try {
+                    this.writer.add(candidate.board, candidate.difficulty);
+                } catch (IOException | RuntimeException e) {
+                    this.abort(e);
+                    return;
+                }
+                this.stored.incrementAndGet();
+                emit.accept(candidate);
+            }
+        });
+        this.generation.connect(carving).connect(uniqueness).connect(grading).connect(dedup).connect(this.storage);
+        this.stages = List.of(this.generation, carving, uniqueness, grading, dedup, this.storage);
+        this.maxThreads = Math.max(maxThreads, this.stages.size());
+    }
+
+    /**
+     * Ejecuta la línea hasta guardar la cantidad pedida de puzzles. Reparte semillas consecutivas
+     * desde la inicial, bloqueándose cuando la línea está llena.
+     * @param firstSeed Semilla del primer puzzle.
+     * @param reporter Recibe la línea cada intervalo de balanceo (para reportes); puede ser null.
+     * @throws IOException si falló el almacenamiento de un puzzle (la línea se detiene).
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void run(long firstSeed, Consumer<PuzzlePipeline> reporter) throws IOException, InterruptedException {
+        for (PipelineStage<?, ?> stage : this.stages) {
+            stage.setWorkers(1);
+        }
+        Thread balancer = new Thread(() -> {
+            try {
+                while (!this.storage.isFinished()) {
+                    Thread.sleep(BALANCE_INTERVAL_MILLIS);
+                    this.rebalance();
+                    if (reporter != null) {
+                        reporter.accept(this);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "pipeline-balanceo");
+        balancer.setDaemon(true);
+        balancer.start();
+
+        long seed = firstSeed;
+        while (this.stored.get() < this.target && this.storageFailure.get() == null) {
+            this.generation.put(seed++);
+        }
+        this.generation.closeInput();
+        // Tras un error las etapas se detienen cada una por su lado: esperar a todas
+        for (PipelineStage<?, ?> stage : this.stages) {
+            stage.awaitFinished();
+        }
+        balancer.interrupt();
+        balancer.join();
+        Exception failure = this.storageFailure.get();
+        if (failure instanceof IOException e) {
+            throw e;
+        }
+        if (failure != null) {
+            throw (RuntimeException) failure;
+        }
+    }
+
+    /**
+     * Registra el primer error de almacenamiento y detiene todas las etapas.
+     */
+    private void abort(Exception failure) {
+        if (this.storageFailure.compareAndSet(null, failure)) {
+            System.err.println("Línea de puzzles detenida: no se pudo guardar un puzzle: " + failure.getMessage());
+        }
+        for (PipelineStage<?, ?> stage : this.stages) {
+            stage.abort();
+        }
+    }
+
+    /**
+     * @return puzzles guardados.
+     */
+    public long getStored() {
+        return this.stored.get();
+    }
+
+    /**
+     * @return las etapas en orden, para consultar su rendimiento y sus colas.
+     */
+    public List<PipelineStage<?, ?>> getStages() {
+        return this.stages;
+    }
+
+    /**
+     * Da un hilo al cuello de botella: la última etapa con la cola llena en más de 3/4 (las
+     * anteriores se llenan solo porque esta no avanza). Si ya se usan todos los hilos, lo quita
+     * de una etapa con la cola casi vacía.
+     */
+    private void rebalance() {
+        PipelineStage<?, ?> bottleneck = null;
+        PipelineStage<?, ?> idle = null;
+        int totalWorkers = 0;
+        for (PipelineStage<?, ?> stage : this.stages) {
+            totalWorkers += stage.getWorkers();
+            int depth = stage.getQueueDepth();
+            if (depth * 4 > stage.getQueueCapacity() * 3) {
+                bottleneck = stage;
+            }
+            if (stage.getWorkers() > 1 && depth * 10 < stage.getQueueCapacity()
+                    && (idle == null || depth < idle.getQueueDepth())) {
+                idle = stage;
+            }
+        }
+        if (bottleneck == null || bottleneck.getWorkers() >= bottleneck.getMaxWorkers()) {
+            return;
+        }
+        if (totalWorkers >= this.maxThreads) {
+            if (idle == null) return;
+            idle.setWorkers(idle.getWorkers() - 1);
+        }
+        bottleneck.setWorkers(bottleneck.getWorkers() + 1);
+    }
+
+    /**
+     * Conserva entre MIN_GIVENS y MAX_GIVENS pistas elegidas al azar y vacía el resto de celdas.
+     */
+    private static void carve(Candidate candidate) {
+        PackedBoard board = candidate.board;
+        SplittableRandom random = candidate.random;
+        int givens = MIN_GIVENS + random.nextInt(MAX_GIVENS - MIN_GIVENS + 1);
+        int[] order = new int[PackedBoard.CELL_COUNT];
+        for (int index = 0; index < order.length; index++) {
+            order[index] = index;
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        for (int k = givens; k < order.length; k++) {
+            board.setValue(order[k], 0);
+            board.setEditable(order[k], true);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+/**
+ * Lee puzzles en formato de texto, uno por línea: 36 caracteres para el 6x6, del '1' al '6'
+ * para las pistas y '0' o '.' para las celdas vacías. Los finales de línea '\r\n' se aceptan
+ * y las líneas en blanco se ignoran.
+ * La lectura es en flujo: los bytes se analizan directamente desde un buffer grande hacia un
+ * PackedBoard reutilizado, sin crear celdas ni cadenas, así que la memoria es constante
+ * sin importar el tamaño del archivo. Una línea mal formada se reporta con su número
+ * y se salta sin detener la lectura.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PuzzleTextReader implements Closeable {
+    /**
+     * Tamaño por defecto del buffer de lectura.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private BiConsumer<Long, String> errorHandler = (line, message) ->
+            System.err.println("Línea " + line + ": " + message);
+
+    // Estado de la línea en curso; sobrevive entre recargas del buffer
+    private long lineNumber = 1;
+    private int cellCount;
+    private long valuesLo;
+    private long valuesHi;
+    private long editableMask;
+    private String lineError;
+    private long errorCount;
+    private boolean endOfStream;
+
+    /**
+     * Abre un archivo de puzzles.
+     * @param file Archivo de texto.
+     * @throws IOException si no se puede abrir.
+     */
+    public PuzzleTextReader(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.READ), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Lee puzzles desde un canal; el canal se cierra junto con el lector.
+     * @param channel Canal de origen.
+     * @param bufferSize Tamaño del buffer de lectura en bytes.
+     */
+    public PuzzleTextReader(ReadableByteChannel channel, int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("El tamaño del buffer debe ser positivo: " + bufferSize);
+        }
+        this.channel = channel;
+        this.bytes = new byte[bufferSize];
+        this.buffer = ByteBuffer.wrap(this.bytes);
+        this.buffer.flip();
+    }
+
+    /**
+     * Cambia quién recibe los errores de formato (número de línea y mensaje).
+     * Por defecto se imprimen en System.err.
+     * @param errorHandler Receptor de los errores.
+     */
+    public void setErrorHandler(BiConsumer<Long, String> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Lee el siguiente puzzle válido. Las pistas quedan como valores fijos, las celdas vacías
+     * como editables y la solución en 0 (el formato de texto no la incluye).
+     * @param target Tablero compacto donde se escribe el puzzle.
+     * @return true si se leyó un puzzle; false al llegar al final del flujo.
+     * @throws IOException si falla la lectura del canal.
+     */
+    public boolean next(PackedBoard target) throws IOException {
+        while (true) {
+            if (!this.buffer.hasRemaining() && !this.fill()) {
+                // Última línea sin salto de línea final
+                boolean pending = this.cellCount > 0 || this.lineError != null;
+                return pending && this.endLine(target);
+            }
+            int position = this.buffer.position();
+            int limit = this.buffer.limit();
+            while (position < limit) {
+                if (this.cellCount == 0 && this.lineError == null) {
+                    int end = this.parseWholeLine(position, limit, target);
+                    if (end >= 0) {
+                        this.buffer.position(end);
+                        this.lineNumber++;
+                        return true;
+                    }
+                }
+                byte b = this.bytes[position++];
+                if (b == '\n') {
+                    this.buffer.position(position);
+                    if (this.endLine(target)) {
+                        return true;
+                    }
+                } else if (this.lineError == null) {
+                    this.accept(b);
+                }
+            }
+            this.buffer.position(position);
+        }
+    }
+
+    /**
+     * @return número de la línea que se está leyendo (comienza en 1).
+     */
+    public long getLineNumber() {
+        return this.lineNumber;
+    }
+
+    /**
+     * @return número de líneas descartadas por errores de formato.
+     */
+    public long getErrorCount() {
+        return this.errorCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Camino rápido: analiza una línea completa de 36 celdas que esté entera en el buffer,
+     * acumulando las palabras en variables locales.
+     * @return la posición siguiente al salto de línea, o -1 si la línea no es una línea
+     *         simple y válida (se procesa entonces byte a byte para reportar el error).
+     */
+    private int parseWholeLine(int start, int limit, PackedBoard target) {
+        int end = start + PackedBoard.CELL_COUNT;
+        if (end >= limit) {
+            return -1;
+        }
+        if (this.bytes[end] == '\r' && end + 1 < limit) {
+            end++;
+        }
+        if (this.bytes[end] != '\n') {
+            return -1;
+        }
+        long lo = 0;
+        long hi = 0;
+        long mask = 0;
+        for (int i = 0; i < PackedBoard.CELL_COUNT; i++) {
+            int value = this.bytes[start + i] - '0';
+            if (value == '.' - '0') {
+                value = 0;
+            } else if (value < 0 || value > Board.GRID_SIZE) {
+                return -1;
+            }
+            if (value == 0) {
+                mask |= 1L << i;
+            } else if (i < PackedBoard.CELLS_PER_WORD) {
+                lo |= (long) value << (i * PackedBoard.BITS_PER_CELL);
+            } else {
+                hi |= (long) value << ((i - PackedBoard.CELLS_PER_WORD) * PackedBoard.BITS_PER_CELL);
+            }
+        }
+        target.set(lo, hi, 0, 0, mask);
+        return end + 1;
+    }
+
+    /**
+     * Procesa un byte de la línea en curso.
+     */
+    private void accept(byte b) {
+        if (b == '\r') {
+            return;
+        }
+        int value;
+        if (b == '0' || b == '.') {
+            value = 0;
+        } else if (b >= '1' && b <= '0' + Board.GRID_SIZE) {
+            value = b - '0';
+        } else {
+            this.lineError = "carácter inválido '" + (char) (b & 0xFF) + "' en la columna " + (this.cellCount + 1);
+            return;
+        }
+        if (this.cellCount == PackedBoard.CELL_COUNT) {
+            this.lineError = "la línea tiene más de " + PackedBoard.CELL_COUNT + " celdas";
+            return;
+        }
+        if (value == 0) {
+            this.editableMask |= 1L << this.cellCount;
+        } else if (PackedBoard.isHighWord(this.cellCount)) {
+            this.valuesHi = PackedBoard.withCell(this.valuesHi, this.cellCount, value);
+        } else {
+            this.valuesLo = PackedBoard.withCell(this.valuesLo, this.cellCount, value);
+        }
+        this.cellCount++;
+    }
+
+    /**
+     * Cierra la línea en curso: entrega el puzzle si es válido o reporta el error.
+     * @return true si la línea produjo un puzzle.
+     */
+    private boolean endLine(PackedBoard target) {
+        long line = this.lineNumber++;
+        String error = this.lineError;
+        boolean produced = false;
+        if (error == null && this.cellCount == PackedBoard.CELL_COUNT) {
+            target.set(this.valuesLo, this.valuesHi, 0, 0, this.editableMask);
+            produced = true;
+        } else if (error == null && this.cellCount > 0) {
+            error = "la línea tiene " + this.cellCount + " celdas, se esperaban " + PackedBoard.CELL_COUNT;
+        }
+        if (error != null) {
+            this.errorCount++;
+            this.errorHandler.accept(line, error);
+        }
+        this.cellCount = 0;
+        this.valuesLo = 0;
+        this.valuesHi = 0;
+        this.editableMask = 0;
+        this.lineError = null;
+        return produced;
+    }
+
+    /**
+     * Recarga el buffer desde el canal.
+     * @return false si el flujo terminó.
+     */
+    private boolean fill() throws IOException {
+        if (this.endOfStream) {
+            return false;
+        }
+        this.buffer.clear();
+        int read;
+        do {
+            read = this.channel.read(this.buffer);
+        } while (read == 0);
+        this.buffer.flip();
+        if (read < 0) {
+            this.endOfStream = true;
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,99 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escribe puzzles en el formato de texto de PuzzleTextReader: una línea de 36 dígitos por
+ * puzzle, con '0' para las celdas editables. Las líneas se acumulan en un buffer grande y
+ * se escriben al canal en bloques.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PuzzleTextWriter implements Closeable {
+    /**
+     * Bytes por línea: 36 celdas más el salto de línea.
+     */
+    private static final int LINE_SIZE = PackedBoard.CELL_COUNT + 1;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private long count;
+
+    /**
+     * Crea (o reemplaza) un archivo de puzzles.
+     * @param file Archivo de destino.
+     * @throws IOException si no se puede abrir.
+     */
+    public PuzzleTextWriter(Path file) throws IOException {
+        this(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), PuzzleTextReader.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Escribe puzzles en un canal; el canal se cierra junto con el escritor.
+     * @param channel Canal de destino.
+     * @param bufferSize Tamaño del buffer de escritura (al menos una línea).
+     */
+    public PuzzleTextWriter(WritableByteChannel channel, int bufferSize) {
+        if (bufferSize < LINE_SIZE) {
+            throw new IllegalArgumentException("El buffer debe admitir al menos una línea: " + bufferSize);
+        }
+        this.channel = channel;
+        this.bytes = new byte[bufferSize];
+        this.buffer = ByteBuffer.wrap(this.bytes);
+    }
+
+    /**
+     * Escribe los valores fijos del puzzle; las celdas editables se escriben como '0'.
+     * @param puzzle Puzzle a escribir.
+     * @throws IOException si falla la escritura del canal.
+     */
+    public void write(PackedBoard puzzle) throws IOException {
+        if (this.buffer.remaining() < LINE_SIZE) {
+            this.flush();
+        }
+        int position = this.buffer.position();
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            int value = puzzle.isEditable(index) ? 0 : puzzle.getValue(index);
+            this.bytes[position++] = (byte) ('0' + value);
+        }
+        this.bytes[position++] = '\n';
+        this.buffer.position(position);
+        this.count++;
+    }
+
+    /**
+     * @return número de puzzles escritos.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Escribe al canal las líneas pendientes del buffer.
+     * @throws IOException si falla la escritura del canal.
+     */
+    public void flush() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
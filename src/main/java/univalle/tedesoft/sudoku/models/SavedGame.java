@@ -0,0 +1,97 @@
+package univalle.tedesoft.sudoku.models;
+
+/**
+ * Estado guardado de una partida: el tablero compacto (valores, solución y celdas editables),
+ * la posición en el diario de jugadas, el tiempo de juego transcurrido, las pistas ya usadas y,
+ * si el tablero salió de un identificador, el identificador del puzzle.
+ * Es mutable para poder reutilizar una misma instancia en cada guardado.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class SavedGame {
+    private final PackedBoard board = new PackedBoard();
+    private int movePosition;
+    private long elapsedMillis;
+    private int hintsUsed;
+    private boolean hasPuzzleId;
+    private long puzzleId;
+
+    /**
+     * @return el tablero compacto de la partida.
+     */
+    public PackedBoard getBoard() {
+        return this.board;
+    }
+
+    /**
+     * @return número de jugadas aplicadas desde el inicio del puzzle (posición en el diario).
+     */
+    public int getMovePosition() {
+        return this.movePosition;
+    }
+
+    /**
+     * @param movePosition número de jugadas aplicadas desde el inicio del puzzle.
+     */
+    public void setMovePosition(int movePosition) {
+        this.movePosition = movePosition;
+    }
+
+    /**
+     * @return tiempo de juego transcurrido en milisegundos.
+     */
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    /**
+     * @param elapsedMillis tiempo de juego transcurrido en milisegundos.
+     */
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return pistas pedidas en la partida, que cuentan para el límite por partida.
+     */
+    public int getHintsUsed() {
+        return this.hintsUsed;
+    }
+
+    /**
+     * @param hintsUsed pistas pedidas en la partida (0 a 255).
+     */
+    public void setHintsUsed(int hintsUsed) {
+        this.hintsUsed = hintsUsed;
+    }
+
+    /**
+     * @return true si la partida conserva el identificador del puzzle.
+     */
+    public boolean hasPuzzleId() {
+        return this.hasPuzzleId;
+    }
+
+    /**
+     * @return identificador del puzzle; solo tiene sentido si hasPuzzleId es true.
+     */
+    public long getPuzzleId() {
+        return this.puzzleId;
+    }
+
+    /**
+     * @param puzzleId identificador del puzzle de la partida.
+     */
+    public void setPuzzleId(long puzzleId) {
+        this.puzzleId = puzzleId;
+        this.hasPuzzleId = true;
+    }
+
+    /**
+     * Marca la partida como sin identificador (tablero cargado de una biblioteca o de otra forma compacta).
+     */
+    public void clearPuzzleId() {
+        this.puzzleId = 0;
+        this.hasPuzzleId = false;
+    }
+}
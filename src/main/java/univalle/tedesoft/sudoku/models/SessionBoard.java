@@ -0,0 +1,136 @@
+package univalle.tedesoft.sudoku.models;
+
+/**
+ * Vista IBoard de una partida de GameSessionEngine. No guarda estado propio: cada lectura y
+ * escritura va a los arreglos del motor, y la misma instancia puede apuntarse a otra partida con
+ * setSession, así que un hilo puede recorrer miles de partidas con una sola vista.
+ * Las operaciones que devuelven objetos del modelo clásico (getGridSnapshot, getBlock) los
+ * construyen en cada llamada; las celdas devueltas por getCell escriben en el motor.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class SessionBoard implements IBoard {
+    private final GameSessionEngine engine;
+    private int session;
+
+    /**
+     * Celda de la partida: lee y escribe en el motor.
+     */
+    private final class SessionCell implements ICell {
+        private final int session;
+        private final int row;
+        private final int col;
+
+        SessionCell(int session, int row, int col) {
+            this.session = session;
+            this.row = row;
+            this.col = col;
+        }
+
+        @Override
+        public int getValue() {
+            return SessionBoard.this.engine.getValue(this.session, this.row, this.col);
+        }
+
+        @Override
+        public void setValue(int value) {
+            SessionBoard.this.engine.setCellValue(this.session, this.row, this.col, value);
+        }
+
+        @Override
+        public boolean getEditable() {
+            return SessionBoard.this.engine.isEditable(this.session, this.row, this.col);
+        }
+
+        @Override
+        public void setEditable(boolean isEditable) {
+            SessionBoard.this.engine.setEditable(this.session, this.row, this.col, isEditable);
+        }
+    }
+
+    /**
+     * Crea una vista sobre una partida.
+     * @param engine Motor que guarda la partida.
+     * @param session Handle de la partida.
+     */
+    public SessionBoard(GameSessionEngine engine, int session) {
+        this.engine = engine;
+        this.session = session;
+    }
+
+    /**
+     * Apunta la vista a otra partida del mismo motor.
+     * @param session Handle de la partida.
+     */
+    public void setSession(int session) {
+        this.engine.checkSession(session);
+        this.session = session;
+    }
+
+    public int getSession() {
+        return this.session;
+    }
+
+    @Override
+    public void initializeBoard() {
+        this.engine.initialize(this.session, Board.randomPuzzleId());
+    }
+
+    @Override
+    public void initializeBoard(long puzzleId) {
+        this.engine.initialize(this.session, puzzleId);
+    }
+
+    @Override
+    public long getPuzzleId() {
+        return this.engine.getPuzzleId(this.session);
+    }
+
+    @Override
+    public Cell[][] getGridSnapshot() {
+        PackedBoard packed = new PackedBoard();
+        this.engine.read(this.session, packed);
+        Cell[][] grid = new Cell[Board.GRID_SIZE][Board.GRID_SIZE];
+        for (int row = 0; row < Board.GRID_SIZE; row++) {
+            for (int col = 0; col < Board.GRID_SIZE; col++) {
+                int index = PackedBoard.index(row, col);
+                grid[row][col] = new Cell(packed.getValue(index), packed.isEditable(index));
+            }
+        }
+        return grid;
+    }
+
+    @Override
+    public ICell getCell(int row, int col) {
+        if (row < 0 || row >= Board.GRID_SIZE || col < 0 || col >= Board.GRID_SIZE) {
+            throw new IndexOutOfBoundsException("Índices de celda fuera de rango: (" + row + "," + col + ")");
+        }
+        return new SessionCell(this.session, row, col);
+    }
+
+    @Override
+    public boolean setCellValue(int row, int col, int value) {
+        return this.engine.setCellValue(this.session, row, col, value);
+    }
+
+    @Override
+    public IBlock getBlockAt(int row, int col) {
+        if (row < 0 || row >= Board.GRID_SIZE || col < 0 || col >= Board.GRID_SIZE) {
+            throw new IndexOutOfBoundsException("Índices de celda fuera de rango: (" + row + "," + col + ")");
+        }
+        return this.getBlock(row / Board.BLOCK_ROWS, col / Board.BLOCK_COLS);
+    }
+
+    @Override
+    public Block getBlock(int blockRow, int blockCol) {
+        if (blockRow < 0 || blockRow >= Board.NUM_BLOCK_ROWS || blockCol < 0 || blockCol >= Board.NUM_BLOCK_COLS) {
+            throw new IndexOutOfBoundsException("Índices de bloque fuera de rango: (" + blockRow + "," + blockCol + ")");
+        }
+        return new Block(this.getGridSnapshot(), blockRow * Board.BLOCK_ROWS, blockCol * Board.BLOCK_COLS);
+    }
+
+    @Override
+    public int countEmptyEditableCells() {
+        return this.engine.countEmptyEditableCells(this.session);
+    }
+}
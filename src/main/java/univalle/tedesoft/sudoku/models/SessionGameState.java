@@ -0,0 +1,75 @@
+package univalle.tedesoft.sudoku.models;
+
+import javafx.util.Pair;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Vista IGameState de una partida de GameSessionEngine, con las mismas reglas que GameState pero
+ * calculadas con máscaras de bits sobre el estado compacto. Como SessionBoard, puede apuntarse a
+ * otra partida con setSession.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class SessionGameState implements IGameState {
+    private final GameSessionEngine engine;
+    private int session;
+
+    /**
+     * Crea una vista sobre una partida.
+     * @param engine Motor que guarda la partida.
+     * @param session Handle de la partida.
+     */
+    public SessionGameState(GameSessionEngine engine, int session) {
+        this.engine = engine;
+        this.session = session;
+    }
+
+    /**
+     * Apunta la vista a otra partida del mismo motor.
+     * @param session Handle de la partida.
+     */
+    public void setSession(int session) {
+        this.engine.checkSession(session);
+        this.session = session;
+    }
+
+    @Override
+    public boolean isBoardValid() {
+        return this.engine.getInvalidCellMask(this.session) == 0;
+    }
+
+    @Override
+    public Set<Pair<Integer, Integer>> getInvalidCells() {
+        Set<Pair<Integer, Integer>> invalidCells = new HashSet<>();
+        for (long mask = this.engine.getInvalidCellMask(this.session); mask != 0; mask &= mask - 1) {
+            int index = Long.numberOfTrailingZeros(mask);
+            invalidCells.add(new Pair<>(index / Board.GRID_SIZE, index % Board.GRID_SIZE));
+        }
+        return invalidCells;
+    }
+
+    @Override
+    public boolean isBoardFull() {
+        return this.engine.isFull(this.session);
+    }
+
+    @Override
+    public boolean isGameWon() {
+        return this.engine.isWon(this.session);
+    }
+
+    @Override
+    public int getClue(int row, int col) {
+        return this.engine.getClue(this.session, row, col);
+    }
+
+    @Override
+    public Solvability getSolvability(BooleanSupplier cancelled) {
+        PackedBoard packed = new PackedBoard();
+        this.engine.read(this.session, packed);
+        return GameState.solvabilityOf(packed, cancelled);
+    }
+}
@@ -0,0 +1,339 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tablero compartido por varios jugadores a la vez. Los valores viven en tres
+ * palabras de 64 bits con 12 celdas cada una (3 bits por celda, como PackedBoard) y una versión de
+ * 28 bits en los bits altos. Una jugada indica el valor que el jugador veía en la celda y se aplica
+ * con compare-and-set sobre la palabra de la celda: si otra jugada cambió esa celda antes, se rechaza
+ * como conflicto; si cambió otra celda de la misma palabra, se reintenta.
+ * <p>
+ * Cada jugada aplicada se publica en un registro circular de cambios con un número de secuencia
+ * global. Una jugada se publica solo después de la versión anterior de su palabra, así que el orden
+ * del registro respeta el orden en que se aplicaron las jugadas sobre cada celda: reproducir el
+ * registro desde una foto reconstruye el tablero. Para eso, tras su compare-and-set, cada jugada
+ * espera (girando y luego cediendo el procesador) a que se publique la anterior sobre su palabra.
+ * No se toma ningún candado, pero el algoritmo no es libre de bloqueo: si el hilo de una jugada
+ * pierde el procesador entre su compare-and-set y su publicación, las siguientes jugadas sobre
+ * las mismas 12 celdas esperan a que vuelva. Cada jugador lee el registro con su propio
+ * ChangeFeed; el registro no espera a los lectores lentos, que detectan los cambios perdidos y
+ * deben volver a tomar una foto.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class SharedBoard {
+    /**
+     * Resultado de una jugada.
+     */
+    public enum Outcome {
+        APPLIED,
+        /**
+         * La celda ya no tenía el valor que el jugador veía.
+         */
+        CONFLICT,
+        NOT_EDITABLE,
+        /**
+         * Modo competitivo: la celda ya tiene su número correcto y pertenece a otro jugador.
+         */
+        CLAIMED
+    }
+
+    /**
+     * Recibe los cambios del registro, en orden (ChangeFeed.drain).
+     */
+    public interface ChangeVisitor {
+        /**
+         * @param sequence Posición del cambio en el registro.
+         * @param player Jugador que hizo la jugada.
+         * @param index Celda (PackedBoard.index).
+         * @param oldValue Valor anterior.
+         * @param newValue Valor nuevo.
+         */
+        void change(long sequence, int player, int index, int oldValue, int newValue);
+    }
+
+    /**
+     * Capacidad por defecto del registro de cambios.
+     */
+    public static final int DEFAULT_FEED_CAPACITY = 1 << 16;
+    /**
+     * Jugadores máximos (el identificador ocupa 20 bits en cada cambio).
+     */
+    public static final int MAX_PLAYERS = 1 << 20;
+    private static final int CELLS_PER_WORD = 12;
+    private static final int WORD_COUNT = PackedBoard.CELL_COUNT / CELLS_PER_WORD;
+    private static final int VERSION_SHIFT = CELLS_PER_WORD * PackedBoard.BITS_PER_CELL;
+    private static final long VERSION_MASK = (1L << (64 - VERSION_SHIFT)) - 1;
+    private static final long CELL_MASK = 7;
+    /**
+     * Marca de una posición del registro mientras se escribe.
+     */
+    private static final long WRITING = -1;
+
+    private final SharedGameMode mode;
+    private final long editableMask;
+    private final int[] solution = new int[PackedBoard.CELL_COUNT];
+    /**
+     * Valores de 12 celdas y versión de la palabra.
+     */
+    private final AtomicLongArray words = new AtomicLongArray(WORD_COUNT);
+    /**
+     * Última versión de cada palabra ya publicada en el registro.
+     */
+    private final AtomicLongArray publishedVersions = new AtomicLongArray(WORD_COUNT);
+    private final AtomicIntegerArray scores;
+    private final AtomicLongArray events;
+    /**
+     * Secuencia + 1 del cambio guardado en cada posición del registro (0 si está vacía).
+     */
+    private final AtomicLongArray eventSequences;
+    private final int feedMask;
+    private final AtomicLong feedTail = new AtomicLong();
+
+    /**
+     * Crea una partida compartida.
+     * @param puzzle Puzzle inicial, con su solución y sus celdas editables.
+     * @param mode Modalidad.
+     * @param players Cantidad de jugadores (identificadores 0 a players - 1).
+     * @param feedCapacity Cambios que guarda el registro (potencia de dos).
+     */
+    public SharedBoard(PackedBoard puzzle, SharedGameMode mode, int players, int feedCapacity) {
+        if (players < 1 || players > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Cantidad de jugadores inválida: " + players);
+        }
+        if (feedCapacity < 2 || Integer.bitCount(feedCapacity) != 1) {
+            throw new IllegalArgumentException("La capacidad del registro debe ser potencia de dos.");
+        }
+        this.mode = mode;
+        this.editableMask = puzzle.getEditableMask();
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            this.solution[index] = puzzle.getSolution(index);
+            int word = index / CELLS_PER_WORD;
+            this.words.set(word, this.words.get(word)
+                    | (long) puzzle.getValue(index) << (index % CELLS_PER_WORD * PackedBoard.BITS_PER_CELL));
+        }
+        this.scores = new AtomicIntegerArray(players);
+        this.events = new AtomicLongArray(feedCapacity);
+        this.eventSequences = new AtomicLongArray(feedCapacity);
+        this.feedMask = feedCapacity - 1;
+    }
+
+    public SharedBoard(PackedBoard puzzle, SharedGameMode mode, int players) {
+        this(puzzle, mode, players, DEFAULT_FEED_CAPACITY);
+    }
+
+    /**
+     * Aplica una jugada si la celda sigue teniendo el valor que el jugador veía.
+     * @param player Jugador.
+     * @param row Fila (0-5).
+     * @param col Columna (0-5).
+     * @param expectedValue Valor que el jugador veía en la celda.
+     * @param value Valor nuevo (0 vacía la celda).
+     * @return el resultado de la jugada.
+     */
+    public Outcome move(int player, int row, int col, int expectedValue, int value) {
+        if (player < 0 || player >= this.scores.length()) {
+            throw new IndexOutOfBoundsException("Jugador inválido: " + player);
+        }
+        if (row < 0 || row >= Board.GRID_SIZE || col < 0 || col >= Board.GRID_SIZE) {
+            throw new IndexOutOfBoundsException("Celda fuera del tablero: (" + row + "," + col + ")");
+        }
+        if (value < 0 || value > Board.GRID_SIZE) {
+            throw new IllegalArgumentException("Valor inválido: " + value);
+        }
+        int index = PackedBoard.index(row, col);
+        if ((this.editableMask & (1L << index)) == 0) {
+            return Outcome.NOT_EDITABLE;
+        }
+        int word = index / CELLS_PER_WORD;
+        int shift = index % CELLS_PER_WORD * PackedBoard.BITS_PER_CELL;
+        long current;
+        long updated;
+        do {
+            current = this.words.get(word);
+            int cellValue = (int) ((current >>> shift) & CELL_MASK);
+            if (this.mode == SharedGameMode.COMPETITIVE && cellValue == this.solution[index]) {
+                return Outcome.CLAIMED;
+            }
+            if (cellValue != expectedValue) {
+                return Outcome.CONFLICT;
+            }
+            long version = ((current >>> VERSION_SHIFT) + 1) & VERSION_MASK;
+            updated = (current & ~(CELL_MASK << shift) & ~(VERSION_MASK << VERSION_SHIFT))
+                    | (long) value << shift | version << VERSION_SHIFT;
+        } while (!this.words.compareAndSet(word, current, updated));
+        if (this.mode == SharedGameMode.COMPETITIVE && value == this.solution[index]) {
+            this.scores.incrementAndGet(player);
+        }
+        this.publish(word, current >>> VERSION_SHIFT, updated >>> VERSION_SHIFT,
+                index | (long) expectedValue << 6 | (long) value << 9 | (long) player << 12);
+        return Outcome.APPLIED;
+    }
+
+    /**
+     * Publica un cambio en el registro después del de la versión anterior de su palabra.
+     */
+    private void publish(int word, long previousVersion, long version, long event) {
+        // La jugada anterior sobre esta palabra ya hizo su compare-and-set y está a unas instrucciones
+        // de publicarse; solo se cede el procesador si el hilo que la hizo perdió el suyo.
+        for (int spins = 0; this.publishedVersions.get(word) != previousVersion; spins++) {
+            if (spins < 64) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        long sequence = this.feedTail.getAndIncrement();
+        int slot = (int) (sequence & this.feedMask);
+        this.eventSequences.set(slot, WRITING);
+        this.events.set(slot, event);
+        this.eventSequences.set(slot, sequence + 1);
+        this.publishedVersions.set(word, version);
+    }
+
+    /**
+     * @return el valor actual de una celda.
+     */
+    public int getValue(int row, int col) {
+        int index = PackedBoard.index(row, col);
+        return (int) ((this.words.get(index / CELLS_PER_WORD) >>> (index % CELLS_PER_WORD * PackedBoard.BITS_PER_CELL))
+                & CELL_MASK);
+    }
+
+    /**
+     * Copia el tablero actual. Cada palabra de 12 celdas se lee de forma atómica; entre palabras la
+     * foto puede incluir una jugada concurrente y no otra. Para seguir la partida sin perder cambios,
+     * se abre el ChangeFeed antes de tomar la foto: reaplicar los valores nuevos en orden converge.
+     * @param target Tablero de destino (con solución y celdas editables).
+     */
+    public void snapshot(PackedBoard target) {
+        long lo = 0;
+        long hi = 0;
+        for (int word = 0; word < WORD_COUNT; word++) {
+            long current = this.words.get(word);
+            for (int cell = 0; cell < CELLS_PER_WORD; cell++) {
+                int index = word * CELLS_PER_WORD + cell;
+                int value = (int) ((current >>> (cell * PackedBoard.BITS_PER_CELL)) & CELL_MASK);
+                if (PackedBoard.isHighWord(index)) {
+                    hi = PackedBoard.withCell(hi, index, value);
+                } else {
+                    lo = PackedBoard.withCell(lo, index, value);
+                }
+            }
+        }
+        target.set(lo, hi, 0, 0, this.editableMask);
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            target.setSolution(index, this.solution[index]);
+        }
+    }
+
+    /**
+     * @return true si todas las celdas tienen su número correcto.
+     */
+    public boolean isSolved() {
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            if (this.getValue(index / Board.GRID_SIZE, index % Board.GRID_SIZE) != this.solution[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public SharedGameMode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * @return puntos de un jugador (modo competitivo).
+     */
+    public int getScore(int player) {
+        return this.scores.get(player);
+    }
+
+    /**
+     * @return cambios publicados desde el inicio de la partida.
+     */
+    public long getChangeCount() {
+        return this.feedTail.get();
+    }
+
+    /**
+     * Abre un lector del registro que empieza en el próximo cambio.
+     */
+    public ChangeFeed openFeed() {
+        return new ChangeFeed(this.feedTail.get());
+    }
+
+    /**
+     * Lector del registro de cambios de un jugador. No es seguro entre hilos: cada jugador tiene el suyo.
+     */
+    public final class ChangeFeed {
+        private long cursor;
+        private long lost;
+
+        private ChangeFeed(long cursor) {
+            this.cursor = cursor;
+        }
+
+        /**
+         * Entrega en orden los cambios publicados desde la última llamada.
+         * @param visitor Receptor de los cambios.
+         * @param max Cambios máximos a entregar.
+         * @return cambios entregados.
+         */
+        public int drain(ChangeVisitor visitor, int max) {
+            int delivered = 0;
+            while (delivered < max) {
+                int slot = (int) (this.cursor & SharedBoard.this.feedMask);
+                long expected = this.cursor + 1;
+                long marker = SharedBoard.this.eventSequences.get(slot);
+                if (marker != expected) {
+                    if (marker > expected || (marker == WRITING
+                            && SharedBoard.this.feedTail.get() - this.cursor > SharedBoard.this.feedMask + 1)) {
+                        this.skipOverwritten();
+                        continue;
+                    }
+                    // Todavía no publicado
+                    break;
+                }
+                long event = SharedBoard.this.events.get(slot);
+                if (SharedBoard.this.eventSequences.get(slot) != expected) {
+                    // Sobrescrito mientras se leía
+                    this.skipOverwritten();
+                    continue;
+                }
+                visitor.change(this.cursor, (int) (event >>> 12), (int) (event & 63),
+                        (int) ((event >>> 6) & CELL_MASK), (int) ((event >>> 9) & CELL_MASK));
+                this.cursor++;
+                delivered++;
+            }
+            return delivered;
+        }
+
+        /**
+         * El lector quedó más de una vuelta atrás: salta al cambio más antiguo que sigue en el registro.
+         */
+        private void skipOverwritten() {
+            long oldest = SharedBoard.this.feedTail.get() - SharedBoard.this.feedMask;
+            this.lost += oldest - this.cursor;
+            this.cursor = oldest;
+        }
+
+        /**
+         * @return posición del próximo cambio a leer.
+         */
+        public long getCursor() {
+            return this.cursor;
+        }
+
+        /**
+         * @return cambios perdidos por leer demasiado lento; si es mayor que 0, hay que volver a tomar una foto.
+         */
+        public long getLostCount() {
+            return this.lost;
+        }
+    }
+}
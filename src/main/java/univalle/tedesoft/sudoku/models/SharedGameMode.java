@@ -0,0 +1,18 @@
+package univalle.tedesoft.sudoku.models;
+
+/**
+ * Modalidad de una partida compartida (SharedBoard).
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public enum SharedGameMode {
+    /**
+     * Todos llenan el mismo tablero; cualquier celda editable puede reescribirse.
+     */
+    COOPERATIVE,
+    /**
+     * Cada número correcto suma un punto a quien lo puso y la celda queda reclamada: nadie más
+     * puede cambiarla.
+     */
+    COMPETITIVE
+}
@@ -0,0 +1,176 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Genera cuadrículas solución 6x6 sin búsqueda: toma una cuadrícula de una tabla precalculada y le
+ * aplica una transformación de simetría al azar (órdenes de filas y columnas de PuzzleCanonicalizer)
+ * y un renombrado de dígitos al azar de una tabla con las 720 permutaciones. Son tres números
+ * aleatorios y una pasada por las 36 celdas.
+ * <p>
+ * La tabla tiene un representante por cada una de las 49 clases de cuadrículas equivalentes, con su
+ * peso: cuántas de las 39168 cuadrículas cuya primera fila es 123456 pertenecen a la clase. Como cada
+ * transformación del grupo se elige con la misma probabilidad, elegir el representante según su peso
+ * hace que las 28.200.960 cuadrículas válidas salgan con la misma probabilidad. La tabla se obtuvo
+ * enumerando esas 39168 cuadrículas y agrupándolas por su forma canónica.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public final class SolutionGridGenerator {
+    /**
+     * Cuadrículas solución 6x6 válidas.
+     */
+    public static final int GRID_COUNT = 28_200_960;
+    /**
+     * Cuadrículas válidas cuya primera fila es 123456 (suma de los pesos).
+     */
+    public static final int NORMALIZED_GRID_COUNT = 39_168;
+    /**
+     * Representantes canónicos (valores empaquetados como en PackedBoard) y su peso.
+     */
+    private static final long[][] ORBITS = {
+            {0x198CD5A4CEB358D1L, 0x000013346D2A66D5L, 1728},
+            {0x1D4EB1A68EB358D1L, 0x000011AA753946A3L, 1728},
+            {0x1D4EB1A68EB358D1L, 0x000014B5329A971AL, 144},
+            {0x1D4EB1A68EB358D1L, 0x00001634723AC71AL, 144},
+            {0x1D69D1A68EB358D1L, 0x000005D534CA96A3L, 288},
+            {0x479CD4A4CEB358D1L, 0x000007352C54E74AL, 288},
+            {0x479CD4A4CEB358D1L, 0x00001133A9D5474AL, 864},
+            {0x47A674A4CEB358D1L, 0x00000CE52D88E655L, 288},
+            {0x47A674A4CEB358D1L, 0x00000E23AD394655L, 864},
+            {0x4CDCD4A4CEB358D1L, 0x00001152F1CD4B4AL, 1728},
+            {0x4CDCD4A4CEB358D1L, 0x000014B534C8BA55L, 1728},
+            {0x4CE674A4CEB358D1L, 0x00001622F3394A55L, 1728},
+            {0x4D66A5A2D6B358D1L, 0x00000D1B3599168BL, 96},
+            {0x4D66A5A4CEB358D1L, 0x0000053B359916CAL, 288},
+            {0x4D66A5A4CEB358D1L, 0x00000CAB35991653L, 288},
+            {0x4D66A5A4CEB358D1L, 0x00000E2A75394653L, 864},
+            {0x4D66A5A4CEB358D1L, 0x00001634715AC6CAL, 864},
+            {0x4D66A5A68EB358D1L, 0x000005AB3599168BL, 576},
+            {0x4D66A5A68EB358D1L, 0x000008BB3599165AL, 48},
+            {0x4D66A5A68EB358D1L, 0x000014B5329A965AL, 432},
+            {0x4D6CC5A2D6B358D1L, 0x000008BB34D516D1L, 96},
+            {0x4D6CC5A68EB358D1L, 0x000005AB34D5168BL, 48},
+            {0x4D6CC5A68EB358D1L, 0x000005D534CA968BL, 432},
+            {0x538EB1A68EB358D1L, 0x000011A3AD3946A3L, 432},
+            {0x579EB0A4CEB358D1L, 0x00000635AD58C70AL, 1728},
+            {0x579EB0A4CEB358D1L, 0x000010B5AD58C662L, 288},
+            {0x579EB0A4CEB358D1L, 0x00001133AD394662L, 864},
+            {0x57ABD0A68EB358D1L, 0x00000635AAD4C70AL, 288},
+            {0x57ABD0A68EB358D1L, 0x00000A33A9D5470AL, 864},
+            {0x57ABD0A68EB358D1L, 0x00000B332C356662L, 1728},
+            {0x57ABD0A68EB358D1L, 0x000010B5AAD4C662L, 1728},
+            {0x57AE70A4CEB358D1L, 0x00000CE52C54E662L, 3456},
+            {0x57AE70A4CEB358D1L, 0x00000D632995670AL, 1728},
+            {0x57AE70A68EB358D1L, 0x000009E32C356662L, 864},
+            {0x59A6A5A4CEB358D1L, 0x00000539AD9916CAL, 288},
+            {0x59A6A5A4CEB358D1L, 0x00000635AD5A16CAL, 864},
+            {0x59A6A5A4CEB358D1L, 0x00000CA9AD991653L, 288},
+            {0x59A6A5A4CEB358D1L, 0x00000E646D2A6653L, 864},
+            {0x59A6A5A68EB358D1L, 0x000005A9AD99168BL, 144},
+            {0x59ACC5A2D6B358D1L, 0x00000D19ACD5168BL, 96},
+            {0x59ACC5A68EB358D1L, 0x000008B9ACD5165AL, 48},
+            {0x59ACC5A68EB358D1L, 0x000010B5AAD6165AL, 432},
+            {0x5CDEB0A2D6B358D1L, 0x000014B53298BB11L, 864},
+            {0x5CEBD0A68EB358D1L, 0x000010D4F2CCCA62L, 864},
+            {0x5CEE70A68EB358D1L, 0x000005D53298BB0AL, 432},
+            {0x5CEE70A68EB358D1L, 0x00000654F278CB0AL, 144},
+            {0x5CEE70A68EB358D1L, 0x000009D331993B0AL, 864},
+            {0x5CEE70A68EB358D1L, 0x000009D334393A62L, 1728},
+            {0x5CEE70A68EB358D1L, 0x000010D4F278CA62L, 1728}
+    };
+    /**
+     * Número de clases de cuadrículas equivalentes.
+     */
+    public static final int ORBIT_COUNT = ORBITS.length;
+    private static final PackedBoard[] REPRESENTATIVES = new PackedBoard[ORBIT_COUNT];
+    /**
+     * Peso acumulado hasta cada representante, inclusive.
+     */
+    private static final int[] CUMULATIVE_WEIGHT = new int[ORBIT_COUNT];
+    /**
+     * Las 720 permutaciones de los dígitos; {@code RELABELS[k][d]} es el nuevo nombre del dígito d.
+     */
+    private static final int[][] RELABELS = relabels();
+
+    static {
+        int total = 0;
+        for (int orbit = 0; orbit < ORBIT_COUNT; orbit++) {
+            long lo = ORBITS[orbit][0];
+            long hi = ORBITS[orbit][1];
+            REPRESENTATIVES[orbit] = new PackedBoard(lo, hi, lo, hi, 0);
+            total += (int) ORBITS[orbit][2];
+            CUMULATIVE_WEIGHT[orbit] = total;
+        }
+        if (total != NORMALIZED_GRID_COUNT) {
+            throw new IllegalStateException("Los pesos de la tabla de cuadrículas no suman " + NORMALIZED_GRID_COUNT);
+        }
+    }
+
+    private SolutionGridGenerator() {
+    }
+
+    /**
+     * Genera una cuadrícula solución uniformemente al azar entre todas las válidas.
+     * @param random Generador de números aleatorios (determina el resultado).
+     * @param target Recibe la cuadrícula como valores y como solución, sin celdas editables.
+     */
+    public static void generate(RandomGenerator random, PackedBoard target) {
+        int weight = random.nextInt(NORMALIZED_GRID_COUNT);
+        int orbit = 0;
+        while (CUMULATIVE_WEIGHT[orbit] <= weight) {
+            orbit++;
+        }
+        int transform = random.nextInt(PuzzleCanonicalizer.TRANSFORM_COUNT);
+        int[] relabel = RELABELS[random.nextInt(RELABELS.length)];
+        PuzzleCanonicalizer.applyTransform(REPRESENTATIVES[orbit], transform, relabel, target);
+    }
+
+    /**
+     * @param orbit Índice de la clase (0 a ORBIT_COUNT - 1).
+     * @return el representante canónico de la clase; no debe modificarse.
+     */
+    static PackedBoard getRepresentative(int orbit) {
+        return REPRESENTATIVES[orbit];
+    }
+
+    /**
+     * @param orbit Índice de la clase (0 a ORBIT_COUNT - 1).
+     * @return cuántas de las NORMALIZED_GRID_COUNT cuadrículas normalizadas pertenecen a la clase.
+     */
+    static int getWeight(int orbit) {
+        return (int) ORBITS[orbit][2];
+    }
+
+    /**
+     * Genera las permutaciones de 1..6 en orden lexicográfico (índice 0 sin uso en cada una).
+     */
+    private static int[][] relabels() {
+        int[][] result = new int[720][];
+        int[] digits = {0, 1, 2, 3, 4, 5, 6};
+        for (int k = 0; k < result.length; k++) {
+            result[k] = digits.clone();
+            // Siguiente permutación lexicográfica de digits[1..6]
+            int i = Board.GRID_SIZE - 1;
+            while (i >= 1 && digits[i] > digits[i + 1]) {
+                i--;
+            }
+            if (i < 1) {
+                break;
+            }
+            int j = Board.GRID_SIZE;
+            while (digits[j] < digits[i]) {
+                j--;
+            }
+            int tmp = digits[i];
+            digits[i] = digits[j];
+            digits[j] = tmp;
+            for (int a = i + 1, b = Board.GRID_SIZE; a < b; a++, b--) {
+                tmp = digits[a];
+                digits[a] = digits[b];
+                digits[b] = tmp;
+            }
+        }
+        return result;
+    }
+}
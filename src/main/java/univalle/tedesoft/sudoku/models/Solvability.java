@@ -0,0 +1,22 @@
+package univalle.tedesoft.sudoku.models;
+
+/**
+ * Resultado de comprobar si el tablero en juego todavía se puede completar.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public enum Solvability {
+    /**
+     * Las entradas del jugador coinciden con la solución guardada: el tablero se puede completar.
+     */
+    SOLVABLE,
+    /**
+     * Ninguna forma de llenar las celdas vacías respeta las reglas (sin conflictos directos o con ellos).
+     */
+    NO_SOLUTION,
+    /**
+     * El tablero tiene solución, pero no es la guardada: alguna entrada difiere de ella. Es
+     * informativo: un puzzle puede admitir varias soluciones y cualquiera gana la partida.
+     */
+    DIVERGES
+}
@@ -0,0 +1,259 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Resolutor de Sudoku por backtracking con máscaras de bits.
+ * Cada fila, columna y bloque guarda en un entero los dígitos ya usados, así que los
+ * candidatos de una celda se obtienen con dos OR y una negación. En cada paso se elige la
+ * celda vacía con menos candidatos (MRV), lo que poda casi todo el árbol de búsqueda.
+ * Las dimensiones son parámetros (6x6 con bloques de 2x3 para el juego, 9x9 para pruebas).
+ * La instancia no guarda estado de búsqueda y puede compartirse entre hilos.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public final class SudokuSolver implements ISolverStrategy {
+    /**
+     * Resolutor para el tablero del juego: 6x6 con bloques de 2 filas por 3 columnas.
+     */
+    public static final SudokuSolver SIX_BY_SIX = new SudokuSolver(Board.GRID_SIZE, Board.BLOCK_ROWS, Board.BLOCK_COLS);
+    /**
+     * Cada cuántos nodos se consulta la señal de cancelación.
+     */
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private final int size;
+    private final int cellCount;
+    private final int allDigits;
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] boxOf;
+
+    /**
+     * Crea un resolutor para tableros de las dimensiones dadas.
+     * @param size Lado del tablero (número de dígitos).
+     * @param blockRows Filas de cada bloque.
+     * @param blockCols Columnas de cada bloque.
+     * @throws IllegalArgumentException si los bloques no cubren el tablero.
+     */
+    public SudokuSolver(int size, int blockRows, int blockCols) {
+        if (size <= 0 || size > 30 || blockRows * blockCols != size) {
+            throw new IllegalArgumentException("Dimensiones de tablero inválidas: " + size + " con bloques de "
+                    + blockRows + "x" + blockCols);
+        }
+        this.size = size;
+        this.cellCount = size * size;
+        this.allDigits = (1 << size) - 1;
+        this.rowOf = new int[this.cellCount];
+        this.colOf = new int[this.cellCount];
+        this.boxOf = new int[this.cellCount];
+        int blocksPerRow = size / blockCols;
+        for (int index = 0; index < this.cellCount; index++) {
+            int row = index / size;
+            int col = index % size;
+            this.rowOf[index] = row;
+            this.colOf[index] = col;
+            this.boxOf[index] = (row / blockRows) * blocksPerRow + col / blockCols;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "mrv";
+    }
+
+    /**
+     * @return el lado del tablero.
+     */
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    @Override
+    public boolean solve(int[] cells, int[] solution, BooleanSupplier cancelled) {
+        return this.countSolutions(cells, 1, solution, cancelled) == 1;
+    }
+
+    /**
+     * Cuenta las soluciones de un puzzle, deteniéndose al llegar al límite.
+     * @param cells Celdas en orden fila por fila (0 = vacía); no se modifica.
+     * @param limit Máximo de soluciones a contar (2 basta para verificar unicidad).
+     * @param solution Si no es null, recibe la primera solución encontrada.
+     * @param cancelled Señal de cancelación consultada durante la búsqueda (puede ser null).
+     * @return el número de soluciones, como máximo {@code limit}; 0 si las pistas ya se contradicen.
+     * @throws CancellationException si la búsqueda se canceló.
+     */
+    public int countSolutions(int[] cells, int limit, int[] solution, BooleanSupplier cancelled) {
+        if (cells.length != this.cellCount) {
+            throw new IllegalArgumentException("Se esperaban " + this.cellCount + " celdas, hay " + cells.length);
+        }
+        Search search = new Search(cells, limit, solution, cancelled);
+        if (!search.placeGivens()) {
+            return 0;
+        }
+        search.solve(search.emptyCount);
+        return (int) search.found;
+    }
+
+    /**
+     * Cuenta las soluciones sin el tope de int, para tableros dispersos que tienen más de
+     * Integer.MAX_VALUE (un 9x9 casi vacío tiene del orden de 10^21).
+     * @param cells Celdas en orden fila por fila (0 = vacía); no se modifica.
+     * @param limit Máximo de soluciones a contar (Long.MAX_VALUE para contarlas todas).
+     * @param cancelled Señal de cancelación consultada durante la búsqueda (puede ser null).
+     * @return el número de soluciones, como máximo {@code limit}; 0 si las pistas ya se contradicen.
+     * @throws CancellationException si la búsqueda se canceló.
+     */
+    public long countSolutions(int[] cells, long limit, BooleanSupplier cancelled) {
+        if (cells.length != this.cellCount) {
+            throw new IllegalArgumentException("Se esperaban " + this.cellCount + " celdas, hay " + cells.length);
+        }
+        Search search = new Search(cells, limit, null, cancelled);
+        if (!search.placeGivens()) {
+            return 0;
+        }
+        search.solve(search.emptyCount);
+        return search.found;
+    }
+
+    /**
+     * Cuenta las soluciones de un puzzle 6x6 compacto.
+     * @param puzzle Puzzle; se toman los valores actuales como pistas.
+     * @param limit Máximo de soluciones a contar.
+     * @param solution Si no es null, recibe como valores y solución la primera solución encontrada.
+     * @return el número de soluciones, como máximo {@code limit}.
+     */
+    public int countSolutions(PackedBoard puzzle, int limit, PackedBoard solution) {
+        int[] cells = new int[this.cellCount];
+        for (int index = 0; index < this.cellCount; index++) {
+            cells[index] = puzzle.getValue(index);
+        }
+        int[] solved = solution != null ? new int[this.cellCount] : null;
+        int count = this.countSolutions(cells, limit, solved, null);
+        if (solution != null) {
+            solution.copyFrom(puzzle);
+            for (int index = 0; count > 0 && index < this.cellCount; index++) {
+                solution.setValue(index, solved[index]);
+                solution.setSolution(index, solved[index]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Estado de una búsqueda; se crea uno por llamada para que el resolutor sea reentrante.
+     */
+    private final class Search {
+        private final int[] grid;
+        private final int[] rows = new int[size];
+        private final int[] cols = new int[size];
+        private final int[] boxes = new int[size];
+        private final int[] empties;
+        private final long limit;
+        private final int[] solution;
+        private final BooleanSupplier cancelled;
+        private int emptyCount;
+        private long found;
+        private long nodes;
+
+        Search(int[] cells, long limit, int[] solution, BooleanSupplier cancelled) {
+            this.grid = cells.clone();
+            this.empties = new int[cellCount];
+            this.limit = limit;
+            this.solution = solution;
+            this.cancelled = cancelled;
+        }
+
+        /**
+         * Registra las pistas en las máscaras.
+         * @return false si alguna pista está fuera de rango o se repite.
+         */
+        boolean placeGivens() {
+            for (int index = 0; index < cellCount; index++) {
+                int value = this.grid[index];
+                if (value == 0) {
+                    this.empties[this.emptyCount++] = index;
+                    continue;
+                }
+                if (value < 0 || value > size) {
+                    return false;
+                }
+                int bit = 1 << (value - 1);
+                int used = this.rows[rowOf[index]] | this.cols[colOf[index]] | this.boxes[boxOf[index]];
+                if ((used & bit) != 0) {
+                    return false;
+                }
+                this.toggle(index, bit);
+            }
+            return true;
+        }
+
+        /**
+         * Busca soluciones con {@code remaining} celdas vacías al inicio del arreglo de vacías.
+         * @return true si ya se alcanzó el límite.
+         */
+        boolean solve(int remaining) {
+            if (remaining == 0) {
+                if (this.found++ == 0 && this.solution != null) {
+                    System.arraycopy(this.grid, 0, this.solution, 0, cellCount);
+                }
+                return this.found >= this.limit;
+            }
+            if (this.cancelled != null && (++this.nodes % CANCEL_CHECK_INTERVAL) == 0
+                    && this.cancelled.getAsBoolean()) {
+                throw new CancellationException("Búsqueda de soluciones cancelada.");
+            }
+
+            // MRV: la celda con menos candidatos pasa a la última posición de las pendientes
+            int bestSlot = -1;
+            int bestCandidates = 0;
+            int bestCount = Integer.MAX_VALUE;
+            for (int slot = 0; slot < remaining; slot++) {
+                int index = this.empties[slot];
+                int candidates = this.candidates(index);
+                int count = Integer.bitCount(candidates);
+                if (count < bestCount) {
+                    bestSlot = slot;
+                    bestCandidates = candidates;
+                    bestCount = count;
+                    if (count <= 1) {
+                        break;
+                    }
+                }
+            }
+            if (bestCount == 0) {
+                return false;
+            }
+            int last = remaining - 1;
+            int index = this.empties[bestSlot];
+            this.empties[bestSlot] = this.empties[last];
+            this.empties[last] = index;
+
+            boolean done = false;
+            while (bestCandidates != 0 && !done) {
+                int bit = bestCandidates & -bestCandidates;
+                bestCandidates ^= bit;
+                this.grid[index] = Integer.numberOfTrailingZeros(bit) + 1;
+                this.toggle(index, bit);
+                done = this.solve(last);
+                this.toggle(index, bit);
+            }
+            this.grid[index] = 0;
+            this.empties[last] = this.empties[bestSlot];
+            this.empties[bestSlot] = index;
+            return done;
+        }
+
+        private int candidates(int index) {
+            return ~(this.rows[rowOf[index]] | this.cols[colOf[index]] | this.boxes[boxOf[index]]) & allDigits;
+        }
+
+        private void toggle(int index, int bit) {
+            this.rows[rowOf[index]] ^= bit;
+            this.cols[colOf[index]] ^= bit;
+            this.boxes[boxOf[index]] ^= bit;
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package univalle.tedesoft.sudoku.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import javafx.util.Pair;
+import univalle.tedesoft.sudoku.metrics.LatencyHistogram;
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.Cell;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servicio HTTP sin interfaz gráfica sobre el modelo (Board y GameState), con las mismas reglas
+ * que la aplicación de escritorio. Usa el servidor HTTP del JDK con un pool de hilos acotado; si
+ * el pool y su cola se llenan, el hilo que acepta conexiones atiende la petición él mismo, lo que
+ * frena la aceptación en lugar de acumular trabajo.
+ * <p>
+ * Rutas:
+ * <ul>
+ *   <li>{@code POST /games[?puzzle=HEX]}: crea una partida (201, cabecera Location con su ruta).</li>
+ *   <li>{@code GET /games/{id}}: estado de la partida.</li>
+ *   <li>{@code POST /games/{id}/move?row=R&col=C&value=V}: jugada (V = 0 vacía la celda).</li>
+ *   <li>{@code POST /games/{id}/hint}: aplica una pista, como el botón de la aplicación.</li>
+ *   <li>{@code GET /games/{id}/validate}: celdas en conflicto y si el juego está ganado.</li>
+ *   <li>{@code DELETE /games/{id}}: termina la partida.</li>
+ *   <li>{@code GET /stats}: métricas de la caché de sesiones.</li>
+ * </ul>
+ * Las partidas viven en una SessionCache: las inactivas o las que exceden su capacidad bajan a
+ * disco y se recargan en la siguiente petición.
+ * El estado se responde en JSON compacto: las 36 celdas como dígitos ({@code "cells"}) y la máscara
+ * de celdas editables en hexadecimal. Con {@code Accept: application/octet-stream} se responde en
+ * binario: 24 bytes little-endian con los valores empaquetados (dos palabras, como PackedBoard) y la
+ * máscara de editables, cuyo bit 63 indica si el juego está ganado.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class GameHttpService {
+    /**
+     * Puerto por defecto del servicio.
+     */
+    public static final int DEFAULT_PORT = 8066;
+    /**
+     * Pistas permitidas por partida, como en la aplicación de escritorio.
+     */
+    public static final int MAX_CLUES = 10;
+    private static final String JSON = "application/json";
+    private static final String BINARY = "application/octet-stream";
+    private static final int BINARY_STATE_SIZE = 3 * Long.BYTES;
+    private static final long WON_BIT = Long.MIN_VALUE;
+
+    /**
+     * Error de una petición con su código HTTP.
+     */
+    private static final class RequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Estado de una partida copiado con su candado tomado, listo para responder.
+     * @param extraJson Campos extra de la respuesta JSON (resultado de la jugada o pista), o null.
+     */
+    private record StateSnapshot(PackedBoard packed, boolean won, int moves, long puzzleId, String extraJson) {
+    }
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final SessionCache sessions;
+
+    /**
+     * Crea el servicio sin iniciarlo, con la caché de sesiones configurada por propiedades
+     * (SessionCache.fromSystemProperties). Quien lo incruste debería llamar antes a useTcpNoDelay.
+     * @param address Dirección y puerto (puerto 0 para uno libre).
+     * @param threads Hilos base del pool; crece hasta 4 veces esa cantidad bajo carga.
+     * @throws IOException si no se puede abrir el puerto o crear el almacén de sesiones.
+     */
+    public GameHttpService(InetSocketAddress address, int threads) throws IOException {
+        this(address, threads, SessionCache.fromSystemProperties());
+    }
+
+    /**
+     * Crea el servicio sin iniciarlo. Sin TCP_NODELAY (ver useTcpNoDelay) cada respuesta espera
+     * el ACK diferido del cliente, unos 40 ms.
+     * @param address Dirección y puerto (puerto 0 para uno libre).
+     * @param threads Hilos base del pool; crece hasta 4 veces esa cantidad bajo carga.
+     * @param sessions Caché de sesiones; el servicio la cierra al detenerse.
+     * @throws IOException si no se puede abrir el puerto.
+     */
+    public GameHttpService(InetSocketAddress address, int threads, SessionCache sessions) throws IOException {
+        this.sessions = sessions;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads * 4, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1024), runnable -> {
+                    Thread thread = new Thread(runnable, "http-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.server = HttpServer.create(address, 1024);
+        this.server.setExecutor(this.executor);
+        this.server.createContext("/games", this::handle);
+        this.server.createContext("/stats", this::handleStats);
+    }
+
+    /**
+     * Inicia el servicio: java ... univalle.tedesoft.sudoku.server.GameHttpService [puerto] [hilos]
+     * @param args Puerto e hilos opcionales.
+     * @throws IOException si no se puede abrir el puerto.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        useTcpNoDelay();
+        GameHttpService service = new GameHttpService(new InetSocketAddress(port), threads);
+        service.start();
+        System.out.println("Servicio de Sudoku escuchando en el puerto " + service.getPort());
+    }
+
+    /**
+     * Activa TCP_NODELAY en el servidor HTTP del JDK. Sin él, cabeceras y cuerpo van en escrituras
+     * separadas y el ACK diferido del cliente agrega ~40 ms a cada respuesta.
+     * Cambia la propiedad sun.net.httpserver.nodelay, que es global a la JVM y se lee una sola vez,
+     * al crear el primer HttpServer: debe llamarse antes de crear cualquier servicio. Respeta un
+     * valor dado en la línea de comandos.
+     */
+    public static void useTcpNoDelay() {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    public void start() {
+        this.server.start();
+    }
+
+    /**
+     * Detiene el servicio esperando hasta un segundo a las peticiones en curso, y cierra la caché
+     * de sesiones (borrando las que estaban en disco).
+     */
+    public void stop() {
+        this.server.stop(1);
+        this.executor.shutdown();
+        try {
+            this.sessions.close();
+        } catch (IOException e) {
+            System.err.println("Error cerrando el almacén de sesiones: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return el puerto en que escucha el servicio.
+     */
+    public int getPort() {
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * @return partidas activas.
+     */
+    public int getSessionCount() {
+        return this.sessions.getSessionCount();
+    }
+
+    /**
+     * @return la caché de sesiones, para consultar sus métricas.
+     */
+    public SessionCache getSessionCache() {
+        return this.sessions;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                this.route(exchange);
+            } catch (RequestException e) {
+                this.sendError(exchange, e.status, e.getMessage());
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                this.sendError(exchange, 400, e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("Error atendiendo " + exchange.getRequestURI() + ": " + e);
+                this.sendError(exchange, 500, "Error interno");
+            }
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            LatencyHistogram reload = this.sessions.getReloadLatency();
+            String json = String.format(Locale.ROOT, "{\"sessions\":%d,\"resident\":%d,\"hits\":%d,"
+                            + "\"reloads\":%d,\"hitRate\":%.4f,\"lruEvictions\":%d,\"ttlEvictions\":%d,"
+                            + "\"spillWrites\":%d,\"reloadP50Micros\":%.1f,\"reloadP99Micros\":%.1f}",
+                    this.sessions.getSessionCount(), this.sessions.getResidentCount(), this.sessions.getHits(),
+                    this.sessions.getReloads(), this.sessions.getHitRate(), this.sessions.getLruEvictions(),
+                    this.sessions.getTtlEvictions(), this.sessions.getSpillWrites(),
+                    reload.getValueAtPercentile(50) / 1_000.0, reload.getValueAtPercentile(99) / 1_000.0);
+            send(exchange, 200, JSON, json.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        // parts: "", "games", [id], [acción]
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        if (parts.length == 2) {
+            requireMethod(method, "POST");
+            this.createGame(exchange, query);
+            return;
+        }
+        if (parts.length > 4) {
+            throw new RequestException(404, "Ruta desconocida");
+        }
+        String id = parts[2];
+        String action = parts.length == 4 ? parts[3] : "";
+        if (action.isEmpty() && "DELETE".equals(method)) {
+            // Sin buscarla antes: no tiene sentido recargar del disco una sesión para borrarla
+            if (!this.sessions.remove(id)) {
+                throw new RequestException(404, "Partida inexistente: " + id);
+            }
+            // 200 con cuerpo y no 204: tras un 204 el servidor del JDK cierra la conexión persistente
+            send(exchange, 200, JSON, ("{\"deleted\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        switch (action) {
+            case "" -> {
+                requireMethod(method, "GET");
+                GameSession session = this.requireSession(id);
+                this.sendState(exchange, 200, id, snapshotOf(session, null));
+            }
+            case "move" -> {
+                requireMethod(method, "POST");
+                int row = intParam(query, "row");
+                int col = intParam(query, "col");
+                int value = intParam(query, "value");
+                // Una sola búsqueda: update trabaja sobre la copia vigente y devuelve el estado a responder
+                StateSnapshot state = this.sessions.update(id, current -> {
+                    if (!current.board.getCell(row, col).getEditable()) {
+                        throw new RequestException(409, "La celda (" + row + "," + col + ") no es editable");
+                    }
+                    boolean valid = current.board.isValidPlacement(row, col, value);
+                    if (current.board.getCell(row, col).getValue() != value) {
+                        current.board.setCellValue(row, col, value);
+                        current.moves++;
+                    }
+                    return snapshotOf(current, ",\"placementValid\":" + valid);
+                });
+                if (state == null) {
+                    throw new RequestException(404, "Partida inexistente: " + id);
+                }
+                this.sendState(exchange, 200, id, state);
+            }
+            case "hint" -> {
+                requireMethod(method, "POST");
+                StateSnapshot state = this.sessions.update(id, current -> {
+                    int[] clue = applyClue(current);
+                    return snapshotOf(current,
+                            ",\"hint\":{\"row\":" + clue[0] + ",\"col\":" + clue[1] + ",\"value\":" + clue[2] + "}");
+                });
+                if (state == null) {
+                    throw new RequestException(404, "Partida inexistente: " + id);
+                }
+                this.sendState(exchange, 200, id, state);
+            }
+            case "validate" -> {
+                requireMethod(method, "GET");
+                this.sendValidation(exchange, this.requireSession(id));
+            }
+            default -> throw new RequestException(404, "Acción desconocida: " + action);
+        }
+    }
+
+    private void createGame(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String puzzle = query.get("puzzle");
+        long puzzleId = puzzle != null ? Board.parsePuzzleId(puzzle) : Board.randomPuzzleId();
+        GameSession session = new GameSession(Board.fromPuzzleId(puzzleId));
+        String id;
+        do {
+            id = Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+        } while (!this.sessions.putIfAbsent(id, session));
+        exchange.getResponseHeaders().set("Location", "/games/" + id);
+        this.sendState(exchange, 201, id, snapshotOf(session, null));
+    }
+
+    /**
+     * Busca y aplica una pista con las reglas del botón "Pista" de la aplicación.
+     * @return {fila, columna, valor} de la pista aplicada.
+     */
+    private static int[] applyClue(GameSession session) {
+        if (session.board.countEmptyEditableCells() <= 1) {
+            throw new RequestException(409, "No hay más pistas para esta partida");
+        }
+        if (session.clues >= MAX_CLUES) {
+            throw new RequestException(409, "Se alcanzó el máximo de " + MAX_CLUES + " pistas");
+        }
+        for (int row = 0; row < Board.GRID_SIZE; row++) {
+            for (int col = 0; col < Board.GRID_SIZE; col++) {
+                Cell cell = session.board.getCell(row, col);
+                if (cell.getEditable() && cell.getValue() == 0) {
+                    int suggestion = session.state.getClue(row, col);
+                    if (suggestion > 0) {
+                        session.board.setCellValue(row, col, suggestion);
+                        session.moves++;
+                        session.clues++;
+                        return new int[]{row, col, suggestion};
+                    }
+                }
+            }
+        }
+        throw new RequestException(409, "No hay pistas evidentes");
+    }
+
+    /**
+     * Copia lo que sendState necesita de una sesión, con su candado tomado.
+     * @param extraJson Campos extra para la respuesta JSON, o null.
+     */
+    private static StateSnapshot snapshotOf(GameSession session, String extraJson) {
+        PackedBoard packed = new PackedBoard();
+        synchronized (session) {
+            session.board.writeTo(packed);
+            return new StateSnapshot(packed, session.state.isGameWon(), session.moves,
+                    session.board.getPuzzleId(), extraJson);
+        }
+    }
+
+    private void sendState(HttpExchange exchange, int status, String id, StateSnapshot state) throws IOException {
+        PackedBoard packed = state.packed();
+        boolean won = state.won();
+        if (acceptsBinary(exchange)) {
+            ByteBuffer body = ByteBuffer.allocate(BINARY_STATE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            body.putLong(packed.getValuesLo()).putLong(packed.getValuesHi())
+                    .putLong(packed.getEditableMask() | (won ? WON_BIT : 0));
+            send(exchange, status, BINARY, body.array());
+            return;
+        }
+        StringBuilder json = new StringBuilder(160);
+        json.append("{\"game\":\"").append(id)
+                .append("\",\"puzzle\":\"").append(Board.formatPuzzleId(state.puzzleId()))
+                .append("\",\"cells\":\"");
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            json.append((char) ('0' + packed.getValue(index)));
+        }
+        json.append("\",\"editable\":\"").append(Long.toHexString(packed.getEditableMask()))
+                .append("\",\"moves\":").append(state.moves())
+                .append(",\"won\":").append(won);
+        if (state.extraJson() != null) {
+            json.append(state.extraJson());
+        }
+        json.append('}');
+        send(exchange, status, JSON, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void sendValidation(HttpExchange exchange, GameSession session) throws IOException {
+        Set<Pair<Integer, Integer>> invalid;
+        boolean full;
+        boolean won;
+        synchronized (session) {
+            invalid = session.state.getInvalidCells();
+            full = session.state.isBoardFull();
+            won = session.state.isGameWon();
+        }
+        StringBuilder json = new StringBuilder(64);
+        json.append("{\"valid\":").append(invalid.isEmpty())
+                .append(",\"full\":").append(full)
+                .append(",\"won\":").append(won)
+                .append(",\"invalid\":[");
+        boolean first = true;
+        for (Pair<Integer, Integer> cell : invalid) {
+            if (!first) json.append(',');
+            json.append('[').append(cell.getKey()).append(',').append(cell.getValue()).append(']');
+            first = false;
+        }
+        json.append("]}");
+        send(exchange, 200, JSON, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Busca una sesión para leerla.
+     * @throws RequestException 404 si no existe.
+     */
+    private GameSession requireSession(String id) throws IOException {
+        GameSession session = this.sessions.get(id);
+        if (session == null) {
+            throw new RequestException(404, "Partida inexistente: " + id);
+        }
+        return session;
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        String text = message == null ? "" : message.replace("\\", "\\\\").replace("\"", "\\\"");
+        send(exchange, status, JSON, ("{\"error\":\"" + text + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static boolean acceptsBinary(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        return accept != null && accept.contains(BINARY);
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!expected.equals(method)) {
+            throw new RequestException(405, "Método no permitido: " + method);
+        }
+    }
+
+    private static int intParam(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new RequestException(400, "Falta el parámetro " + name);
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new RequestException(400, "Parámetro " + name + " inválido: " + value);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                query.put(pair.substring(0, equals), pair.substring(equals + 1));
+            }
+        }
+        return query;
+    }
+}
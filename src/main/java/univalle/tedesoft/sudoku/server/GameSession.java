@@ -0,0 +1,116 @@
+package univalle.tedesoft.sudoku.server;
+
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.GameState;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Partida de un cliente del servicio: tablero, estado y contadores. Se modifica sincronizando
+ * sobre la propia sesión (un cliente puede enviar peticiones concurrentes sobre la misma partida).
+ * Puede escribirse en ENCODED_SIZE bytes para bajarla a disco (SessionSpillStore) y recrearse después.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public final class GameSession {
+    /**
+     * Bytes de una sesión codificada: tablero compacto (5 palabras), identificador del puzzle,
+     * jugadas y pistas.
+     */
+    public static final int ENCODED_SIZE = 7 * Long.BYTES;
+    private static final long HAS_PUZZLE_ID = Long.MIN_VALUE;
+
+    final Board board;
+    final GameState state;
+    int moves;
+    int clues;
+    /**
+     * true si cambió desde la última vez que se escribió en disco (o nunca se escribió).
+     */
+    boolean dirty = true;
+    /**
+     * true cuando la sesión salió de la caché: quien la tenga debe volver a buscarla.
+     */
+    boolean evicted = false;
+    /**
+     * Último acceso (System.nanoTime), para la expiración por inactividad. Lo maneja SessionCache.
+     */
+    long lastAccessNanos;
+
+    /**
+     * Crea una sesión nueva sobre un tablero.
+     * @param board Tablero de la partida.
+     */
+    public GameSession(Board board) {
+        this.board = board;
+        this.state = new GameState(board);
+    }
+
+    public synchronized int getMoves() {
+        return this.moves;
+    }
+
+    public synchronized int getValue(int row, int col) {
+        return this.board.getCell(row, col).getValue();
+    }
+
+    /**
+     * Aplica una jugada, como lo haría el servicio. Sobre una sesión de una SessionCache se llama
+     * dentro de SessionCache.update.
+     * @return true si la celda es editable y cambió.
+     */
+    public synchronized boolean applyMove(int row, int col, int value) {
+        if (!this.board.getCell(row, col).getEditable() || this.board.getCell(row, col).getValue() == value) {
+            return false;
+        }
+        this.board.setCellValue(row, col, value);
+        this.moves++;
+        this.dirty = true;
+        return true;
+    }
+
+    /**
+     * Escribe la sesión en ENCODED_SIZE bytes desde la posición actual del búfer.
+     * @param target Búfer de destino.
+     */
+    public synchronized void encode(ByteBuffer target) {
+        PackedBoard packed = new PackedBoard();
+        this.board.writeTo(packed);
+        boolean hasPuzzleId = this.board.hasPuzzleId();
+        target.putLong(packed.getValuesLo())
+                .putLong(packed.getValuesHi())
+                .putLong(packed.getSolutionLo())
+                .putLong(packed.getSolutionHi())
+                .putLong(packed.getEditableMask() | (hasPuzzleId ? HAS_PUZZLE_ID : 0))
+                .putLong(hasPuzzleId ? this.board.getPuzzleId() : 0)
+                .putInt(this.moves)
+                .putInt(this.clues);
+    }
+
+    /**
+     * Recrea una sesión escrita con encode.
+     * @param source Búfer posicionado al inicio de la sesión codificada.
+     * @return la sesión, sin cambios pendientes de escribir.
+     * @throws IllegalArgumentException si los datos no forman un tablero válido.
+     */
+    public static GameSession decode(ByteBuffer source) {
+        long valuesLo = source.getLong();
+        long valuesHi = source.getLong();
+        long solutionLo = source.getLong();
+        long solutionHi = source.getLong();
+        long flags = source.getLong();
+        long puzzleId = source.getLong();
+        if (!PackedBoard.isWellFormed(valuesLo, valuesHi) || !PackedBoard.isWellFormed(solutionLo, solutionHi)) {
+            throw new IllegalArgumentException("Sesión guardada corrupta.");
+        }
+        PackedBoard packed = new PackedBoard(valuesLo, valuesHi, solutionLo, solutionHi,
+                flags & PackedBoard.ALL_CELLS_MASK);
+        Board board = (flags & HAS_PUZZLE_ID) != 0 ? Board.fromPacked(packed, puzzleId) : Board.fromPacked(packed);
+        GameSession session = new GameSession(board);
+        session.moves = source.getInt();
+        session.clues = source.getInt();
+        session.dirty = false;
+        return session;
+    }
+}
@@ -0,0 +1,177 @@
+package univalle.tedesoft.sudoku.server;
+
+import univalle.tedesoft.sudoku.models.PackedBoard;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Decodificador del lado del cliente del flujo de jugadas de MoveStreamEncoder: reconstruye el
+ * tablero y las celdas en conflicto aplicando cada trama. Si falta una trama (la secuencia salta),
+ * descarta los deltas hasta la siguiente foto o resincronización. Una resincronización repite el
+ * estado del delta anterior: si el cliente está sincronizado, compara su reconstrucción con ella y
+ * cuenta las diferencias.
+ * No es seguro entre hilos.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class MoveStreamDecoder {
+    private long valuesLo;
+    private long valuesHi;
+    private long editableMask;
+    private long conflictMask;
+    private int sequence;
+    private boolean synced;
+    private long frames;
+    private long gaps;
+    private long resyncMismatches;
+
+    /**
+     * Lee y aplica una trama completa desde la posición actual del búfer.
+     * @param source Búfer con los bytes recibidos.
+     * @return el tipo de la trama aplicada, o 0 si el búfer no tiene una trama completa (no se consume nada).
+     * @throws IllegalArgumentException si la trama está mal formada.
+     */
+    public int read(ByteBuffer source) {
+        source.order(ByteOrder.LITTLE_ENDIAN);
+        if (!source.hasRemaining() || source.remaining() < 1 + (source.get(source.position()) & 0xFF)) {
+            return 0;
+        }
+        int length = source.get() & 0xFF;
+        int end = source.position() + length;
+        int type = source.get() & 0xFF;
+        int frameSequence = source.getShort() & 0xFFFF;
+        boolean contiguous = frameSequence == ((this.sequence + 1) & 0xFFFF);
+        if (this.frames > 0 && !contiguous) {
+            this.gaps++;
+        }
+        this.frames++;
+        switch (type) {
+            case MoveStreamEncoder.FRAME_SNAPSHOT, MoveStreamEncoder.FRAME_RESYNC -> {
+                if (length != MoveStreamEncoder.SNAPSHOT_FRAME_SIZE - 1) {
+                    throw new IllegalArgumentException("Trama de foto con largo inválido: " + length);
+                }
+                long lo = source.getLong();
+                long hi = source.getLong();
+                long editable = getMask(source);
+                long conflicts = getMask(source);
+                if (!PackedBoard.isWellFormed(lo, hi)) {
+                    throw new IllegalArgumentException("Trama de foto con valores inválidos.");
+                }
+                if (type == MoveStreamEncoder.FRAME_RESYNC && this.synced && contiguous
+                        && (lo != this.valuesLo || hi != this.valuesHi || conflicts != this.conflictMask)) {
+                    this.resyncMismatches++;
+                }
+                this.valuesLo = lo;
+                this.valuesHi = hi;
+                this.editableMask = editable;
+                this.conflictMask = conflicts;
+                this.synced = true;
+            }
+            case MoveStreamEncoder.FRAME_DELTA -> {
+                if (!contiguous) {
+                    this.synced = false;
+                }
+                int changed = source.get() & 0xFF;
+                if (changed > PackedBoard.CELL_COUNT || source.position() + changed + 1 > end) {
+                    throw new IllegalArgumentException("Trama delta mal formada.");
+                }
+                long lo = this.valuesLo;
+                long hi = this.valuesHi;
+                for (int i = 0; i < changed; i++) {
+                    int code = source.get() & 0xFF;
+                    int index = code / 7;
+                    if (index >= PackedBoard.CELL_COUNT) {
+                        throw new IllegalArgumentException("Celda inválida en trama delta: " + index);
+                    }
+                    if (PackedBoard.isHighWord(index)) {
+                        hi = PackedBoard.withCell(hi, index, code % 7);
+                    } else {
+                        lo = PackedBoard.withCell(lo, index, code % 7);
+                    }
+                }
+                int toggled = source.get() & 0xFF;
+                if (source.position() + toggled != end) {
+                    throw new IllegalArgumentException("Trama delta mal formada.");
+                }
+                long conflicts = this.conflictMask;
+                for (int i = 0; i < toggled; i++) {
+                    int index = source.get() & 0xFF;
+                    if (index >= PackedBoard.CELL_COUNT) {
+                        throw new IllegalArgumentException("Celda inválida en trama delta: " + index);
+                    }
+                    conflicts ^= 1L << index;
+                }
+                if (this.synced) {
+                    this.valuesLo = lo;
+                    this.valuesHi = hi;
+                    this.conflictMask = conflicts;
+                }
+            }
+            default -> throw new IllegalArgumentException("Tipo de trama desconocido: " + type);
+        }
+        source.position(end);
+        this.sequence = frameSequence;
+        return type;
+    }
+
+    private static long getMask(ByteBuffer source) {
+        long mask = 0;
+        for (int i = 0; i < MoveStreamEncoder.MASK_BYTES; i++) {
+            mask |= (long) (source.get() & 0xFF) << (8 * i);
+        }
+        return mask;
+    }
+
+    /**
+     * @return true si el estado reconstruido es confiable (no falta ninguna trama desde la última foto).
+     */
+    public boolean isSynchronized() {
+        return this.synced;
+    }
+
+    /**
+     * @param index Índice lineal de la celda.
+     * @return el valor reconstruido de la celda.
+     */
+    public int getValue(int index) {
+        return PackedBoard.getCell(this.valuesLo, this.valuesHi, index);
+    }
+
+    /**
+     * Copia el tablero reconstruido (sin solución: el flujo no la envía).
+     * @param target Tablero de destino.
+     */
+    public void writeTo(PackedBoard target) {
+        target.set(this.valuesLo, this.valuesHi, 0, 0, this.editableMask);
+    }
+
+    /**
+     * @return máscara de 36 bits con las celdas en conflicto.
+     */
+    public long getConflictMask() {
+        return this.conflictMask;
+    }
+
+    public long getEditableMask() {
+        return this.editableMask;
+    }
+
+    public long getFrameCount() {
+        return this.frames;
+    }
+
+    /**
+     * @return saltos de secuencia detectados (cada uno, una o más tramas perdidas seguidas).
+     */
+    public long getGapCount() {
+        return this.gaps;
+    }
+
+    /**
+     * @return resincronizaciones que no coincidieron con el estado reconstruido (debe ser 0).
+     */
+    public long getResyncMismatchCount() {
+        return this.resyncMismatches;
+    }
+}
@@ -0,0 +1,185 @@
+package univalle.tedesoft.sudoku.server;
+
+import univalle.tedesoft.sudoku.models.GameSessionEngine;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Codificador del lado del servidor del flujo de jugadas: en lugar de enviar el tablero completo
+ * tras cada jugada, envía una foto inicial y luego solo las celdas que cambiaron y las celdas que
+ * entraron o salieron del conjunto en conflicto. Cada resyncInterval deltas agrega, tras el delta,
+ * una foto del mismo estado (resincronización): un cliente que perdió una trama se recupera sin
+ * pedir nada, y uno sincronizado puede comprobar que su reconstrucción coincide.
+ * <p>
+ * Formato de trama (little-endian):
+ * <pre>
+ *   [largo del resto: u8][tipo: u8][secuencia: u16]
+ *   FOTO / RESINCRONIZACIÓN: [valores lo: 8][valores hi: 8][editables: 5][conflictos: 5]
+ *   DELTA: [n: u8][n celdas: índice * 7 + valor][m: u8][m celdas que cambiaron de estado de conflicto]
+ * </pre>
+ * Una jugada típica ocupa entre 6 y 10 bytes; una foto, 30. No es seguro entre hilos: cada
+ * cliente conectado tiene su propio codificador.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class MoveStreamEncoder {
+    public static final int FRAME_SNAPSHOT = 1;
+    public static final int FRAME_DELTA = 2;
+    public static final int FRAME_RESYNC = 3;
+    /**
+     * Tramas delta entre resincronizaciones, por defecto.
+     */
+    public static final int DEFAULT_RESYNC_INTERVAL = 64;
+    /**
+     * Bytes de una foto o resincronización.
+     */
+    public static final int SNAPSHOT_FRAME_SIZE = 4 + 2 * Long.BYTES + 2 * MoveStreamEncoder.MASK_BYTES;
+    /**
+     * Tamaño máximo de una trama (delta con las 36 celdas cambiadas y en conflicto).
+     */
+    public static final int MAX_FRAME_SIZE = 4 + 2 * (1 + PackedBoard.CELL_COUNT);
+    /**
+     * Bytes máximos que escribe writeUpdate (un delta más una resincronización).
+     */
+    public static final int MAX_UPDATE_SIZE = MAX_FRAME_SIZE + SNAPSHOT_FRAME_SIZE;
+    /**
+     * Bytes de una máscara de 36 celdas.
+     */
+    static final int MASK_BYTES = 5;
+    private static final int CELLS_PER_WORD = PackedBoard.CELLS_PER_WORD;
+
+    private final int resyncInterval;
+    private long valuesLo;
+    private long valuesHi;
+    private long editableMask;
+    private long conflictMask;
+    private int sequence;
+    private int deltasSinceResync;
+    private boolean started;
+
+    /**
+     * @param resyncInterval Tramas delta entre resincronizaciones (al menos 1).
+     */
+    public MoveStreamEncoder(int resyncInterval) {
+        if (resyncInterval < 1) {
+            throw new IllegalArgumentException("El intervalo de resincronización debe ser positivo.");
+        }
+        this.resyncInterval = resyncInterval;
+    }
+
+    public MoveStreamEncoder() {
+        this(DEFAULT_RESYNC_INTERVAL);
+    }
+
+    /**
+     * Escribe la foto inicial de una partida (también al empezar otra partida sobre el mismo flujo).
+     * @param board Estado del tablero; la solución no se envía.
+     * @param target Búfer con al menos SNAPSHOT_FRAME_SIZE bytes libres.
+     * @return bytes escritos.
+     */
+    public int writeSnapshot(PackedBoard board, ByteBuffer target) {
+        this.started = true;
+        return this.writeFullFrame(FRAME_SNAPSHOT, board, target);
+    }
+
+    /**
+     * Escribe el cambio desde la última trama: un delta, seguido de una resincronización si toca.
+     * Si cambiaron las celdas editables, se trata de otra partida y se escribe una foto.
+     * @param board Estado del tablero tras la jugada.
+     * @param target Búfer con al menos MAX_UPDATE_SIZE bytes libres.
+     * @return bytes escritos.
+     * @throws IllegalStateException si no se envió antes la foto inicial.
+     */
+    public int writeUpdate(PackedBoard board, ByteBuffer target) {
+        if (!this.started) {
+            throw new IllegalStateException("Falta la foto inicial del flujo de jugadas.");
+        }
+        if (board.getEditableMask() != this.editableMask) {
+            return this.writeFullFrame(FRAME_SNAPSHOT, board, target);
+        }
+        int written = this.writeDelta(board, target);
+        if (++this.deltasSinceResync >= this.resyncInterval) {
+            written += this.writeFullFrame(FRAME_RESYNC, board, target);
+        }
+        return written;
+    }
+
+    private int writeDelta(PackedBoard board, ByteBuffer target) {
+        long lo = board.getValuesLo();
+        long hi = board.getValuesHi();
+        long conflicts = GameSessionEngine.invalidCellMask(lo, hi);
+        target.order(ByteOrder.LITTLE_ENDIAN);
+        int start = target.position();
+        target.position(start + 1);
+        target.put((byte) FRAME_DELTA).putShort((short) this.nextSequence());
+        int countPosition = target.position();
+        target.put((byte) 0);
+        int changed = writeChangedCells(lo ^ this.valuesLo, lo, 0, target)
+                + writeChangedCells(hi ^ this.valuesHi, hi, CELLS_PER_WORD, target);
+        target.put(countPosition, (byte) changed);
+        countPosition = target.position();
+        target.put((byte) 0);
+        int toggled = 0;
+        for (long toggles = conflicts ^ this.conflictMask; toggles != 0; toggles &= toggles - 1) {
+            target.put((byte) Long.numberOfTrailingZeros(toggles));
+            toggled++;
+        }
+        target.put(countPosition, (byte) toggled);
+        target.put(start, (byte) (target.position() - start - 1));
+        this.valuesLo = lo;
+        this.valuesHi = hi;
+        this.conflictMask = conflicts;
+        return target.position() - start;
+    }
+
+    /**
+     * Escribe las celdas cambiadas de una palabra de valores.
+     * @param diff XOR entre la palabra anterior y la nueva.
+     * @param word Palabra nueva.
+     * @param firstCell Índice de la primera celda de la palabra.
+     * @return celdas escritas.
+     */
+    private static int writeChangedCells(long diff, long word, int firstCell, ByteBuffer target) {
+        int count = 0;
+        while (diff != 0) {
+            int cell = Long.numberOfTrailingZeros(diff) / PackedBoard.BITS_PER_CELL;
+            int shift = cell * PackedBoard.BITS_PER_CELL;
+            int value = (int) ((word >>> shift) & 7);
+            target.put((byte) ((firstCell + cell) * 7 + value));
+            diff &= ~(7L << shift);
+            count++;
+        }
+        return count;
+    }
+
+    private int writeFullFrame(int type, PackedBoard board, ByteBuffer target) {
+        this.valuesLo = board.getValuesLo();
+        this.valuesHi = board.getValuesHi();
+        this.editableMask = board.getEditableMask();
+        this.conflictMask = GameSessionEngine.invalidCellMask(this.valuesLo, this.valuesHi);
+        this.deltasSinceResync = 0;
+        target.order(ByteOrder.LITTLE_ENDIAN);
+        int start = target.position();
+        target.put((byte) (SNAPSHOT_FRAME_SIZE - 1))
+                .put((byte) type)
+                .putShort((short) this.nextSequence())
+                .putLong(this.valuesLo)
+                .putLong(this.valuesHi);
+        putMask(target, this.editableMask);
+        putMask(target, this.conflictMask);
+        return target.position() - start;
+    }
+
+    private int nextSequence() {
+        this.sequence = (this.sequence + 1) & 0xFFFF;
+        return this.sequence;
+    }
+
+    private static void putMask(ByteBuffer target, long mask) {
+        for (int i = 0; i < MASK_BYTES; i++) {
+            target.put((byte) (mask >>> (8 * i)));
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package univalle.tedesoft.sudoku.server;
+
+import univalle.tedesoft.sudoku.metrics.LatencyHistogram;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caché de sesiones del servicio con capacidad acotada en memoria. Las sesiones que exceden la
+ * capacidad (la menos usada recientemente) o que pasan más de un tiempo sin usarse salen de la
+ * memoria y se escriben en un SessionSpillStore; la siguiente búsqueda las vuelve a cargar sin que
+ * el cliente lo note. Solo se reescriben las sesiones que cambiaron desde su última escritura.
+ * <p>
+ * No hay un candado global: las sesiones se reparten por hash en segmentos, cada uno con su propio
+ * LinkedHashMap en orden de acceso y su propio candado, así que las búsquedas en distintos
+ * segmentos no compiten. La escritura y la lectura del disco se hacen fuera del candado del
+ * segmento. Mientras dura la escritura, la sesión queda en {@code pending} con un cerrojo que
+ * quien la busque espera; una lectura que coincide con una expulsión en su segmento se descarta
+ * y se repite, para no cargar una copia anterior a esa escritura.
+ * <p>
+ * Quien modifica una sesión debe hacerlo con update: una sesión expulsada mientras se esperaba su
+ * candado queda marcada y update la vuelve a buscar, para no modificar una copia ya escrita.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class SessionCache implements Closeable {
+    /**
+     * Capacidad por defecto en memoria (propiedad sudoku.sessions.capacity).
+     */
+    public static final int DEFAULT_CAPACITY = 100_000;
+    /**
+     * Inactividad por defecto antes de bajar una sesión a disco (propiedad sudoku.sessions.ttlSeconds).
+     */
+    public static final long DEFAULT_TTL_SECONDS = 600;
+
+    /**
+     * Segmento de la caché: mapa en orden de acceso (el primero es el menos usado) y sus métricas
+     * de recarga, protegidos por el candado del propio segmento.
+     */
+    private static final class Segment {
+        final LinkedHashMap<String, GameSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+        final LatencyHistogram reloadLatency = new LatencyHistogram();
+        /**
+         * Expulsiones del segmento hasta ahora; una carga del disco solo es vigente si no cambió
+         * mientras se leía.
+         */
+        long evictions;
+    }
+
+    /**
+     * Sesión expulsada cuya escritura en disco está en curso; done se abre al terminarla.
+     */
+    private static final class PendingSpill {
+        final String id;
+        final GameSession session;
+        final CountDownLatch done = new CountDownLatch(1);
+
+        PendingSpill(String id, GameSession session) {
+            this.id = id;
+            this.session = session;
+        }
+    }
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int segmentCapacity;
+    private final long ttlNanos;
+    private final SessionSpillStore spillStore;
+    /**
+     * Sesiones expulsadas cuya escritura en disco está en curso.
+     */
+    private final Map<String, PendingSpill> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder lruEvictions = new LongAdder();
+    private final LongAdder ttlEvictions = new LongAdder();
+    private final LongAdder spillWrites = new LongAdder();
+
+    /**
+     * Crea la caché.
+     * @param capacity Sesiones máximas en memoria (se reparten entre los segmentos).
+     * @param ttlMillis Inactividad tras la cual una sesión baja a disco; 0 desactiva la expiración.
+     * @param spillStore Almacén en disco de las sesiones expulsadas.
+     */
+    public SessionCache(int capacity, long ttlMillis, SessionSpillStore spillStore) {
+        if (capacity < 1 || ttlMillis < 0) {
+            throw new IllegalArgumentException("Capacidad o tiempo de expiración inválidos.");
+        }
+        int segmentCount = Integer.highestOneBit(Math.max(16, Runtime.getRuntime().availableProcessors() * 4) - 1) << 1;
+        segmentCount = Math.min(segmentCount, Integer.highestOneBit(capacity));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new Segment();
+        }
+        this.segmentMask = segmentCount - 1;
+        this.segmentCapacity = (capacity + segmentCount - 1) / segmentCount;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.spillStore = spillStore;
+        if (ttlMillis > 0) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sesiones-expiracion");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(10, ttlMillis / 4);
+            this.sweeper.scheduleWithFixedDelay(this::sweepExpired, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    /**
+     * Crea la caché con las propiedades sudoku.sessions.capacity y sudoku.sessions.ttlSeconds
+     * y un almacén en un archivo temporal.
+     * @throws IOException si no se puede crear el almacén.
+     */
+    public static SessionCache fromSystemProperties() throws IOException {
+        int capacity = Integer.getInteger("sudoku.sessions.capacity", DEFAULT_CAPACITY);
+        long ttlSeconds = Long.getLong("sudoku.sessions.ttlSeconds", DEFAULT_TTL_SECONDS);
+        return new SessionCache(capacity, TimeUnit.SECONDS.toMillis(ttlSeconds), SessionSpillStore.createTemporary());
+    }
+
+    /**
+     * Agrega una sesión nueva.
+     * @return false si ya existía una sesión con ese identificador.
+     */
+    public boolean putIfAbsent(String id, GameSession session) throws IOException {
+        Segment segment = this.segmentFor(id);
+        List<PendingSpill> victims;
+        synchronized (segment) {
+            if (segment.sessions.containsKey(id) || this.pending.containsKey(id) || this.spillStore.contains(id)) {
+                return false;
+            }
+            session.lastAccessNanos = System.nanoTime();
+            segment.sessions.put(id, session);
+            victims = this.evictOverflow(segment);
+        }
+        this.sessionCount.incrementAndGet();
+        this.spill(victims);
+        return true;
+    }
+
+    /**
+     * Busca una sesión, cargándola del disco si había salido de la memoria.
+     * Solo para leerla; para modificarla se usa update.
+     * @return la sesión, o null si no existe.
+     * @throws IOException si falla la lectura del disco.
+     */
+    public GameSession get(String id) throws IOException {
+        Segment segment = this.segmentFor(id);
+        while (true) {
+            long evictions;
+            synchronized (segment) {
+                GameSession session = segment.sessions.get(id);
+                if (session != null) {
+                    session.lastAccessNanos = System.nanoTime();
+                    this.hits.increment();
+                    return session;
+                }
+                evictions = segment.evictions;
+            }
+            this.awaitSpill(id);
+            long start = System.nanoTime();
+            GameSession loaded = this.spillStore.read(id);
+            if (loaded == null) {
+                return null;
+            }
+            List<PendingSpill> victims;
+            synchronized (segment) {
+                GameSession session = segment.sessions.get(id);
+                if (session != null) {
+                    // Otro hilo la cargó mientras se leía: vale la suya
+                    session.lastAccessNanos = System.nanoTime();
+                    this.hits.increment();
+                    return session;
+                }
+                if (segment.evictions != evictions || !this.spillStore.contains(id)) {
+                    // Pudo cargarse, cambiar y volver a expulsarse mientras se leía, o borrarse
+                    continue;
+                }
+                loaded.lastAccessNanos = System.nanoTime();
+                segment.reloadLatency.record(loaded.lastAccessNanos - start);
+                segment.sessions.put(id, loaded);
+                victims = this.evictOverflow(segment);
+            }
+            this.reloads.increment();
+            this.spill(victims);
+            return loaded;
+        }
+    }
+
+    /**
+     * Aplica una modificación a una sesión con su candado tomado, sobre la copia vigente.
+     * @param action Modificación; no debe devolver null.
+     * @return el resultado de la modificación, o null si la sesión no existe.
+     * @throws IOException si falla la carga desde el disco.
+     */
+    public <T> T update(String id, Function<GameSession, T> action) throws IOException {
+        while (true) {
+            GameSession session = this.get(id);
+            if (session == null) {
+                return null;
+            }
+            synchronized (session) {
+                if (!session.evicted) {
+                    T result = action.apply(session);
+                    session.dirty = true;
+                    return result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Termina una sesión, en memoria y en disco.
+     * @return true si existía.
+     */
+    public boolean remove(String id) {
+        Segment segment = this.segmentFor(id);
+        while (true) {
+            this.awaitSpill(id);
+            GameSession session;
+            boolean existed;
+            synchronized (segment) {
+                if (this.pending.containsKey(id)) {
+                    // Se expulsó entre la espera y el candado: esperar de nuevo
+                    continue;
+                }
+                session = segment.sessions.remove(id);
+                existed = session != null || this.spillStore.contains(id);
+                this.spillStore.remove(id);
+            }
+            if (session != null) {
+                synchronized (session) {
+                    session.evicted = true;
+                }
+            }
+            if (existed) {
+                this.sessionCount.decrementAndGet();
+            }
+            return existed;
+        }
+    }
+
+    /**
+     * Baja a disco las sesiones inactivas por más del tiempo de expiración. Lo ejecuta
+     * periódicamente un hilo de fondo.
+     */
+    public void sweepExpired() {
+        long now = System.nanoTime();
+        for (Segment segment : this.segments) {
+            List<PendingSpill> victims = new ArrayList<>();
+            synchronized (segment) {
+                Iterator<Map.Entry<String, GameSession>> iterator = segment.sessions.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<String, GameSession> eldest = iterator.next();
+                    if (now - eldest.getValue().lastAccessNanos < this.ttlNanos) {
+                        // En orden de acceso: las siguientes son más recientes
+                        break;
+                    }
+                    iterator.remove();
+                    victims.add(this.markPending(segment, eldest));
+                }
+            }
+            this.ttlEvictions.add(victims.size());
+            this.spill(victims);
+        }
+    }
+
+    /**
+     * Saca del segmento las sesiones que exceden su capacidad. Se llama con el candado del segmento.
+     * @return las sesiones a escribir en disco (ya registradas en pending).
+     */
+    private List<PendingSpill> evictOverflow(Segment segment) {
+        List<PendingSpill> victims = List.of();
+        Iterator<Map.Entry<String, GameSession>> iterator = segment.sessions.entrySet().iterator();
+        while (segment.sessions.size() > this.segmentCapacity) {
+            Map.Entry<String, GameSession> eldest = iterator.next();
+            iterator.remove();
+            if (victims.isEmpty()) {
+                victims = new ArrayList<>(1);
+            }
+            victims.add(this.markPending(segment, eldest));
+        }
+        this.lruEvictions.add(victims.size());
+        return victims;
+    }
+
+    /**
+     * Registra en pending una sesión recién sacada del segmento. Se llama con el candado del segmento.
+     */
+    private PendingSpill markPending(Segment segment, Map.Entry<String, GameSession> eldest) {
+        PendingSpill victim = new PendingSpill(eldest.getKey(), eldest.getValue());
+        this.pending.put(victim.id, victim);
+        segment.evictions++;
+        return victim;
+    }
+
+    /**
+     * Escribe en disco las sesiones expulsadas (si cambiaron) fuera del candado del segmento.
+     */
+    private void spill(List<PendingSpill> victims) {
+        for (PendingSpill victim : victims) {
+            String id = victim.id;
+            GameSession session = victim.session;
+            try {
+                synchronized (session) {
+                    session.evicted = true;
+                    if (session.dirty || !this.spillStore.contains(id)) {
+                        this.spillStore.write(id, session);
+                        session.dirty = false;
+                        this.spillWrites.increment();
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("No se pudo guardar la sesión " + id + " en disco: " + e.getMessage());
+                this.sessionCount.decrementAndGet();
+            } finally {
+                this.pending.remove(id, victim);
+                victim.done.countDown();
+            }
+        }
+    }
+
+    /**
+     * Espera a que termine la escritura en disco de una sesión expulsada, si hay una en curso.
+     */
+    private void awaitSpill(String id) {
+        boolean interrupted = false;
+        PendingSpill spill;
+        while ((spill = this.pending.get(id)) != null) {
+            try {
+                spill.done.await();
+            } catch (InterruptedException e) {
+                interrupted = true; // Terminar la espera igual: la escritura no tarda
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Segment segmentFor(String id) {
+        int hash = id.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & this.segmentMask];
+    }
+
+    /**
+     * @return sesiones existentes, en memoria o en disco.
+     */
+    public int getSessionCount() {
+        return this.sessionCount.get();
+    }
+
+    /**
+     * @return sesiones en memoria.
+     */
+    public int getResidentCount() {
+        int resident = 0;
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                resident += segment.sessions.size();
+            }
+        }
+        return resident;
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return búsquedas que tuvieron que cargar la sesión del disco.
+     */
+    public long getReloads() {
+        return this.reloads.sum();
+    }
+
+    /**
+     * @return fracción de búsquedas de sesiones existentes resueltas en memoria.
+     */
+    public double getHitRate() {
+        long hits = this.hits.sum();
+        long total = hits + this.reloads.sum();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    public long getLruEvictions() {
+        return this.lruEvictions.sum();
+    }
+
+    public long getTtlEvictions() {
+        return this.ttlEvictions.sum();
+    }
+
+    /**
+     * @return escrituras en disco (las expulsiones de sesiones sin cambios no escriben).
+     */
+    public long getSpillWrites() {
+        return this.spillWrites.sum();
+    }
+
+    /**
+     * @return histograma combinado de las latencias de recarga desde el disco.
+     */
+    public LatencyHistogram getReloadLatency() {
+        LatencyHistogram combined = new LatencyHistogram();
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                combined.add(segment.reloadLatency);
+            }
+        }
+        return combined;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.sweeper != null) {
+            this.sweeper.shutdownNow();
+        }
+        this.spillStore.close();
+    }
+}
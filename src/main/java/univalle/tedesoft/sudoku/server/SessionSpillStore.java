@@ -0,0 +1,127 @@
+package univalle.tedesoft.sudoku.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Almacén en disco de las sesiones que salen de la caché: un archivo de ranuras de SLOT_SIZE bytes,
+ * escritas y leídas con operaciones posicionales (seguras entre hilos sin candado). En memoria solo
+ * queda el índice de sesión a ranura. Una sesión conserva su ranura mientras exista, así que al
+ * volver a bajarla sin cambios no hace falta reescribirla. El archivo es temporal: el servicio no
+ * recupera sesiones tras reiniciarse, y se borra al cerrar el almacén.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class SessionSpillStore implements Closeable {
+    /**
+     * Bytes por ranura (una sesión codificada, redondeada).
+     */
+    public static final int SLOT_SIZE = 64;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final ThreadLocal<ByteBuffer> buffers =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN));
+
+    /**
+     * Crea el almacén en un archivo nuevo.
+     * @param file Archivo de ranuras (se trunca si existe).
+     * @throws IOException si no se puede crear.
+     */
+    public SessionSpillStore(Path file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Crea el almacén en un archivo temporal.
+     * @throws IOException si no se puede crear.
+     */
+    public static SessionSpillStore createTemporary() throws IOException {
+        return new SessionSpillStore(Files.createTempFile("sudoku-sesiones", ".spill"));
+    }
+
+    /**
+     * @return true si la sesión tiene una copia en disco.
+     */
+    public boolean contains(String id) {
+        return this.slots.containsKey(id);
+    }
+
+    /**
+     * Escribe una sesión en su ranura (reservándola si no tenía).
+     * @throws IOException si falla la escritura.
+     */
+    public void write(String id, GameSession session) throws IOException {
+        int slot = this.slots.computeIfAbsent(id, key -> {
+            Integer free = this.freeSlots.poll();
+            return free != null ? free : this.nextSlot.getAndIncrement();
+        });
+        ByteBuffer buffer = this.buffers.get().clear();
+        session.encode(buffer);
+        buffer.flip();
+        long position = (long) slot * SLOT_SIZE;
+        while (buffer.hasRemaining()) {
+            position += this.channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Lee una sesión de su ranura.
+     * @return la sesión, o null si no tiene copia en disco.
+     * @throws IOException si falla la lectura.
+     */
+    public GameSession read(String id) throws IOException {
+        Integer slot = this.slots.get(id);
+        if (slot == null) {
+            return null;
+        }
+        ByteBuffer buffer = this.buffers.get().clear().limit(GameSession.ENCODED_SIZE);
+        long position = (long) slot * SLOT_SIZE;
+        while (buffer.hasRemaining()) {
+            int read = this.channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Ranura de sesión incompleta: " + id);
+            }
+            position += read;
+        }
+        return GameSession.decode(buffer.flip());
+    }
+
+    /**
+     * Libera la ranura de una sesión terminada.
+     */
+    public void remove(String id) {
+        Integer slot = this.slots.remove(id);
+        if (slot != null) {
+            this.freeSlots.add(slot);
+        }
+    }
+
+    /**
+     * @return sesiones con copia en disco.
+     */
+    public int size() {
+        return this.slots.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+        Files.deleteIfExists(this.file);
+    }
+}
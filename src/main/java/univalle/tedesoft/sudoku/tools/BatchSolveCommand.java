@@ -0,0 +1,177 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.metrics.LatencyHistogram;
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.GameState;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.models.PuzzleTextReader;
+import univalle.tedesoft.sudoku.models.SudokuSolver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Comando sin interfaz gráfica para control de calidad de paquetes de puzzles.
+ * Lee puzzles en flujo (PuzzleTextReader), los resuelve y verifica su unicidad en un grupo
+ * de hilos, y escribe por cada puzzle, en el mismo orden de entrada, una línea
+ * {@code puzzle<TAB>solución<TAB>soluciones<TAB>microsegundos}. La columna de soluciones vale
+ * 0, 1 o "2+"; sin solución se escribe "-". Cada solución se comprueba además con las reglas
+ * de Board y GameState, las mismas que usa el juego para declarar la victoria.
+ * Al final se imprime en System.err el rendimiento y las latencias p50/p99.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.BatchSolveCommand entrada [salida|-] [hilos]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class BatchSolveCommand {
+    /**
+     * Puzzles en vuelo por hilo; acota la memoria sin dejar hilos ociosos.
+     */
+    private static final int IN_FLIGHT_PER_THREAD = 256;
+
+    /**
+     * Resultado de resolver un puzzle.
+     */
+    private static final class SolveResult {
+        private final PackedBoard puzzle;
+        private final PackedBoard solution = new PackedBoard();
+        private int solutionCount;
+        private boolean accepted;
+        private long nanos;
+
+        SolveResult(PackedBoard puzzle) {
+            this.puzzle = puzzle;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Uso: BatchSolveCommand entrada [salida|-] [hilos]");
+            System.exit(2);
+        }
+        Path input = Path.of(args[0]);
+        String output = args.length > 1 ? args[1] : "-";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sudoku-solver-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        LatencyHistogram latency = new LatencyHistogram();
+        long[] totals = new long[4]; // sin solución, única, múltiple, rechazada por GameState
+
+        long start = System.nanoTime();
+        try (PuzzleTextReader reader = new PuzzleTextReader(input);
+             Writer writer = openOutput(output)) {
+            ArrayDeque<Future<SolveResult>> inFlight = new ArrayDeque<>();
+            int window = threads * IN_FLIGHT_PER_THREAD;
+            PackedBoard next = new PackedBoard();
+            while (reader.next(next)) {
+                PackedBoard puzzle = next;
+                inFlight.add(pool.submit(() -> solve(puzzle)));
+                next = new PackedBoard();
+                if (inFlight.size() >= window) {
+                    emit(inFlight.poll(), writer, latency, totals);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                emit(inFlight.poll(), writer, latency, totals);
+            }
+            System.err.println("Líneas inválidas saltadas: " + reader.getErrorCount());
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long solved = latency.getCount();
+        System.err.printf("Puzzles: %d en %.2f s (%.0f puzzles/s, %d hilos)%n", solved, seconds, solved / seconds, threads);
+        System.err.printf("Sin solución: %d  Únicos: %d  Múltiples: %d  Rechazados por GameState: %d%n",
+                totals[0], totals[1], totals[2], totals[3]);
+        System.err.println(latency.summary("resolver"));
+    }
+
+    /**
+     * Resuelve un puzzle y verifica la solución con las reglas del juego.
+     */
+    private static SolveResult solve(PackedBoard puzzle) {
+        SolveResult result = new SolveResult(puzzle);
+        long start = System.nanoTime();
+        result.solutionCount = SudokuSolver.SIX_BY_SIX.countSolutions(puzzle, 2, result.solution);
+        result.nanos = System.nanoTime() - start;
+        result.accepted = result.solutionCount == 0 || isAcceptedByGame(puzzle, result.solution);
+        return result;
+    }
+
+    /**
+     * Comprueba con Board y GameState que la solución respeta las pistas y gana la partida.
+     */
+    private static boolean isAcceptedByGame(PackedBoard puzzle, PackedBoard solution) {
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            int given = puzzle.getValue(index);
+            if (given != 0 && given != solution.getValue(index)) {
+                return false;
+            }
+        }
+        Board board = Board.fromPacked(solution);
+        return new GameState(board).isGameWon();
+    }
+
+    /**
+     * Espera el resultado más antiguo y lo escribe, conservando el orden de entrada.
+     */
+    private static void emit(Future<SolveResult> future, Writer writer, LatencyHistogram latency, long[] totals)
+            throws IOException, InterruptedException {
+        SolveResult result;
+        try {
+            result = future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló la resolución de un puzzle.", e.getCause());
+        }
+        latency.record(result.nanos);
+        if (!result.accepted) {
+            totals[3]++;
+        } else {
+            totals[Math.min(result.solutionCount, 2)]++;
+        }
+
+        StringBuilder line = new StringBuilder(96);
+        appendCells(line, result.puzzle);
+        line.append('\t');
+        if (result.solutionCount == 0) {
+            line.append('-');
+        } else {
+            appendCells(line, result.solution);
+        }
+        line.append('\t').append(result.solutionCount >= 2 ? "2+" : String.valueOf(result.solutionCount));
+        if (!result.accepted) {
+            line.append(" rechazada");
+        }
+        line.append('\t').append(result.nanos / 1_000).append('\n');
+        writer.append(line);
+    }
+
+    private static void appendCells(StringBuilder line, PackedBoard board) {
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            line.append((char) ('0' + board.getValue(index)));
+        }
+    }
+
+    private static Writer openOutput(String output) throws IOException {
+        if ("-".equals(output)) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.US_ASCII), 1 << 16);
+        }
+        return Files.newBufferedWriter(Path.of(output), StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,43 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.models.FingerprintSet;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.models.PuzzleCanonicalizer;
+import univalle.tedesoft.sudoku.models.PuzzleTextReader;
+import univalle.tedesoft.sudoku.models.PuzzleTextWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Elimina de un archivo de puzzles los que son equivalentes por simetría a uno anterior
+ * (PuzzleCanonicalizer), en una sola pasada en flujo; solo se guardan las huellas.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.DeduplicateCommand entrada salida}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class DeduplicateCommand {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: DeduplicateCommand entrada salida");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        PuzzleCanonicalizer canonicalizer = new PuzzleCanonicalizer();
+        FingerprintSet seen = new FingerprintSet(1 << 20);
+        long total = 0;
+        try (PuzzleTextReader reader = new PuzzleTextReader(Path.of(args[0]));
+             PuzzleTextWriter writer = new PuzzleTextWriter(Path.of(args[1]))) {
+            PackedBoard puzzle = new PackedBoard();
+            while (reader.next(puzzle)) {
+                total++;
+                if (seen.add(canonicalizer.fingerprint(puzzle))) {
+                    writer.write(puzzle);
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Puzzles: %d  Únicos: %d  Duplicados: %d  (%.0f puzzles/s)%n",
+                total, seen.size(), total - seen.size(), total / seconds);
+    }
+}
@@ -0,0 +1,199 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.GameLog;
+import univalle.tedesoft.sudoku.metrics.LatencyHistogram;
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.ISolverStrategy;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.models.PortfolioSolver;
+import univalle.tedesoft.sudoku.models.PuzzleTextReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Ajuste del resolutor de portafolio sobre un corpus: resuelve cada puzzle con PortfolioSolver,
+ * verifica la solución y cuenta qué estrategia ganó y en cuánto tiempo. Después resuelve el mismo
+ * corpus con cada estrategia sola (con un tiempo máximo por puzzle) para comparar el portafolio con
+ * la mejor estrategia fija.
+ * El corpus puede ser un archivo de puzzles 6x6 (formato de PuzzleTextReader), {@code 6x6} para
+ * puzzles generados por el juego, o {@code 9x9} para un conjunto de puzzles 9x9 difíciles conocidos,
+ * repetidos hasta completar la cantidad pedida.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.PortfolioSolveCommand [entrada|6x6|9x9] [puzzles]
+ * [estrategias backtracking,mrv,dlx]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PortfolioSolveCommand {
+    /**
+     * Tiempo máximo por puzzle de una estrategia corriendo sola.
+     */
+    private static final long SOLO_TIMEOUT_NANOS = 2_000_000_000L;
+    /**
+     * Puzzles 9x9 difíciles: AI Escargot, Easter Monster, Golden Nugget, uno diseñado contra el
+     * backtracking en orden fila por fila y uno sin solución.
+     */
+    private static final String[] HARD_9X9 = {
+            "100007090030020008009600500005300900010080002600004000300000010040000007007000300",
+            "100000002090400050006000700050903000000070000000850040700000600030009080002000001",
+            "000000039000001005003050800008090006070002000100400000009080050020000600400700000",
+            "000000000000003085001020000000507000004000100090000000500000073002010000000040009",
+            "110000000000000000000000000000000000000000000000000000000000000000000000000000000",
+    };
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String source = args.length > 0 ? args[0] : "6x6";
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        String selected = args.length > 2 ? args[2] : "backtracking,mrv,dlx";
+
+        int size = source.equals("9x9") ? 9 : Board.GRID_SIZE;
+        List<int[]> corpus = loadCorpus(source, count);
+        List<ISolverStrategy> strategies = new ArrayList<>();
+        List<ISolverStrategy> available = size == 9
+                ? PortfolioSolver.standardStrategies(9, 3, 3)
+                : PortfolioSolver.standardStrategies(Board.GRID_SIZE, Board.BLOCK_ROWS, Board.BLOCK_COLS);
+        for (String name : selected.split(",")) {
+            ISolverStrategy strategy = available.stream()
+                    .filter(candidate -> candidate.getName().equals(name.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Estrategia desconocida: " + name));
+            strategies.add(strategy);
+        }
+        int blockRows = size == 9 ? 3 : Board.BLOCK_ROWS;
+        int blockCols = size == 9 ? 3 : Board.BLOCK_COLS;
+
+        System.out.printf("Corpus: %d puzzles %dx%d; portafolio: %s%n", corpus.size(), size, size, selected);
+        runPortfolio(strategies, corpus, size, blockRows, blockCols);
+        for (ISolverStrategy strategy : strategies) {
+            runSolo(strategy, corpus, size, blockRows, blockCols);
+        }
+    }
+
+    private static void runPortfolio(List<ISolverStrategy> strategies, List<int[]> corpus,
+                                     int size, int blockRows, int blockCols) throws InterruptedException {
+        Map<String, LatencyHistogram> wins = new LinkedHashMap<>();
+        for (ISolverStrategy strategy : strategies) {
+            wins.put(strategy.getName(), new LatencyHistogram());
+        }
+        LatencyHistogram total = new LatencyHistogram();
+        int unsolvable = 0;
+        long start = System.nanoTime();
+        try (PortfolioSolver portfolio = new PortfolioSolver(strategies)) {
+            for (int[] puzzle : corpus) {
+                PortfolioSolver.Result result = portfolio.solve(puzzle);
+                if (result.isSolved()) {
+                    verify(puzzle, result.getSolution(), size, blockRows, blockCols, result.getStrategy());
+                } else {
+                    unsolvable++;
+                }
+                wins.get(result.getStrategy()).record(result.getNanos());
+                total.record(result.getNanos());
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Portafolio: %.0f puzzles/s, %d sin solución, soluciones verificadas%n",
+                corpus.size() / seconds, unsolvable);
+        System.out.println("  " + total.summary("primer resultado"));
+        for (Map.Entry<String, LatencyHistogram> entry : wins.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            System.out.printf("  %-12s ganó %5.1f%%  %s%n", entry.getKey(),
+                    100.0 * histogram.getCount() / corpus.size(),
+                    histogram.getCount() == 0 ? "" : histogram.summary("al ganar"));
+        }
+    }
+
+    private static void runSolo(ISolverStrategy strategy, List<int[]> corpus,
+                                int size, int blockRows, int blockCols) {
+        LatencyHistogram latency = new LatencyHistogram();
+        int timeouts = 0;
+        int[] solution = new int[size * size];
+        for (int[] puzzle : corpus) {
+            long start = System.nanoTime();
+            long deadline = start + SOLO_TIMEOUT_NANOS;
+            try {
+                if (strategy.solve(puzzle, solution, () -> System.nanoTime() > deadline)) {
+                    verify(puzzle, solution, size, blockRows, blockCols, strategy.getName());
+                }
+                latency.record(System.nanoTime() - start);
+            } catch (CancellationException e) {
+                timeouts++;
+            }
+        }
+        System.out.printf("Sola %-12s %s, %d puzzles superaron %d s%n", strategy.getName(),
+                latency.getCount() == 0 ? "sin resultados" : latency.summary("resolver"),
+                timeouts, SOLO_TIMEOUT_NANOS / 1_000_000_000L);
+    }
+
+    private static List<int[]> loadCorpus(String source, int count) throws IOException {
+        List<int[]> corpus = new ArrayList<>(count);
+        if (source.equals("9x9")) {
+            for (int i = 0; i < count; i++) {
+                String line = HARD_9X9[i % HARD_9X9.length];
+                int[] cells = new int[line.length()];
+                for (int index = 0; index < cells.length; index++) {
+                    cells[index] = line.charAt(index) - '0';
+                }
+                corpus.add(cells);
+            }
+            return corpus;
+        }
+        if (source.equals("6x6")) {
+            // El generador del tablero informa cada puzzle; no interesa en el reporte
+            GameLog.setEnabled(false);
+            SplittableRandom seeds = new SplittableRandom(29);
+            for (int i = 0; i < count; i++) {
+                corpus.add(toCells(Board.fromPuzzleId(seeds.nextLong()).toPacked()));
+            }
+            return corpus;
+        }
+        try (PuzzleTextReader reader = new PuzzleTextReader(Path.of(source))) {
+            PackedBoard next = new PackedBoard();
+            while (corpus.size() < count && reader.next(next)) {
+                corpus.add(toCells(next));
+            }
+        }
+        return corpus;
+    }
+
+    private static int[] toCells(PackedBoard board) {
+        int[] cells = new int[PackedBoard.CELL_COUNT];
+        for (int index = 0; index < cells.length; index++) {
+            cells[index] = board.getValue(index);
+        }
+        return cells;
+    }
+
+    /**
+     * Comprueba que la solución respete las pistas y que cada fila, columna y bloque tenga cada dígito.
+     */
+    private static void verify(int[] puzzle, int[] solution, int size, int blockRows, int blockCols,
+                               String strategy) {
+        int full = (1 << size) - 1;
+        for (int unit = 0; unit < size; unit++) {
+            int row = 0;
+            int col = 0;
+            int box = 0;
+            int startRow = unit / (size / blockCols) * blockRows;
+            int startCol = unit % (size / blockCols) * blockCols;
+            for (int i = 0; i < size; i++) {
+                row |= 1 << (solution[unit * size + i] - 1);
+                col |= 1 << (solution[i * size + unit] - 1);
+                box |= 1 << (solution[(startRow + i / blockCols) * size + startCol + i % blockCols] - 1);
+            }
+            if (row != full || col != full || box != full) {
+                throw new IllegalStateException("Solución inválida de la estrategia " + strategy);
+            }
+        }
+        for (int index = 0; index < puzzle.length; index++) {
+            if (puzzle[index] != 0 && puzzle[index] != solution[index]) {
+                throw new IllegalStateException("La estrategia " + strategy + " cambió una pista.");
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.models.PipelineStage;
+import univalle.tedesoft.sudoku.models.PuzzleLibrary;
+import univalle.tedesoft.sudoku.models.PuzzleLibraryWriter;
+import univalle.tedesoft.sudoku.models.PuzzlePipeline;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Produce una biblioteca de puzzles con PuzzlePipeline y reporta cada segundo, por etapa, los hilos,
+ * la ocupación de la cola, el rendimiento y el tiempo bloqueado entregando a la etapa siguiente.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.PuzzlePipelineCommand salida cantidad [hilos] [semilla]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PuzzlePipelineCommand {
+    private static final long REPORT_INTERVAL_NANOS = 1_000_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Uso: PuzzlePipelineCommand salida cantidad [hilos] [semilla]");
+            System.exit(2);
+        }
+        Path output = Path.of(args[0]);
+        long count = Long.parseLong(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors() * 2;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        long start = System.nanoTime();
+        long[] lastReport = {start};
+        long[][] lastProcessed = {null};
+        PuzzlePipeline pipeline;
+        try (PuzzleLibraryWriter writer = new PuzzleLibraryWriter(output)) {
+            pipeline = new PuzzlePipeline(writer, count, threads);
+            pipeline.run(seed, running -> {
+                long now = System.nanoTime();
+                if (now - lastReport[0] >= REPORT_INTERVAL_NANOS) {
+                    lastProcessed[0] = report(running.getStages(), lastProcessed[0], (now - lastReport[0]) / 1e9);
+                    lastReport[0] = now;
+                }
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report(pipeline.getStages(), null, seconds);
+        System.err.printf("Guardados %d puzzles en %.1f s (%.0f puzzles/s)%n",
+                pipeline.getStored(), seconds, pipeline.getStored() / seconds);
+        try (PuzzleLibrary library = new PuzzleLibrary(output)) {
+            StringBuilder buckets = new StringBuilder("Por dificultad:");
+            for (int bucket = 0; bucket < PuzzleLibrary.BUCKET_COUNT; bucket++) {
+                buckets.append(' ').append(library.bucketSize(bucket));
+            }
+            System.err.println(buckets);
+        }
+    }
+
+    /**
+     * Imprime una línea por etapa con su rendimiento desde el reporte anterior.
+     * @return los contadores actuales, para el siguiente reporte.
+     */
+    private static long[] report(List<PipelineStage<?, ?>> stages, long[] previous, double seconds) {
+        long[] processed = new long[stages.size()];
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < stages.size(); i++) {
+            PipelineStage<?, ?> stage = stages.get(i);
+            processed[i] = stage.getProcessed();
+            long delta = processed[i] - (previous == null ? 0 : previous[i]);
+            text.append(String.format("  %-15s hilos %2d  cola %5d/%d  %9.0f/s  salida %d  bloqueado %.1f s%n",
+                    stage.getName(), stage.getWorkers(), stage.getQueueDepth(), stage.getQueueCapacity(),
+                    delta / seconds, stage.getEmitted(), stage.getBlockedNanos() / 1e9));
+        }
+        System.err.print(text);
+        return processed;
+    }
+}
@@ -0,0 +1,159 @@
+package univalle.tedesoft.sudoku.views;
+
+import javafx.util.Pair;
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.Cell;
+import univalle.tedesoft.sudoku.models.Solvability;
+
+import java.util.Set;
+
+/**
+ * Vista sin interfaz para jugadores automáticos: guarda lo que una vista real mostraría (valores,
+ * celdas editables, celdas en conflicto, victoria) para que un agente decida su siguiente jugada, y
+ * cuenta los diálogos que el controlador pidió mostrar. Las confirmaciones se aceptan siempre.
+ * Como las demás vistas, recibe todas las llamadas en un único hilo: el del agente que la usa.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class BotGameView implements IGameView {
+    private static final int GRID_SIZE = Board.GRID_SIZE;
+
+    private final int[][] values = new int[GRID_SIZE][GRID_SIZE];
+    private final boolean[][] editable = new boolean[GRID_SIZE][GRID_SIZE];
+    private Set<Pair<Integer, Integer>> invalidCells = Set.of();
+    private Solvability solvability = Solvability.SOLVABLE;
+    private final int[] solvabilityReports = new int[Solvability.values().length];
+    private boolean won;
+    private boolean gridDisabled;
+    private int boardsRendered;
+    private int noMoreCluesDialogs;
+    private int noObviousCluesDialogs;
+    private int maxCluesDialogs;
+
+    @Override
+    public void renderBoard(Cell[][] gridData) {
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                this.values[row][col] = gridData[row][col].getValue();
+                this.editable[row][col] = gridData[row][col].getEditable();
+            }
+        }
+        this.boardsRendered++;
+    }
+
+    @Override
+    public void highlightErrors(Set<Pair<Integer, Integer>> errorCoords) {
+        this.invalidCells = errorCoords;
+    }
+
+    @Override
+    public void showSolvability(Solvability status) {
+        this.solvability = status;
+        this.solvabilityReports[status.ordinal()]++;
+    }
+
+    @Override
+    public void setGridDisabled(boolean disable) {
+        this.gridDisabled = disable;
+        if (!disable) {
+            this.won = false; // Tablero nuevo o limpiado: la partida sigue en juego
+        }
+    }
+
+    @Override
+    public void setBusy(boolean busy) {
+        // Sin indicador de ocupado: el agente espera a que el controlador le devuelva el control
+    }
+
+    @Override
+    public void showHelpDialog() {
+        // Un agente no lee la ayuda
+    }
+
+    @Override
+    public void showNoMoreCluesDialog() {
+        this.noMoreCluesDialogs++;
+    }
+
+    @Override
+    public void showNoObviousCluesDialog() {
+        this.noObviousCluesDialogs++;
+    }
+
+    @Override
+    public void showMaxCluesReachedDialog() {
+        this.maxCluesDialogs++;
+    }
+
+    @Override
+    public void showWinDialog() {
+        this.won = true;
+    }
+
+    @Override
+    public boolean showRestartConfirmationDialog() {
+        return true;
+    }
+
+    @Override
+    public boolean showClearConfirmationDialog() {
+        return true;
+    }
+
+    /**
+     * Refleja una jugada escrita por el agente, como lo haría el campo de texto de la celda.
+     * @param row Fila.
+     * @param col Columna.
+     * @param value Valor escrito (0 para borrar).
+     */
+    public void cellEdited(int row, int col, int value) {
+        this.values[row][col] = value;
+    }
+
+    public int getValue(int row, int col) {
+        return this.values[row][col];
+    }
+
+    public boolean isEditable(int row, int col) {
+        return this.editable[row][col];
+    }
+
+    public Set<Pair<Integer, Integer>> getInvalidCells() {
+        return this.invalidCells;
+    }
+
+    public Solvability getSolvability() {
+        return this.solvability;
+    }
+
+    /**
+     * @param status Resultado de la comprobación de fondo.
+     * @return veces que la comprobación informó ese resultado.
+     */
+    public int getSolvabilityReports(Solvability status) {
+        return this.solvabilityReports[status.ordinal()];
+    }
+
+    public boolean isWon() {
+        return this.won;
+    }
+
+    public boolean isGridDisabled() {
+        return this.gridDisabled;
+    }
+
+    public int getBoardsRendered() {
+        return this.boardsRendered;
+    }
+
+    /**
+     * @return veces que se rechazó una pista (tablero casi lleno, sin pista obvia o límite alcanzado).
+     */
+    public int getRefusedClues() {
+        return this.noMoreCluesDialogs + this.noObviousCluesDialogs + this.maxCluesDialogs;
+    }
+
+    public int getMaxCluesDialogs() {
+        return this.maxCluesDialogs;
+    }
+}
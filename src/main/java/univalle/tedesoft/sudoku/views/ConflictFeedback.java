@@ -0,0 +1,103 @@
+package univalle.tedesoft.sudoku.views;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javafx.util.Pair;
+import univalle.tedesoft.sudoku.models.Solvability;
+
+/**
+ * Decide qué mensaje de conflictos mostrar a partir del cambio (delta) entre
+ * el conjunto de celdas inválidas anterior y el actual.
+ * Solo se reporta cuando aparece un conflicto nuevo o cuando todos se resuelven;
+ * volver a validar un tablero con los mismos conflictos no genera mensaje.
+ * No depende de JavaFX, así que cualquier vista puede reutilizarla.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class ConflictFeedback {
+    /**
+     * Tipo de cambio detectado en los conflictos.
+     */
+    public enum Change {
+        /** No hay nada nuevo que reportar. */
+        NONE,
+        /** Apareció al menos una celda en conflicto que antes no lo estaba. */
+        NEW_CONFLICTS,
+        /** Había conflictos y ya no queda ninguno. */
+        RESOLVED
+    }
+
+    /**
+     * Conflictos vistos en la última actualización.
+     */
+    private final Set<Pair<Integer, Integer>> previousConflicts = new HashSet<>();
+
+    /**
+     * Registra el conjunto actual de conflictos y calcula el cambio respecto al anterior.
+     * @param conflicts Coordenadas (fila, columna) de las celdas inválidas actuales.
+     * @return El tipo de cambio a reportar.
+     */
+    public Change update(Set<Pair<Integer, Integer>> conflicts) {
+        boolean hadConflicts = !this.previousConflicts.isEmpty();
+        boolean hasNew = false;
+        for (Pair<Integer, Integer> coord : conflicts) {
+            if (!this.previousConflicts.contains(coord)) {
+                hasNew = true;
+                break;
+            }
+        }
+        this.previousConflicts.clear();
+        this.previousConflicts.addAll(conflicts);
+
+        if (hasNew) {
+            return Change.NEW_CONFLICTS;
+        }
+        if (hadConflicts && conflicts.isEmpty()) {
+            return Change.RESOLVED;
+        }
+        return Change.NONE;
+    }
+
+    /**
+     * Número de celdas en conflicto según la última actualización.
+     * @return cantidad de celdas inválidas.
+     */
+    public int getConflictCount() {
+        return this.previousConflicts.size();
+    }
+
+    /**
+     * Olvida los conflictos registrados (por ejemplo, al empezar un juego nuevo).
+     */
+    public void reset() {
+        this.previousConflicts.clear();
+    }
+
+    /**
+     * Construye el texto a mostrar para la cantidad actual de conflictos.
+     * @return El mensaje, o una cadena vacía si no hay conflictos.
+     */
+    public String getMessage() {
+        int count = this.getConflictCount();
+        if (count == 0) {
+            return "";
+        }
+        return count == 1
+                ? "1 celda inválida: revisa el valor marcado en rojo."
+                : count + " celdas inválidas: revisa los valores marcados en rojo.";
+    }
+
+    /**
+     * Mensaje para el jugador según la comprobación de resolubilidad del tablero.
+     * @param status Resultado de la comprobación.
+     * @return El mensaje, o una cadena vacía si el tablero sigue la solución.
+     */
+    public static String describe(Solvability status) {
+        return switch (status) {
+            case SOLVABLE -> "";
+            case NO_SOLUTION -> "El tablero ya no tiene solución: revisa tus últimas jugadas.";
+            case DIVERGES -> "Nota: vas hacia una solución válida distinta de la guardada; también gana.";
+        };
+    }
+}
@@ -1,20 +1,29 @@
 package univalle.tedesoft.sudoku.views;
 
+import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
 import javafx.geometry.Pos;
 import univalle.tedesoft.sudoku.Main;
 import univalle.tedesoft.sudoku.controllers.GameController;
+import univalle.tedesoft.sudoku.metrics.InputLatencyProbe;
 import univalle.tedesoft.sudoku.models.Board;
 import univalle.tedesoft.sudoku.models.Cell;
+import univalle.tedesoft.sudoku.models.Solvability;
 
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Cursor;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import javafx.util.Pair;
 
 import java.io.IOException;
@@ -32,7 +41,7 @@ import java.util.regex.Pattern;
  * @author David Esteban Valencia
  * @author Santiago David Guerrero
  */
-public class GameView extends Stage {
+public class GameView extends Stage implements IGameView {
     // Constantes de Estilo
     private static final int GRID_SIZE = Board.GRID_SIZE;
     private static final int BLOCK_ROWS = Board.BLOCK_ROWS;
@@ -47,16 +56,29 @@ public class GameView extends Stage {
     private static final String BORDER_WIDTH_BLOCK = "2px";
     private static final String BORDER_STYLE_SOLID = "-fx-border-style: solid;";
     private static final String HIGHLIGHT_BACKGROUND_COLOR = "lightblue";
+    private static final Duration STATUS_COALESCE_DELAY = Duration.millis(300); // Agrupa ráfagas de teclas
+    private static final Duration LATENCY_OVERLAY_REFRESH = Duration.millis(500);
+    private static final String LATENCY_OVERLAY_STYLE = "-fx-font-family: monospace; -fx-font-size: 11px; "
+            + "-fx-background-color: rgba(0,0,0,0.75); -fx-text-fill: white; -fx-padding: 4px;";
 
     // Referencias
     private final GridPane sudokuGridPane;
     private final GameController controller;
+    private final Label statusLabel;
 
     // Estado Interno de la Vista
     private Node[][] nodeGrid = new Node[GRID_SIZE][GRID_SIZE]; // Cache de nodos UI para acceso rápido
     private TextField currentEditingTextField = null; // Campo de texto activo actualmente
     private Set<Pair<Integer, Integer>> currentErrorCoords = new HashSet<>(); // Coordenadas con error resaltado
     private Set<Pair<Integer, Integer>> currentlyHighlightedCoords = new HashSet<>(); // resaltar celdas por hover
+    private boolean gridDisabled = false; // Grilla deshabilitada por el juego (p. ej. al ganar)
+    private boolean busy = false; // Hay trabajo de fondo largo en curso
+    private boolean rendering = false; // renderBoard está llenando los campos desde el modelo
+    private final ConflictFeedback conflictFeedback = new ConflictFeedback(); // Delta de conflictos
+    private String solvabilityMessage = ""; // Aviso de tablero sin solución, si no hay conflictos que mostrar
+    private final StatusCoalescer statusCoalescer = new StatusCoalescer(
+            (long) (STATUS_COALESCE_DELAY.toMillis() * 1_000_000)); // Decide cuándo mostrar la ráfaga
+    private final PauseTransition statusUpdate = new PauseTransition(STATUS_COALESCE_DELAY); // Única, se reutiliza
 
     /**
      * Constructor privado Singleton. Carga el archivo FXML.
@@ -80,6 +102,14 @@ public class GameView extends Stage {
         if (this.sudokuGridPane == null) {
             throw new IOException("El GridPane no se pasó correctamente al controlador.");
         }
+        this.statusLabel = this.controller.getStatusLabel();
+        if (this.statusLabel == null) {
+            throw new IOException("La etiqueta de estado no se pasó correctamente al controlador.");
+        }
+        this.statusUpdate.setOnFinished(event -> this.settleStatus());
+        if (InputLatencyProbe.getInstance().isEnabled()) {
+            this.installLatencyOverlay(scene);
+        }
         this.controller.setView(this);
 
         // Añadimos el handler de clics en la grid
@@ -94,7 +124,32 @@ public class GameView extends Stage {
      * Renderiza completamente el tablero en el GridPane basándose en los datos proporcionados.
      * @param gridData Matriz 2D con la información de cada celda.
      */
+    @Override
     public void renderBoard(Cell[][] gridData) {
+        // Los setText de esta pasada reflejan el modelo: no son jugadas ni muestras de latencia
+        this.rendering = true;
+        try {
+            this.fillGrid(gridData);
+        } finally {
+            this.rendering = false;
+        }
+
+        // Aplicar el estilo inicial a todas las celdas DESPUÉS de que estén todas en la caché nodeGrid
+        for (int r = 0; r < GRID_SIZE; r++) {
+            for (int c = 0; c < GRID_SIZE; c++) {
+                this.updateCellStyle(r, c);
+            }
+        }
+
+        // Reaplicar el estado de errores visualmente
+        highlightErrors(this.currentErrorCoords);
+    }
+
+    /**
+     * Crea los nodos de todas las celdas y los agrega al GridPane y a la caché.
+     * @param gridData Matriz 2D con la información de cada celda.
+     */
+    private void fillGrid(Cell[][] gridData) {
         // Limpiar contenido anterior
         sudokuGridPane.getChildren().clear();
         // Resetear caché de nodos
@@ -139,24 +194,16 @@ public class GameView extends Stage {
                 nodeGrid[row][col] = cellNode;
             }
         }
-
-        // Aplicar el estilo inicial a todas las celdas DESPUÉS de que estén todas en la caché nodeGrid
-        for (int r = 0; r < GRID_SIZE; r++) {
-            for (int c = 0; c < GRID_SIZE; c++) {
-                this.updateCellStyle(r, c);
-            }
-        }
-
-        // Reaplicar el estado de errores visualmente
-        highlightErrors(this.currentErrorCoords);
     }
 
     /**
      * Actualiza los estilos de las celdas para mostrar cuáles tienen errores.
      * Actualiza el estado del error y llama a updateCellStyle.
-     * Lanza un mensaje de error al ingresar valores inválidos.
+     * Informa en la etiqueta de estado solo cuando aparece un conflicto nuevo; las ráfagas
+     * de cambios se agrupan en una sola actualización del texto.
      * @param newErrorCoords Conjunto de coordenadas (fila, columna) de las celdas con errores.
      */
+    @Override
     public void highlightErrors(Set<Pair<Integer, Integer>> newErrorCoords) {
         Set<Pair<Integer, Integer>> oldErrorCoords = this.currentErrorCoords;
         this.currentErrorCoords = new HashSet<>(newErrorCoords);
@@ -171,18 +218,94 @@ public class GameView extends Stage {
             this.updateCellStyle(coord.getKey(), coord.getValue());
         }
 
-        if (!newErrorCoords.isEmpty()) {
-            showDialog(Alert.AlertType.ERROR, "Errores detectados",
-                    "Algunas celdas son inválidas", "Revisa los valores marcados en rojo.");
+        this.updateConflictStatus(newErrorCoords);
+        InputLatencyProbe.getInstance().mark(InputLatencyProbe.Stage.STYLE);
+    }
+
+    /**
+     * Actualiza la etiqueta de estado a partir del delta de conflictos.
+     * Un conflicto nuevo reinicia la espera para agrupar la ráfaga; si ya no quedan
+     * conflictos el mensaje se borra de inmediato.
+     * @param errorCoords Conjunto actual de celdas inválidas.
+     */
+    private void updateConflictStatus(Set<Pair<Integer, Integer>> errorCoords) {
+        switch (this.conflictFeedback.update(errorCoords)) {
+            case NEW_CONFLICTS -> {
+                this.statusCoalescer.newConflicts(System.nanoTime());
+                this.statusUpdate.setDuration(STATUS_COALESCE_DELAY);
+                this.statusUpdate.playFromStart();
+            }
+            case RESOLVED -> {
+                this.statusCoalescer.cancel();
+                this.statusUpdate.stop();
+                this.statusLabel.setText(this.solvabilityMessage);
+            }
+            case NONE -> {
+                // Mismos conflictos o menos: solo refrescar el conteo si no hay una actualización en espera
+                if (!this.statusLabel.getText().isEmpty() && this.statusCoalescer.shouldShow(System.nanoTime())) {
+                    this.statusLabel.setText(this.getStatusText());
+                }
+            }
+        }
+    }
+
+    /**
+     * Fin de la pausa: muestra la ráfaga agrupada o, si el temporizador se adelantó al
+     * plazo, vuelve a esperar lo que falta.
+     */
+    private void settleStatus() {
+        long now = System.nanoTime();
+        if (this.statusCoalescer.shouldShow(now)) {
+            this.statusLabel.setText(this.getStatusText());
+        } else {
+            this.statusUpdate.setDuration(Duration.millis(this.statusCoalescer.remainingNanos(now) / 1e6));
+            this.statusUpdate.playFromStart();
+        }
+    }
+
+    /**
+     * Muestra en la etiqueta de estado si el tablero dejó de tener solución. Los conflictos
+     * directos tienen prioridad: el aviso solo se ve cuando no hay celdas marcadas en rojo.
+     * @param status Resultado de la comprobación de fondo.
+     */
+    @Override
+    public void showSolvability(Solvability status) {
+        this.solvabilityMessage = ConflictFeedback.describe(status);
+        if (this.statusCoalescer.shouldShow(System.nanoTime())) {
+            this.statusLabel.setText(this.getStatusText());
         }
     }
 
+    /**
+     * @return el mensaje de conflictos si los hay; si no, el aviso de resolubilidad.
+     */
+    private String getStatusText() {
+        String conflicts = this.conflictFeedback.getMessage();
+        return conflicts.isEmpty() ? this.solvabilityMessage : conflicts;
+    }
+
     /**
      * Habilita o deshabilita la interacción del usuario con el GridPane.
      * @param disable true para deshabilitar, false para habilitar.
      */
+    @Override
     public void setGridDisabled(boolean disable) {
-        this.sudokuGridPane.setDisable(disable);
+        this.gridDisabled = disable;
+        this.sudokuGridPane.setDisable(this.gridDisabled || this.busy);
+    }
+
+    /**
+     * Muestra el estado "ocupado" mientras el controlador trabaja en segundo plano:
+     * cursor de espera y grilla inactiva, sin bloquear el hilo de la interfaz.
+     * @param busy true mientras haya trabajo pendiente.
+     */
+    @Override
+    public void setBusy(boolean busy) {
+        this.busy = busy;
+        this.sudokuGridPane.setDisable(this.gridDisabled || this.busy);
+        if (this.getScene() != null) {
+            this.getScene().setCursor(busy ? Cursor.WAIT : Cursor.DEFAULT);
+        }
     }
 
     /**
@@ -305,6 +428,10 @@ public class GameView extends Stage {
                 validEditingState.matcher(change.getControlNewText()).matches() ? change : null;
         textField.setTextFormatter(new TextFormatter<>(filter));
         textField.textProperty().addListener((observable, oldValue, newValue) -> {
+            if (this.rendering) {
+                return; // Valor puesto por renderBoard: el modelo ya lo tiene
+            }
+            InputLatencyProbe.getInstance().beginInput();
             this.controller.cellValueChanged(row, col, newValue);
         });
         textField.focusedProperty().addListener((obs, wasFocused, isNowFocused) -> {
@@ -517,6 +644,49 @@ public class GameView extends Stage {
     }
 
 
+    /**
+     * Instala la capa de desarrollo con las latencias por etapa (se muestra/oculta con F12)
+     * y registra la etapa "pantalla" en el pulso que sigue a la aplicación de estilos.
+     * @param scene La escena de la vista del juego.
+     */
+    private void installLatencyOverlay(Scene scene) {
+        InputLatencyProbe probe = InputLatencyProbe.getInstance();
+        scene.addPostLayoutPulseListener(() -> {
+            if (probe.isAwaitingFrame()) {
+                probe.mark(InputLatencyProbe.Stage.FRAME);
+            }
+        });
+
+        Label overlay = new Label();
+        overlay.setStyle(LATENCY_OVERLAY_STYLE);
+        overlay.setMaxWidth(Double.MAX_VALUE);
+        overlay.setVisible(false);
+        overlay.setManaged(false);
+        if (scene.getRoot() instanceof Pane root) {
+            root.getChildren().add(overlay);
+        }
+
+        Timeline refresh = new Timeline(new KeyFrame(LATENCY_OVERLAY_REFRESH,
+                event -> overlay.setText(probe.summary())));
+        refresh.setCycleCount(Timeline.INDEFINITE);
+
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.F12) {
+                boolean show = !overlay.isVisible();
+                overlay.setText(probe.summary());
+                overlay.setVisible(show);
+                overlay.setManaged(show);
+                this.sizeToScene();
+                if (show) {
+                    refresh.play();
+                } else {
+                    refresh.stop();
+                }
+                event.consume();
+            }
+        });
+    }
+
     // -- Métodos para mostrar alertas
 
     /**
@@ -541,6 +711,7 @@ public class GameView extends Stage {
      * Muestra el diálogo de ayuda con las reglas del juego.
      * Encapsula el contenido específico de la ayuda.
      */
+    @Override
     public void showHelpDialog() {
         String helpTitle = "Ayuda Sudoku 6x6";
         String helpHeader = "Reglas del Juego";
@@ -565,6 +736,7 @@ public class GameView extends Stage {
     /**
      * Muestra un diálogo informativo indicando que no se pueden dar más pistas.
      */
+    @Override
     public void showNoMoreCluesDialog() {
         showDialog(Alert.AlertType.INFORMATION, "Pista", null,
                 "No se puede dar una pista más sin completar el tablero.");
@@ -573,6 +745,7 @@ public class GameView extends Stage {
     /**
      * Muestra un diálogo informativo indicando que no hay pistas obvias disponibles.
      */
+    @Override
     public void showNoObviousCluesDialog() {
         showDialog(Alert.AlertType.INFORMATION, "Pista", null,
                 "No hay pistas obvias disponibles o el tablero está lleno/inválido.");
@@ -581,6 +754,7 @@ public class GameView extends Stage {
     /**
      * Muestra un diálogo informativo indicando que se ha ganado el juego.
      */
+    @Override
     public void showWinDialog() {
         showDialog(Alert.AlertType.INFORMATION, "¡Felicidades!", "¡Sudoku Resuelto!",
                 "¡Has completado el Sudoku exitosamente!");
@@ -588,30 +762,42 @@ public class GameView extends Stage {
 
     /**
      * Muestra un diálogo de confirmación para reiniciar el juego.
-     * @return Optional con el botón presionado por el usuario.
+     * @return true si el usuario presionó OK.
      */
-    public Optional<ButtonType> showRestartConfirmationDialog() {
-        return showDialog(Alert.AlertType.CONFIRMATION,
+    @Override
+    public boolean showRestartConfirmationDialog() {
+        return isConfirmed(showDialog(Alert.AlertType.CONFIRMATION,
                 "Confirmar Reinicio", "Nuevo Juego",
                 """
                         Esto generará un tablero de Sudoku completamente nuevo,
                         perdiendo el progreso actual. ¿Continuar?
-                        """);
+                        """));
     }
 
     /**
      * Muestra un diálogo de confirmación para limpiar las entradas del usuario.
-     * @return Optional con el botón presionado por el usuario.
+     * @return true si el usuario presionó OK.
      */
-    public Optional<ButtonType> showClearConfirmationDialog() {
-        return showDialog(Alert.AlertType.CONFIRMATION,
+    @Override
+    public boolean showClearConfirmationDialog() {
+        return isConfirmed(showDialog(Alert.AlertType.CONFIRMATION,
                 "Confirmar Limpieza", "Limpiar Entradas",
-                "¿Seguro que deseas borrar todos los números que has ingresado en este tablero?");
+                "¿Seguro que deseas borrar todos los números que has ingresado en este tablero?"));
+    }
+
+    /**
+     * Indica si el resultado de un diálogo de confirmación fue OK.
+     * @param result Botón presionado, si lo hubo.
+     * @return true si se presionó OK.
+     */
+    private static boolean isConfirmed(Optional<ButtonType> result) {
+        return result.isPresent() && result.get() == ButtonType.OK;
     }
 
     /**
      * Muestra un diálogo especial cuando el usuario ha solicitado demasiadas pistas.
      */
+    @Override
     public void showMaxCluesReachedDialog() {
         // Crear el contenido personalizado como en el PR, pero dentro de la vista
         Label label = new Label("😔 ¿Realmente quieres ganar así?");
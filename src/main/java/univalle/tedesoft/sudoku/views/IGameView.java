@@ -0,0 +1,85 @@
+package univalle.tedesoft.sudoku.views;
+
+import javafx.util.Pair;
+import univalle.tedesoft.sudoku.models.Cell;
+import univalle.tedesoft.sudoku.models.Solvability;
+
+import java.util.Set;
+
+/**
+ * Define la vista del juego Sudoku tal como la usa el GameController,
+ * sin depender de un toolkit gráfico concreto.
+ * Las implementaciones reciben todas las llamadas en su propio hilo de interfaz.
+ * @author David Valencia
+ * @author Santiago Guerrero
+ */
+public interface IGameView {
+
+    /**
+     * Renderiza completamente el tablero basándose en los datos proporcionados.
+     * @param gridData Matriz 2D con la información (valor y estado de edición) de cada celda.
+     */
+    void renderBoard(Cell[][] gridData);
+
+    /**
+     * Marca como erróneas las celdas indicadas y quita la marca de las demás.
+     * @param errorCoords Conjunto de coordenadas (fila, columna) de las celdas con errores.
+     */
+    void highlightErrors(Set<Pair<Integer, Integer>> errorCoords);
+
+    /**
+     * Informa si el tablero todavía se puede completar. Llega tras highlightErrors, cuando termina
+     * la comprobación de fondo de la última jugada; las de jugadas anteriores no se entregan.
+     * @param status Resultado de la comprobación.
+     */
+    void showSolvability(Solvability status);
+
+    /**
+     * Habilita o deshabilita la interacción del usuario con el tablero.
+     * @param disable true para deshabilitar, false para habilitar.
+     */
+    void setGridDisabled(boolean disable);
+
+    /**
+     * Muestra u oculta el estado "ocupado" mientras hay trabajo de fondo largo en curso.
+     * @param busy true mientras haya trabajo pendiente.
+     */
+    void setBusy(boolean busy);
+
+    /**
+     * Muestra la ayuda con las reglas del juego.
+     */
+    void showHelpDialog();
+
+    /**
+     * Informa que no se pueden dar más pistas sin completar el tablero.
+     */
+    void showNoMoreCluesDialog();
+
+    /**
+     * Informa que no hay pistas obvias disponibles.
+     */
+    void showNoObviousCluesDialog();
+
+    /**
+     * Informa que el jugador pidió demasiadas pistas.
+     */
+    void showMaxCluesReachedDialog();
+
+    /**
+     * Informa que el juego ha sido ganado.
+     */
+    void showWinDialog();
+
+    /**
+     * Pide confirmación para generar un tablero nuevo.
+     * @return true si el jugador confirma.
+     */
+    boolean showRestartConfirmationDialog();
+
+    /**
+     * Pide confirmación para borrar las entradas del jugador.
+     * @return true si el jugador confirma.
+     */
+    boolean showClearConfirmationDialog();
+}
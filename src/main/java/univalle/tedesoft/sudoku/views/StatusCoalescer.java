@@ -0,0 +1,62 @@
+package univalle.tedesoft.sudoku.views;
+
+/**
+ * Agrupa las ráfagas de conflictos nuevos en una sola actualización de la etiqueta de estado.
+ * Cada conflicto nuevo reinicia una espera; mientras la espera no termine, ninguna otra
+ * actualización se muestra. El tiempo lo pasa el llamador, así que no depende de JavaFX
+ * ni de un reloj real.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class StatusCoalescer {
+    private final long delayNanos;
+    private boolean pending;
+    private long deadlineNanos;
+
+    /**
+     * @param delayNanos Espera sin conflictos nuevos antes de mostrar la actualización.
+     */
+    public StatusCoalescer(long delayNanos) {
+        this.delayNanos = delayNanos;
+    }
+
+    /**
+     * Registra un conflicto nuevo: la actualización queda en espera y la espera se reinicia.
+     * @param nowNanos Instante actual (System.nanoTime o equivalente).
+     */
+    public void newConflicts(long nowNanos) {
+        this.pending = true;
+        this.deadlineNanos = nowNanos + this.delayNanos;
+    }
+
+    /**
+     * Descarta la actualización en espera (todos los conflictos se resolvieron).
+     */
+    public void cancel() {
+        this.pending = false;
+    }
+
+    /**
+     * Decide si una actualización puede mostrarse ahora. Si la espera terminó, la consume.
+     * @param nowNanos Instante actual.
+     * @return true si no hay espera en curso o si ya terminó; false si la ráfaga sigue abierta.
+     */
+    public boolean shouldShow(long nowNanos) {
+        if (!this.pending) {
+            return true;
+        }
+        if (nowNanos - this.deadlineNanos < 0) {
+            return false;
+        }
+        this.pending = false;
+        return true;
+    }
+
+    /**
+     * @param nowNanos Instante actual.
+     * @return nanosegundos que faltan para que termine la espera; 0 si no hay espera o ya terminó.
+     */
+    public long remainingNanos(long nowNanos) {
+        return this.pending ? Math.max(0, this.deadlineNanos - nowNanos) : 0;
+    }
+}
@@ -0,0 +1,375 @@
+package univalle.tedesoft.sudoku.views;
+
+import javafx.util.Pair;
+import univalle.tedesoft.sudoku.controllers.GameController;
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.Cell;
+import univalle.tedesoft.sudoku.models.Solvability;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vista del juego Sudoku para una terminal ANSI. Dibuja el tablero con secuencias
+ * de escape y lee las jugadas desde la entrada estándar, sin iniciar el toolkit de JavaFX.
+ * Funciona con su propio ciclo de eventos: un hilo lector convierte las líneas de la
+ * entrada en comandos y el hilo del ciclo ejecuta comandos y tareas publicadas por el
+ * controlador, así que todas las llamadas de IGameView ocurren en ese único hilo.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class TerminalGameView implements IGameView {
+    // Secuencias de escape ANSI
+    private static final String ANSI_CLEAR = "\u001B[H\u001B[2J";
+    private static final String ANSI_RESET = "\u001B[0m";
+    private static final String ANSI_BOLD = "\u001B[1m";
+    private static final String ANSI_ERROR = "\u001B[41;97m";
+    private static final String ANSI_DIM = "\u001B[2m";
+    private static final int GRID_SIZE = Board.GRID_SIZE;
+    private static final int BLOCK_ROWS = Board.BLOCK_ROWS;
+    private static final int BLOCK_COLS = Board.BLOCK_COLS;
+    /**
+     * Marca de fin de entrada entregada por el hilo lector.
+     */
+    private static final String END_OF_INPUT = "\u0000EOF";
+    /**
+     * Tiempo máximo de espera por una línea antes de atender tareas del controlador.
+     */
+    private static final long POLL_MILLIS = 20;
+
+    private final PrintStream out;
+    private final BufferedReader in;
+    /**
+     * Líneas leídas por el hilo lector, pendientes de procesar.
+     */
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    /**
+     * Tareas publicadas por el controlador para correr en el hilo del ciclo.
+     */
+    private final BlockingQueue<Runnable> uiTasks = new LinkedBlockingQueue<>();
+    private final ConflictFeedback conflictFeedback = new ConflictFeedback();
+
+    private GameController controller;
+    private Cell[][] grid;
+    private Set<Pair<Integer, Integer>> errorCoords = new HashSet<>();
+    private boolean gridDisabled = false;
+    private boolean busy = false;
+    private boolean running = true;
+    private boolean dirty = true;
+    private String message = "";
+    private String solvabilityMessage = "";
+
+    /**
+     * Crea la vista sobre los flujos dados.
+     * @param in Flujo de entrada de donde se leen los comandos.
+     * @param out Flujo de salida donde se dibuja el tablero.
+     */
+    public TerminalGameView(InputStream in, PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.out = out;
+    }
+
+    /**
+     * Establece el controlador al que se delegan las jugadas.
+     * @param controller El controlador del juego.
+     */
+    public void setController(GameController controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * Publica una tarea para que corra en el hilo del ciclo de eventos.
+     * Es el ejecutor de interfaz que recibe el GameController.
+     * @param task Tarea a ejecutar.
+     */
+    public void runOnLoop(Runnable task) {
+        this.uiTasks.add(task);
+    }
+
+    /**
+     * Corre el ciclo de eventos hasta que el jugador sale o se acaba la entrada.
+     * Debe llamarse desde el hilo que actuará como hilo de interfaz.
+     */
+    public void run() {
+        Thread reader = new Thread(this::readLines, "sudoku-terminal-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            while (this.running) {
+                Runnable task;
+                while ((task = this.uiTasks.poll()) != null) {
+                    task.run();
+                }
+                if (this.dirty) {
+                    this.draw();
+                    this.dirty = false;
+                }
+                String line = this.lines.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (line != null) {
+                    this.handleLine(line);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.out.println(ANSI_RESET + "Hasta luego.");
+    }
+
+    /**
+     * Lee líneas de la entrada y las encola para el ciclo de eventos.
+     */
+    private void readLines() {
+        try {
+            String line;
+            while ((line = this.in.readLine()) != null) {
+                this.lines.add(line);
+            }
+        } catch (IOException e) {
+            System.err.println("Error leyendo la entrada: " + e.getMessage());
+        }
+        this.lines.add(END_OF_INPUT);
+    }
+
+    /**
+     * Interpreta un comando del jugador.
+     * @param rawLine La línea leída.
+     */
+    private void handleLine(String rawLine) {
+        if (END_OF_INPUT.equals(rawLine)) {
+            this.running = false;
+            return;
+        }
+        String line = rawLine.trim().toLowerCase();
+        this.message = "";
+        this.dirty = true;
+        switch (line) {
+            case "" -> { }
+            case "s", "salir" -> this.running = false;
+            case "n", "nuevo" -> this.controller.startNewGame();
+            case "l", "limpiar" -> this.controller.clearUserEntries();
+            case "p", "pista" -> this.controller.showClue();
+            case "a", "?", "ayuda" -> this.controller.showHelp();
+            default -> this.handleMove(line);
+        }
+    }
+
+    /**
+     * Interpreta una jugada con el formato "fila columna valor" (1-6, valor 0 para borrar).
+     * @param line La línea con la jugada.
+     */
+    private void handleMove(String line) {
+        String[] parts = line.split("[\\s,]+");
+        if (parts.length != 3) {
+            this.message = "Comando no reconocido. Escribe 'a' para ver la ayuda.";
+            return;
+        }
+        int row;
+        int col;
+        int value;
+        try {
+            row = Integer.parseInt(parts[0]) - 1;
+            col = Integer.parseInt(parts[1]) - 1;
+            value = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException e) {
+            this.message = "La jugada debe ser: fila columna valor (por ejemplo: 2 5 3).";
+            return;
+        }
+        if (row < 0 || row >= GRID_SIZE || col < 0 || col >= GRID_SIZE || value < 0 || value > GRID_SIZE) {
+            this.message = "Fila y columna van de 1 a " + GRID_SIZE + "; el valor de 0 a " + GRID_SIZE + ".";
+            return;
+        }
+        if (this.busy || this.gridDisabled || this.grid == null) {
+            this.message = "El tablero no acepta jugadas en este momento.";
+            return;
+        }
+        if (!this.grid[row][col].getEditable()) {
+            this.message = "Esa celda es fija.";
+            return;
+        }
+        // Igual que el TextField de la vista JavaFX: la vista refleja el valor y avisa al controlador
+        this.grid[row][col] = new Cell(value, true);
+        this.controller.cellValueChanged(row, col, value == 0 ? "" : String.valueOf(value));
+    }
+
+    /**
+     * Dibuja el tablero completo, el estado y la línea de comandos.
+     */
+    private void draw() {
+        StringBuilder sb = new StringBuilder(ANSI_CLEAR);
+        sb.append(ANSI_BOLD).append("SUDOKU 6x6").append(ANSI_RESET).append('\n').append('\n');
+        sb.append("      ");
+        for (int col = 0; col < GRID_SIZE; col++) {
+            sb.append(col + 1).append(' ');
+            if ((col + 1) % BLOCK_COLS == 0) {
+                sb.append("  ");
+            }
+        }
+        sb.append('\n');
+        String separator = "    +" + ("-".repeat(BLOCK_COLS * 2 + 1) + "+").repeat(GRID_SIZE / BLOCK_COLS) + '\n';
+        for (int row = 0; row < GRID_SIZE; row++) {
+            if (row % BLOCK_ROWS == 0) {
+                sb.append(separator);
+            }
+            sb.append("  ").append(row + 1).append(" | ");
+            for (int col = 0; col < GRID_SIZE; col++) {
+                this.appendCell(sb, row, col);
+                sb.append(' ');
+                if ((col + 1) % BLOCK_COLS == 0) {
+                    sb.append("| ");
+                }
+            }
+            sb.append('\n');
+        }
+        sb.append(separator).append('\n');
+
+        String conflicts = this.conflictFeedback.getMessage();
+        if (!conflicts.isEmpty()) {
+            sb.append(ANSI_ERROR).append(conflicts).append(ANSI_RESET).append('\n');
+        } else if (!this.solvabilityMessage.isEmpty()) {
+            sb.append(ANSI_ERROR).append(this.solvabilityMessage).append(ANSI_RESET).append('\n');
+        }
+        if (this.busy) {
+            sb.append(ANSI_DIM).append("Trabajando...").append(ANSI_RESET).append('\n');
+        }
+        if (!this.message.isEmpty()) {
+            sb.append(this.message).append('\n');
+        }
+        sb.append("Jugada (fila columna valor) | p: pista | l: limpiar | n: nuevo | a: ayuda | s: salir\n> ");
+        this.out.print(sb);
+        this.out.flush();
+    }
+
+    /**
+     * Agrega al texto la representación de una celda: fijas en negrita, errores resaltados.
+     * @param sb Texto en construcción.
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     */
+    private void appendCell(StringBuilder sb, int row, int col) {
+        if (this.grid == null) {
+            sb.append('.');
+            return;
+        }
+        Cell cell = this.grid[row][col];
+        String text = cell.getValue() == 0 ? "." : String.valueOf(cell.getValue());
+        boolean isError = this.errorCoords.contains(new Pair<>(row, col));
+        if (isError) {
+            sb.append(ANSI_ERROR).append(text).append(ANSI_RESET);
+        } else if (!cell.getEditable()) {
+            sb.append(ANSI_BOLD).append(text).append(ANSI_RESET);
+        } else {
+            sb.append(text);
+        }
+    }
+
+    /**
+     * Pide una confirmación s/n leyendo la siguiente línea de la entrada.
+     * Como un diálogo modal, el ciclo de eventos espera la respuesta.
+     * @param question La pregunta a mostrar.
+     * @return true si el jugador responde que sí.
+     */
+    private boolean confirm(String question) {
+        this.out.print(question + " (s/n): ");
+        this.out.flush();
+        try {
+            String answer = this.lines.take();
+            if (END_OF_INPUT.equals(answer)) {
+                this.running = false;
+                return false;
+            }
+            answer = answer.trim().toLowerCase();
+            return answer.equals("s") || answer.equals("si") || answer.equals("sí");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // -- Implementación de IGameView
+
+    @Override
+    public void renderBoard(Cell[][] gridData) {
+        this.grid = gridData;
+        this.dirty = true;
+    }
+
+    @Override
+    public void highlightErrors(Set<Pair<Integer, Integer>> newErrorCoords) {
+        this.errorCoords = new HashSet<>(newErrorCoords);
+        this.conflictFeedback.update(newErrorCoords);
+        this.dirty = true;
+    }
+
+    @Override
+    public void showSolvability(Solvability status) {
+        this.solvabilityMessage = ConflictFeedback.describe(status);
+        this.dirty = true;
+    }
+
+    @Override
+    public void setGridDisabled(boolean disable) {
+        this.gridDisabled = disable;
+        this.dirty = true;
+    }
+
+    @Override
+    public void setBusy(boolean busy) {
+        this.busy = busy;
+        this.dirty = true;
+    }
+
+    @Override
+    public void showHelpDialog() {
+        this.message = """
+                Completa la cuadrícula de 6x6 con números del 1 al 6.
+                - Cada fila, columna y bloque de 2x3 debe contener los números del 1 al 6 sin repetición.
+                - Los números en negrita son fijos; los marcados en rojo están en conflicto.
+                Jugada: fila columna valor (por ejemplo "2 5 3"); valor 0 borra la celda.
+                Comandos: p (pista), l (limpiar entradas), n (nuevo puzzle), a (ayuda), s (salir).""";
+        this.dirty = true;
+    }
+
+    @Override
+    public void showNoMoreCluesDialog() {
+        this.message = "No se puede dar una pista más sin completar el tablero.";
+        this.dirty = true;
+    }
+
+    @Override
+    public void showNoObviousCluesDialog() {
+        this.message = "No hay pistas obvias disponibles o el tablero está lleno/inválido.";
+        this.dirty = true;
+    }
+
+    @Override
+    public void showMaxCluesReachedDialog() {
+        this.message = "¿Realmente quieres ganar así? Ya no quedan pistas.";
+        this.dirty = true;
+    }
+
+    @Override
+    public void showWinDialog() {
+        this.message = ANSI_BOLD + "¡Sudoku resuelto! Escribe 'n' para jugar otro o 's' para salir." + ANSI_RESET;
+        this.dirty = true;
+    }
+
+    @Override
+    public boolean showRestartConfirmationDialog() {
+        return this.confirm("Esto generará un tablero nuevo y perderás el progreso actual. ¿Continuar?");
+    }
+
+    @Override
+    public boolean showClearConfirmationDialog() {
+        return this.confirm("¿Seguro que deseas borrar todos los números que has ingresado?");
+    }
+}
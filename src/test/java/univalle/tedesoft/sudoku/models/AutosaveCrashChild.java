@@ -0,0 +1,79 @@
+package univalle.tedesoft.sudoku.models;
+
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * JVM hija de AutosaveJournalCrashTest: juega sin pausa una partida determinista con el guardado
+ * automático y reporta por la salida estándar cada 100 jugadas encoladas, hasta que la prueba la mata.
+ * La misma partida se reconstruye en la prueba con startGame y play.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+final class AutosaveCrashChild {
+    /**
+     * Jugadas entre puntos de control, como en GameController.
+     */
+    static final int CHECKPOINT_INTERVAL = 64;
+    static final long SEED = 2024;
+
+    private AutosaveCrashChild() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        AutosaveJournal journal = new AutosaveJournal(Path.of(args[0]), AutosaveJournal.DEFAULT_SYNC_INTERVAL_MILLIS);
+        SavedGame game = new SavedGame();
+        SplittableRandom random = new SplittableRandom(SEED);
+        startGame(game);
+        journal.checkpoint(game);
+        journal.flush();
+        while (true) {
+            int index = play(game, random);
+            int position = game.getMovePosition();
+            if (position % CHECKPOINT_INTERVAL == 0) {
+                journal.checkpoint(game);
+            } else {
+                journal.append(position, index / 6, index % 6, game.getBoard().getValue(index), position);
+            }
+            if (position % 100 == 0) {
+                System.out.println(position);
+                System.out.flush();
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    /**
+     * Partida inicial: una pista por fila en la diagonal, el resto editable.
+     */
+    static void startGame(SavedGame game) {
+        PackedBoard board = game.getBoard();
+        board.set(0, 0, 0, 0, PackedBoard.ALL_CELLS_MASK);
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            board.setSolution(index, 1 + (index + index / 6 * 3) % 6);
+        }
+        for (int row = 0; row < 6; row++) {
+            int index = PackedBoard.index(row, row);
+            board.setValue(index, board.getSolution(index));
+            board.setEditable(index, false);
+        }
+        game.setMovePosition(0);
+        game.setElapsedMillis(0);
+    }
+
+    /**
+     * Aplica una jugada aleatoria sobre una celda editable.
+     * @return el índice de la celda.
+     */
+    static int play(SavedGame game, SplittableRandom random) {
+        PackedBoard board = game.getBoard();
+        int index;
+        do {
+            index = random.nextInt(PackedBoard.CELL_COUNT);
+        } while (!board.isEditable(index));
+        board.setValue(index, random.nextInt(7));
+        game.setMovePosition(game.getMovePosition() + 1);
+        game.setElapsedMillis(game.getMovePosition());
+        return index;
+    }
+}
@@ -0,0 +1,106 @@
+package univalle.tedesoft.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba la recuperación del guardado automático ante un fallo real: una JVM hija juega una partida
+ * determinista (AutosaveCrashChild), se mata a mitad de juego con destroyForcibly (equivalente a
+ * kill -9) y la partida se reconstruye desde el disco. El tablero recuperado debe coincidir con el
+ * de la partida en la jugada recuperada, también después de un registro interrumpido.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class AutosaveJournalCrashTest {
+    /**
+     * Jugadas reportadas por la hija antes de matarla.
+     */
+    private static final int KILL_AFTER = 5_000;
+
+    @Test
+    @Timeout(120)
+    void recoversExactBoardAfterKillAndTornRecords(@TempDir Path directory) throws Exception {
+        Process child = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", classPathOf(AutosaveJournal.class) + java.io.File.pathSeparator + classPathOf(AutosaveCrashChild.class),
+                AutosaveCrashChild.class.getName(), directory.toString())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        int lastReported = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(child.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lastReported = Integer.parseInt(line.trim());
+                if (lastReported >= KILL_AFTER) {
+                    child.destroyForcibly();
+                    break;
+                }
+            }
+        } finally {
+            child.destroyForcibly();
+            child.waitFor();
+        }
+        assertTrue(lastReported >= KILL_AFTER, "La hija terminó antes de tiempo en la jugada " + lastReported);
+
+        // La escritura es diferida: lo que no alcanzó el disco se pierde, pero lo recuperado es exacto
+        int recovered = verifyRecovery(directory);
+
+        // Registro interrumpido: bytes basura al final del diario
+        Path journalFile = directory.resolve("jugadas.log");
+        try (FileChannel journal = FileChannel.open(journalFile, StandardOpenOption.APPEND)) {
+            journal.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}));
+        }
+        assertEquals(recovered, verifyRecovery(directory), "El registro interrumpido cambió la recuperación");
+
+        // Último registro a medio escribir: se pierde esa jugada y nada más
+        long validLength = Files.size(journalFile) - 10;
+        if (validLength >= AutosaveJournal.RECORD_SIZE) {
+            try (FileChannel journal = FileChannel.open(journalFile, StandardOpenOption.WRITE)) {
+                journal.truncate(validLength - AutosaveJournal.RECORD_SIZE / 2);
+            }
+            assertEquals(recovered - 1, verifyRecovery(directory), "El registro cortado debería descartarse");
+        }
+    }
+
+    /**
+     * Recupera la partida del directorio y la compara con la partida determinista en esa jugada.
+     * @return la posición recuperada.
+     */
+    private static int verifyRecovery(Path directory) throws IOException {
+        SavedGame recovered = new SavedGame();
+        try (AutosaveJournal journal = new AutosaveJournal(directory, AutosaveJournal.DEFAULT_SYNC_INTERVAL_MILLIS)) {
+            assertTrue(journal.recover(recovered), "No se encontró partida guardada");
+        }
+        SavedGame expected = new SavedGame();
+        SplittableRandom random = new SplittableRandom(AutosaveCrashChild.SEED);
+        AutosaveCrashChild.startGame(expected);
+        for (int position = 1; position <= recovered.getMovePosition(); position++) {
+            AutosaveCrashChild.play(expected, random);
+        }
+        assertEquals(expected.getBoard(), recovered.getBoard(),
+                "Tablero recuperado distinto en la jugada " + recovered.getMovePosition());
+        assertEquals(expected.getElapsedMillis(), recovered.getElapsedMillis());
+        return recovered.getMovePosition();
+    }
+
+    /**
+     * @return el directorio o jar desde el que se cargó la clase, para la ruta de clases de la hija.
+     */
+    private static String classPathOf(Class<?> type) throws Exception {
+        return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+}
@@ -0,0 +1,35 @@
+package univalle.tedesoft.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Pruebas del identificador de puzzle: la generación es determinista y todos sus bits cuentan.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class BoardPuzzleIdTest {
+    private static final long BASE_ID = 0x0000000012345678L;
+
+    @Test
+    void sameIdGeneratesSameBoard() {
+        for (long mode : new long[]{0, Board.TRANSFORM_MODE_BIT}) {
+            long id = BASE_ID | mode;
+            assertEquals(Board.fromPuzzleId(id).toPacked(), Board.fromPuzzleId(id).toPacked());
+        }
+    }
+
+    @Test
+    void everySeedBitChangesTheBoard() {
+        for (long mode : new long[]{0, Board.TRANSFORM_MODE_BIT}) {
+            PackedBoard base = Board.fromPuzzleId(BASE_ID | mode).toPacked();
+            for (int bit = 0; bit < 63; bit++) {
+                long id = (BASE_ID ^ (1L << bit)) | mode;
+                assertNotEquals(base, Board.fromPuzzleId(id).toPacked(),
+                        "El bit " + bit + " del identificador no cambia el puzzle " + Board.formatPuzzleId(id));
+            }
+        }
+    }
+}
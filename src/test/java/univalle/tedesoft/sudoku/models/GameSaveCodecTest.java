@@ -0,0 +1,135 @@
+package univalle.tedesoft.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del formato binario de partidas guardadas y de la conversión entre Board y PackedBoard.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class GameSaveCodecTest {
+
+    @Test
+    void encodeThenDecodeRestoresEveryField() {
+        SplittableRandom random = new SplittableRandom(31);
+        ByteBuffer buffer = ByteBuffer.allocate(GameSaveCodec.ENCODED_SIZE);
+        SavedGame decoded = new SavedGame();
+        for (int g = 0; g < 1_000; g++) {
+            SavedGame game = randomGame(random);
+            buffer.clear();
+            GameSaveCodec.encode(game, buffer);
+            assertEquals(GameSaveCodec.ENCODED_SIZE, buffer.position());
+            buffer.flip();
+            GameSaveCodec.decode(buffer, decoded);
+            assertEquals(0, buffer.remaining());
+            assertEquals(game.getBoard(), decoded.getBoard());
+            assertEquals(game.getMovePosition(), decoded.getMovePosition());
+            assertEquals(game.getElapsedMillis(), decoded.getElapsedMillis());
+            assertEquals(game.getHintsUsed(), decoded.getHintsUsed());
+            assertEquals(game.hasPuzzleId(), decoded.hasPuzzleId());
+            assertEquals(game.getPuzzleId(), decoded.getPuzzleId());
+        }
+    }
+
+    @Test
+    void rejectsBadMagicVersionAndTruncatedInput() {
+        byte[] bytes = encode(randomGame(new SplittableRandom(7)));
+
+        byte[] badMagic = bytes.clone();
+        badMagic[0] = 'X';
+        assertThrows(IllegalArgumentException.class, () -> GameSaveCodec.decode(ByteBuffer.wrap(badMagic), new SavedGame()));
+
+        byte[] badVersion = bytes.clone();
+        badVersion[2] = 99;
+        assertThrows(IllegalArgumentException.class, () -> GameSaveCodec.decode(ByteBuffer.wrap(badVersion), new SavedGame()));
+
+        ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, GameSaveCodec.ENCODED_SIZE - 1);
+        assertThrows(IllegalArgumentException.class, () -> GameSaveCodec.decode(truncated, new SavedGame()));
+
+        byte[] badCell = bytes.clone();
+        badCell[3] = (byte) 0x07; // Valor 7 en la primera celda
+        assertThrows(IllegalArgumentException.class, () -> GameSaveCodec.decode(ByteBuffer.wrap(badCell), new SavedGame()));
+
+        byte[] badFlags = bytes.clone();
+        badFlags[49] = 0x02;
+        assertThrows(IllegalArgumentException.class, () -> GameSaveCodec.decode(ByteBuffer.wrap(badFlags), new SavedGame()));
+    }
+
+    @Test
+    void puzzleIdSurvivesTheRoundTrip() {
+        SavedGame game = randomGame(new SplittableRandom(11));
+        game.setPuzzleId(0xF123456789ABCDEFL);
+        SavedGame decoded = new SavedGame();
+        GameSaveCodec.decode(ByteBuffer.wrap(encode(game)), decoded);
+        assertTrue(decoded.hasPuzzleId());
+        assertEquals(game.getPuzzleId(), decoded.getPuzzleId());
+
+        game.clearPuzzleId();
+        GameSaveCodec.decode(ByteBuffer.wrap(encode(game)), decoded);
+        assertFalse(decoded.hasPuzzleId());
+
+        Board restored = Board.fromPacked(decoded.getBoard(), 0x1234L);
+        assertEquals(0x1234L, restored.getPuzzleId());
+    }
+
+    @Test
+    void boardRoundTripsThroughPackedBoard() {
+        SplittableRandom random = new SplittableRandom(37);
+        for (int i = 0; i < 50; i++) {
+            Board board = Board.fromPuzzleId(random.nextLong());
+            // Algunas jugadas del jugador sobre celdas editables
+            for (int move = 0; move < 10; move++) {
+                int row = random.nextInt(Board.GRID_SIZE);
+                int col = random.nextInt(Board.GRID_SIZE);
+                board.setCellValue(row, col, random.nextInt(Board.GRID_SIZE + 1));
+            }
+            PackedBoard packed = new PackedBoard();
+            board.writeTo(packed);
+            Board restored = Board.fromPacked(packed);
+
+            Cell[][] expected = board.getGridSnapshot();
+            Cell[][] actual = restored.getGridSnapshot();
+            for (int row = 0; row < Board.GRID_SIZE; row++) {
+                for (int col = 0; col < Board.GRID_SIZE; col++) {
+                    assertEquals(expected[row][col].getValue(), actual[row][col].getValue());
+                    assertEquals(expected[row][col].getEditable(), actual[row][col].getEditable());
+                }
+            }
+            assertEquals(packed, restored.toPacked());
+        }
+    }
+
+    private static byte[] encode(SavedGame game) {
+        ByteBuffer buffer = ByteBuffer.allocate(GameSaveCodec.ENCODED_SIZE);
+        GameSaveCodec.encode(game, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * Partida con valores, solución y máscara aleatorios pero válidos.
+     */
+    private static SavedGame randomGame(SplittableRandom random) {
+        SavedGame game = new SavedGame();
+        PackedBoard board = game.getBoard();
+        for (int i = 0; i < PackedBoard.CELL_COUNT; i++) {
+            board.setValue(i, random.nextInt(7));
+            board.setSolution(i, 1 + random.nextInt(6));
+            board.setEditable(i, random.nextBoolean());
+        }
+        game.setMovePosition(random.nextInt(1_000));
+        game.setElapsedMillis(random.nextLong(86_400_000L));
+        game.setHintsUsed(random.nextInt(11));
+        if (random.nextBoolean()) {
+            game.setPuzzleId(random.nextLong());
+        }
+        return game;
+    }
+}
@@ -0,0 +1,62 @@
+package univalle.tedesoft.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas de la comprobación de resolubilidad: SOLVABLE si las entradas siguen la solución
+ * guardada, DIVERGES si se apartan de ella pero el tablero se puede completar y NO_SOLUTION si no.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class GameStateSolvabilityTest {
+
+    @Test
+    void entriesFollowingStoredSolutionAreSolvable() {
+        PackedBoard packed = Board.fromPuzzleId(48).toPacked();
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index += 5) {
+            if (packed.isEditable(index)) {
+                packed.setValue(index, packed.getSolution(index));
+            }
+        }
+        assertEquals(Solvability.SOLVABLE, GameState.solvabilityOf(packed, null));
+    }
+
+    @Test
+    void otherValidSolutionDiverges() {
+        PackedBoard solved = Board.fromPuzzleId(48).toPacked();
+        // Sin pistas: todo tablero válido es una solución del puzzle, aunque no sea la guardada
+        PackedBoard packed = new PackedBoard();
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            packed.setSolution(index, solved.getSolution(index));
+            packed.setEditable(index, true);
+            packed.setValue(index, relabel(solved.getSolution(index)));
+        }
+        assertEquals(Solvability.DIVERGES, GameState.solvabilityOf(packed, null));
+        packed.setValue(0, 0);
+        assertEquals(Solvability.DIVERGES, GameState.solvabilityOf(packed, null), "Aún se puede completar");
+    }
+
+    @Test
+    void contradictoryEntriesHaveNoSolution() {
+        PackedBoard packed = Board.fromPuzzleId(48).toPacked();
+        int wrong = 0;
+        while (!packed.isEditable(wrong)) {
+            wrong++;
+        }
+        // Tablero lleno con la solución salvo una celda editable con otro valor: choca en su fila
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            packed.setValue(index, packed.getSolution(index));
+        }
+        packed.setValue(wrong, packed.getSolution(wrong) % Board.GRID_SIZE + 1);
+        assertEquals(Solvability.NO_SOLUTION, GameState.solvabilityOf(packed, null));
+    }
+
+    /**
+     * Renombra los dígitos (1 → 2, ..., 6 → 1): lleva una solución válida a otra distinta.
+     */
+    private static int relabel(int digit) {
+        return digit % Board.GRID_SIZE + 1;
+    }
+}
@@ -0,0 +1,84 @@
+package univalle.tedesoft.sudoku.models;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del conteo paralelo de soluciones: coincide con el conteo secuencial de SudokuSolver,
+ * se detiene exactamente en el límite y reconoce pistas contradictorias.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class ParallelSolutionCounterTest {
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void matchesSequentialCountOnSparseBoards() {
+        SplittableRandom random = new SplittableRandom(50);
+        ParallelSolutionCounter counter = new ParallelSolutionCounter(Board.GRID_SIZE, Board.BLOCK_ROWS,
+                Board.BLOCK_COLS, pool, ParallelSolutionCounter.DEFAULT_SPLIT_DEPTH);
+        for (int givens = 4; givens <= 12; givens += 4) {
+            int[] cells = sparseBoard(random, givens);
+            long sequential = SudokuSolver.SIX_BY_SIX.countSolutions(cells, Long.MAX_VALUE, null);
+            assertTrue(sequential > 1, "Un tablero disperso debería tener varias soluciones");
+            assertEquals(sequential, counter.countSolutions(cells, Long.MAX_VALUE), "Con " + givens + " pistas");
+            assertEquals(sequential, SudokuSolver.SIX_BY_SIX.countSolutions(cells, Integer.MAX_VALUE, null, null));
+        }
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        int[] cells = sparseBoard(new SplittableRandom(51), 4);
+        for (int splitDepth = 0; splitDepth <= 6; splitDepth += 3) {
+            ParallelSolutionCounter counter = new ParallelSolutionCounter(Board.GRID_SIZE, Board.BLOCK_ROWS,
+                    Board.BLOCK_COLS, pool, splitDepth);
+            assertEquals(1_000, counter.countSolutions(cells, 1_000));
+            assertEquals(1, counter.countSolutions(cells, 1));
+        }
+    }
+
+    @Test
+    void contradictoryGivensHaveNoSolutions() {
+        int[] cells = new int[PackedBoard.CELL_COUNT];
+        cells[0] = 3;
+        cells[5] = 3; // Misma fila
+        ParallelSolutionCounter counter = new ParallelSolutionCounter(Board.GRID_SIZE, Board.BLOCK_ROWS,
+                Board.BLOCK_COLS, pool, ParallelSolutionCounter.DEFAULT_SPLIT_DEPTH);
+        assertEquals(0, counter.countSolutions(cells, Long.MAX_VALUE));
+        assertEquals(0, SudokuSolver.SIX_BY_SIX.countSolutions(cells, Long.MAX_VALUE, null));
+    }
+
+    /**
+     * Conserva {@code givens} celdas al azar de una cuadrícula resuelta y vacía las demás.
+     */
+    private static int[] sparseBoard(SplittableRandom random, int givens) {
+        PackedBoard grid = new PackedBoard();
+        SolutionGridGenerator.generate(random, grid);
+        int[] cells = new int[PackedBoard.CELL_COUNT];
+        for (int kept = 0; kept < givens; ) {
+            int index = random.nextInt(PackedBoard.CELL_COUNT);
+            if (cells[index] == 0) {
+                cells[index] = grid.getValue(index);
+                kept++;
+            }
+        }
+        return cells;
+    }
+}
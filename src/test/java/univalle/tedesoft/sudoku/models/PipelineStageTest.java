@@ -0,0 +1,150 @@
+package univalle.tedesoft.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de las etapas de la línea de producción: el fin del flujo llega a la última etapa, una
+ * etapa lenta frena a las anteriores, abort no deja a nadie bloqueado y un error al guardar
+ * detiene la línea de puzzles.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class PipelineStageTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(20);
+
+    @Test
+    void endOfStreamReachesTheLastStage() {
+        Set<Integer> received = ConcurrentHashMap.newKeySet();
+        PipelineStage<Integer, Integer> doubler = new PipelineStage<>("doble", 8, 4, (item, emit) -> emit.accept(item * 2));
+        PipelineStage<Integer, Integer> odd = new PipelineStage<>("filtro", 8, 4, (item, emit) -> {
+            if (item % 4 == 0) {
+                emit.accept(item);
+            }
+        });
+        PipelineStage<Integer, Void> sink = new PipelineStage<>("final", 8, 1, (item, emit) -> received.add(item));
+        doubler.connect(odd).connect(sink);
+        doubler.setWorkers(3);
+        odd.setWorkers(2);
+        sink.setWorkers(1);
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            for (int i = 0; i < 1_000; i++) {
+                doubler.put(i);
+            }
+            doubler.closeInput();
+            sink.awaitFinished();
+        });
+        assertTrue(doubler.isFinished() && odd.isFinished());
+        assertEquals(1_000, doubler.getProcessed());
+        assertEquals(500, odd.getEmitted());
+        assertEquals(500, received.size());
+        assertEquals(0, sink.getWorkers());
+        assertThrows(IllegalStateException.class, () -> doubler.put(1));
+    }
+
+    @Test
+    void slowStageBlocksUpstream() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PipelineStage<Integer, Integer> fast = new PipelineStage<>("rapida", 4, 1, (item, emit) -> emit.accept(item));
+        PipelineStage<Integer, Void> slow = new PipelineStage<>("lenta", 4, 1, (item, emit) -> release.await());
+        fast.connect(slow);
+        fast.setWorkers(1);
+        slow.setWorkers(1);
+        CountDownLatch fed = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 100; i++) {
+                    fast.put(i);
+                }
+                fast.closeInput();
+                fed.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        // En la lenta: uno en proceso y su cola llena; en la rápida: uno entregando y su cola llena
+        assertFalse(fed.await(300, TimeUnit.MILLISECONDS), "El productor debería quedar frenado");
+        assertEquals(slow.getQueueCapacity(), slow.getQueueDepth());
+        assertEquals(fast.getQueueCapacity(), fast.getQueueDepth());
+        assertTrue(fast.getEmitted() <= 1 + slow.getQueueCapacity() + 1);
+
+        release.countDown();
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            fed.await();
+            slow.awaitFinished();
+        });
+        assertEquals(100, slow.getProcessed());
+        assertTrue(fast.getBlockedNanos() > 0, "La entrega a la etapa lenta debería haber esperado");
+        producer.join();
+    }
+
+    @Test
+    void abortReleasesBlockedProducers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PipelineStage<Integer, Integer> first = new PipelineStage<>("primera", 2, 1, (item, emit) -> emit.accept(item));
+        PipelineStage<Integer, Void> stuck = new PipelineStage<>("detenida", 2, 1, (item, emit) -> release.await(50, TimeUnit.MILLISECONDS));
+        first.connect(stuck);
+        first.setWorkers(1);
+        stuck.setWorkers(1);
+        assertTimeoutPreemptively(TIMEOUT, () -> {
+            Thread producer = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 1_000; i++) {
+                        first.put(i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producer.start();
+            Thread.sleep(100);
+            first.abort();
+            stuck.abort();
+            producer.join();
+            first.awaitFinished();
+            stuck.awaitFinished();
+        });
+        assertTrue(stuck.getProcessed() < 1_000);
+    }
+
+    @Test
+    void storageFailureStopsThePipeline(@TempDir Path dir) throws IOException {
+        IOException diskFull = new IOException("No queda espacio en el dispositivo");
+        try (PuzzleLibraryWriter writer = new PuzzleLibraryWriter(dir.resolve("biblioteca.lib")) {
+            private int added;
+
+            @Override
+            public void add(PackedBoard puzzle, int difficulty) throws IOException {
+                if (++this.added > 3) {
+                    throw diskFull;
+                }
+                super.add(puzzle, difficulty);
+            }
+        }) {
+            PuzzlePipeline pipeline = new PuzzlePipeline(writer, 1_000, 6);
+            IOException thrown = assertTimeoutPreemptively(TIMEOUT,
+                    () -> assertThrows(IOException.class, () -> pipeline.run(1, null)));
+            assertSame(diskFull, thrown);
+            assertEquals(3, pipeline.getStored());
+            for (PipelineStage<?, ?> stage : pipeline.getStages()) {
+                assertTrue(stage.isFinished(), "La etapa " + stage.getName() + " debería haber terminado");
+            }
+        }
+    }
+}
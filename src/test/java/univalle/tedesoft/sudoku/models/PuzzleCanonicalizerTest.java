@@ -0,0 +1,115 @@
+package univalle.tedesoft.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Pruebas de la forma canónica sobre una muestra acotada de puzzles aleatorios: las variantes
+ * simétricas comparten huella y las clases distintas no chocan.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class PuzzleCanonicalizerTest {
+    private static final int PUZZLES = 500;
+    private static final int VARIANTS = 5;
+
+    private final PuzzleCanonicalizer canonicalizer = new PuzzleCanonicalizer();
+
+    @Test
+    void symmetricVariantsShareCanonicalForm() {
+        SplittableRandom random = new SplittableRandom(7);
+        PackedBoard puzzle = new PackedBoard();
+        PackedBoard variant = new PackedBoard();
+        PackedBoard canonical = new PackedBoard();
+        PackedBoard variantCanonical = new PackedBoard();
+        int[] relabel = new int[7];
+        for (int n = 0; n < PUZZLES; n++) {
+            randomPuzzle(random, puzzle);
+            long fingerprint = this.canonicalizer.fingerprint(puzzle);
+            this.canonicalizer.canonicalize(puzzle, canonical);
+            for (int k = 0; k < VARIANTS; k++) {
+                randomRelabel(random, relabel);
+                int transform = random.nextInt(PuzzleCanonicalizer.TRANSFORM_COUNT);
+                PuzzleCanonicalizer.applyTransform(puzzle, transform, relabel, variant);
+                this.canonicalizer.canonicalize(variant, variantCanonical);
+                assertEquals(canonical, variantCanonical, "Transformación " + transform);
+                assertEquals(fingerprint, this.canonicalizer.fingerprint(variant), "Transformación " + transform);
+            }
+        }
+    }
+
+    @Test
+    void distinctCanonicalFormsDoNotCollide() {
+        SplittableRandom random = new SplittableRandom(11);
+        Map<Long, PackedBoard> byFingerprint = new HashMap<>();
+        PackedBoard puzzle = new PackedBoard();
+        for (int n = 0; n < PUZZLES * VARIANTS; n++) {
+            randomPuzzle(random, puzzle);
+            PackedBoard canonical = new PackedBoard();
+            this.canonicalizer.canonicalize(puzzle, canonical);
+            PackedBoard previous = byFingerprint.putIfAbsent(this.canonicalizer.fingerprint(puzzle), canonical);
+            if (previous != null) {
+                assertEquals(previous, canonical, "Dos formas canónicas distintas comparten huella.");
+            }
+        }
+    }
+
+    @Test
+    void differentGivenCountIsAnotherClass() {
+        // Ninguna simetría cambia el número de pistas, así que quitar una da otra clase
+        SplittableRandom random = new SplittableRandom(13);
+        PackedBoard puzzle = new PackedBoard();
+        PackedBoard fewer = new PackedBoard();
+        for (int n = 0; n < PUZZLES; n++) {
+            randomPuzzle(random, puzzle);
+            fewer.copyFrom(puzzle);
+            for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+                if (!fewer.isEditable(index)) {
+                    fewer.setValue(index, 0);
+                    fewer.setEditable(index, true);
+                    break;
+                }
+            }
+            if (!fewer.equals(puzzle)) {
+                assertNotEquals(this.canonicalizer.fingerprint(puzzle), this.canonicalizer.fingerprint(fewer));
+            }
+        }
+    }
+
+    /**
+     * Puzzle aleatorio a partir de una solución válida desplazada, con la mitad de celdas vacías.
+     */
+    private static void randomPuzzle(SplittableRandom random, PackedBoard puzzle) {
+        int[] relabel = new int[7];
+        randomRelabel(random, relabel);
+        puzzle.set(0, 0, 0, 0, 0);
+        for (int row = 0; row < Board.GRID_SIZE; row++) {
+            for (int col = 0; col < Board.GRID_SIZE; col++) {
+                int index = PackedBoard.index(row, col);
+                int solution = relabel[1 + ((row % 2) * 3 + row / 2 + col) % 6];
+                puzzle.setSolution(index, solution);
+                boolean given = random.nextBoolean();
+                puzzle.setValue(index, given ? solution : 0);
+                puzzle.setEditable(index, !given);
+            }
+        }
+    }
+
+    private static void randomRelabel(SplittableRandom random, int[] relabel) {
+        for (int d = 1; d <= 6; d++) {
+            relabel[d] = d;
+        }
+        for (int d = 6; d > 1; d--) {
+            int j = 1 + random.nextInt(d);
+            int tmp = relabel[d];
+            relabel[d] = relabel[j];
+            relabel[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package univalle.tedesoft.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la vista IBoard sobre el motor de partidas: las celdas escriben en el motor,
+ * también su marca de editable.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class SessionBoardTest {
+
+    @Test
+    void cellEditableFlagWritesThroughToTheEngine() {
+        GameSessionEngine engine = new GameSessionEngine();
+        int session = engine.create(Board.fromPuzzleId(42).toPacked());
+        SessionBoard board = engine.board(session);
+        int row = -1;
+        int col = -1;
+        for (int index = 0; index < PackedBoard.CELL_COUNT && row < 0; index++) {
+            if (engine.isEditable(session, index / Board.GRID_SIZE, index % Board.GRID_SIZE)) {
+                row = index / Board.GRID_SIZE;
+                col = index % Board.GRID_SIZE;
+            }
+        }
+        ICell cell = board.getCell(row, col);
+        assertTrue(cell.getEditable());
+        assertTrue(board.setCellValue(row, col, 3));
+
+        int emptyBefore = board.countEmptyEditableCells();
+        cell.setEditable(false);
+        assertFalse(engine.isEditable(session, row, col));
+        assertFalse(board.getGridSnapshot()[row][col].getEditable());
+        assertFalse(board.setCellValue(row, col, 4), "Una celda fija no acepta jugadas");
+        assertEquals(3, cell.getValue());
+        assertEquals(emptyBefore, board.countEmptyEditableCells());
+
+        cell.setEditable(true);
+        assertTrue(board.setCellValue(row, col, 0));
+        assertEquals(emptyBefore + 1, board.countEmptyEditableCells());
+
+        // Las demás partidas no cambian
+        int other = engine.create(Board.fromPuzzleId(42).toPacked());
+        assertTrue(engine.isEditable(other, row, col));
+    }
+}
@@ -0,0 +1,218 @@
+package univalle.tedesoft.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del tablero compartido con varios hilos jugando sobre la misma partida, con una
+ * cantidad fija de jugadas: los lectores del registro ven los cambios de cada celda en el orden en
+ * que se aplicaron y reconstruyen el tablero final, se publica un cambio por jugada aplicada y, en
+ * modo competitivo, los puntos suman las celdas ganadas y ninguna celda ganada vuelve a cambiar.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class SharedBoardTest {
+    private static final int THREADS = 4;
+    private static final int PLAYERS = 32;
+    private static final int MOVES_PER_THREAD = 50_000;
+    private static final int FEED_READERS = 2;
+
+    @Test
+    void cooperativeFeedPreservesPerCellOrder() throws InterruptedException {
+        this.play(SharedGameMode.COOPERATIVE);
+    }
+
+    @Test
+    void competitiveScoresMatchWonCells() throws InterruptedException {
+        SharedBoard board = this.play(SharedGameMode.COMPETITIVE);
+        PackedBoard puzzle = puzzle();
+        long total = 0;
+        for (int player = 0; player < PLAYERS; player++) {
+            total += board.getScore(player);
+        }
+        int correct = 0;
+        for (int index : editableCells(puzzle)) {
+            if (board.getValue(index / Board.GRID_SIZE, index % Board.GRID_SIZE) == puzzle.getSolution(index)) {
+                correct++;
+            }
+        }
+        assertTrue(correct > 0, "La prueba debería ganar celdas");
+        assertEquals(correct, total, "Los puntos deben sumar las celdas ganadas");
+    }
+
+    @Test
+    void rejectsStaleAndFixedMoves() {
+        PackedBoard puzzle = puzzle();
+        SharedBoard board = new SharedBoard(puzzle, SharedGameMode.COMPETITIVE, 2);
+        int index = editableCells(puzzle)[0];
+        int row = index / Board.GRID_SIZE;
+        int col = index % Board.GRID_SIZE;
+        int wrong = puzzle.getSolution(index) % Board.GRID_SIZE + 1;
+        assertEquals(SharedBoard.Outcome.APPLIED, board.move(0, row, col, 0, wrong));
+        assertEquals(SharedBoard.Outcome.CONFLICT, board.move(1, row, col, 0, wrong));
+        assertEquals(SharedBoard.Outcome.APPLIED, board.move(1, row, col, wrong, puzzle.getSolution(index)));
+        assertEquals(SharedBoard.Outcome.CLAIMED, board.move(0, row, col, puzzle.getSolution(index), 0));
+        assertEquals(1, board.getScore(1));
+        for (int fixed = 0; fixed < PackedBoard.CELL_COUNT; fixed++) {
+            if (!puzzle.isEditable(fixed)) {
+                assertEquals(SharedBoard.Outcome.NOT_EDITABLE, board.move(0, fixed / Board.GRID_SIZE,
+                        fixed % Board.GRID_SIZE, puzzle.getValue(fixed), 0));
+                break;
+            }
+        }
+        assertEquals(2, board.getChangeCount());
+    }
+
+    /**
+     * Juega MOVES_PER_THREAD jugadas en cada hilo con lectores del registro en paralelo y verifica
+     * el registro contra el tablero final.
+     */
+    private SharedBoard play(SharedGameMode mode) throws InterruptedException {
+        PackedBoard puzzle = puzzle();
+        // Registro con espacio para todas las jugadas: ningún lector puede perder cambios
+        SharedBoard board = new SharedBoard(puzzle, mode, PLAYERS, Integer.highestOneBit(THREADS * MOVES_PER_THREAD) << 1);
+        int[] editable = editableCells(puzzle);
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder applied = new LongAdder();
+        List<FeedReader> readers = new ArrayList<>();
+        List<Thread> readerThreads = new ArrayList<>();
+        for (int r = 0; r < FEED_READERS; r++) {
+            FeedReader reader = new FeedReader(board, puzzle, running);
+            readers.add(reader);
+            readerThreads.add(new Thread(reader, "lector-" + r));
+        }
+        List<Thread> players = new ArrayList<>();
+        Throwable[] failures = new Throwable[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            SplittableRandom random = new SplittableRandom(45 + t);
+            players.add(new Thread(() -> {
+                try {
+                    for (int n = 0; n < MOVES_PER_THREAD; n++) {
+                        int player = thread * PLAYERS / THREADS + random.nextInt(PLAYERS / THREADS);
+                        int index = editable[random.nextInt(editable.length)];
+                        int row = index / Board.GRID_SIZE;
+                        int col = index % Board.GRID_SIZE;
+                        int seen = board.getValue(row, col);
+                        if (random.nextInt(4) == 0) {
+                            Thread.yield(); // La vista del jugador puede quedar vieja
+                        }
+                        int value = mode == SharedGameMode.COMPETITIVE && random.nextInt(8) == 0
+                                ? puzzle.getSolution(index) : random.nextInt(Board.GRID_SIZE + 1);
+                        SharedBoard.Outcome outcome = board.move(player, row, col, seen, value);
+                        assertNotEquals(SharedBoard.Outcome.NOT_EDITABLE, outcome);
+                        if (outcome == SharedBoard.Outcome.APPLIED) {
+                            applied.increment();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures[thread] = e;
+                }
+            }, "jugadores-" + t));
+        }
+        readerThreads.forEach(Thread::start);
+        players.forEach(Thread::start);
+        for (Thread thread : players) {
+            thread.join();
+        }
+        running.set(false);
+        for (Thread thread : readerThreads) {
+            thread.join();
+        }
+        for (Throwable failure : failures) {
+            if (failure != null) {
+                throw new AssertionError(failure);
+            }
+        }
+
+        assertTrue(applied.sum() > 0);
+        assertEquals(applied.sum(), board.getChangeCount(), "Un cambio publicado por jugada aplicada");
+        PackedBoard finalBoard = new PackedBoard();
+        board.snapshot(finalBoard);
+        for (FeedReader reader : readers) {
+            reader.finish();
+            assertEquals(0, reader.lost, "Cambios perdidos");
+            assertEquals(0, reader.orderViolations, "Cambios fuera de orden en su celda");
+            assertEquals(applied.sum(), reader.delivered);
+            assertEquals(finalBoard, reader.board, "El registro debe reconstruir el tablero final");
+            if (mode == SharedGameMode.COMPETITIVE) {
+                assertEquals(0, reader.changesFromSolved, "Una celda ganada cambió");
+            }
+        }
+        return board;
+    }
+
+    private static PackedBoard puzzle() {
+        return Board.fromPuzzleId(99).toPacked();
+    }
+
+    private static int[] editableCells(PackedBoard puzzle) {
+        int[] cells = new int[Long.bitCount(puzzle.getEditableMask())];
+        int n = 0;
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            if (puzzle.isEditable(index)) {
+                cells[n++] = index;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Lector del registro que reconstruye el tablero y cuenta los cambios fuera de orden.
+     */
+    private static final class FeedReader implements Runnable, SharedBoard.ChangeVisitor {
+        final SharedBoard.ChangeFeed feed;
+        final PackedBoard board = new PackedBoard();
+        final PackedBoard puzzle;
+        final AtomicBoolean running;
+        long orderViolations;
+        long changesFromSolved;
+        long delivered;
+        long lost;
+
+        FeedReader(SharedBoard shared, PackedBoard puzzle, AtomicBoolean running) {
+            // Se abre el registro antes de la foto; la partida aún no empezó, así que coinciden
+            this.feed = shared.openFeed();
+            shared.snapshot(this.board);
+            this.puzzle = puzzle;
+            this.running = running;
+        }
+
+        @Override
+        public void run() {
+            while (this.running.get()) {
+                if (this.feed.drain(this, 4096) == 0) {
+                    Thread.yield();
+                }
+            }
+        }
+
+        void finish() {
+            while (this.feed.drain(this, Integer.MAX_VALUE) > 0) {
+                // Cambios que quedaban al detener a los jugadores
+            }
+            this.lost = this.feed.getLostCount();
+        }
+
+        @Override
+        public void change(long sequence, int player, int index, int oldValue, int newValue) {
+            if (this.board.getValue(index) != oldValue) {
+                this.orderViolations++;
+            }
+            if (this.puzzle.isEditable(index) && oldValue == this.puzzle.getSolution(index)) {
+                this.changesFromSolved++;
+            }
+            this.board.setValue(index, newValue);
+            this.delivered++;
+        }
+    }
+}
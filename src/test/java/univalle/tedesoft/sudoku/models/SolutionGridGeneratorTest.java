@@ -0,0 +1,93 @@
+package univalle.tedesoft.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba estadística de la generación por transformación: cada cuadrícula generada debe ser válida,
+ * y la frecuencia de cada una de las 49 clases de equivalencia debe seguir su peso. Con una semilla
+ * fija, el estadístico chi-cuadrado (48 grados de libertad) no debe superar su valor crítico al 0,1%.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class SolutionGridGeneratorTest {
+    private static final int SAMPLES = 100_000;
+    /**
+     * Valor crítico de chi-cuadrado con 48 grados de libertad para una significancia de 0,001.
+     */
+    private static final double CRITICAL_VALUE = 84.04;
+
+    @Test
+    void orbitFrequenciesFollowTheirWeights() {
+        assertEquals(49, SolutionGridGenerator.ORBIT_COUNT);
+        PuzzleCanonicalizer canonicalizer = new PuzzleCanonicalizer();
+        Map<Long, Integer> orbitOf = new HashMap<>();
+        int totalWeight = 0;
+        for (int orbit = 0; orbit < SolutionGridGenerator.ORBIT_COUNT; orbit++) {
+            orbitOf.put(canonicalizer.fingerprint(SolutionGridGenerator.getRepresentative(orbit)), orbit);
+            totalWeight += SolutionGridGenerator.getWeight(orbit);
+        }
+        assertEquals(SolutionGridGenerator.ORBIT_COUNT, orbitOf.size(), "Dos representantes son equivalentes");
+        assertEquals(SolutionGridGenerator.NORMALIZED_GRID_COUNT, totalWeight);
+
+        int[] counts = new int[SolutionGridGenerator.ORBIT_COUNT];
+        SplittableRandom random = new SplittableRandom(39);
+        PackedBoard grid = new PackedBoard();
+        for (int n = 0; n < SAMPLES; n++) {
+            SolutionGridGenerator.generate(random, grid);
+            assertTrue(isValidGrid(grid), "Cuadrícula inválida en la muestra " + n);
+            Integer orbit = orbitOf.get(canonicalizer.fingerprint(grid));
+            assertNotNull(orbit, "Cuadrícula fuera de las clases de la tabla en la muestra " + n);
+            counts[orbit]++;
+        }
+
+        double chiSquare = 0;
+        for (int orbit = 0; orbit < counts.length; orbit++) {
+            double expected = (double) SAMPLES * SolutionGridGenerator.getWeight(orbit)
+                    / SolutionGridGenerator.NORMALIZED_GRID_COUNT;
+            double diff = counts[orbit] - expected;
+            chiSquare += diff * diff / expected;
+        }
+        assertTrue(chiSquare <= CRITICAL_VALUE, "chi2 = " + chiSquare + " supera " + CRITICAL_VALUE);
+    }
+
+    /**
+     * @return true si valores y solución coinciden, no hay celdas editables y cada fila, columna y
+     * bloque tiene los seis dígitos.
+     */
+    private static boolean isValidGrid(PackedBoard grid) {
+        if (grid.getEditableMask() != 0) {
+            return false;
+        }
+        int[] rows = new int[Board.GRID_SIZE];
+        int[] cols = new int[Board.GRID_SIZE];
+        int[] boxes = new int[Board.GRID_SIZE];
+        for (int row = 0; row < Board.GRID_SIZE; row++) {
+            for (int col = 0; col < Board.GRID_SIZE; col++) {
+                int index = PackedBoard.index(row, col);
+                int value = grid.getValue(index);
+                if (value < 1 || value != grid.getSolution(index)) {
+                    return false;
+                }
+                int bit = 1 << value;
+                int box = row / Board.BLOCK_ROWS * Board.NUM_BLOCK_COLS + col / Board.BLOCK_COLS;
+                rows[row] |= bit;
+                cols[col] |= bit;
+                boxes[box] |= bit;
+            }
+        }
+        for (int i = 0; i < Board.GRID_SIZE; i++) {
+            if (rows[i] != 0x7E || cols[i] != 0x7E || boxes[i] != 0x7E) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
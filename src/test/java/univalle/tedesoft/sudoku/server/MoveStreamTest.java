@@ -0,0 +1,148 @@
+package univalle.tedesoft.sudoku.server;
+
+import javafx.util.Pair;
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.GameState;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del flujo de jugadas por deltas (MoveStreamEncoder / MoveStreamDecoder): el cliente
+ * reconstruye cada estado del servidor, con las celdas inválidas de GameState, aunque los bytes
+ * lleguen en trozos; y si se pierden tramas delta, detecta cada hueco y vuelve a coincidir desde
+ * la siguiente resincronización.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class MoveStreamTest {
+    private static final int GAMES = 50;
+    private static final int MOVES_PER_GAME = 500;
+    private static final int DROP_TEST_MOVES = 50_000;
+
+    @Test
+    void decoderRebuildsEveryStateFromChunkedStream() {
+        SplittableRandom random = new SplittableRandom(21);
+        int frames = GAMES * (MOVES_PER_GAME + 1);
+        long[][] expected = new long[3][frames];
+        MoveStreamEncoder encoder = new MoveStreamEncoder();
+        PackedBoard packed = new PackedBoard();
+        ByteBuffer stream = ByteBuffer.allocate(frames * MoveStreamEncoder.MAX_UPDATE_SIZE);
+        int frame = 0;
+        for (int game = 0; game < GAMES; game++) {
+            Board board = Board.fromPuzzleId(random.nextLong());
+            GameState state = new GameState(board);
+            board.writeTo(packed);
+            encoder.writeSnapshot(packed, stream);
+            record(board, state, expected, frame++);
+            for (int move = 0; move < MOVES_PER_GAME; move++) {
+                randomMove(board, random);
+                board.writeTo(packed);
+                encoder.writeUpdate(packed, stream);
+                record(board, state, expected, frame++);
+            }
+        }
+        stream.flip();
+
+        // Los bytes llegan en trozos de 1 a 64 bytes, como de un socket
+        MoveStreamDecoder decoder = new MoveStreamDecoder();
+        ByteBuffer input = ByteBuffer.allocate(1 << 12);
+        frame = 0;
+        while (stream.hasRemaining()) {
+            int chunk = Math.min(stream.remaining(), 1 + random.nextInt(64));
+            input.put(stream.slice(stream.position(), chunk));
+            stream.position(stream.position() + chunk);
+            input.flip();
+            int type;
+            while ((type = decoder.read(input)) != 0) {
+                if (type == MoveStreamEncoder.FRAME_RESYNC) {
+                    continue; // Repite el estado de la trama anterior
+                }
+                assertTrue(decoder.isSynchronized());
+                decoder.writeTo(packed);
+                assertEquals(expected[0][frame], packed.getValuesLo(), "Valores de la trama " + frame);
+                assertEquals(expected[1][frame], packed.getValuesHi(), "Valores de la trama " + frame);
+                assertEquals(expected[2][frame], decoder.getConflictMask(), "Conflictos de la trama " + frame);
+                frame++;
+            }
+            input.compact();
+        }
+        assertEquals(frames, frame);
+        assertEquals(0, decoder.getGapCount());
+        assertEquals(0, decoder.getResyncMismatchCount());
+    }
+
+    @Test
+    void droppedDeltasAreDetectedAsGaps() {
+        SplittableRandom random = new SplittableRandom(33);
+        MoveStreamEncoder encoder = new MoveStreamEncoder();
+        MoveStreamDecoder decoder = new MoveStreamDecoder();
+        Board board = Board.fromPuzzleId(random.nextLong());
+        GameState state = new GameState(board);
+        PackedBoard packed = new PackedBoard();
+        ByteBuffer frames = ByteBuffer.allocate(MoveStreamEncoder.MAX_UPDATE_SIZE);
+        long[][] expected = new long[3][1];
+        board.writeTo(packed);
+        encoder.writeSnapshot(packed, frames);
+        decoder.read(frames.flip());
+        int dropRuns = 0;
+        boolean previousDropped = false;
+        int checked = 0;
+        for (int move = 0; move < DROP_TEST_MOVES; move++) {
+            randomMove(board, random);
+            board.writeTo(packed);
+            encoder.writeUpdate(packed, frames.clear());
+            frames.flip();
+            while (frames.hasRemaining()) {
+                int type = frames.get(frames.position() + 1);
+                if (type == MoveStreamEncoder.FRAME_DELTA && random.nextInt(100) == 0) {
+                    frames.position(frames.position() + 1 + (frames.get(frames.position()) & 0xFF));
+                    dropRuns += previousDropped ? 0 : 1;
+                    previousDropped = true;
+                } else {
+                    decoder.read(frames);
+                    previousDropped = false;
+                }
+            }
+            // Una pérdida solo se nota al llegar la trama siguiente
+            if (decoder.isSynchronized() && !previousDropped) {
+                record(board, state, expected, 0);
+                decoder.writeTo(packed);
+                assertEquals(expected[0][0], packed.getValuesLo(), "Valores tras la jugada " + move);
+                assertEquals(expected[1][0], packed.getValuesHi(), "Valores tras la jugada " + move);
+                assertEquals(expected[2][0], decoder.getConflictMask(), "Conflictos tras la jugada " + move);
+                checked++;
+            }
+        }
+        assertTrue(dropRuns > 0, "La prueba debería descartar tramas");
+        assertEquals(dropRuns, decoder.getGapCount());
+        assertEquals(0, decoder.getResyncMismatchCount());
+        assertTrue(checked > DROP_TEST_MOVES / 2, "Estados sincronizados verificados: " + checked);
+    }
+
+    private static void randomMove(Board board, SplittableRandom random) {
+        int row;
+        int col;
+        do {
+            row = random.nextInt(Board.GRID_SIZE);
+            col = random.nextInt(Board.GRID_SIZE);
+        } while (!board.getCell(row, col).getEditable());
+        board.setCellValue(row, col, random.nextInt(Board.GRID_SIZE + 1));
+    }
+
+    private static void record(Board board, GameState state, long[][] expected, int frame) {
+        PackedBoard packed = board.toPacked();
+        long conflicts = 0;
+        for (Pair<Integer, Integer> cell : state.getInvalidCells()) {
+            conflicts |= 1L << PackedBoard.index(cell.getKey(), cell.getValue());
+        }
+        expected[0][frame] = packed.getValuesLo();
+        expected[1][frame] = packed.getValuesHi();
+        expected[2][frame] = conflicts;
+    }
+}
@@ -0,0 +1,83 @@
+package univalle.tedesoft.sudoku.server;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.sudoku.models.Board;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la caché de sesiones con más partidas que capacidad: las modificaciones concurrentes
+ * no se pierden aunque las sesiones bajen a disco y se recarguen entre tanto, y cada update cuenta
+ * una sola búsqueda.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class SessionCacheTest {
+    private static final int SESSIONS = 64;
+    private static final int THREADS = 4;
+    private static final int UPDATES_PER_THREAD = 20_000;
+
+    @Test
+    void concurrentUpdatesSurviveEvictionAndReload() throws Exception {
+        try (SessionCache cache = new SessionCache(16, 0, SessionSpillStore.createTemporary())) {
+            String[] ids = new String[SESSIONS];
+            for (int s = 0; s < SESSIONS; s++) {
+                ids[s] = "s" + s;
+                cache.putIfAbsent(ids[s], new GameSession(Board.fromPuzzleId(s)));
+            }
+            AtomicIntegerArray expected = new AtomicIntegerArray(SESSIONS);
+            Thread[] workers = new Thread[THREADS];
+            Throwable[] failures = new Throwable[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                int worker = t;
+                SplittableRandom random = new SplittableRandom(43 + t);
+                workers[t] = new Thread(() -> {
+                    try {
+                        for (int n = 0; n < UPDATES_PER_THREAD; n++) {
+                            int s = random.nextInt(SESSIONS);
+                            cache.update(ids[s], session -> session.clues++);
+                            expected.incrementAndGet(s);
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        failures[worker] = e;
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            for (Throwable failure : failures) {
+                if (failure != null) {
+                    throw new AssertionError(failure);
+                }
+            }
+            for (int s = 0; s < SESSIONS; s++) {
+                GameSession session = cache.get(ids[s]);
+                assertNotNull(session);
+                assertEquals(expected.get(s), session.clues, "Modificaciones perdidas en la sesión " + s);
+            }
+            assertEquals(SESSIONS, cache.getSessionCount());
+        }
+    }
+
+    @Test
+    void updateCountsOneLookup() throws Exception {
+        try (SessionCache cache = new SessionCache(16, 0, SessionSpillStore.createTemporary())) {
+            cache.putIfAbsent("a", new GameSession(Board.fromPuzzleId(1)));
+            long before = cache.getHits() + cache.getReloads();
+            assertEquals(Boolean.TRUE, cache.update("a", session -> Boolean.TRUE));
+            assertEquals(before + 1, cache.getHits() + cache.getReloads());
+            assertNull(cache.update("missing", session -> Boolean.TRUE));
+            assertTrue(cache.remove("a"));
+            assertNull(cache.get("a"));
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.GameLog;
+import univalle.tedesoft.sudoku.controllers.GameController;
+import univalle.tedesoft.sudoku.controllers.GameTaskRunner;
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.Solvability;
+import univalle.tedesoft.sudoku.models.SudokuSolver;
+import univalle.tedesoft.sudoku.views.BotGameView;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulación de partidas completas jugadas por agentes automáticos a través de GameController, sin
+ * JavaFX: cada agente empieza partidas nuevas, escribe números, pide pistas y limpia el tablero
+ * como lo haría un jugador con los botones, hasta ganar. Cada hilo tiene su propio controlador y su
+ * propia BotGameView, y el controlador corre su trabajo de fondo en el mismo hilo, así que cada
+ * acción termina (validación y comprobación de victoria incluidas) antes de la siguiente.
+ * Agentes:
+ * <ul>
+ *   <li>aleatorio: una celda vacía al azar con un valor que no choque con lo visible; pide pista el
+ *   5% de las veces;</li>
+ *   <li>voraz: la celda vacía con menos candidatos; pide pista el 2% de las veces;</li>
+ *   <li>solucionador: resuelve el puzzle al empezar y llena las celdas en orden aleatorio; pide pista
+ *   el 10% de las veces.</li>
+ * </ul>
+ * Si un agente llega a una celda sin candidatos, borra una de sus entradas al azar o, una de cada
+ * cinco veces, limpia todas sus entradas, y sigue; los agentes voraz y solucionador hacen lo mismo
+ * en cuanto la comprobación de fondo del controlador informa que el tablero ya no tiene solución.
+ * Una partida que no se gana en MAX_ACTIONS_PER_GAME acciones se abandona. Por agente se reportan
+ * partidas por segundo, jugadas, pistas, limpiezas y avisos de resolubilidad por partida, y el
+ * porcentaje de partidas ganadas.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.BotSelfPlay [partidas] [hilos]
+ * [aleatorio|voraz|solucionador|todos]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class BotSelfPlay {
+    private static final int GRID_SIZE = Board.GRID_SIZE;
+    private static final int MAX_ACTIONS_PER_GAME = 2_000;
+    /**
+     * Probabilidad de limpiar todo el tablero (en lugar de borrar una entrada) al quedarse sin candidatos.
+     */
+    private static final double CLEAR_RATE = 0.2;
+
+    private enum Agent {
+        RANDOM("aleatorio", 0.05),
+        GREEDY("voraz", 0.02),
+        SOLVER("solucionador", 0.10);
+
+        private final String label;
+        private final double hintRate;
+
+        Agent(String label, double hintRate) {
+            this.label = label;
+            this.hintRate = hintRate;
+        }
+    }
+
+    /**
+     * Ejecutor que corre cada tarea en el hilo que la envía: el trabajo "de fondo" del controlador
+     * termina antes de que el agente haga su siguiente acción.
+     */
+    private static final class DirectExecutorService extends AbstractExecutorService {
+        private volatile boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            this.shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            this.shutdown = true;
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return this.shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return this.shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return this.shutdown;
+        }
+    }
+
+    /**
+     * Contadores de un hilo, combinados al final.
+     */
+    private static final class Totals {
+        long games;
+        long wins;
+        long abandoned;
+        long moves;
+        long hintRequests;
+        long hints;
+        long clears;
+        long noSolutionReports;
+        long divergesReports;
+
+        void add(Totals other) {
+            this.games += other.games;
+            this.wins += other.wins;
+            this.abandoned += other.abandoned;
+            this.moves += other.moves;
+            this.hintRequests += other.hintRequests;
+            this.hints += other.hints;
+            this.clears += other.clears;
+            this.noSolutionReports += other.noSolutionReports;
+            this.divergesReports += other.divergesReports;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String selected = args.length > 2 ? args[2] : "todos";
+        List<Agent> agents = new ArrayList<>();
+        for (Agent agent : Agent.values()) {
+            if (selected.equals("todos") || selected.equals(agent.label)) {
+                agents.add(agent);
+            }
+        }
+        if (games < 1 || threads < 1 || agents.isEmpty()) {
+            throw new IllegalArgumentException("Uso: BotSelfPlay [partidas] [hilos] "
+                    + "[aleatorio|voraz|solucionador|todos]");
+        }
+        // El controlador y el tablero informan cada acción; el reporte sale por System.out igual
+        GameLog.setEnabled(false);
+        for (Agent agent : agents) {
+            run(agent, games, threads);
+        }
+    }
+
+    private static void run(Agent agent, int games, int threads) throws InterruptedException {
+        AtomicInteger remaining = new AtomicInteger(games);
+        Totals[] perThread = new Totals[threads];
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            Totals totals = new Totals();
+            SplittableRandom random = new SplittableRandom(agent.ordinal() * 1_000L + t);
+            perThread[t] = totals;
+            workers[t] = new Thread(() -> playGames(agent, remaining, random, totals), "bot-" + t);
+            workers[t].start();
+        }
+        Totals totals = new Totals();
+        for (int t = 0; t < threads; t++) {
+            workers[t].join();
+            totals.add(perThread[t]);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %d partidas en %.1f s con %d hilos (%.0f partidas/s), ganadas %.1f%%, abandonadas %d%n",
+                agent.label, totals.games, seconds, threads, totals.games / seconds,
+                100.0 * totals.wins / totals.games, totals.abandoned);
+        System.out.printf("  por partida: %.1f jugadas, %.2f pistas (%.2f pedidas), %.2f limpiezas,"
+                        + " avisos: %.2f sin solución, %.2f fuera de la solución guardada%n",
+                (double) totals.moves / totals.games, (double) totals.hints / totals.games,
+                (double) totals.hintRequests / totals.games, (double) totals.clears / totals.games,
+                (double) totals.noSolutionReports / totals.games, (double) totals.divergesReports / totals.games);
+    }
+
+    /**
+     * Juega partidas con un controlador propio hasta agotar las pendientes.
+     */
+    private static void playGames(Agent agent, AtomicInteger remaining, SplittableRandom random, Totals totals) {
+        GameController controller = new GameController(new GameTaskRunner(new DirectExecutorService(), Runnable::run));
+        BotGameView view = new BotGameView();
+        controller.setAutosave(null);
+        controller.setMoveRecorder(null);
+        controller.initialize();
+        controller.setView(view); // Genera la primera partida
+        boolean first = true;
+        while (remaining.getAndDecrement() > 0) {
+            if (!first) {
+                controller.startNewGame();
+            }
+            first = false;
+            playGame(agent, controller, view, random, totals);
+        }
+    }
+
+    private static void playGame(Agent agent, GameController controller, BotGameView view,
+                                 SplittableRandom random, Totals totals) {
+        int[] solution = agent == Agent.SOLVER ? solve(view) : null;
+        int noSolutionBefore = view.getSolvabilityReports(Solvability.NO_SOLUTION);
+        int divergesBefore = view.getSolvabilityReports(Solvability.DIVERGES);
+        boolean cluesLeft = true;
+        int actions = 0;
+        while (!view.isWon() && actions++ < MAX_ACTIONS_PER_GAME) {
+            if (cluesLeft && random.nextDouble() < agent.hintRate) {
+                int refused = view.getRefusedClues();
+                int maxReached = view.getMaxCluesDialogs();
+                controller.showClue();
+                totals.hintRequests++;
+                if (view.getRefusedClues() == refused) {
+                    totals.hints++;
+                } else if (view.getMaxCluesDialogs() != maxReached) {
+                    cluesLeft = false;
+                }
+                continue;
+            }
+            int[] move;
+            if (agent != Agent.RANDOM && view.getSolvability() == Solvability.NO_SOLUTION) {
+                // La comprobación de fondo ya avisó que el tablero no tiene solución: no seguir llenando
+                move = null;
+            } else {
+                move = switch (agent) {
+                    case RANDOM -> chooseRandom(view, random);
+                    case GREEDY -> chooseGreedy(view, random);
+                    case SOLVER -> chooseFromSolution(view, solution, random);
+                };
+            }
+            if (move == null && random.nextDouble() < CLEAR_RATE) {
+                // Sin candidatos para alguna celda: empezar de nuevo sobre el mismo puzzle
+                controller.clearUserEntries();
+                totals.clears++;
+                continue;
+            }
+            if (move == null) {
+                // O borrar una entrada al azar, como quien deshace una jugada
+                move = chooseErase(view, random);
+            }
+            controller.cellValueChanged(move[0], move[1], move[2] == 0 ? "" : String.valueOf(move[2]));
+            view.cellEdited(move[0], move[1], move[2]);
+            totals.moves++;
+        }
+        totals.games++;
+        totals.noSolutionReports += view.getSolvabilityReports(Solvability.NO_SOLUTION) - noSolutionBefore;
+        totals.divergesReports += view.getSolvabilityReports(Solvability.DIVERGES) - divergesBefore;
+        if (view.isWon()) {
+            if (!view.getInvalidCells().isEmpty() || countEmptyCells(view) != 0) {
+                throw new IllegalStateException("Victoria con el tablero incompleto o inválido.");
+            }
+            totals.wins++;
+        } else {
+            totals.abandoned++;
+        }
+    }
+
+    /**
+     * Una celda vacía al azar con un candidato al azar, o null si alguna celda quedó sin candidatos.
+     */
+    private static int[] chooseRandom(BotGameView view, SplittableRandom random) {
+        int empty = countEmptyCells(view);
+        if (empty == 0) {
+            return null;
+        }
+        int target = random.nextInt(empty);
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                if (view.isEditable(row, col) && view.getValue(row, col) == 0 && target-- == 0) {
+                    int candidates = candidates(view, row, col);
+                    return candidates == 0 ? null : new int[]{row, col, pickCandidate(candidates, random)};
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Una celda editable llena al azar, para borrarla.
+     */
+    private static int[] chooseErase(BotGameView view, SplittableRandom random) {
+        int filled = 0;
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                if (view.isEditable(row, col) && view.getValue(row, col) != 0) {
+                    filled++;
+                }
+            }
+        }
+        int target = filled == 0 ? -1 : random.nextInt(filled);
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                if (view.isEditable(row, col) && view.getValue(row, col) != 0 && target-- == 0) {
+                    return new int[]{row, col, 0};
+                }
+            }
+        }
+        throw new IllegalStateException("Sin candidatos y sin entradas que borrar.");
+    }
+
+    /**
+     * La celda vacía con menos candidatos (desempate al azar) con uno de sus candidatos.
+     */
+    private static int[] chooseGreedy(BotGameView view, SplittableRandom random) {
+        int bestCount = Integer.MAX_VALUE;
+        int bestRow = -1;
+        int bestCol = -1;
+        int bestCandidates = 0;
+        int ties = 0;
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                if (!view.isEditable(row, col) || view.getValue(row, col) != 0) {
+                    continue;
+                }
+                int candidates = candidates(view, row, col);
+                int count = Integer.bitCount(candidates);
+                if (count == 0) {
+                    return null;
+                }
+                if (count < bestCount) {
+                    bestCount = count;
+                    ties = 0;
+                }
+                // Muestreo de reservorio entre las celdas empatadas
+                if (count == bestCount && random.nextInt(++ties) == 0) {
+                    bestRow = row;
+                    bestCol = col;
+                    bestCandidates = candidates;
+                }
+            }
+        }
+        return bestRow < 0 ? null : new int[]{bestRow, bestCol, pickCandidate(bestCandidates, random)};
+    }
+
+    /**
+     * Una celda vacía al azar con el valor de la solución. Nunca se queda sin candidatos, salvo que
+     * una pista haya puesto un valor distinto del de la solución.
+     */
+    private static int[] chooseFromSolution(BotGameView view, int[] solution, SplittableRandom random) {
+        int[] move = chooseRandom(view, random);
+        if (move == null) {
+            return null;
+        }
+        int value = solution[move[0] * GRID_SIZE + move[1]];
+        return (candidates(view, move[0], move[1]) & (1 << value)) != 0 ? new int[]{move[0], move[1], value} : null;
+    }
+
+    private static int[] solve(BotGameView view) {
+        int[] cells = new int[GRID_SIZE * GRID_SIZE];
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                cells[row * GRID_SIZE + col] = view.isEditable(row, col) ? 0 : view.getValue(row, col);
+            }
+        }
+        int[] solution = new int[cells.length];
+        if (SudokuSolver.SIX_BY_SIX.countSolutions(cells, 1, solution, null) == 0) {
+            throw new IllegalStateException("El puzzle generado no tiene solución.");
+        }
+        return solution;
+    }
+
+    /**
+     * @return máscara de los valores (bit v para el valor v) que no chocan en fila, columna ni bloque.
+     */
+    private static int candidates(BotGameView view, int row, int col) {
+        int used = 0;
+        for (int i = 0; i < GRID_SIZE; i++) {
+            used |= 1 << view.getValue(row, i);
+            used |= 1 << view.getValue(i, col);
+        }
+        int startRow = row - row % Board.BLOCK_ROWS;
+        int startCol = col - col % Board.BLOCK_COLS;
+        for (int r = startRow; r < startRow + Board.BLOCK_ROWS; r++) {
+            for (int c = startCol; c < startCol + Board.BLOCK_COLS; c++) {
+                used |= 1 << view.getValue(r, c);
+            }
+        }
+        return ~used & (((1 << GRID_SIZE) - 1) << 1);
+    }
+
+    private static int pickCandidate(int candidates, SplittableRandom random) {
+        for (int skip = random.nextInt(Integer.bitCount(candidates)); skip > 0; skip--) {
+            candidates &= candidates - 1;
+        }
+        return Integer.numberOfTrailingZeros(candidates);
+    }
+
+    private static int countEmptyCells(BotGameView view) {
+        int empty = 0;
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                if (view.isEditable(row, col) && view.getValue(row, col) == 0) {
+                    empty++;
+                }
+            }
+        }
+        return empty;
+    }
+}
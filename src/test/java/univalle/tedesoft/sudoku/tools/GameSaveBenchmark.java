@@ -0,0 +1,98 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.models.GameSaveCodec;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.models.SavedGame;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * Mide el rendimiento de codificación y decodificación de partidas guardadas (GameSaveCodec)
+ * y verifica que cada partida sobreviva el viaje de ida y vuelta.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.GameSaveBenchmark [partidas] [rondas]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class GameSaveBenchmark {
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        SavedGame[] inputs = randomGames(games, new SplittableRandom(42));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(games * GameSaveCodec.ENCODED_SIZE);
+        SavedGame decoded = new SavedGame();
+
+        // Ida y vuelta: cada partida debe decodificarse idéntica
+        for (SavedGame game : inputs) {
+            GameSaveCodec.encode(game, buffer);
+        }
+        buffer.flip();
+        for (SavedGame game : inputs) {
+            GameSaveCodec.decode(buffer, decoded);
+            if (!decoded.getBoard().equals(game.getBoard())
+                    || decoded.getMovePosition() != game.getMovePosition()
+                    || decoded.getElapsedMillis() != game.getElapsedMillis()) {
+                throw new IllegalStateException("La partida decodificada no coincide con la original.");
+            }
+        }
+        System.out.println("Ida y vuelta correcta para " + games + " partidas de "
+                + GameSaveCodec.ENCODED_SIZE + " bytes.");
+
+        long bestEncode = Long.MAX_VALUE;
+        long bestDecode = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < rounds; round++) {
+            buffer.clear();
+            long start = System.nanoTime();
+            for (SavedGame game : inputs) {
+                GameSaveCodec.encode(game, buffer);
+            }
+            bestEncode = Math.min(bestEncode, System.nanoTime() - start);
+
+            buffer.flip();
+            start = System.nanoTime();
+            for (int i = 0; i < games; i++) {
+                GameSaveCodec.decode(buffer, decoded);
+                checksum += decoded.getMovePosition();
+            }
+            bestDecode = Math.min(bestDecode, System.nanoTime() - start);
+        }
+
+        report("codificar", bestEncode, games);
+        report("decodificar", bestDecode, games);
+        System.out.println("(checksum " + checksum + ")");
+    }
+
+    /**
+     * Imprime ns por partida, partidas por segundo y MB/s.
+     */
+    private static void report(String name, long nanos, int games) {
+        double nsPerGame = (double) nanos / games;
+        double gamesPerSecond = games / (nanos / 1e9);
+        double megabytesPerSecond = gamesPerSecond * GameSaveCodec.ENCODED_SIZE / 1e6;
+        System.out.printf("%-12s %8.1f ns/partida  %12.0f partidas/s  %8.1f MB/s%n",
+                name, nsPerGame, gamesPerSecond, megabytesPerSecond);
+    }
+
+    /**
+     * Genera partidas con valores, solución y máscara aleatorios pero válidos.
+     */
+    private static SavedGame[] randomGames(int count, SplittableRandom random) {
+        SavedGame[] games = new SavedGame[count];
+        for (int g = 0; g < count; g++) {
+            SavedGame game = new SavedGame();
+            PackedBoard board = game.getBoard();
+            for (int i = 0; i < PackedBoard.CELL_COUNT; i++) {
+                board.setValue(i, random.nextInt(7));
+                board.setSolution(i, 1 + random.nextInt(6));
+                board.setEditable(i, random.nextBoolean());
+            }
+            game.setMovePosition(random.nextInt(1_000));
+            game.setElapsedMillis(random.nextLong(86_400_000L));
+            game.setHintsUsed(random.nextInt(11));
+            games[g] = game;
+        }
+        return games;
+    }
+}
@@ -0,0 +1,154 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.models.SolutionGridGenerator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Prueba estadística de la generación de cuadrículas solución. Cada cuadrícula generada se
+ * normaliza renombrando sus dígitos para que la primera fila sea 123456; si la generación es
+ * uniforme, las 39168 cuadrículas normalizadas aparecen con la misma frecuencia. Se aplica una
+ * prueba chi-cuadrado (39167 grados de libertad, aproximada por una normal) a la generación por
+ * transformación y, como referencia, a la de backtracking. También mide el tiempo de ambas.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.GridDistributionCheck [muestras por cuadrícula]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class GridDistributionCheck {
+    /**
+     * Desviación máxima aceptada del estadístico, en desviaciones estándar.
+     */
+    private static final double MAX_Z = 4.0;
+
+    public static void main(String[] args) {
+        int samplesPerGrid = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int samples = samplesPerGrid * SolutionGridGenerator.NORMALIZED_GRID_COUNT;
+        SplittableRandom random = new SplittableRandom(39);
+
+        PackedBoard grid = new PackedBoard();
+        double transformZ = chiSquareZ("Transformación", samples, sink -> {
+            SolutionGridGenerator.generate(random, grid);
+            sink.accept(grid);
+        });
+        // El backtracking es mucho más lento: se usa una muestra menor
+        int backtrackingSamples = Math.max(SolutionGridGenerator.NORMALIZED_GRID_COUNT * 5, samples / 10);
+        chiSquareZ("Backtracking", backtrackingSamples, sink -> {
+            Board.fromPuzzleId(random.nextLong() & ~Board.TRANSFORM_MODE_BIT).writeTo(grid);
+            grid.set(grid.getSolutionLo(), grid.getSolutionHi(), grid.getSolutionLo(), grid.getSolutionHi(), 0);
+            sink.accept(grid);
+        });
+
+        long checksum = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int n = 0; n < 1_000_000; n++) {
+                SolutionGridGenerator.generate(random, grid);
+                checksum += grid.getValuesLo();
+            }
+            long transformNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int n = 0; n < 20_000; n++) {
+                checksum += Board.fromPuzzleId(random.nextLong() | Board.TRANSFORM_MODE_BIT).getCell(5, 5).getValue();
+            }
+            long transformBoardNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int n = 0; n < 20_000; n++) {
+                checksum += Board.fromPuzzleId(random.nextLong() & ~Board.TRANSFORM_MODE_BIT).getCell(5, 5).getValue();
+            }
+            long backtrackingBoardNanos = System.nanoTime() - start;
+            System.out.printf("Cuadrícula por transformación: %.0f ns; puzzle completo: transformación %.1f us,"
+                            + " backtracking %.1f us (checksum %d)%n",
+                    transformNanos / 1e6, transformBoardNanos / 2e4 / 1e3, backtrackingBoardNanos / 2e4 / 1e3, checksum);
+        }
+
+        if (Math.abs(transformZ) > MAX_Z) {
+            throw new IllegalStateException("La generación por transformación no es uniforme (z = " + transformZ + ").");
+        }
+        System.out.println("Distribución uniforme aceptada.");
+    }
+
+    /**
+     * Cuenta las cuadrículas normalizadas de una muestra y calcula el estadístico chi-cuadrado.
+     * @param name Nombre del generador para el reporte.
+     * @param samples Tamaño de la muestra.
+     * @param generator Genera una cuadrícula por llamada y la entrega al consumidor.
+     * @return el estadístico estandarizado z = (chi2 - gl) / sqrt(2 gl).
+     */
+    private static double chiSquareZ(String name, int samples, Consumer<Consumer<PackedBoard>> generator) {
+        Map<Long, int[]> counts = new HashMap<>(SolutionGridGenerator.NORMALIZED_GRID_COUNT * 2);
+        Consumer<PackedBoard> sink = grid -> {
+            if (!isValidGrid(grid)) {
+                throw new IllegalStateException("Cuadrícula inválida generada por " + name);
+            }
+            counts.computeIfAbsent(normalizedKey(grid), key -> new int[1])[0]++;
+        };
+        for (int n = 0; n < samples; n++) {
+            generator.accept(sink);
+        }
+        if (counts.size() > SolutionGridGenerator.NORMALIZED_GRID_COUNT) {
+            throw new IllegalStateException("Más cuadrículas normalizadas de las que existen: " + counts.size());
+        }
+        double expected = (double) samples / SolutionGridGenerator.NORMALIZED_GRID_COUNT;
+        // Las cuadrículas nunca vistas aportan (0 - e)^2 / e = e cada una
+        double chiSquare = (SolutionGridGenerator.NORMALIZED_GRID_COUNT - counts.size()) * expected;
+        for (int[] count : counts.values()) {
+            double diff = count[0] - expected;
+            chiSquare += diff * diff / expected;
+        }
+        int degrees = SolutionGridGenerator.NORMALIZED_GRID_COUNT - 1;
+        double z = (chiSquare - degrees) / Math.sqrt(2.0 * degrees);
+        System.out.printf("%s: %d muestras, %d cuadrículas normalizadas distintas, chi2 = %.0f (gl %d), z = %.2f%n",
+                name, samples, counts.size(), chiSquare, degrees, z);
+        return z;
+    }
+
+    /**
+     * Clave exacta de la cuadrícula renombrada para que su primera fila sea 123456: las filas 1 a 4
+     * sin la última columna (20 celdas, 60 bits), pues la última columna y la última fila quedan
+     * determinadas por el resto de su fila y de su columna.
+     */
+    private static long normalizedKey(PackedBoard grid) {
+        int[] relabel = new int[Board.GRID_SIZE + 1];
+        for (int col = 0; col < Board.GRID_SIZE; col++) {
+            relabel[grid.getValue(col)] = col + 1;
+        }
+        long key = 0;
+        for (int row = 1; row < Board.GRID_SIZE - 1; row++) {
+            for (int col = 0; col < Board.GRID_SIZE - 1; col++) {
+                key = key << PackedBoard.BITS_PER_CELL | relabel[grid.getValue(PackedBoard.index(row, col))];
+            }
+        }
+        return key;
+    }
+
+    private static boolean isValidGrid(PackedBoard grid) {
+        int[] rows = new int[Board.GRID_SIZE];
+        int[] cols = new int[Board.GRID_SIZE];
+        int[] boxes = new int[Board.GRID_SIZE];
+        for (int row = 0; row < Board.GRID_SIZE; row++) {
+            for (int col = 0; col < Board.GRID_SIZE; col++) {
+                int index = PackedBoard.index(row, col);
+                int value = grid.getValue(index);
+                if (value < 1 || value != grid.getSolution(index)) {
+                    return false;
+                }
+                int bit = 1 << value;
+                int box = row / Board.BLOCK_ROWS * Board.NUM_BLOCK_COLS + col / Board.BLOCK_COLS;
+                rows[row] |= bit;
+                cols[col] |= bit;
+                boxes[box] |= bit;
+            }
+        }
+        for (int i = 0; i < Board.GRID_SIZE; i++) {
+            if (rows[i] != 0x7E || cols[i] != 0x7E || boxes[i] != 0x7E) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,156 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.metrics.LatencyHistogram;
+import univalle.tedesoft.sudoku.server.GameHttpService;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga local del servicio HTTP: inicia GameHttpService en loopback y lanza clientes
+ * concurrentes, cada uno con su partida, que envían una mezcla de peticiones (80% jugadas, 10%
+ * estado, 5% validación y 5% pistas, la mitad en binario). Tras un calentamiento mide durante el
+ * tiempo indicado y reporta peticiones por segundo y percentiles de latencia por tipo de petición.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.HttpLoadTest [clientes] [segundos] [hilos del servidor]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class HttpLoadTest {
+    private static final String[] KINDS = {"jugada", "estado", "validacion", "pista"};
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int serverThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        GameHttpService.useTcpNoDelay();
+        GameHttpService service = new GameHttpService(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), serverThreads);
+        service.start();
+        String base = "http://127.0.0.1:" + service.getPort();
+        try {
+            // Calentamiento: la misma carga durante un tercio del tiempo, sin medir
+            run(base, clients, Math.max(1, seconds / 3) * 1_000_000_000L, null);
+            List<LatencyHistogram[]> results = new ArrayList<>();
+            long start = System.nanoTime();
+            long requests = run(base, clients, seconds * 1_000_000_000L, results);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+
+            LatencyHistogram total = new LatencyHistogram();
+            LatencyHistogram[] byKind = new LatencyHistogram[KINDS.length];
+            for (int k = 0; k < KINDS.length; k++) {
+                byKind[k] = new LatencyHistogram();
+                for (LatencyHistogram[] histograms : results) {
+                    byKind[k].add(histograms[k]);
+                }
+                total.add(byKind[k]);
+            }
+            System.out.printf("%d clientes, %d hilos de servidor: %d peticiones en %.1f s = %.0f peticiones/s%n",
+                    clients, serverThreads, requests, elapsed, requests / elapsed);
+            System.out.println(total.summary("total"));
+            for (int k = 0; k < KINDS.length; k++) {
+                System.out.println(byKind[k].summary(KINDS[k]));
+            }
+            System.out.println("Partidas activas: " + service.getSessionCount());
+        } finally {
+            service.stop();
+        }
+    }
+
+    /**
+     * Ejecuta los clientes durante el tiempo indicado.
+     * @param results Recibe los histogramas de cada cliente (uno por tipo); null para no medir.
+     * @return peticiones completadas.
+     */
+    private static long run(String base, int clients, long durationNanos,
+                            List<LatencyHistogram[]> results) throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        long deadline = System.nanoTime() + durationNanos;
+        Thread[] threads = new Thread[clients];
+        for (int c = 0; c < clients; c++) {
+            LatencyHistogram[] histograms = new LatencyHistogram[KINDS.length];
+            for (int k = 0; k < KINDS.length; k++) {
+                histograms[k] = new LatencyHistogram();
+            }
+            if (results != null) {
+                results.add(histograms);
+            }
+            long seed = c;
+            threads[c] = new Thread(() -> {
+                try {
+                    completed.addAndGet(runClient(base, deadline, new SplittableRandom(seed), histograms));
+                } catch (Exception e) {
+                    System.err.println("Cliente detenido: " + e);
+                }
+            }, "cliente-" + c);
+            threads[c].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return completed.get();
+    }
+
+    private static long runClient(String base, long deadline, SplittableRandom random,
+                                  LatencyHistogram[] histograms) throws Exception {
+        String game = newGame(base);
+        long requests = 0;
+        while (System.nanoTime() < deadline) {
+            int roll = random.nextInt(100);
+            int kind = roll < 80 ? 0 : roll < 90 ? 1 : roll < 95 ? 2 : 3;
+            String method;
+            String path;
+            switch (kind) {
+                case 0 -> {
+                    method = "POST";
+                    path = game + "/move?row=" + random.nextInt(6) + "&col=" + random.nextInt(6)
+                            + "&value=" + random.nextInt(7);
+                }
+                case 1 -> {
+                    method = "GET";
+                    path = game;
+                }
+                case 2 -> {
+                    method = "GET";
+                    path = game + "/validate";
+                }
+                default -> {
+                    method = "POST";
+                    path = game + "/hint";
+                }
+            }
+            String accept = random.nextBoolean() ? "application/octet-stream" : null;
+            long start = System.nanoTime();
+            LoopbackHttp.Response response = LoopbackHttp.send(method, base + path, accept);
+            histograms[kind].record(System.nanoTime() - start);
+            requests++;
+            int status = response.status();
+            // 409: celda fija o sin pistas; son respuestas esperadas de la mezcla aleatoria
+            if (status != 200 && status != 409) {
+                throw new IllegalStateException("Respuesta " + status + ": " + response.text());
+            }
+            if (kind == 1 && response.body().length != 24 && response.body()[0] != '{') {
+                throw new IllegalStateException("Estado con formato inesperado");
+            }
+            if (requests % 500 == 0) {
+                // Partida nueva de vez en cuando para que no se llene el tablero
+                LoopbackHttp.send("DELETE", base + game, null);
+                game = newGame(base);
+            }
+        }
+        LoopbackHttp.send("DELETE", base + game, null);
+        return requests;
+    }
+
+    private static String newGame(String base) throws Exception {
+        LoopbackHttp.Response response = LoopbackHttp.send("POST", base + "/games", null);
+        if (response.status() != 201 || response.location() == null) {
+            throw new IllegalStateException("No se pudo crear la partida: " + response.text());
+        }
+        return response.location();
+    }
+}
@@ -0,0 +1,347 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.metrics.LatencyHistogram;
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.Cell;
+import univalle.tedesoft.sudoku.models.GameState;
+import univalle.tedesoft.sudoku.server.GameHttpService;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga sobre el modelo del juego: N jugadores simulados, cada uno en su hilo y con su
+ * partida, repiten una mezcla configurable de operaciones como las haría un jugador real, con un
+ * tiempo de reflexión aleatorio (exponencial) entre operaciones:
+ * <ul>
+ *   <li>jugada: escribe un número en una celda editable y valida el tablero (celdas inválidas y
+ *   juego ganado), como GameController tras cada jugada;</li>
+ *   <li>pista: busca y aplica una pista sobre una copia del tablero, como el botón "Pista";</li>
+ *   <li>limpiar: vacía las celdas escritas por el jugador, como el botón "Limpiar";</li>
+ *   <li>nueva: genera una partida nueva.</li>
+ * </ul>
+ * En modo {@code local} las operaciones van directo contra Board y GameState; en modo {@code http}
+ * contra un GameHttpService iniciado en loopback, o contra uno ya en marcha si se da su URL.
+ * Tras un calentamiento de un tercio del tiempo, mide cada operación en histogramas de memoria fija
+ * (uno por jugador y operación, combinados al final) y reporta p50, p99, p999, máximo y operaciones
+ * por segundo. La latencia no incluye el tiempo de reflexión.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.LoadGenerator [local|http|URL] [jugadores] [segundos]
+ * [reflexión media en ms] [mezcla jugada,pista,limpiar,nueva]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class LoadGenerator {
+    private static final String[] OPERATIONS = {"jugada", "pista", "limpiar", "nueva"};
+    private static final int MOVE = 0;
+    private static final int HINT = 1;
+    private static final int CLEAR = 2;
+    private static final int NEW_GAME = 3;
+
+    /**
+     * Partida de un jugador simulado, local o remota.
+     */
+    private interface Player {
+        void perform(int operation, SplittableRandom random) throws Exception;
+
+        default void close() throws Exception {
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "local";
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        double thinkMillis = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+        int[] mix = parseMix(args.length > 4 ? args[4] : "85,8,2,5");
+
+        GameHttpService service = null;
+        String base = null;
+        if (mode.equals("http")) {
+            GameHttpService.useTcpNoDelay();
+            service = new GameHttpService(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                    Runtime.getRuntime().availableProcessors());
+            service.start();
+            base = "http://127.0.0.1:" + service.getPort();
+        } else if (mode.startsWith("http://")) {
+            base = mode.endsWith("/") ? mode.substring(0, mode.length() - 1) : mode;
+        } else if (!mode.equals("local")) {
+            throw new IllegalArgumentException("Modo desconocido: " + mode + " (local, http o una URL)");
+        }
+        try {
+            System.out.printf("Modo %s, %d jugadores, reflexión media %.1f ms, mezcla %d/%d/%d/%d%n",
+                    base == null ? "local" : base, players, thinkMillis, mix[0], mix[1], mix[2], mix[3]);
+            long thinkNanos = (long) (thinkMillis * 1_000_000);
+            run(base, players, Math.max(1, seconds / 3), thinkNanos, mix, null);
+            List<LatencyHistogram[]> results = new ArrayList<>();
+            long start = System.nanoTime();
+            run(base, players, seconds, thinkNanos, mix, results);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            report(results, elapsed);
+        } finally {
+            if (service != null) {
+                service.stop();
+            }
+        }
+    }
+
+    /**
+     * Ejecuta a los jugadores durante el tiempo indicado.
+     * @param results Recibe los histogramas de cada jugador (uno por operación); null para no medir.
+     */
+    private static void run(String base, int players, int seconds, long thinkNanos, int[] mix,
+                            List<LatencyHistogram[]> results) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        Thread[] threads = new Thread[players];
+        for (int p = 0; p < players; p++) {
+            LatencyHistogram[] histograms = new LatencyHistogram[OPERATIONS.length];
+            for (int op = 0; op < OPERATIONS.length; op++) {
+                histograms[op] = new LatencyHistogram();
+            }
+            if (results != null) {
+                results.add(histograms);
+            }
+            SplittableRandom random = new SplittableRandom(p * 31L + (results == null ? 0 : 7));
+            threads[p] = new Thread(() -> {
+                try {
+                    Player player = base == null ? new LocalPlayer() : new RemotePlayer(base);
+                    try {
+                        play(player, random, deadline, thinkNanos, mix, histograms);
+                    } finally {
+                        player.close();
+                    }
+                } catch (Exception e) {
+                    System.err.println("Jugador detenido: " + e);
+                }
+            }, "jugador-" + p);
+            threads[p].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static void play(Player player, SplittableRandom random, long deadline, long thinkNanos, int[] mix,
+                             LatencyHistogram[] histograms) throws Exception {
+        int total = mix[0] + mix[1] + mix[2] + mix[3];
+        while (System.nanoTime() < deadline) {
+            if (thinkNanos > 0) {
+                // Exponencial: llegadas de un jugador como un proceso de Poisson
+                LockSupport.parkNanos((long) (-Math.log(1 - random.nextDouble()) * thinkNanos));
+            }
+            int roll = random.nextInt(total);
+            int operation = 0;
+            while (roll >= mix[operation]) {
+                roll -= mix[operation];
+                operation++;
+            }
+            long start = System.nanoTime();
+            player.perform(operation, random);
+            histograms[operation].record(System.nanoTime() - start);
+        }
+    }
+
+    private static void report(List<LatencyHistogram[]> results, double elapsed) {
+        LatencyHistogram total = new LatencyHistogram();
+        LatencyHistogram[] byOperation = new LatencyHistogram[OPERATIONS.length];
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            byOperation[op] = new LatencyHistogram();
+            for (LatencyHistogram[] histograms : results) {
+                byOperation[op].add(histograms[op]);
+            }
+            total.add(byOperation[op]);
+        }
+        System.out.printf("%d operaciones en %.1f s = %.0f operaciones/s%n",
+                total.getCount(), elapsed, total.getCount() / elapsed);
+        System.out.println(total.summary("total"));
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            System.out.printf("%s  (%.0f/s)%n", byOperation[op].summary(OPERATIONS[op]),
+                    byOperation[op].getCount() / elapsed);
+        }
+    }
+
+    private static int[] parseMix(String text) {
+        String[] parts = text.split(",");
+        if (parts.length != OPERATIONS.length) {
+            throw new IllegalArgumentException("La mezcla debe tener 4 pesos: jugada,pista,limpiar,nueva");
+        }
+        int[] mix = new int[OPERATIONS.length];
+        int sum = 0;
+        for (int op = 0; op < mix.length; op++) {
+            mix[op] = Integer.parseInt(parts[op].trim());
+            if (mix[op] < 0) {
+                throw new IllegalArgumentException("Peso negativo en la mezcla: " + text);
+            }
+            sum += mix[op];
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("La mezcla no tiene operaciones: " + text);
+        }
+        return mix;
+    }
+
+    /**
+     * Jugador contra el modelo en el mismo proceso, con los pasos de GameController.
+     */
+    private static final class LocalPlayer implements Player {
+        private Board board;
+        private GameState state;
+        private int clues;
+        /**
+         * Resultados de las validaciones, acumulados para que se usen como los usaría la vista.
+         */
+        private long invalidCells;
+        private int wins;
+
+        LocalPlayer() {
+            this.newGame();
+        }
+
+        @Override
+        public void perform(int operation, SplittableRandom random) {
+            switch (operation) {
+                case MOVE -> {
+                    int row;
+                    int col;
+                    do {
+                        row = random.nextInt(Board.GRID_SIZE);
+                        col = random.nextInt(Board.GRID_SIZE);
+                    } while (!this.board.getCell(row, col).getEditable());
+                    this.board.setCellValue(row, col, random.nextInt(Board.GRID_SIZE + 1));
+                    this.validate();
+                }
+                case HINT -> {
+                    if (this.board.countEmptyEditableCells() <= 1 || this.clues >= GameHttpService.MAX_CLUES) {
+                        return;
+                    }
+                    int[] clue = findClue(new Board(this.board));
+                    if (clue != null) {
+                        this.board.setCellValue(clue[0], clue[1], clue[2]);
+                        this.clues++;
+                        this.validate();
+                    }
+                }
+                case CLEAR -> {
+                    for (int row = 0; row < Board.GRID_SIZE; row++) {
+                        for (int col = 0; col < Board.GRID_SIZE; col++) {
+                            Cell cell = this.board.getCell(row, col);
+                            if (cell.getEditable() && cell.getValue() != 0) {
+                                this.board.setCellValue(row, col, 0);
+                            }
+                        }
+                    }
+                    this.validate();
+                }
+                case NEW_GAME -> this.newGame();
+                default -> throw new IllegalArgumentException("Operación desconocida: " + operation);
+            }
+        }
+
+        private void newGame() {
+            this.board = Board.fromPuzzleId(Board.randomPuzzleId());
+            this.state = new GameState(this.board);
+            this.clues = 0;
+            this.validate();
+        }
+
+        private void validate() {
+            this.invalidCells += this.state.getInvalidCells().size();
+            if (this.state.isGameWon()) {
+                this.wins++;
+            }
+        }
+
+        /**
+         * Primera celda editable vacía con sugerencia, como GameController.findClue.
+         */
+        private static int[] findClue(Board copy) {
+            GameState copyState = new GameState(copy);
+            for (int row = 0; row < Board.GRID_SIZE; row++) {
+                for (int col = 0; col < Board.GRID_SIZE; col++) {
+                    Cell cell = copy.getCell(row, col);
+                    if (cell.getEditable() && cell.getValue() == 0) {
+                        int suggestion = copyState.getClue(row, col);
+                        if (suggestion > 0) {
+                            return new int[]{row, col, suggestion};
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Jugador contra el servicio HTTP. Limpiar no tiene ruta propia: consulta el estado y vacía
+     * cada celda escrita, y se mide la operación completa.
+     */
+    private static final class RemotePlayer implements Player {
+        private final String base;
+        private String game;
+
+        RemotePlayer(String base) throws Exception {
+            this.base = base;
+            this.game = this.createGame();
+        }
+
+        @Override
+        public void perform(int operation, SplittableRandom random) throws Exception {
+            switch (operation) {
+                case MOVE -> this.post(this.game + "/move?row=" + random.nextInt(Board.GRID_SIZE)
+                        + "&col=" + random.nextInt(Board.GRID_SIZE) + "&value=" + random.nextInt(Board.GRID_SIZE + 1));
+                case HINT -> this.post(this.game + "/hint");
+                case CLEAR -> {
+                    String state = this.send("GET", this.game);
+                    String cells = field(state, "cells");
+                    long editable = Long.parseLong(field(state, "editable"), 16);
+                    for (int index = 0; index < cells.length(); index++) {
+                        if ((editable & (1L << index)) != 0 && cells.charAt(index) != '0') {
+                            this.post(this.game + "/move?row=" + index / Board.GRID_SIZE
+                                    + "&col=" + index % Board.GRID_SIZE + "&value=0");
+                        }
+                    }
+                }
+                case NEW_GAME -> {
+                    this.close();
+                    this.game = this.createGame();
+                }
+                default -> throw new IllegalArgumentException("Operación desconocida: " + operation);
+            }
+        }
+
+        @Override
+        public void close() throws Exception {
+            this.send("DELETE", this.game);
+        }
+
+        private String createGame() throws Exception {
+            LoopbackHttp.Response response = LoopbackHttp.send("POST", this.base + "/games", null);
+            if (response.status() != 201 || response.location() == null) {
+                throw new IllegalStateException("No se pudo crear la partida: " + response.text());
+            }
+            return response.location();
+        }
+
+        private void post(String path) throws Exception {
+            this.send("POST", path);
+        }
+
+        private String send(String method, String path) throws Exception {
+            LoopbackHttp.Response response = LoopbackHttp.send(method, this.base + path, null);
+            // 409: celda fija o sin pistas; son respuestas esperadas de la mezcla aleatoria
+            if (response.status() != 200 && response.status() != 409) {
+                throw new IllegalStateException("Respuesta " + response.status() + ": " + response.text());
+            }
+            return response.text();
+        }
+
+        private static String field(String json, String name) {
+            int start = json.indexOf("\"" + name + "\":\"") + name.length() + 4;
+            return json.substring(start, json.indexOf('"', start));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package univalle.tedesoft.sudoku.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cliente HTTP/1.1 mínimo para las pruebas de carga, sobre HttpURLConnection (java.base): reutiliza
+ * las conexiones persistentes siempre que la respuesta se lea completa, lo que se hace en cada
+ * petición. Evita que el módulo de la aplicación dependa de java.net.http.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+final class LoopbackHttp {
+    /**
+     * Respuesta de una petición.
+     * @param status Código HTTP.
+     * @param body Cuerpo completo (también para respuestas de error).
+     * @param location Cabecera Location, o null.
+     */
+    record Response(int status, byte[] body, String location) {
+        String text() {
+            return new String(this.body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private LoopbackHttp() {
+    }
+
+    /**
+     * Envía una petición sin cuerpo y lee la respuesta completa.
+     * @param method Método HTTP (GET, POST, DELETE).
+     * @param url URL absoluta.
+     * @param accept Valor de la cabecera Accept, o null para no enviarla.
+     * @return la respuesta.
+     * @throws IOException si falla la conexión.
+     */
+    static Response send(String method, String url, String accept) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
+        connection.setRequestMethod(method);
+        if (accept != null) {
+            connection.setRequestProperty("Accept", accept);
+        }
+        int status = connection.getResponseCode();
+        InputStream stream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        byte[] body;
+        if (stream == null) {
+            body = new byte[0];
+        } else {
+            try (stream) {
+                body = stream.readAllBytes(); // Leer todo deja la conexión lista para reutilizarse
+            }
+        }
+        return new Response(status, body, connection.getHeaderField("Location"));
+    }
+}
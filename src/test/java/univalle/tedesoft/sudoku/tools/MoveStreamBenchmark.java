@@ -0,0 +1,170 @@
+package univalle.tedesoft.sudoku.tools;
+
+import javafx.util.Pair;
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.Cell;
+import univalle.tedesoft.sudoku.models.GameState;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.server.MoveStreamDecoder;
+import univalle.tedesoft.sudoku.server.MoveStreamEncoder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Mide el flujo de jugadas por deltas (MoveStreamEncoder / MoveStreamDecoder): bytes y nanosegundos
+ * (codificar + decodificar, sin la jugada) por jugada enviando deltas, una foto binaria por jugada o
+ * el tablero completo en JSON (getGridSnapshot y getInvalidCells). Que el cliente reconstruya cada
+ * estado y detecte las pérdidas lo comprueba MoveStreamTest.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.MoveStreamBenchmark [jugadas]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class MoveStreamBenchmark {
+    private static final int MOVES_PER_GAME = 500;
+
+    public static void main(String[] args) throws Exception {
+        int moves = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        SplittableRandom random = new SplittableRandom(5);
+        // Dos rondas: la primera sirve de calentamiento
+        for (int round = 0; round < 2; round++) {
+            long baseline = measure("solo jugadas", moves, random, null, round == 1);
+            measureDelta(moves, random, baseline, round == 1);
+            measureBinarySnapshot(moves, random, baseline, round == 1);
+            measureJsonSnapshot(moves, random, baseline, round == 1);
+        }
+    }
+
+    private static void measureDelta(int moves, SplittableRandom random, long baseline, boolean print) {
+        MoveStreamEncoder encoder = new MoveStreamEncoder();
+        MoveStreamDecoder decoder = new MoveStreamDecoder();
+        PackedBoard packed = new PackedBoard();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MoveStreamEncoder.MAX_UPDATE_SIZE);
+        long[] bytes = new long[1];
+        boolean[] started = new boolean[1];
+        measure("deltas", moves, random, board -> {
+            board.writeTo(packed);
+            buffer.clear();
+            bytes[0] += started[0] ? encoder.writeUpdate(packed, buffer) : encoder.writeSnapshot(packed, buffer);
+            started[0] = true;
+            buffer.flip();
+            while (decoder.read(buffer) != 0) {
+                // Un delta y, cada tanto, su resincronización
+            }
+            return decoder.getConflictMask();
+        }, print, baseline, bytes);
+    }
+
+    private static void measureBinarySnapshot(int moves, SplittableRandom random, long baseline, boolean print) {
+        MoveStreamEncoder encoder = new MoveStreamEncoder();
+        MoveStreamDecoder decoder = new MoveStreamDecoder();
+        PackedBoard packed = new PackedBoard();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MoveStreamEncoder.MAX_UPDATE_SIZE);
+        long[] bytes = new long[1];
+        measure("foto binaria", moves, random, board -> {
+            board.writeTo(packed);
+            buffer.clear();
+            bytes[0] += encoder.writeSnapshot(packed, buffer);
+            decoder.read(buffer.flip());
+            return decoder.getConflictMask();
+        }, print, baseline, bytes);
+    }
+
+    /**
+     * El tablero completo tras cada jugada, como la respuesta JSON del servicio: celdas de
+     * getGridSnapshot, editables y celdas inválidas de GameState; el cliente lee las celdas.
+     */
+    private static void measureJsonSnapshot(int moves, SplittableRandom random, long baseline, boolean print) {
+        long[] bytes = new long[1];
+        GameState[] state = new GameState[1];
+        Board[] stateBoard = new Board[1];
+        measure("foto JSON", moves, random, board -> {
+            if (stateBoard[0] != board) {
+                stateBoard[0] = board;
+                state[0] = new GameState(board);
+            }
+            Cell[][] grid = board.getGridSnapshot();
+            StringBuilder json = new StringBuilder(160).append("{\"cells\":\"");
+            long editable = 0;
+            for (int row = 0; row < Board.GRID_SIZE; row++) {
+                for (int col = 0; col < Board.GRID_SIZE; col++) {
+                    json.append((char) ('0' + grid[row][col].getValue()));
+                    if (grid[row][col].getEditable()) {
+                        editable |= 1L << PackedBoard.index(row, col);
+                    }
+                }
+            }
+            json.append("\",\"editable\":\"").append(Long.toHexString(editable)).append("\",\"invalid\":[");
+            boolean first = true;
+            for (Pair<Integer, Integer> cell : state[0].getInvalidCells()) {
+                if (!first) json.append(',');
+                json.append('[').append(cell.getKey()).append(',').append(cell.getValue()).append(']');
+                first = false;
+            }
+            byte[] body = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+            bytes[0] += body.length;
+            long lo = 0;
+            long hi = 0;
+            for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+                int value = body[10 + index] - '0';
+                if (PackedBoard.isHighWord(index)) {
+                    hi = PackedBoard.withCell(hi, index, value);
+                } else {
+                    lo = PackedBoard.withCell(lo, index, value);
+                }
+            }
+            return lo ^ hi;
+        }, print, baseline, bytes);
+    }
+
+    private interface Serializer {
+        long send(Board board);
+    }
+
+    private static long measure(String name, int moves, SplittableRandom random, Serializer serializer,
+                                boolean print) {
+        return measure(name, moves, random, serializer, print, 0, null);
+    }
+
+    /**
+     * Juega jugadas al azar (partida nueva cada MOVES_PER_GAME) y serializa tras cada una.
+     * @return nanosegundos totales.
+     */
+    private static long measure(String name, int moves, SplittableRandom random, Serializer serializer,
+                                boolean print, long baseline, long[] bytes) {
+        Board[] boards = new Board[16];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = Board.fromPuzzleId(random.nextLong());
+        }
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int n = 0; n < moves; n++) {
+            Board board = boards[n / MOVES_PER_GAME % boards.length];
+            randomMove(board, random);
+            if (serializer != null) {
+                checksum += serializer.send(board);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        if (print) {
+            if (bytes == null) {
+                System.out.printf("%-14s %8.1f ns/jugada%n", name, (double) nanos / moves);
+            } else {
+                System.out.printf("%-14s %8.1f bytes/jugada %8.1f ns/jugada (checksum %d)%n", name,
+                        (double) bytes[0] / moves, (double) (nanos - baseline) / moves, checksum);
+            }
+        }
+        return nanos;
+    }
+
+    private static void randomMove(Board board, SplittableRandom random) {
+        int row;
+        int col;
+        do {
+            row = random.nextInt(Board.GRID_SIZE);
+            col = random.nextInt(Board.GRID_SIZE);
+        } while (!board.getCell(row, col).getEditable());
+        board.setCellValue(row, col, random.nextInt(Board.GRID_SIZE + 1));
+    }
+}
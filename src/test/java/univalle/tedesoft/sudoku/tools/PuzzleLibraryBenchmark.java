@@ -0,0 +1,92 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.models.PuzzleLibrary;
+import univalle.tedesoft.sudoku.models.PuzzleLibraryWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Construye una biblioteca de puzzles sintéticos (PuzzleLibraryWriter), verifica que cada
+ * registro se lea igual a como se escribió y mide el tiempo de "puzzle aleatorio de dificultad X".
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.PuzzleLibraryBenchmark [puzzles] [lecturas] [archivo]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PuzzleLibraryBenchmark {
+    public static void main(String[] args) throws IOException {
+        int puzzles = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int reads = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        Path file = args.length > 2 ? Path.of(args[2]) : Files.createTempFile("puzzles", ".s6pl");
+
+        long start = System.nanoTime();
+        try (PuzzleLibraryWriter writer = new PuzzleLibraryWriter(file)) {
+            SplittableRandom random = new SplittableRandom(42);
+            PackedBoard puzzle = new PackedBoard();
+            for (int i = 0; i < puzzles; i++) {
+                randomPuzzle(random, puzzle);
+                writer.add(puzzle, random.nextInt(PuzzleLibrary.MAX_DIFFICULTY + 1));
+            }
+        }
+        System.out.printf("Escritura: %d puzzles en %.1f ms (%d bytes)%n",
+                puzzles, (System.nanoTime() - start) / 1e6, Files.size(file));
+
+        try (PuzzleLibrary library = new PuzzleLibrary(file)) {
+            // Los registros de cada intervalo deben tener la dificultad correspondiente
+            PackedBoard record = new PackedBoard();
+            for (int bucket = 0; bucket < PuzzleLibrary.BUCKET_COUNT; bucket++) {
+                SplittableRandom random = new SplittableRandom(bucket);
+                for (int i = 0; i < 1_000 && library.bucketSize(bucket) > 0; i++) {
+                    long index = library.randomIndex(bucket, random);
+                    if (PuzzleLibrary.bucketOf(library.getDifficulty(index)) != bucket) {
+                        throw new IllegalStateException("Registro " + index + " fuera de su intervalo.");
+                    }
+                }
+            }
+            library.read(0, record);
+            Board board = new Board();
+            board.loadFrom(library, 0);
+            if (!board.toPacked().equals(record)) {
+                throw new IllegalStateException("El tablero cargado no coincide con el registro.");
+            }
+            System.out.println("Índice por dificultad verificado en " + library.size() + " registros.");
+
+            SplittableRandom random = new SplittableRandom(7);
+            long checksum = 0;
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                start = System.nanoTime();
+                for (int i = 0; i < reads; i++) {
+                    if (library.readRandom(i % PuzzleLibrary.BUCKET_COUNT, random, record)) {
+                        checksum += record.getSolutionLo();
+                    }
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            System.out.printf("Lectura aleatoria por dificultad: %.1f ns/puzzle (checksum %d)%n",
+                    (double) best / reads, checksum);
+        } finally {
+            if (args.length <= 2) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Genera un puzzle sintético: solución aleatoria y un tercio de las celdas como pistas.
+     */
+    private static void randomPuzzle(SplittableRandom random, PackedBoard puzzle) {
+        puzzle.set(0, 0, 0, 0, 0);
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            int solution = 1 + random.nextInt(Board.GRID_SIZE);
+            puzzle.setSolution(index, solution);
+            boolean given = random.nextInt(3) == 0;
+            puzzle.setValue(index, given ? solution : 0);
+            puzzle.setEditable(index, !given);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.models.PuzzleTextReader;
+import univalle.tedesoft.sudoku.models.PuzzleTextWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * Escribe un archivo de puzzles en texto con PuzzleTextWriter, intercala algunas líneas
+ * mal formadas y lo vuelve a leer con PuzzleTextReader, verificando el contenido y
+ * midiendo el rendimiento en MB/s.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.PuzzleTextBenchmark [puzzles] [archivo]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class PuzzleTextBenchmark {
+    /**
+     * Cada cuántos puzzles se intercala una línea inválida.
+     */
+    private static final int BAD_LINE_EVERY = 100_000;
+
+    public static void main(String[] args) throws IOException {
+        int puzzles = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Path file = args.length > 1 ? Path.of(args[1]) : Files.createTempFile("puzzles", ".txt");
+
+        try {
+            long start = System.nanoTime();
+            int badLines = 0;
+            try (PuzzleTextWriter writer = new PuzzleTextWriter(file)) {
+                SplittableRandom random = new SplittableRandom(42);
+                PackedBoard puzzle = new PackedBoard();
+                for (int i = 0; i < puzzles; i++) {
+                    randomPuzzle(random, puzzle);
+                    writer.write(puzzle);
+                }
+            }
+            // Líneas inválidas al final: caracteres extraños, longitud corta y sin salto de línea final
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+                StringBuilder bad = new StringBuilder();
+                for (int i = 0; i < puzzles / BAD_LINE_EVERY + 1; i++) {
+                    bad.append("12x456\n").append("123\r\n");
+                    badLines += 2;
+                }
+                bad.append("..................................7.");
+                badLines++;
+                channel.write(ByteBuffer.wrap(bad.toString().getBytes(StandardCharsets.US_ASCII)));
+            }
+            long size = Files.size(file);
+            report("generar+escribir", System.nanoTime() - start, puzzles, size);
+
+            start = System.nanoTime();
+            long[] errors = {0};
+            try (PuzzleTextReader reader = new PuzzleTextReader(file)) {
+                reader.setErrorHandler((line, message) -> errors[0]++);
+                SplittableRandom random = new SplittableRandom(42);
+                PackedBoard expected = new PackedBoard();
+                PackedBoard read = new PackedBoard();
+                int count = 0;
+                while (reader.next(read)) {
+                    randomPuzzle(random, expected);
+                    if (read.getValuesLo() != expected.getValuesLo() || read.getValuesHi() != expected.getValuesHi()
+                            || read.getEditableMask() != expected.getEditableMask()) {
+                        throw new IllegalStateException("El puzzle " + count + " no coincide con el escrito.");
+                    }
+                    count++;
+                }
+                if (count != puzzles || errors[0] != badLines) {
+                    throw new IllegalStateException("Se leyeron " + count + " puzzles y " + errors[0]
+                            + " errores; se esperaban " + puzzles + " y " + badLines + ".");
+                }
+            }
+            report("verificar", System.nanoTime() - start, puzzles, size);
+            System.out.println("Ida y vuelta correcta; " + badLines + " líneas inválidas reportadas y saltadas.");
+
+            // Solo lectura: mide el análisis sin el costo de regenerar los puzzles esperados
+            start = System.nanoTime();
+            long checksum = 0;
+            try (PuzzleTextReader reader = new PuzzleTextReader(file)) {
+                reader.setErrorHandler((line, message) -> { });
+                PackedBoard read = new PackedBoard();
+                while (reader.next(read)) {
+                    checksum += read.getValuesLo();
+                }
+            }
+            report("leer", System.nanoTime() - start, puzzles, size);
+            System.out.println("(checksum " + checksum + ")");
+        } finally {
+            if (args.length <= 1) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static void report(String name, long nanos, int puzzles, long bytes) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-17s %10.0f puzzles/s  %8.1f MB/s%n", name, puzzles / seconds, bytes / seconds / 1e6);
+    }
+
+    /**
+     * Genera un puzzle sintético con un tercio de las celdas como pistas.
+     */
+    private static void randomPuzzle(SplittableRandom random, PackedBoard puzzle) {
+        puzzle.set(0, 0, 0, 0, 0);
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            boolean given = random.nextInt(3) == 0;
+            puzzle.setValue(index, given ? 1 + random.nextInt(6) : 0);
+            puzzle.setEditable(index, !given);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.MoveRecorder;
+import univalle.tedesoft.sudoku.models.MoveReplayer;
+import univalle.tedesoft.sudoku.models.MoveSource;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Graba partidas simuladas con MoveRecorder (a través de los cambios del tablero, como el
+ * controlador) y mide la reproducción con MoveReplayer: reproducción completa en eventos por
+ * segundo y reconstrucción de instantes al azar. Compara los tableros reconstruidos con
+ * fotos tomadas durante la grabación.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.ReplayBenchmark [jugadas]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class ReplayBenchmark {
+    private static final int MOVES_PER_GAME = 5_000;
+    private static final int SAMPLES = 1_000;
+
+    public static void main(String[] args) throws IOException {
+        int totalMoves = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        Path file = Files.createTempFile("sudoku-jugadas", ".log");
+        try {
+            long[] clock = {1_700_000_000_000L};
+            SplittableRandom random = new SplittableRandom(11);
+            int sampleEvery = Math.max(1, totalMoves / SAMPLES);
+            PackedBoard[] expected = new PackedBoard[totalMoves / sampleEvery + 1];
+            long[] expectedTime = new long[expected.length];
+
+            long start = System.nanoTime();
+            try (MoveRecorder recorder = new MoveRecorder(file, () -> clock[0])) {
+                Board board = null;
+                for (int move = 1; move <= totalMoves; move++) {
+                    if ((move - 1) % MOVES_PER_GAME == 0) {
+                        board = Board.fromPuzzleId(random.nextLong());
+                        recorder.startGame(board);
+                    }
+                    int row;
+                    int col;
+                    int value;
+                    do {
+                        row = random.nextInt(Board.GRID_SIZE);
+                        col = random.nextInt(Board.GRID_SIZE);
+                        value = random.nextInt(Board.GRID_SIZE + 1);
+                    } while (!board.getCell(row, col).getEditable() || board.getCell(row, col).getValue() == value);
+                    recorder.setSource(MoveSource.values()[random.nextInt(3)]);
+                    board.setCellValue(row, col, value);
+                    if (move % sampleEvery == 0) {
+                        expected[move / sampleEvery] = new PackedBoard();
+                        board.writeTo(expected[move / sampleEvery]);
+                        expectedTime[move / sampleEvery] = clock[0];
+                    }
+                    clock[0] += 1 + random.nextInt(3);
+                }
+            }
+            double recordSeconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Grabación: %d jugadas en %.2f s (%d bytes)%n", totalMoves, recordSeconds, Files.size(file));
+
+            try (MoveReplayer replayer = new MoveReplayer(file)) {
+                if (replayer.getMoveCount() != totalMoves) {
+                    throw new IllegalStateException("El registro tiene " + replayer.getMoveCount() + " jugadas.");
+                }
+                long[] checksum = {0};
+                for (int round = 0; round < 3; round++) {
+                    start = System.nanoTime();
+                    long moves = replayer.forEachMove((time, source, index, value, board) ->
+                            checksum[0] += value + board.getValuesLo());
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    System.out.printf("Reproducción completa: %.1f M jugadas/s (checksum %d)%n",
+                            moves / seconds / 1e6, checksum[0]);
+                }
+
+                PackedBoard actual = new PackedBoard();
+                start = System.nanoTime();
+                for (int sample = 1; sample < expected.length; sample++) {
+                    replayer.stateAfterMove((long) sample * sampleEvery, actual);
+                    if (!actual.equals(expected[sample])) {
+                        throw new IllegalStateException("Tablero distinto tras la jugada " + sample * sampleEvery);
+                    }
+                    if (!replayer.stateAt(expectedTime[sample], actual) || !actual.equals(expected[sample])) {
+                        throw new IllegalStateException("Tablero distinto en el instante " + expectedTime[sample]);
+                    }
+                }
+                double micros = (System.nanoTime() - start) / 1e3 / (2.0 * (expected.length - 1));
+                System.out.printf("Reconstrucciones verificadas: %d (%.1f us cada una, incluye regenerar puzzles)%n",
+                        2 * (expected.length - 1), micros);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.server.GameSession;
+import univalle.tedesoft.sudoku.server.SessionCache;
+import univalle.tedesoft.sudoku.server.SessionSpillStore;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Mide la caché de sesiones del servicio (SessionCache) con más partidas que su capacidad: varios
+ * hilos juegan sobre partidas elegidas con sesgo (el 90% de las jugadas va al 10% de las partidas)
+ * y se reportan jugadas por segundo, tasa de aciertos, expulsiones, escrituras a disco y latencia
+ * de recarga. Al final recarga cada partida y verifica que conserve sus jugadas y la última celda
+ * jugada. Luego comprueba la expiración: con un tiempo de inactividad corto, todas las partidas
+ * deben bajar a disco y recargarse intactas.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.SessionCacheBenchmark [partidas] [capacidad] [hilos]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class SessionCacheBenchmark {
+    private static final int PUZZLE_POOL = 512;
+    private static final int MOVES_PER_THREAD = 500_000;
+    private static final long TTL_MILLIS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int capacity = args.length > 1 ? Integer.parseInt(args[1]) : sessions / 10;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors() * 2;
+        PackedBoard[] pool = new PackedBoard[PUZZLE_POOL];
+        SplittableRandom seeds = new SplittableRandom(11);
+        for (int i = 0; i < PUZZLE_POOL; i++) {
+            pool[i] = Board.fromPuzzleId(seeds.nextLong()).toPacked();
+        }
+        runLoad(pool, sessions, capacity, threads);
+        runExpiration(pool, Math.min(sessions, 20_000));
+    }
+
+    private static void runLoad(PackedBoard[] pool, int sessions, int capacity, int threads) throws Exception {
+        try (SessionCache cache = new SessionCache(capacity, 0, SessionSpillStore.createTemporary())) {
+            String[] ids = createSessions(cache, pool, sessions);
+            AtomicIntegerArray moves = new AtomicIntegerArray(sessions);
+            AtomicIntegerArray lastMove = new AtomicIntegerArray(sessions);
+            Thread[] workers = new Thread[threads];
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                SplittableRandom random = new SplittableRandom(100 + t);
+                workers[t] = new Thread(() -> {
+                    try {
+                        for (int n = 0; n < MOVES_PER_THREAD; n++) {
+                            int hot = Math.max(1, sessions / 10);
+                            int s = random.nextInt(10) < 9 ? random.nextInt(hot) : random.nextInt(sessions);
+                            int index = random.nextInt(PackedBoard.CELL_COUNT);
+                            int value = 1 + random.nextInt(6);
+                            cache.update(ids[s], session -> {
+                                if (session.applyMove(index / 6, index % 6, value)) {
+                                    // Con el candado de la sesión: el orden coincide con el de las jugadas
+                                    moves.incrementAndGet(s);
+                                    lastMove.set(s, index << 3 | value);
+                                }
+                                return Boolean.TRUE;
+                            });
+                        }
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d partidas, capacidad %d, %d hilos: %.0f jugadas/s%n",
+                    sessions, capacity, threads, (double) threads * MOVES_PER_THREAD / seconds);
+            report(cache);
+            verify(cache, ids, moves, lastMove);
+            System.out.println("Partidas verificadas tras recargarlas: " + sessions);
+        }
+    }
+
+    private static void runExpiration(PackedBoard[] pool, int sessions) throws Exception {
+        try (SessionCache cache = new SessionCache(sessions * 2, TTL_MILLIS, SessionSpillStore.createTemporary())) {
+            String[] ids = createSessions(cache, pool, sessions);
+            AtomicIntegerArray moves = new AtomicIntegerArray(sessions);
+            AtomicIntegerArray lastMove = new AtomicIntegerArray(sessions);
+            for (int s = 0; s < sessions; s++) {
+                int index = s % PackedBoard.CELL_COUNT;
+                int session = s;
+                cache.update(ids[s], current -> {
+                    if (current.applyMove(index / 6, index % 6, 1 + session % 6)) {
+                        moves.incrementAndGet(session);
+                        lastMove.set(session, index << 3 | (1 + session % 6));
+                    }
+                    return Boolean.TRUE;
+                });
+            }
+            // Algunas pueden expirar y recargarse ya durante la creación: se cuentan al menos una vez cada una
+            long deadline = System.currentTimeMillis() + TTL_MILLIS * 20;
+            while (cache.getResidentCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(TTL_MILLIS / 4);
+            }
+            if (cache.getResidentCount() != 0 || cache.getTtlEvictions() < sessions) {
+                throw new IllegalStateException("La expiración dejó " + cache.getResidentCount()
+                        + " partidas en memoria.");
+            }
+            System.out.println("Expiración: " + cache.getTtlEvictions() + " partidas inactivas bajaron a disco.");
+            verify(cache, ids, moves, lastMove);
+            report(cache);
+            System.out.println("Partidas expiradas recargadas y verificadas: " + sessions);
+        }
+    }
+
+    private static String[] createSessions(SessionCache cache, PackedBoard[] pool, int sessions) throws IOException {
+        String[] ids = new String[sessions];
+        for (int s = 0; s < sessions; s++) {
+            ids[s] = Long.toHexString(s | Long.MIN_VALUE);
+            if (!cache.putIfAbsent(ids[s], new GameSession(Board.fromPacked(pool[s % PUZZLE_POOL])))) {
+                throw new IllegalStateException("Identificador repetido: " + ids[s]);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Recarga cada partida y compara sus jugadas y su última celda jugada con lo registrado.
+     */
+    private static void verify(SessionCache cache, String[] ids, AtomicIntegerArray moves,
+                               AtomicIntegerArray lastMove) throws IOException {
+        for (int s = 0; s < ids.length; s++) {
+            int expectedMoves = moves.get(s);
+            int last = lastMove.get(s);
+            int[] actual = cache.update(ids[s], session -> {
+                int index = last >>> 3;
+                return new int[]{session.getMoves(), session.getValue(index / 6, index % 6)};
+            });
+            if (actual == null || actual[0] != expectedMoves || (expectedMoves > 0 && actual[1] != (last & 7))) {
+                throw new IllegalStateException("La partida " + ids[s] + " no conservó su estado.");
+            }
+        }
+    }
+
+    private static void report(SessionCache cache) {
+        System.out.printf("  aciertos %.2f%% (%d en memoria, %d recargas), expulsiones LRU %d, por inactividad %d,"
+                        + " escrituras a disco %d%n",
+                cache.getHitRate() * 100, cache.getHits(), cache.getReloads(), cache.getLruEvictions(),
+                cache.getTtlEvictions(), cache.getSpillWrites());
+        System.out.println("  " + cache.getReloadLatency().summary("recarga"));
+    }
+}
@@ -0,0 +1,132 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.GameSessionEngine;
+import univalle.tedesoft.sudoku.models.GameState;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.models.SessionBoard;
+import univalle.tedesoft.sudoku.models.SessionGameState;
+
+import java.util.SplittableRandom;
+
+/**
+ * Mide el motor de partidas compacto (GameSessionEngine): bytes por partida comparados con un
+ * Board más su GameState, y jugadas por segundo sobre 100 mil y un millón de partidas, directamente
+ * en el motor y a través de las vistas IBoard/IGameState. Antes verifica que las vistas den los
+ * mismos resultados que Board y GameState en partidas con jugadas al azar.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.SessionEngineBenchmark [partidas...]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class SessionEngineBenchmark {
+    private static final int PUZZLE_POOL = 1024;
+    private static final int CLASSIC_SAMPLE = 20_000;
+    private static final int MOVES = 10_000_000;
+
+    public static void main(String[] args) {
+        int[] counts = args.length > 0 ? new int[args.length] : new int[]{100_000, 1_000_000};
+        for (int i = 0; i < args.length; i++) {
+            counts[i] = Integer.parseInt(args[i]);
+        }
+        // Generar un millón de puzzles tomaría segundos: las partidas copian puzzles de un conjunto fijo
+        PackedBoard[] pool = new PackedBoard[PUZZLE_POOL];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < PUZZLE_POOL; i++) {
+            pool[i] = new PackedBoard();
+            Board.fromPuzzleId(random.nextLong()).writeTo(pool[i]);
+        }
+        verify(pool, random);
+
+        long before = usedHeap();
+        Object[] classic = new Object[CLASSIC_SAMPLE * 2];
+        for (int i = 0; i < CLASSIC_SAMPLE; i++) {
+            Board board = Board.fromPacked(pool[i % PUZZLE_POOL]);
+            classic[2 * i] = board;
+            classic[2 * i + 1] = new GameState(board);
+        }
+        long classicBytes = (usedHeap() - before) / CLASSIC_SAMPLE;
+        System.out.printf("Board + GameState: %d bytes por partida%n", classicBytes);
+        classic = null;
+
+        for (int count : counts) {
+            before = usedHeap();
+            GameSessionEngine engine = new GameSessionEngine();
+            int[] sessions = new int[count];
+            for (int i = 0; i < count; i++) {
+                sessions[i] = engine.create(pool[i % PUZZLE_POOL]);
+            }
+            long used = usedHeap() - before;
+            System.out.printf("%,d partidas: %d bytes por partida (%,d MB; arreglos reservados %,d MB)%n",
+                    count, used / count, used >> 20, engine.getReservedBytes() >> 20);
+
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                long applied = 0;
+                for (int n = 0; n < MOVES; n++) {
+                    int session = sessions[random.nextInt(count)];
+                    if (engine.setCellValue(session, random.nextInt(6), random.nextInt(6), random.nextInt(7))) {
+                        applied++;
+                    }
+                }
+                double direct = MOVES / ((System.nanoTime() - start) / 1e9);
+
+                SessionBoard board = engine.board(sessions[0]);
+                SessionGameState state = engine.gameState(sessions[0]);
+                long won = 0;
+                start = System.nanoTime();
+                for (int n = 0; n < MOVES; n++) {
+                    int session = sessions[random.nextInt(count)];
+                    board.setSession(session);
+                    state.setSession(session);
+                    if (board.setCellValue(random.nextInt(6), random.nextInt(6), random.nextInt(7))
+                            && state.isBoardValid() && state.isGameWon()) {
+                        won++;
+                    }
+                }
+                double viaViews = MOVES / ((System.nanoTime() - start) / 1e9);
+                System.out.printf("  jugadas: %.1f M/s en el motor, %.1f M/s por las vistas con validación"
+                        + " (aplicadas %d, ganadas %d)%n", direct / 1e6, viaViews / 1e6, applied, won);
+            }
+            sessions = null;
+            engine = null;
+        }
+    }
+
+    /**
+     * Aplica las mismas jugadas al azar a Board/GameState y a las vistas del motor y compara sus respuestas.
+     */
+    private static void verify(PackedBoard[] pool, SplittableRandom random) {
+        GameSessionEngine engine = new GameSessionEngine();
+        for (int game = 0; game < 200; game++) {
+            PackedBoard puzzle = pool[game];
+            Board board = Board.fromPacked(puzzle);
+            GameState state = new GameState(board);
+            int session = engine.create(puzzle);
+            SessionBoard view = engine.board(session);
+            SessionGameState viewState = engine.gameState(session);
+            for (int move = 0; move < 200; move++) {
+                int row = random.nextInt(6);
+                int col = random.nextInt(6);
+                int value = random.nextInt(7);
+                if (board.setCellValue(row, col, value) != view.setCellValue(row, col, value)
+                        || !state.getInvalidCells().equals(viewState.getInvalidCells())
+                        || state.isGameWon() != viewState.isGameWon()
+                        || state.isBoardFull() != viewState.isBoardFull()
+                        || state.getClue(row, col) != viewState.getClue(row, col)
+                        || board.countEmptyEditableCells() != view.countEmptyEditableCells()) {
+                    throw new IllegalStateException("La vista difiere de Board/GameState en la partida " + game);
+                }
+            }
+            engine.remove(session);
+        }
+        System.out.println("Vistas verificadas contra Board y GameState: 200 partidas x 200 jugadas.");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
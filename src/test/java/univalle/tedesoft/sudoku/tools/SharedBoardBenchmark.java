@@ -0,0 +1,156 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.metrics.LatencyHistogram;
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.models.SharedBoard;
+import univalle.tedesoft.sudoku.models.SharedGameMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prueba de carga del tablero compartido (SharedBoard): muchos jugadores simulados, repartidos en
+ * varios hilos, juegan sin pausa sobre la misma partida leyendo una celda y, a veces tras ceder el
+ * procesador, escribiéndola con el valor visto, mientras varios lectores siguen el registro de
+ * cambios. Mide la latencia por jugada, los conflictos y lo que se atrasan los lectores. Que el
+ * registro respete el orden por celda y que los puntos cuadren lo comprueba SharedBoardTest.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.SharedBoardBenchmark [jugadores] [hilos] [segundos]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class SharedBoardBenchmark {
+    private static final int FEED_READERS = 4;
+
+    public static void main(String[] args) throws InterruptedException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        PackedBoard puzzle = Board.fromPuzzleId(99).toPacked();
+        run(puzzle, SharedGameMode.COOPERATIVE, players, threads, seconds);
+        run(puzzle, SharedGameMode.COMPETITIVE, players, threads, seconds);
+    }
+
+    private static void run(PackedBoard puzzle, SharedGameMode mode, int players, int threads, int seconds)
+            throws InterruptedException {
+        SharedBoard board = new SharedBoard(puzzle, mode, players, 1 << 22);
+        int[] editable = editableCells(puzzle);
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder applied = new LongAdder();
+        LongAdder conflicts = new LongAdder();
+        LongAdder claimed = new LongAdder();
+        List<LatencyHistogram> histograms = new ArrayList<>();
+        List<FeedReader> readers = new ArrayList<>();
+        List<Thread> all = new ArrayList<>();
+        for (int r = 0; r < FEED_READERS; r++) {
+            FeedReader reader = new FeedReader(board, running);
+            readers.add(reader);
+            all.add(new Thread(reader, "lector-" + r));
+        }
+        for (int t = 0; t < threads; t++) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histograms.add(histogram);
+            int firstPlayer = t * players / threads;
+            int lastPlayer = (t + 1) * players / threads;
+            SplittableRandom random = new SplittableRandom(t);
+            all.add(new Thread(() -> {
+                while (running.get()) {
+                    int player = firstPlayer + random.nextInt(Math.max(1, lastPlayer - firstPlayer));
+                    int index = editable[random.nextInt(editable.length)];
+                    int row = index / Board.GRID_SIZE;
+                    int col = index % Board.GRID_SIZE;
+                    int seen = board.getValue(row, col);
+                    if (random.nextInt(4) == 0) {
+                        // El jugador "piensa": su vista de la celda puede quedar vieja
+                        Thread.yield();
+                    }
+                    // En competitivo, a veces el número correcto, para que haya celdas ganadas
+                    int value = mode == SharedGameMode.COMPETITIVE && random.nextInt(8) == 0
+                            ? puzzle.getSolution(index) : random.nextInt(Board.GRID_SIZE + 1);
+                    long start = System.nanoTime();
+                    SharedBoard.Outcome outcome = board.move(player, row, col, seen, value);
+                    histogram.record(System.nanoTime() - start);
+                    switch (outcome) {
+                        case APPLIED -> applied.increment();
+                        case CONFLICT -> conflicts.increment();
+                        case CLAIMED -> claimed.increment();
+                        default -> throw new IllegalStateException("Jugada sobre celda fija: " + index);
+                    }
+                }
+            }, "jugadores-" + t));
+        }
+        for (Thread thread : all) {
+            thread.start();
+        }
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        for (Thread thread : all) {
+            thread.join();
+        }
+
+        LatencyHistogram latency = new LatencyHistogram();
+        histograms.forEach(latency::add);
+        long moves = latency.getCount();
+        System.out.printf("%s: %d jugadores en %d hilos, %.0f jugadas/s, aplicadas %d, conflictos %d (%.1f%%),"
+                        + " reclamadas %d%n", mode, players, threads, moves / (double) seconds, applied.sum(),
+                conflicts.sum(), 100.0 * conflicts.sum() / moves, claimed.sum());
+        System.out.println(latency.summary("jugada"));
+
+        long lost = 0;
+        for (FeedReader reader : readers) {
+            reader.finish();
+            lost += reader.feed.getLostCount();
+        }
+        System.out.println("Lectores del registro: " + FEED_READERS + ", " + board.getChangeCount()
+                + " cambios publicados, " + lost + " perdidos por atrasarse.");
+    }
+
+    private static int[] editableCells(PackedBoard puzzle) {
+        int[] cells = new int[Long.bitCount(puzzle.getEditableMask())];
+        int n = 0;
+        for (int index = 0; index < PackedBoard.CELL_COUNT; index++) {
+            if (puzzle.isEditable(index)) {
+                cells[n++] = index;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Jugador que solo sigue el registro de cambios y reconstruye el tablero.
+     */
+    private static final class FeedReader implements Runnable, SharedBoard.ChangeVisitor {
+        final SharedBoard.ChangeFeed feed;
+        final PackedBoard board = new PackedBoard();
+        final AtomicBoolean running;
+
+        FeedReader(SharedBoard shared, AtomicBoolean running) {
+            this.feed = shared.openFeed();
+            shared.snapshot(this.board);
+            this.running = running;
+        }
+
+        @Override
+        public void run() {
+            while (this.running.get()) {
+                if (this.feed.drain(this, 4096) == 0) {
+                    Thread.yield();
+                }
+            }
+        }
+
+        void finish() {
+            while (this.feed.drain(this, Integer.MAX_VALUE) > 0) {
+                // Cambios que quedaban al detener a los jugadores
+            }
+        }
+
+        @Override
+        public void change(long sequence, int player, int index, int oldValue, int newValue) {
+            this.board.setValue(index, newValue);
+        }
+    }
+}
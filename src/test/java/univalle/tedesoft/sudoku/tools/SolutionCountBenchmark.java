@@ -0,0 +1,125 @@
+package univalle.tedesoft.sudoku.tools;
+
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.PackedBoard;
+import univalle.tedesoft.sudoku.models.ParallelSolutionCounter;
+import univalle.tedesoft.sudoku.models.SolutionGridGenerator;
+import univalle.tedesoft.sudoku.models.SudokuSolver;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Mide la aceleración del conteo paralelo de soluciones (ParallelSolutionCounter) frente al conteo
+ * en un solo hilo de SudokuSolver, sobre tableros dispersos: uno 6x6 con pocas pistas, contado
+ * completo, y uno 9x9 con pocas pistas, contado hasta un límite. Para 1, 2, 4... hilos hasta el
+ * máximo pedido (por defecto los procesadores, y al menos 4) reporta tiempo, soluciones por
+ * segundo y aceleración, y verifica que el conteo coincida con el secuencial.
+ * Uso: {@code java -cp ... univalle.tedesoft.sudoku.tools.SolutionCountBenchmark [hilos máx]
+ * [pistas 6x6] [pistas 9x9] [límite 9x9] [profundidad de reparto]}
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+public class SolutionCountBenchmark {
+    /**
+     * Cuadrícula 9x9 resuelta de la que se toman las pistas.
+     */
+    private static final String SOLVED_9X9 =
+            "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+
+    public static void main(String[] args) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        // Al menos 4 hilos aunque haya menos procesadores: así se ve que la aceleración se detiene en ellos
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(4, processors);
+        int givens6 = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int givens9 = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long limit9 = args.length > 3 ? Long.parseLong(args[3]) : 2_000_000L;
+        int splitDepth = args.length > 4 ? Integer.parseInt(args[4]) : ParallelSolutionCounter.DEFAULT_SPLIT_DEPTH;
+
+        System.out.printf("Procesadores disponibles: %d (la aceleración no puede superarlos)%n", processors);
+
+        SplittableRandom random = new SplittableRandom(41);
+        PackedBoard grid6 = new PackedBoard();
+        SolutionGridGenerator.generate(random, grid6);
+        int[] solved6 = new int[PackedBoard.CELL_COUNT];
+        for (int index = 0; index < solved6.length; index++) {
+            solved6[index] = grid6.getValue(index);
+        }
+        int[] solved9 = new int[SOLVED_9X9.length()];
+        for (int index = 0; index < solved9.length; index++) {
+            solved9[index] = SOLVED_9X9.charAt(index) - '0';
+        }
+
+        run("6x6", keepGivens(solved6, givens6, random), Long.MAX_VALUE,
+                Board.GRID_SIZE, Board.BLOCK_ROWS, Board.BLOCK_COLS, maxThreads, splitDepth);
+        run("9x9", keepGivens(solved9, givens9, random), limit9, 9, 3, 3, maxThreads, splitDepth);
+    }
+
+    private static void run(String name, int[] cells, long limit, int size, int blockRows, int blockCols,
+                            int maxThreads, int splitDepth) {
+        int givens = 0;
+        for (int value : cells) {
+            givens += value != 0 ? 1 : 0;
+        }
+        SudokuSolver solver = new SudokuSolver(size, blockRows, blockCols);
+        long start = System.nanoTime();
+        long sequential = solver.countSolutions(cells, limit, null);
+        double sequentialSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s con %d pistas%s: %d soluciones; secuencial %.2f s (%.1f M soluciones/s)%n",
+                name, givens, limit == Long.MAX_VALUE ? "" : " (límite " + limit + ")", sequential,
+                sequentialSeconds, sequential / sequentialSeconds / 1e6);
+
+        double oneThreadSeconds = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                ParallelSolutionCounter counter = new ParallelSolutionCounter(size, blockRows, blockCols, pool, splitDepth);
+                start = System.nanoTime();
+                long count = counter.countSolutions(cells, limit);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                if (count != sequential) {
+                    throw new IllegalStateException("El conteo paralelo dio " + count + " y el secuencial " + sequential);
+                }
+                if (threads == 1) {
+                    oneThreadSeconds = seconds;
+                }
+                System.out.printf("  %2d hilos: %.2f s, aceleración %.2fx (vs. secuencial %.2fx), robos %d%n",
+                        threads, seconds, oneThreadSeconds / seconds, sequentialSeconds / seconds,
+                        pool.getStealCount());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 1, 2, 4... y por último el máximo pedido.
+     */
+    private static int nextThreadCount(int threads, int maxThreads) {
+        if (threads == maxThreads) {
+            return maxThreads + 1;
+        }
+        return Math.min(threads * 2, maxThreads);
+    }
+
+    /**
+     * Conserva {@code givens} celdas al azar de una cuadrícula resuelta y vacía las demás.
+     */
+    private static int[] keepGivens(int[] solved, int givens, SplittableRandom random) {
+        int[] order = new int[solved.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        int[] cells = new int[solved.length];
+        for (int i = 0; i < Math.min(givens, solved.length); i++) {
+            cells[order[i]] = solved[order[i]];
+        }
+        return cells;
+    }
+}
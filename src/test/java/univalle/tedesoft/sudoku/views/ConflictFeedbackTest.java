@@ -0,0 +1,267 @@
+package univalle.tedesoft.sudoku.views;
+
+import javafx.util.Pair;
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.sudoku.controllers.GameController;
+import univalle.tedesoft.sudoku.controllers.GameTaskRunner;
+import univalle.tedesoft.sudoku.models.Board;
+import univalle.tedesoft.sudoku.models.Cell;
+import univalle.tedesoft.sudoku.models.Solvability;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Pruebas del aviso de conflictos: solo se reporta un mensaje cuando aparece un conflicto nuevo,
+ * y el controlador nunca abre un diálogo para avisar de un error de validación.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class ConflictFeedbackTest {
+    private static final int GRID_SIZE = Board.GRID_SIZE;
+
+    @Test
+    void reportsOnlyNewConflictsAndResolution() {
+        ConflictFeedback feedback = new ConflictFeedback();
+        Pair<Integer, Integer> a = new Pair<>(0, 0);
+        Pair<Integer, Integer> b = new Pair<>(0, 3);
+        Pair<Integer, Integer> c = new Pair<>(4, 4);
+
+        assertEquals(ConflictFeedback.Change.NONE, feedback.update(Set.of()));
+        assertEquals(ConflictFeedback.Change.NEW_CONFLICTS, feedback.update(Set.of(a, b)));
+        assertEquals("2 celdas inválidas: revisa los valores marcados en rojo.", feedback.getMessage());
+        assertEquals(ConflictFeedback.Change.NONE, feedback.update(Set.of(a, b)));
+        assertEquals(ConflictFeedback.Change.NONE, feedback.update(Set.of(a)));
+        assertEquals(ConflictFeedback.Change.NEW_CONFLICTS, feedback.update(Set.of(a, c)));
+        assertEquals(ConflictFeedback.Change.RESOLVED, feedback.update(Set.of()));
+        assertEquals("", feedback.getMessage());
+        assertEquals(ConflictFeedback.Change.NONE, feedback.update(Set.of()));
+    }
+
+    @Test
+    void controllerReportsConflictsInlineWithoutDialogs() {
+        RecordingView view = new RecordingView();
+        GameController controller = new GameController(new GameTaskRunner(new DirectExecutorService(), Runnable::run));
+        controller.setAutosave(null);
+        controller.setMoveRecorder(null);
+        controller.initialize();
+        controller.setView(view);
+
+        int[][] grid = view.values;
+        // Primera jugada: repetir en una celda editable el valor fijo de otra celda de su fila
+        int[] conflict = findConflictingMove(grid);
+        assertTrue(conflict != null, "El puzzle debería tener una celda editable vacía junto a una pista");
+
+        SplittableRandom random = new SplittableRandom(28);
+        Set<Pair<Integer, Integer>> previous = invalidCells(grid);
+        int expectedMessages = 0;
+        for (int move = 0; move < 100; move++) {
+            int row;
+            int col;
+            int value;
+            if (move == 0) {
+                row = conflict[0];
+                col = conflict[1];
+                value = conflict[2];
+            } else {
+                do {
+                    row = random.nextInt(GRID_SIZE);
+                    col = random.nextInt(GRID_SIZE);
+                } while (!view.editable[row][col]);
+                value = random.nextInt(GRID_SIZE + 1);
+            }
+            grid[row][col] = value;
+            view.lastUpdateReported = false; // Un valor igual al anterior no se vuelve a validar
+            controller.cellValueChanged(row, col, value == 0 ? "" : Integer.toString(value));
+
+            Set<Pair<Integer, Integer>> current = invalidCells(grid);
+            boolean hasNew = !previous.containsAll(current);
+            if (hasNew) {
+                expectedMessages++;
+            }
+            assertEquals(current, view.invalidCells, "Conflictos tras la jugada " + move);
+            assertEquals(hasNew, view.lastUpdateReported, "Aviso tras la jugada " + move);
+            if (move == 0) {
+                assertTrue(hasNew, "La primera jugada debería crear un conflicto");
+            }
+            previous = current;
+        }
+        assertEquals(expectedMessages, view.messagesReported);
+        assertTrue(view.messagesReported < 100, "Volver a validar los mismos conflictos no debe repetir el aviso");
+        assertFalse(view.won);
+    }
+
+    /**
+     * @return {fila, columna, valor} de una celda editable vacía y el valor de una pista de su fila.
+     */
+    private static int[] findConflictingMove(int[][] grid) {
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                if (grid[row][col] != 0) {
+                    continue;
+                }
+                for (int other = 0; other < GRID_SIZE; other++) {
+                    if (grid[row][other] != 0) {
+                        return new int[]{row, col, grid[row][other]};
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Cálculo de referencia de las celdas inválidas: valores repetidos en su fila, columna o bloque.
+     */
+    private static Set<Pair<Integer, Integer>> invalidCells(int[][] grid) {
+        Set<Pair<Integer, Integer>> invalid = new HashSet<>();
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int col = 0; col < GRID_SIZE; col++) {
+                int value = grid[row][col];
+                if (value == 0) {
+                    continue;
+                }
+                for (int otherRow = 0; otherRow < GRID_SIZE; otherRow++) {
+                    for (int otherCol = 0; otherCol < GRID_SIZE; otherCol++) {
+                        boolean sameUnit = otherRow == row || otherCol == col
+                                || (otherRow / Board.BLOCK_ROWS == row / Board.BLOCK_ROWS
+                                && otherCol / Board.BLOCK_COLS == col / Board.BLOCK_COLS);
+                        if (sameUnit && (otherRow != row || otherCol != col) && grid[otherRow][otherCol] == value) {
+                            invalid.add(new Pair<>(row, col));
+                        }
+                    }
+                }
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * Vista que reporta los conflictos como GameView (con ConflictFeedback) y falla si el
+     * controlador abre un diálogo.
+     */
+    private static final class RecordingView implements IGameView {
+        private final int[][] values = new int[GRID_SIZE][GRID_SIZE];
+        private final boolean[][] editable = new boolean[GRID_SIZE][GRID_SIZE];
+        private final ConflictFeedback feedback = new ConflictFeedback();
+        private Set<Pair<Integer, Integer>> invalidCells = Set.of();
+        private boolean lastUpdateReported;
+        private int messagesReported;
+        private boolean won;
+
+        @Override
+        public void renderBoard(Cell[][] gridData) {
+            for (int row = 0; row < GRID_SIZE; row++) {
+                for (int col = 0; col < GRID_SIZE; col++) {
+                    this.values[row][col] = gridData[row][col].getValue();
+                    this.editable[row][col] = gridData[row][col].getEditable();
+                }
+            }
+        }
+
+        @Override
+        public void highlightErrors(Set<Pair<Integer, Integer>> errorCoords) {
+            this.invalidCells = errorCoords;
+            this.lastUpdateReported = this.feedback.update(errorCoords) == ConflictFeedback.Change.NEW_CONFLICTS;
+            if (this.lastUpdateReported) {
+                this.messagesReported++;
+            }
+        }
+
+        @Override
+        public void showSolvability(Solvability status) {
+            // El aviso de resolubilidad no es un diálogo
+        }
+
+        @Override
+        public void setGridDisabled(boolean disable) {
+        }
+
+        @Override
+        public void setBusy(boolean busy) {
+        }
+
+        @Override
+        public void showHelpDialog() {
+            fail("No se esperaba el diálogo de ayuda");
+        }
+
+        @Override
+        public void showNoMoreCluesDialog() {
+            fail("No se esperaba un diálogo de pistas");
+        }
+
+        @Override
+        public void showNoObviousCluesDialog() {
+            fail("No se esperaba un diálogo de pistas");
+        }
+
+        @Override
+        public void showMaxCluesReachedDialog() {
+            fail("No se esperaba un diálogo de pistas");
+        }
+
+        @Override
+        public void showWinDialog() {
+            this.won = true;
+        }
+
+        @Override
+        public boolean showRestartConfirmationDialog() {
+            return fail("No se esperaba una confirmación");
+        }
+
+        @Override
+        public boolean showClearConfirmationDialog() {
+            return fail("No se esperaba una confirmación");
+        }
+    }
+
+    /**
+     * Ejecutor que corre cada tarea en el hilo que la envía: la validación termina antes de que
+     * cellValueChanged vuelva.
+     */
+    private static final class DirectExecutorService extends AbstractExecutorService {
+        private volatile boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            this.shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            this.shutdown = true;
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return this.shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return this.shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return this.shutdown;
+        }
+    }
+}
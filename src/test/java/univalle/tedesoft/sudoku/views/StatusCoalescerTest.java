@@ -0,0 +1,68 @@
+package univalle.tedesoft.sudoku.views;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la agrupación de ráfagas en la etiqueta de estado, con un reloj simulado.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ */
+class StatusCoalescerTest {
+    private static final long MS = 1_000_000L;
+    private static final long DELAY = 300 * MS;
+
+    @Test
+    void showsImmediatelyWithoutPendingBurst() {
+        StatusCoalescer coalescer = new StatusCoalescer(DELAY);
+        assertTrue(coalescer.shouldShow(0));
+        assertEquals(0, coalescer.remainingNanos(0));
+    }
+
+    @Test
+    void burstIsShownOnceAfterItSettles() {
+        StatusCoalescer coalescer = new StatusCoalescer(DELAY);
+        // Tres conflictos nuevos seguidos: cada uno reinicia la espera
+        coalescer.newConflicts(0);
+        assertFalse(coalescer.shouldShow(100 * MS));
+        coalescer.newConflicts(100 * MS);
+        assertFalse(coalescer.shouldShow(250 * MS));
+        coalescer.newConflicts(250 * MS);
+        // La espera cuenta desde el último conflicto, no desde el primero
+        assertFalse(coalescer.shouldShow(400 * MS));
+        assertEquals(150 * MS, coalescer.remainingNanos(400 * MS));
+        assertFalse(coalescer.shouldShow(550 * MS - 1));
+        assertTrue(coalescer.shouldShow(550 * MS));
+        // Ya se mostró: las actualizaciones siguientes pasan sin esperar
+        assertTrue(coalescer.shouldShow(551 * MS));
+        assertEquals(0, coalescer.remainingNanos(551 * MS));
+    }
+
+    @Test
+    void lateTimerStillShowsTheBurst() {
+        StatusCoalescer coalescer = new StatusCoalescer(DELAY);
+        coalescer.newConflicts(10 * MS);
+        assertTrue(coalescer.shouldShow(2_000 * MS));
+    }
+
+    @Test
+    void cancelDropsThePendingBurst() {
+        StatusCoalescer coalescer = new StatusCoalescer(DELAY);
+        coalescer.newConflicts(0);
+        coalescer.cancel();
+        assertTrue(coalescer.shouldShow(1));
+        assertEquals(0, coalescer.remainingNanos(1));
+    }
+
+    @Test
+    void worksAcrossNanoTimeOverflow() {
+        StatusCoalescer coalescer = new StatusCoalescer(DELAY);
+        long start = Long.MAX_VALUE - 100 * MS;
+        coalescer.newConflicts(start);
+        assertFalse(coalescer.shouldShow(start + 200 * MS));
+        assertTrue(coalescer.shouldShow(start + 300 * MS));
+    }
+}